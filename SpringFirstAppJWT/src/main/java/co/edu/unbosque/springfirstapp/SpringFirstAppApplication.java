@@ -4,6 +4,7 @@ import org.modelmapper.ModelMapper;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Clase principal de la aplicación Spring Boot para Spring First App. Esta clase sirve como punto
@@ -13,6 +14,7 @@ import org.springframework.context.annotation.Bean;
  * @version 0.1
  */
 @SpringBootApplication
+@EnableScheduling
 public class SpringFirstAppApplication {
 
   /**
@@ -0,0 +1,102 @@
+package co.edu.unbosque.springfirstapp.configuration;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuración de la métrica {@code db.connection.hold}: instrumenta la fuente de datos de la
+ * aplicación y fija en cada solicitud el endpoint con el que se etiquetan sus conexiones.
+ *
+ * <p>El endpoint es el método HTTP y el patrón de la ruta ({@code DELETE /user/deletebyid/{id}}),
+ * no la URL, para que el número de series no crezca con los identificadores.
+ */
+@Configuration
+public class ConnectionHoldTimeConfig implements WebMvcConfigurer {
+
+  /** Nombre del bean de la fuente de datos que usan JPA y JDBC. */
+  private static final String DATA_SOURCE_BEAN = "dataSource";
+
+  /** Constructor por defecto. */
+  public ConnectionHoldTimeConfig() {}
+
+  /**
+   * Crea la métrica del tiempo de retención de conexiones.
+   *
+   * @return Métrica por endpoint
+   */
+  @Bean
+  public static ConnectionHoldTimeMetrics connectionHoldTimeMetrics() {
+    return new ConnectionHoldTimeMetrics();
+  }
+
+  /**
+   * Envuelve la fuente de datos de Spring Boot para medir sus conexiones. Si hay réplicas, el bean
+   * {@code dataSource} es el proxy perezoso de {@link DataSourceRoutingConfig}, que obtiene la
+   * conexión real solo en la primera sentencia; medirlo contaría también el tiempo previo, por lo
+   * que se omite y esa configuración envuelve directamente los pools de la principal y las
+   * réplicas.
+   *
+   * @param metrics Métrica del tiempo de retención de conexiones
+   * @return Post procesador que envuelve el bean {@code dataSource}
+   */
+  @Bean
+  public static BeanPostProcessor connectionHoldTimeDataSourcePostProcessor(
+      ObjectProvider<ConnectionHoldTimeMetrics> metrics) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (DATA_SOURCE_BEAN.equals(beanName)
+            && bean instanceof DataSource
+            && !(bean instanceof LazyConnectionDataSourceProxy)) {
+          return metrics.getObject().wrap((DataSource) bean);
+        }
+        return bean;
+      }
+    };
+  }
+
+  /**
+   * Registra el interceptor que fija el endpoint de cada solicitud.
+   *
+   * @param registry Registro de interceptores
+   */
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(new EndpointInterceptor());
+  }
+
+  /** Fija el endpoint del hilo mientras se atiende la solicitud y lo quita al terminar. */
+  static final class EndpointInterceptor implements AsyncHandlerInterceptor {
+
+    @Override
+    public boolean preHandle(
+        HttpServletRequest request, HttpServletResponse response, Object handler) {
+      Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+      ConnectionHoldTimeMetrics.setCurrentEndpoint(
+          pattern == null ? null : request.getMethod() + " " + pattern);
+      return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(
+        HttpServletRequest request, HttpServletResponse response, Object handler) {
+      ConnectionHoldTimeMetrics.setCurrentEndpoint(null);
+    }
+
+    @Override
+    public void afterCompletion(
+        HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+      ConnectionHoldTimeMetrics.setCurrentEndpoint(null);
+    }
+  }
+}
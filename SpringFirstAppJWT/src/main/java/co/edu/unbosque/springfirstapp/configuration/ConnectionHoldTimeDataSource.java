@@ -0,0 +1,111 @@
+package co.edu.unbosque.springfirstapp.configuration;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Fuente de datos que mide cuánto se retiene cada conexión, desde que se obtiene hasta que se
+ * cierra, y lo registra en {@link ConnectionHoldTimeMetrics} con el endpoint que la obtuvo.
+ *
+ * <p>Extiende {@link DelegatingDataSource} para que Spring Boot siga encontrando el pool envuelto
+ * (métricas de Hikari, salud de la base de datos).
+ */
+class ConnectionHoldTimeDataSource extends DelegatingDataSource {
+
+  /** Métrica en la que se registran los tiempos. */
+  private final ConnectionHoldTimeMetrics metrics;
+
+  /**
+   * Constructor que envuelve la fuente de datos.
+   *
+   * @param target Fuente de datos envuelta
+   * @param metrics Métrica en la que se registran los tiempos
+   */
+  ConnectionHoldTimeDataSource(DataSource target, ConnectionHoldTimeMetrics metrics) {
+    super(target);
+    this.metrics = metrics;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return measure(obtainTargetDataSource().getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return measure(obtainTargetDataSource().getConnection(username, password));
+  }
+
+  /**
+   * Envuelve una conexión para registrar su tiempo de retención al cerrarla.
+   *
+   * @param connection Conexión obtenida del pool
+   * @return Conexión instrumentada
+   */
+  private Connection measure(Connection connection) {
+    return (Connection)
+        Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            new HoldTimeHandler(
+                connection, ConnectionHoldTimeMetrics.currentEndpoint(), System.nanoTime()));
+  }
+
+  /** Reenvía las llamadas a la conexión y registra el tiempo de retención en el primer cierre. */
+  private final class HoldTimeHandler implements InvocationHandler {
+
+    /** Conexión envuelta. */
+    private final Connection target;
+
+    /** Endpoint que obtuvo la conexión. */
+    private final String endpoint;
+
+    /** Instante en que se obtuvo la conexión, en nanosegundos. */
+    private final long acquiredAt;
+
+    /** Indica si la conexión ya se cerró. */
+    private boolean closed;
+
+    /**
+     * Constructor del manejador.
+     *
+     * @param target Conexión envuelta
+     * @param endpoint Endpoint que obtuvo la conexión
+     * @param acquiredAt Instante en que se obtuvo la conexión, en nanosegundos
+     */
+    HoldTimeHandler(Connection target, String endpoint, long acquiredAt) {
+      this.target = target;
+      this.endpoint = endpoint;
+      this.acquiredAt = acquiredAt;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        case "close":
+          if (!closed) {
+            closed = true;
+            metrics.record(endpoint, System.nanoTime() - acquiredAt);
+          }
+          break;
+        default:
+          break;
+      }
+      try {
+        return method.invoke(target, args);
+      } catch (InvocationTargetException e) {
+        throw e.getTargetException();
+      }
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package co.edu.unbosque.springfirstapp.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+
+/**
+ * Métrica del tiempo que se retiene cada conexión a la base de datos, desde que se obtiene hasta
+ * que se devuelve al pool, por endpoint. Se publica en /actuator/metrics como {@code
+ * db.connection.hold} con la etiqueta {@code endpoint} (por ejemplo, {@code POST /user/create}).
+ *
+ * <p>El endpoint se toma del hilo que obtiene la conexión. Lo fija {@link ConnectionHoldTimeConfig}
+ * al atender cada solicitud y lo propaga {@link
+ * co.edu.unbosque.springfirstapp.security.PasswordHashingExecutor} a sus tareas; las conexiones
+ * fuera de un endpoint (tareas programadas, importaciones en segundo plano o los filtros de
+ * seguridad previos al controlador) se registran como {@value #NO_ENDPOINT}.
+ */
+public class ConnectionHoldTimeMetrics implements MeterBinder {
+
+  /** Nombre de la métrica. */
+  public static final String METRIC = "db.connection.hold";
+
+  /** Valor de la etiqueta para las conexiones obtenidas fuera de un endpoint. */
+  public static final String NO_ENDPOINT = "none";
+
+  /** Endpoint que atiende el hilo actual. */
+  private static final ThreadLocal<String> ENDPOINT = new ThreadLocal<>();
+
+  /** Registro de métricas; null hasta que Spring Boot lo configure. */
+  private volatile MeterRegistry registry;
+
+  /** Constructor por defecto. */
+  public ConnectionHoldTimeMetrics() {}
+
+  /**
+   * Obtiene el endpoint que atiende el hilo actual.
+   *
+   * @return Método y patrón de la ruta, o null fuera de un endpoint
+   */
+  public static String currentEndpoint() {
+    return ENDPOINT.get();
+  }
+
+  /**
+   * Fija el endpoint que atiende el hilo actual.
+   *
+   * @param endpoint Método y patrón de la ruta, o null para quitarlo
+   */
+  public static void setCurrentEndpoint(String endpoint) {
+    if (endpoint == null) {
+      ENDPOINT.remove();
+    } else {
+      ENDPOINT.set(endpoint);
+    }
+  }
+
+  /**
+   * Envuelve una fuente de datos para medir el tiempo que se retiene cada una de sus conexiones.
+   *
+   * @param dataSource Fuente de datos de la aplicación
+   * @return Fuente de datos instrumentada
+   */
+  public DataSource wrap(DataSource dataSource) {
+    return new ConnectionHoldTimeDataSource(dataSource, this);
+  }
+
+  /**
+   * Registra el tiempo que se retuvo una conexión. Antes de que exista el registro de métricas (al
+   * arrancar) no se registra nada.
+   *
+   * @param endpoint Endpoint que obtuvo la conexión, o null fuera de un endpoint
+   * @param nanos Nanosegundos que se retuvo
+   */
+  void record(String endpoint, long nanos) {
+    MeterRegistry current = registry;
+    if (current == null) {
+      return;
+    }
+    Timer.builder(METRIC)
+        .description("Tiempo que se retiene una conexión a la base de datos")
+        .tag("endpoint", endpoint == null ? NO_ENDPOINT : endpoint)
+        .register(current)
+        .record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Guarda el registro de métricas en el que se publican los tiempos.
+   *
+   * @param registry Registro de métricas
+   */
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    this.registry = registry;
+  }
+}
@@ -0,0 +1,116 @@
+package co.edu.unbosque.springfirstapp.configuration;
+
+import co.edu.unbosque.springfirstapp.configuration.ReadWriteRoutingDataSource.Selection;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Configuración de la separación de lecturas y escrituras. Solo se activa si se configuran réplicas
+ * en {@code datasource.replicas.urls}; si no, se usa la fuente de datos única de Spring Boot.
+ *
+ * <p>La base principal se configura como siempre con {@code spring.datasource.*} (y {@code
+ * spring.datasource.hikari.*}); las réplicas usan el mismo controlador y, si no se indican otras,
+ * las mismas credenciales. Los pools de las réplicas publican sus métricas como {@code
+ * hikari.connections.*} con el nombre {@code replica-N}. El tiempo de retención de conexiones
+ * ({@link ConnectionHoldTimeMetrics}) se mide sobre cada pool, no sobre el proxy perezoso.
+ */
+@Configuration
+@ConditionalOnExpression("!'${datasource.replicas.urls:}'.isBlank()")
+public class DataSourceRoutingConfig {
+
+  /** Constructor por defecto. */
+  public DataSourceRoutingConfig() {}
+
+  /**
+   * Crea el pool de la base principal.
+   *
+   * @param properties Propiedades {@code spring.datasource.*}
+   * @return Pool de la base principal
+   */
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    HikariDataSource dataSource =
+        properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    dataSource.setPoolName(ReadWriteRoutingDataSource.PRIMARY);
+    return dataSource;
+  }
+
+  /**
+   * Crea los pools de las réplicas y la fuente de datos que elige entre ellas y la principal.
+   *
+   * @param primaryDataSource Pool de la base principal
+   * @param properties Propiedades {@code spring.datasource.*}
+   * @param meterRegistry Registro de métricas, si existe
+   * @param holdTimeMetrics Métrica del tiempo de retención de conexiones
+   * @param urls URLs JDBC de las réplicas
+   * @param username Usuario de las réplicas; vacío para usar el de la base principal
+   * @param password Contraseña de las réplicas; vacía para usar la de la base principal
+   * @param maximumPoolSize Tamaño máximo del pool de cada réplica
+   * @param selection Criterio de elección de la réplica: {@code round-robin} o {@code
+   *     least-loaded}
+   * @param windowMs Milisegundos que las lecturas de un usuario van a la base principal tras su
+   *     escritura; 0 lo desactiva
+   * @param maxWriters Número máximo de usuarios recordados dentro de esa ventana
+   * @return Fuente de datos con enrutamiento
+   */
+  @Bean(destroyMethod = "close")
+  public ReadWriteRoutingDataSource routingDataSource(
+      HikariDataSource primaryDataSource,
+      DataSourceProperties properties,
+      ObjectProvider<MeterRegistry> meterRegistry,
+      ConnectionHoldTimeMetrics holdTimeMetrics,
+      @Value("${datasource.replicas.urls}") List<String> urls,
+      @Value("${datasource.replicas.username:}") String username,
+      @Value("${datasource.replicas.password:}") String password,
+      @Value("${datasource.replicas.maximum-pool-size:10}") int maximumPoolSize,
+      @Value("${datasource.replicas.selection:round-robin}") String selection,
+      @Value("${datasource.read-your-writes.window-ms:2000}") long windowMs,
+      @Value("${datasource.read-your-writes.max-users:100000}") long maxWriters) {
+    List<DataSource> replicas = new ArrayList<>();
+    for (String url : urls) {
+      HikariDataSource replica = new HikariDataSource();
+      replica.setPoolName("replica-" + replicas.size());
+      replica.setJdbcUrl(url.trim());
+      replica.setDriverClassName(properties.determineDriverClassName());
+      replica.setUsername(username.isEmpty() ? properties.determineUsername() : username);
+      replica.setPassword(password.isEmpty() ? properties.determinePassword() : password);
+      replica.setMaximumPoolSize(maximumPoolSize);
+      replica.setReadOnly(true);
+      meterRegistry.ifAvailable(replica::setMetricRegistry);
+      replicas.add(holdTimeMetrics.wrap(replica));
+    }
+    return new ReadWriteRoutingDataSource(
+        holdTimeMetrics.wrap(primaryDataSource),
+        replicas,
+        Selection.parse(selection),
+        Duration.ofMillis(windowMs),
+        maxWriters);
+  }
+
+  /**
+   * Fuente de datos de la aplicación. Retrasa la obtención de la conexión hasta la primera
+   * sentencia, cuando la transacción ya indicó si es de solo lectura.
+   *
+   * @param routingDataSource Fuente de datos con enrutamiento
+   * @return Fuente de datos que usan JPA y JDBC
+   */
+  @Bean
+  @Primary
+  public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+    return new LazyConnectionDataSourceProxy(routingDataSource);
+  }
+}
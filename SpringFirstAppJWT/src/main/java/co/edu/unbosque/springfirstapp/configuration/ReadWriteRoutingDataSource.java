@@ -0,0 +1,395 @@
+package co.edu.unbosque.springfirstapp.configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.io.Closeable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Fuente de datos que envía las transacciones de solo lectura a las réplicas y todo lo demás
+ * (escrituras y accesos sin transacción) a la base principal.
+ *
+ * <p>La réplica se elige por turnos o por la que tenga menos conexiones en uso. Tras confirmar una
+ * transacción que ejecutó sentencias de modificación (no basta con que sea de escritura), las
+ * lecturas del mismo usuario autenticado se envían a la base principal durante una ventana de
+ * tiempo, para que vea sus propios cambios aunque las réplicas aún no los tengan.
+ *
+ * <p>Las lecturas que no toleran el retraso de una réplica (las que alimentan una cache o una
+ * decisión de seguridad) siguen siendo de solo lectura, pero se ejecutan dentro de {@link
+ * #readFromPrimary(Supplier)} para que vayan a la base principal.
+ *
+ * <p>Debe usarse detrás de un {@link
+ * org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: la conexión se obtiene en la
+ * primera sentencia, cuando ya se sabe si la transacción es de solo lectura.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+  /** Clave de la base principal. */
+  static final String PRIMARY = "primary";
+
+  /** Indica si las lecturas del hilo actual deben ir a la base principal. */
+  private static final ThreadLocal<Boolean> PRIMARY_READS = new ThreadLocal<>();
+
+  /** Criterio de elección de la réplica. */
+  public enum Selection {
+    /** Por turnos. */
+    ROUND_ROBIN,
+    /** La réplica con menos conexiones en uso o en espera; los empates se resuelven por turnos. */
+    LEAST_LOADED;
+
+    /**
+     * Obtiene el criterio a partir del valor de configuración ({@code round-robin} o {@code
+     * least-loaded}).
+     *
+     * @param value Valor de configuración
+     * @return Criterio correspondiente
+     */
+    public static Selection parse(String value) {
+      return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+  }
+
+  /** Réplicas en orden de configuración. */
+  private final List<DataSource> replicas;
+
+  /** Claves de las réplicas, en el mismo orden. */
+  private final List<String> replicaKeys = new ArrayList<>();
+
+  /** Criterio de elección de la réplica. */
+  private final Selection selection;
+
+  /** Turno de la siguiente réplica. */
+  private final AtomicInteger next = new AtomicInteger();
+
+  /** Usuarios que confirmaron una escritura dentro de la ventana; null si está desactivada. */
+  private final Cache<String, Boolean> recentWriters;
+
+  /**
+   * Constructor que registra la base principal y las réplicas.
+   *
+   * @param primary Base principal
+   * @param replicas Réplicas de lectura
+   * @param selection Criterio de elección de la réplica
+   * @param readYourWritesWindow Tiempo que las lecturas de un usuario van a la base principal tras
+   *     su escritura; cero lo desactiva
+   * @param maxWriters Número máximo de usuarios recordados dentro de la ventana
+   */
+  public ReadWriteRoutingDataSource(
+      DataSource primary,
+      List<? extends DataSource> replicas,
+      Selection selection,
+      Duration readYourWritesWindow,
+      long maxWriters) {
+    this.replicas = List.copyOf(replicas);
+    this.selection = selection;
+    this.recentWriters =
+        readYourWritesWindow.isZero()
+            ? null
+            : Caffeine.newBuilder()
+                .maximumSize(maxWriters)
+                .expireAfterWrite(readYourWritesWindow)
+                .build();
+    Map<Object, Object> targets = new HashMap<>();
+    targets.put(PRIMARY, primary);
+    for (int i = 0; i < this.replicas.size(); i++) {
+      String key = "replica-" + i;
+      replicaKeys.add(key);
+      targets.put(key, this.replicas.get(i));
+    }
+    setTargetDataSources(targets);
+    setDefaultTargetDataSource(primary);
+    setLenientFallback(false);
+  }
+
+  /**
+   * Ejecuta una lectura en la base principal aunque sus transacciones sean de solo lectura. Solo
+   * afecta a las conexiones obtenidas durante la lectura: una transacción ya iniciada en una
+   * réplica la conserva.
+   *
+   * @param <T> Tipo del resultado
+   * @param read Lectura a ejecutar
+   * @return Resultado de la lectura
+   */
+  public static <T> T readFromPrimary(Supplier<T> read) {
+    Boolean previous = PRIMARY_READS.get();
+    PRIMARY_READS.set(Boolean.TRUE);
+    try {
+      return read.get();
+    } finally {
+      if (previous == null) {
+        PRIMARY_READS.remove();
+      }
+    }
+  }
+
+  /**
+   * Elige la base para la conexión que se está obteniendo.
+   *
+   * @return Clave de la base principal o de una réplica
+   */
+  @Override
+  protected Object determineCurrentLookupKey() {
+    if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+        || PRIMARY_READS.get() != null
+        || replicaKeys.isEmpty()
+        || isWithinReadYourWritesWindow()) {
+      return PRIMARY;
+    }
+    return replicaKeys.get(selectReplica());
+  }
+
+  /**
+   * Obtiene una conexión de la base elegida. Las conexiones de escritura se envuelven para abrir la
+   * ventana de lectura de las propias escrituras del usuario solo si ejecutan una sentencia de
+   * modificación.
+   *
+   * @return Conexión a la base elegida
+   * @throws SQLException Si no se puede obtener la conexión
+   */
+  @Override
+  public Connection getConnection() throws SQLException {
+    return trackWrites(super.getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return trackWrites(super.getConnection(username, password));
+  }
+
+  /**
+   * Envuelve una conexión de escritura para detectar sus sentencias de modificación.
+   *
+   * @param connection Conexión obtenida
+   * @return Conexión envuelta, o la misma si la ventana está desactivada o es de solo lectura
+   */
+  private Connection trackWrites(Connection connection) {
+    if (recentWriters == null || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+      return connection;
+    }
+    return (Connection)
+        Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            new WriteTrackingHandler(connection, new AtomicBoolean()));
+  }
+
+  /**
+   * Indica si una sentencia SQL modifica datos: todo lo que no sea una consulta ({@code select} o
+   * {@code with}), ignorando los comentarios iniciales.
+   *
+   * @param sql Sentencia SQL
+   * @return true si la sentencia puede modificar datos
+   */
+  static boolean isWrite(String sql) {
+    String statement = sql.stripLeading();
+    while (statement.startsWith("/*") && statement.indexOf("*/") > 0) {
+      statement = statement.substring(statement.indexOf("*/") + 2).stripLeading();
+    }
+    return !statement.regionMatches(true, 0, "select", 0, 6)
+        && !statement.regionMatches(true, 0, "with", 0, 4)
+        && !statement.startsWith("(");
+  }
+
+  /**
+   * Elige la réplica según el criterio configurado.
+   *
+   * @return Índice de la réplica
+   */
+  private int selectReplica() {
+    int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+    if (selection == Selection.ROUND_ROBIN) {
+      return start;
+    }
+    int best = start;
+    int bestLoad = Integer.MAX_VALUE;
+    for (int i = 0; i < replicas.size(); i++) {
+      int candidate = (start + i) % replicas.size();
+      int load = load(replicas.get(candidate));
+      if (load < bestLoad) {
+        best = candidate;
+        bestLoad = load;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Obtiene la carga de una réplica: conexiones en uso más hilos esperando una. Las fuentes que no
+   * son ni envuelven un pool de Hikari, o cuyo pool aún no arrancó, cuentan como libres.
+   *
+   * @param replica Réplica
+   * @return Carga de la réplica
+   */
+  private static int load(DataSource replica) {
+    HikariDataSource hikari = hikari(replica);
+    HikariPoolMXBean pool = hikari == null ? null : hikari.getHikariPoolMXBean();
+    if (pool != null) {
+      return pool.getActiveConnections() + pool.getThreadsAwaitingConnection();
+    }
+    return 0;
+  }
+
+  /**
+   * Obtiene el pool de Hikari de una fuente de datos, aunque esté envuelta (por ejemplo, por la
+   * medición del tiempo de retención).
+   *
+   * @param dataSource Fuente de datos
+   * @return Pool de Hikari, o null si la fuente no lo es ni lo envuelve
+   */
+  private static HikariDataSource hikari(DataSource dataSource) {
+    try {
+      return dataSource.isWrapperFor(HikariDataSource.class)
+          ? dataSource.unwrap(HikariDataSource.class)
+          : null;
+    } catch (SQLException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Indica si el usuario actual confirmó una escritura dentro de la ventana.
+   *
+   * @return true si sus lecturas deben ir a la base principal
+   */
+  private boolean isWithinReadYourWritesWindow() {
+    String user = currentUser();
+    return recentWriters != null && user != null && recentWriters.getIfPresent(user) != null;
+  }
+
+  /**
+   * Registra al usuario actual como escritor reciente cuando se confirme la transacción, o de
+   * inmediato si la sentencia se ejecuta sin transacción.
+   */
+  private void recordWrite() {
+    String user = currentUser();
+    if (user == null) {
+      return;
+    }
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      recentWriters.put(user, Boolean.TRUE);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            recentWriters.put(user, Boolean.TRUE);
+          }
+        });
+  }
+
+  /**
+   * Obtiene el nombre del usuario autenticado en el hilo actual.
+   *
+   * @return Nombre del usuario, o null si no hay uno autenticado
+   */
+  private static String currentUser() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication == null
+        || !authentication.isAuthenticated()
+        || authentication instanceof AnonymousAuthenticationToken) {
+      return null;
+    }
+    return authentication.getName();
+  }
+
+  /**
+   * Reenvía las llamadas a una conexión o a sus sentencias y registra la escritura la primera vez
+   * que se prepara o ejecuta una sentencia de modificación.
+   */
+  private final class WriteTrackingHandler implements InvocationHandler {
+
+    /** Conexión o sentencia envuelta. */
+    private final Object target;
+
+    /** Indica si ya se registró una escritura en la conexión; compartido con sus sentencias. */
+    private final AtomicBoolean recorded;
+
+    /**
+     * Constructor del manejador.
+     *
+     * @param target Conexión o sentencia envuelta
+     * @param recorded Indicador de escritura registrada de la conexión
+     */
+    WriteTrackingHandler(Object target, AtomicBoolean recorded) {
+      this.target = target;
+      this.recorded = recorded;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        case "prepareStatement":
+        case "prepareCall":
+        case "execute":
+        case "executeUpdate":
+        case "executeLargeUpdate":
+        case "addBatch":
+          if (args != null
+              && args.length > 0
+              && args[0] instanceof String
+              && !recorded.get()
+              && isWrite((String) args[0])
+              && recorded.compareAndSet(false, true)) {
+            recordWrite();
+          }
+          break;
+        default:
+          break;
+      }
+      Object result;
+      try {
+        result = method.invoke(target, args);
+      } catch (InvocationTargetException e) {
+        throw e.getTargetException();
+      }
+      if (result instanceof Statement && "createStatement".equals(method.getName())) {
+        // Las sentencias sin preparar reciben el SQL al ejecutarse
+        return Proxy.newProxyInstance(
+            Statement.class.getClassLoader(),
+            new Class<?>[] {Statement.class},
+            new WriteTrackingHandler(result, recorded));
+      }
+      return result;
+    }
+  }
+
+  /** Cierra los pools de las réplicas. */
+  @Override
+  public void close() {
+    for (DataSource replica : replicas) {
+      HikariDataSource hikari = hikari(replica);
+      if (hikari != null) {
+        hikari.close();
+      }
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package co.edu.unbosque.springfirstapp.configuration;
+
+import co.edu.unbosque.springfirstapp.model.User;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de la cache de segundo nivel de Hibernate (JCache con Caffeine, en el mismo
+ * proceso). Las regiones de {@link User} se crean aquí, acotadas y con tiempo de vida, y se
+ * entregan a Hibernate a través de un {@link CacheManager} propio del contexto.
+ *
+ * <p>Las estadísticas de las regiones (aciertos, fallos y escrituras) se publican en
+ * /actuator/metrics como {@code hibernate.second.level.cache.*} y {@code
+ * hibernate.cache.natural.id.*}.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+  /** Número máximo de entradas por región. */
+  @Value("${cache.hibernate.users.max-size:100000}")
+  private long maxSize;
+
+  /** Segundos que se conserva cada entrada desde que se guardó. */
+  @Value("${cache.hibernate.users.ttl-seconds:300}")
+  private long ttlSeconds;
+
+  /** Constructor por defecto. */
+  public SecondLevelCacheConfig() {}
+
+  /**
+   * Crea el administrador de caches con las regiones de usuarios. Cada contexto usa el suyo, de
+   * modo que dos aplicaciones en el mismo proceso (por ejemplo, en las pruebas) no comparten datos.
+   *
+   * @return Administrador de caches de Hibernate
+   */
+  @Bean(destroyMethod = "close")
+  public CacheManager hibernateCacheManager() {
+    CacheManager cacheManager =
+        Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+            .getCacheManager(
+                URI.create("hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+    cacheManager.createCache(User.CACHE_REGION, regionConfiguration());
+    cacheManager.createCache(User.NATURAL_ID_CACHE_REGION, regionConfiguration());
+    return cacheManager;
+  }
+
+  /**
+   * Entrega a Hibernate el administrador de caches con las regiones ya creadas.
+   *
+   * @param hibernateCacheManager Administrador de caches de Hibernate
+   * @return Personalización de las propiedades de Hibernate
+   */
+  @Bean
+  public HibernatePropertiesCustomizer secondLevelCacheCustomizer(
+      CacheManager hibernateCacheManager) {
+    return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+  }
+
+  /**
+   * Configuración común de las regiones.
+   *
+   * @return Región acotada por tamaño y con tiempo de vida
+   */
+  private CaffeineConfiguration<Object, Object> regionConfiguration() {
+    CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+    configuration.setMaximumSize(OptionalLong.of(maxSize));
+    configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+    return configuration;
+  }
+}
@@ -0,0 +1,94 @@
+package co.edu.unbosque.springfirstapp.controller;
+
+import co.edu.unbosque.springfirstapp.exception.HashingCapacityExceededException;
+import co.edu.unbosque.springfirstapp.exception.ImportCapacityExceededException;
+import co.edu.unbosque.springfirstapp.exception.InvalidPageRequestException;
+import co.edu.unbosque.springfirstapp.exception.InvalidRefreshTokenException;
+import co.edu.unbosque.springfirstapp.exception.LoginRateLimitedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Manejador global de excepciones para los controladores REST. Traduce las excepciones de
+ * capacidad y de autenticación en respuestas HTTP con el estado adecuado.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+  /** Segundos sugeridos al cliente antes de reintentar cuando el servidor está saturado. */
+  private static final String RETRY_AFTER_SECONDS = "1";
+
+  /** Constructor por defecto. */
+  public ApiExceptionHandler() {}
+
+  /**
+   * Responde con 429 (demasiadas solicitudes) cuando el ejecutor de hashing está saturado.
+   *
+   * @param e Excepción lanzada por el ejecutor
+   * @return ResponseEntity con el encabezado Retry-After y el mensaje de error
+   */
+  @ExceptionHandler(HashingCapacityExceededException.class)
+  public ResponseEntity<String> handleHashingCapacityExceeded(HashingCapacityExceededException e) {
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+        .body(e.getMessage());
+  }
+
+  /**
+   * Responde con 429 (demasiadas solicitudes) cuando la cola de importaciones de usuarios está
+   * llena.
+   *
+   * @param e Excepción lanzada por el servicio de importación
+   * @return ResponseEntity con el encabezado Retry-After y el mensaje de error
+   */
+  @ExceptionHandler(ImportCapacityExceededException.class)
+  public ResponseEntity<String> handleImportCapacityExceeded(ImportCapacityExceededException e) {
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+        .body(e.getMessage());
+  }
+
+  /**
+   * Responde con 429 (demasiadas solicitudes) cuando se supera el límite de intentos de inicio de
+   * sesión.
+   *
+   * @param e Excepción lanzada por el limitador
+   * @return ResponseEntity con el encabezado Retry-After y el mensaje de error
+   */
+  @ExceptionHandler(LoginRateLimitedException.class)
+  public ResponseEntity<String> handleLoginRateLimited(LoginRateLimitedException e) {
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+        .body(e.getMessage());
+  }
+
+  /**
+   * Responde con 401 (no autorizado) cuando el token de actualización no es válido; el cliente debe
+   * iniciar sesión de nuevo.
+   *
+   * @param e Excepción lanzada por el servicio de tokens de actualización
+   * @return ResponseEntity con el mensaje de error
+   */
+  @ExceptionHandler(InvalidRefreshTokenException.class)
+  public ResponseEntity<String> handleInvalidRefreshToken(InvalidRefreshTokenException e) {
+    return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(e.getMessage());
+  }
+
+  /**
+   * Responde con 400 (solicitud incorrecta) cuando el cursor o el orden de un listado paginado no
+   * son válidos.
+   *
+   * @param e Excepción lanzada al preparar la consulta
+   * @return ResponseEntity con el mensaje de error
+   */
+  @ExceptionHandler(InvalidPageRequestException.class)
+  public ResponseEntity<String> handleInvalidPageRequest(InvalidPageRequestException e) {
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+  }
+}
@@ -1,9 +1,17 @@
 package co.edu.unbosque.springfirstapp.controller;
 
+import co.edu.unbosque.springfirstapp.dto.RefreshTokenDTO;
 import co.edu.unbosque.springfirstapp.dto.UserDTO;
 import co.edu.unbosque.springfirstapp.model.User;
 import co.edu.unbosque.springfirstapp.security.JwtUtil;
+import co.edu.unbosque.springfirstapp.security.LoginRateLimiter;
+import co.edu.unbosque.springfirstapp.security.PasswordHashingExecutor;
+import co.edu.unbosque.springfirstapp.security.TokenRevocationService;
+import co.edu.unbosque.springfirstapp.service.RefreshTokenService;
+import co.edu.unbosque.springfirstapp.service.RefreshTokenService.Rotation;
 import co.edu.unbosque.springfirstapp.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,6 +20,8 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -21,12 +31,18 @@ import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
- * Controlador REST para la autenticación de usuarios. Maneja las operaciones de inicio de sesión y
- * registro de usuarios.
+ * Controlador REST para la autenticación de usuarios. Maneja las operaciones de inicio de sesión,
+ * renovación de tokens, cierre de sesión y registro de usuarios.
+ *
+ * <p>Ambas operaciones calculan o verifican contraseñas con BCrypt, por lo que se ejecutan en
+ * {@link PasswordHashingExecutor} y responden de forma asíncrona, liberando el hilo del servidor.
+ * Los intentos de inicio de sesión se limitan con {@link LoginRateLimiter} antes de llegar a él.
+ * La renovación con el token de actualización no verifica la contraseña y se atiende directamente.
  */
 @RestController
 @RequestMapping("/auth")
@@ -42,28 +58,55 @@ public class AuthController {
   /** Servicio para operaciones relacionadas con usuarios. */
   private final UserService userService;
 
+  /** Ejecutor acotado para el trabajo con contraseñas. */
+  private final PasswordHashingExecutor hashingExecutor;
+
+  /** Limitador de intentos de inicio de sesión por usuario y por IP. */
+  private final LoginRateLimiter loginRateLimiter;
+
+  /** Lista de tokens revocados por cierre de sesión. */
+  private final TokenRevocationService tokenRevocationService;
+
+  /** Servicio de tokens de actualización. */
+  private final RefreshTokenService refreshTokenService;
+
   /**
    * Constructor que inicializa las dependencias necesarias para el controlador.
    *
    * @param authenticationManager Gestor de autenticación
    * @param jwtUtil Utilidad para tokens JWT
    * @param userService Servicio de usuarios
+   * @param hashingExecutor Ejecutor acotado para el trabajo con contraseñas
+   * @param loginRateLimiter Limitador de intentos de inicio de sesión
+   * @param tokenRevocationService Lista de tokens revocados
+   * @param refreshTokenService Servicio de tokens de actualización
    */
   public AuthController(
-      AuthenticationManager authenticationManager, JwtUtil jwtUtil, UserService userService) {
+      AuthenticationManager authenticationManager,
+      JwtUtil jwtUtil,
+      UserService userService,
+      PasswordHashingExecutor hashingExecutor,
+      LoginRateLimiter loginRateLimiter,
+      TokenRevocationService tokenRevocationService,
+      RefreshTokenService refreshTokenService) {
     this.authenticationManager = authenticationManager;
     this.jwtUtil = jwtUtil;
     this.userService = userService;
+    this.hashingExecutor = hashingExecutor;
+    this.loginRateLimiter = loginRateLimiter;
+    this.tokenRevocationService = tokenRevocationService;
+    this.refreshTokenService = refreshTokenService;
   }
 
   /**
-   * Maneja las solicitudes de inicio de sesión. Autentica al usuario y genera un token JWT si las
-   * credenciales son válidas.
+   * Maneja las solicitudes de inicio de sesión. Autentica al usuario y genera un token JWT de corta
+   * duración y un token de actualización si las credenciales son válidas.
    *
    * @param loginRequest DTO con las credenciales de inicio de sesión (nombre de usuario y
    *     contraseña)
-   * @return ResponseEntity con el token JWT y el rol del usuario si la autenticación es exitosa, o
-   *     un mensaje de error si falla
+   * @param request Solicitud HTTP, de la que se toma la dirección IP del cliente
+   * @return Futuro con el ResponseEntity que contiene el token JWT y el rol del usuario si la
+   *     autenticación es exitosa, o un mensaje de error si falla
    */
   @Operation(
       summary = "Iniciar sesión de usuario",
@@ -72,7 +115,8 @@ public class AuthController {
             Este endpoint permite a los usuarios iniciar sesión en el sistema proporcionando sus credenciales.
 
             **¿Qué hace?** Verifica las credenciales del usuario y, si son correctas, genera un token JWT
-            que se utilizará para autenticar solicitudes posteriores.
+            que se utilizará para autenticar solicitudes posteriores, junto con un token de
+            actualización para renovarlo.
 
             **Paso a paso:**
 
@@ -81,7 +125,8 @@ public class AuthController {
             3. Guarda este token para usarlo en futuras peticiones
             4. Para usar el token, inclúyelo en el encabezado de autorización: `Authorization: Bearer tu_token_jwt`
 
-            **Nota:** El token tiene un tiempo de expiración limitado. Si expira, necesitarás iniciar sesión nuevamente.
+            **Nota:** El token tiene un tiempo de expiración corto (`expiresIn`, en segundos). Cuando expire,
+            obtén uno nuevo en `/auth/refresh` con el `refreshToken`, sin volver a enviar la contraseña.
         """)
   @ApiResponses(
       value = {
@@ -98,7 +143,9 @@ public class AuthController {
                                 """
                         {
                           "token": "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...",
-                          "role": "ADMIN"
+                          "role": "ADMIN",
+                          "refreshToken": "q8Zl0v3...",
+                          "expiresIn": 900
                         }
                     """))),
         @ApiResponse(
@@ -111,10 +158,15 @@ public class AuthController {
                         @ExampleObject(
                             value =
                                 "Nombre de usuario o contraseña inválidos o usuario no"
-                                    + " encontrado")))
+                                    + " encontrado"))),
+        @ApiResponse(
+            responseCode = "429",
+            description =
+                "Demasiados intentos para el usuario o la IP, o servidor saturado; reintentar tras"
+                    + " el tiempo indicado en Retry-After")
       })
   @PostMapping("/login")
-  public ResponseEntity<?> login(
+  public CompletableFuture<ResponseEntity<?>> login(
       @Parameter(
               description = "Credenciales de usuario para iniciar sesión",
               required = true,
@@ -129,7 +181,20 @@ public class AuthController {
                     }
                 """))
           @RequestBody
-          UserDTO loginRequest) {
+          UserDTO loginRequest,
+      HttpServletRequest request) {
+    loginRateLimiter.acquire(loginRequest.getUsername(), request.getRemoteAddr());
+    return hashingExecutor.submit(() -> authenticate(loginRequest));
+  }
+
+  /**
+   * Autentica al usuario y genera el token JWT. Se ejecuta en el ejecutor de hashing porque la
+   * verificación de la contraseña es la parte costosa del inicio de sesión.
+   *
+   * @param loginRequest DTO con las credenciales de inicio de sesión
+   * @return ResponseEntity con el token JWT y el rol, o un mensaje de error si falla
+   */
+  private ResponseEntity<?> authenticate(UserDTO loginRequest) {
     try {
       Authentication authentication =
           authenticationManager.authenticate(
@@ -141,12 +206,15 @@ public class AuthController {
 
       // Obtener el rol de userDetails si es nuestra clase User
       String role = null;
+      String refreshToken = null;
       if (userDetails instanceof User) {
         User user = (User) userDetails;
         role = user.getRole().name();
+        refreshToken = refreshTokenService.issue(user);
       }
 
-      return ResponseEntity.ok(new AuthResponse(jwt, role));
+      return ResponseEntity.ok(
+          new AuthResponse(jwt, role, refreshToken, jwtUtil.getAccessTokenValiditySeconds()));
     } catch (AuthenticationException e) {
       e.printStackTrace();
       return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
@@ -155,12 +223,134 @@ public class AuthController {
   }
 
   /**
-   * Maneja las solicitudes de registro de nuevos usuarios. Verifica si el nombre de usuario ya
-   * existe y crea un nuevo usuario si está disponible.
+   * Renueva el token de acceso a partir de un token de actualización. No verifica la contraseña: el
+   * token usado se reemplaza por uno nuevo, y si un token ya usado se presenta de nuevo se revocan
+   * todos los de su familia.
+   *
+   * @param refreshRequest DTO con el token de actualización
+   * @return ResponseEntity con el token JWT nuevo, el rol y el token de actualización nuevo
+   */
+  @Operation(
+      summary = "Renovar el token de acceso",
+      description =
+          """
+            Este endpoint entrega un token JWT nuevo sin volver a enviar la contraseña.
+
+            **¿Qué hace?** Valida el token de actualización recibido al iniciar sesión (o en la última
+            renovación), lo invalida y entrega un token JWT nuevo junto con un token de actualización
+            nuevo.
+
+            **Paso a paso:**
+
+            1. Envía el `refreshToken` en formato JSON
+            2. Guarda el `token` y el `refreshToken` nuevos; el anterior ya no sirve
+
+            **Nota:** Si un token de actualización se usa dos veces, se asume que fue copiado y se
+            invalidan todos los de esa sesión; será necesario iniciar sesión de nuevo.
+        """)
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Token renovado",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = AuthResponse.class))),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Token de actualización inválido, expirado, revocado o reutilizado")
+      })
+  @PostMapping("/refresh")
+  public ResponseEntity<?> refresh(
+      @Parameter(
+              description = "Token de actualización",
+              required = true,
+              schema = @Schema(implementation = RefreshTokenDTO.class),
+              examples = @ExampleObject(value = "{\"refreshToken\": \"q8Zl0v3...\"}"))
+          @RequestBody
+          RefreshTokenDTO refreshRequest) {
+    Rotation rotation = refreshTokenService.rotate(refreshRequest.getRefreshToken());
+    User user = rotation.getUser();
+    return ResponseEntity.ok(
+        new AuthResponse(
+            jwtUtil.generateToken(user),
+            user.getRole().name(),
+            rotation.getRefreshToken(),
+            jwtUtil.getAccessTokenValiditySeconds()));
+  }
+
+  /**
+   * Cierra la sesión revocando el token enviado en el encabezado de autorización. El token deja de
+   * aceptarse de inmediato aunque no haya expirado. Si se envía el token de actualización, también
+   * se revoca junto con los de su familia.
+   *
+   * @param authorization Encabezado de autorización con el token JWT
+   * @param refreshRequest DTO opcional con el token de actualización de la sesión
+   * @return ResponseEntity con un mensaje de éxito, o un mensaje de error si el token es inválido
+   */
+  @Operation(
+      summary = "Cerrar sesión",
+      description =
+          """
+            Este endpoint revoca el token JWT con el que se realiza la solicitud.
+
+            **¿Qué hace?** Registra el token como revocado hasta su expiración, de modo que deja de
+            aceptarse en cualquier endpoint protegido. Si en el cuerpo se envía el `refreshToken`,
+            este también se revoca.
+
+            **Paso a paso:**
+
+            1. Envía la solicitud con el encabezado `Authorization: Bearer tu_token_jwt`
+            2. El token queda revocado; para volver a usar la API debes iniciar sesión de nuevo
+        """)
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Sesión cerrada",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    examples = @ExampleObject(value = "Sesión cerrada exitosamente"))),
+        @ApiResponse(
+            responseCode = "400",
+            description = "El token no tiene identificador y no se puede revocar"),
+        @ApiResponse(responseCode = "401", description = "Token ausente, inválido o expirado")
+      })
+  @PostMapping("/logout")
+  public ResponseEntity<String> logout(
+      @Parameter(description = "Encabezado con el token a revocar", example = "Bearer eyJhbGci...")
+          @RequestHeader(value = "Authorization", required = false)
+          String authorization,
+      @RequestBody(required = false) RefreshTokenDTO refreshRequest) {
+    if (authorization == null || !authorization.startsWith("Bearer ")) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Token ausente");
+    }
+    Claims claims;
+    try {
+      claims = jwtUtil.parseAndVerify(authorization.substring(7));
+    } catch (JwtException e) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Token inválido o expirado");
+    }
+    if (claims.getId() == null) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+          .body("El token no se puede revocar, espere a que expire");
+    }
+    tokenRevocationService.revoke(claims.getId(), claims.getExpiration().toInstant());
+    if (refreshRequest != null && refreshRequest.getRefreshToken() != null) {
+      refreshTokenService.revokeFamily(refreshRequest.getRefreshToken());
+    }
+    return ResponseEntity.ok("Sesión cerrada exitosamente");
+  }
+
+  /**
+   * Maneja las solicitudes de registro de nuevos usuarios. Crea el usuario directamente; si el
+   * nombre de usuario ya existe, la restricción de unicidad lo rechaza y se responde 409.
    *
    * @param registerRequest DTO con la información del nuevo usuario
-   * @return ResponseEntity con un mensaje de éxito si el registro es exitoso, o un mensaje de error
-   *     si falla
+   * @return Futuro con el ResponseEntity que contiene un mensaje de éxito si el registro es
+   *     exitoso, o un mensaje de error si falla
    */
   @Operation(
       summary = "Registrar un nuevo usuario",
@@ -204,10 +394,13 @@ public class AuthController {
             content =
                 @Content(
                     mediaType = "application/json",
-                    examples = @ExampleObject(value = "Error registering user")))
+                    examples = @ExampleObject(value = "Error registering user"))),
+        @ApiResponse(
+            responseCode = "429",
+            description = "Servidor saturado, reintentar tras el tiempo indicado en Retry-After")
       })
   @PostMapping("/register")
-  public ResponseEntity<?> register(
+  public CompletableFuture<ResponseEntity<?>> register(
       @Parameter(
               description = "Información del nuevo usuario",
               required = true,
@@ -223,18 +416,19 @@ public class AuthController {
                 """))
           @RequestBody
           UserDTO registerRequest) {
-    // Verificar si el nombre de usuario ya existe
-    if (userService.findUsernameAlreadyTaken(registerRequest.getUsername())) {
-      return ResponseEntity.status(HttpStatus.CONFLICT).body("El nombre de usuario ya existe");
-    }
-
-    // Crear nuevo usuario
-    int result = userService.create(registerRequest);
-    if (result == 0) {
-      return ResponseEntity.status(HttpStatus.CREATED).body("Usuario registrado exitosamente");
-    } else {
-      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error al registrar el usuario");
-    }
+    // Crear nuevo usuario (la contraseña se cifra en el ejecutor de hashing); la restricción de
+    // unicidad rechaza los nombres existentes sin una consulta previa
+    return hashingExecutor.submit(
+        () -> {
+          int result = userService.create(registerRequest);
+          if (result == 0) {
+            return ResponseEntity.status(HttpStatus.CREATED)
+                .body("Usuario registrado exitosamente");
+          } else {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("El nombre de usuario ya existe");
+          }
+        });
   }
 
   /**
@@ -248,6 +442,12 @@ public class AuthController {
     /** Rol del usuario autenticado. */
     private final String role;
 
+    /** Token de actualización para obtener un token JWT nuevo sin la contraseña. */
+    private final String refreshToken;
+
+    /** Segundos de validez del token JWT. */
+    private final Long expiresIn;
+
     /**
      * Constructor con solo token.
      *
@@ -257,6 +457,8 @@ public class AuthController {
       this.token = token;
       // Extraer rol del token
       this.role = null; // Se establecerá en el constructor con el parámetro de rol
+      this.refreshToken = null;
+      this.expiresIn = null;
     }
 
     /**
@@ -266,8 +468,22 @@ public class AuthController {
      * @param role Rol del usuario
      */
     public AuthResponse(String token, String role) {
+      this(token, role, null, null);
+    }
+
+    /**
+     * Constructor con token, rol, token de actualización y validez.
+     *
+     * @param token Token JWT generado
+     * @param role Rol del usuario
+     * @param refreshToken Token de actualización
+     * @param expiresIn Segundos de validez del token JWT
+     */
+    public AuthResponse(String token, String role, String refreshToken, Long expiresIn) {
       this.token = token;
       this.role = role;
+      this.refreshToken = refreshToken;
+      this.expiresIn = expiresIn;
     }
 
     /**
@@ -287,5 +503,23 @@ public class AuthController {
     public String getRole() {
       return role;
     }
+
+    /**
+     * Obtiene el token de actualización.
+     *
+     * @return Token de actualización, o null si no se emitió
+     */
+    public String getRefreshToken() {
+      return refreshToken;
+    }
+
+    /**
+     * Obtiene los segundos de validez del token JWT.
+     *
+     * @return Segundos de validez
+     */
+    public Long getExpiresIn() {
+      return expiresIn;
+    }
   }
 }
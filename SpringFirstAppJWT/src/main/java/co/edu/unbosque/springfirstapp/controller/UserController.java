@@ -1,7 +1,15 @@
 package co.edu.unbosque.springfirstapp.controller;
 
+import co.edu.unbosque.springfirstapp.dto.BulkUserResultDTO;
 import co.edu.unbosque.springfirstapp.dto.UserDTO;
+import co.edu.unbosque.springfirstapp.dto.UserImportJobDTO;
+import co.edu.unbosque.springfirstapp.dto.UserPageDTO;
 import co.edu.unbosque.springfirstapp.model.User.Role;
+import co.edu.unbosque.springfirstapp.security.PasswordHashingExecutor;
+import co.edu.unbosque.springfirstapp.service.UserBulkService;
+import co.edu.unbosque.springfirstapp.service.UserExportService;
+import co.edu.unbosque.springfirstapp.service.UserExportService.Format;
+import co.edu.unbosque.springfirstapp.service.UserImportService;
 import co.edu.unbosque.springfirstapp.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,12 +20,20 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -25,15 +41,26 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * Controlador REST para la gestión de usuarios. Proporciona endpoints para crear, leer, actualizar
  * y eliminar usuarios. Requiere autenticación JWT para todos los endpoints. Los endpoints /getall,
- * /count, /exists/*, /getbyid/* son accesibles para usuarios con ROLE_USER o ROLE_ADMIN. Todos los
- * demás endpoints requieren ROLE_ADMIN.
+ * /page, /count, /exists/*, /getbyid/* son accesibles para usuarios con ROLE_USER o ROLE_ADMIN.
+ * Todos los demás endpoints requieren ROLE_ADMIN.
+ *
+ * <p>Los endpoints de creación y actualización cifran la contraseña con BCrypt, por lo que se
+ * ejecutan en {@link PasswordHashingExecutor} y responden de forma asíncrona.
+ *
+ * <p>El controlador no abre transacciones: cada operación del servicio usa la suya, lo más corta
+ * posible, de modo que no se retiene una conexión a la base de datos mientras se cifra una
+ * contraseña o se escribe la respuesta. El tiempo de retención por endpoint se publica como {@code
+ * db.connection.hold}.
  *
  * @author Universidad El Bosque
  * @version 0.1
@@ -41,7 +68,6 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 @RequestMapping("/user")
 @CrossOrigin(origins = {"http://localhost:8080", "http://localhost:8081"})
-@Transactional
 @Tag(name = "Gestión de Usuarios", description = "Endpoints para administrar usuarios")
 @SecurityRequirement(name = "bearerAuth")
 public class UserController {
@@ -49,6 +75,22 @@ public class UserController {
   /** Servicio para operaciones relacionadas con usuarios. */
   @Autowired private UserService userServ;
 
+  /** Servicio de exportación de usuarios. */
+  @Autowired private UserExportService exportServ;
+
+  /** Servicio de importación de usuarios desde archivos. */
+  @Autowired private UserImportService importServ;
+
+  /** Servicio de creación masiva de usuarios. */
+  @Autowired private UserBulkService bulkServ;
+
+  /** Número máximo de usuarios por solicitud de creación masiva. */
+  @Value("${users.bulk.max-items:5000}")
+  private int bulkMaxItems;
+
+  /** Ejecutor acotado para las operaciones que cifran contraseñas. */
+  @Autowired private PasswordHashingExecutor hashingExecutor;
+
   /** Constructor por defecto. */
   public UserController() {}
 
@@ -56,7 +98,7 @@ public class UserController {
    * Crea un nuevo usuario utilizando datos en formato JSON. Requiere rol ADMIN.
    *
    * @param newUser DTO con los datos del usuario a crear
-   * @return ResponseEntity con mensaje de éxito o error
+   * @return Futuro con el ResponseEntity que contiene el mensaje de éxito o error
    */
   @Operation(
       summary = "Crear usuario (JSON)",
@@ -103,7 +145,7 @@ public class UserController {
                     examples = @ExampleObject(value = "Solicitud con caracteres inválidos")))
       })
   @PostMapping(path = "/createjson", consumes = MediaType.APPLICATION_JSON_VALUE)
-  ResponseEntity<String> createNewWithJSON(
+  CompletableFuture<ResponseEntity<String>> createNewWithJSON(
       @Parameter(
               description = "Datos del nuevo usuario",
               required = true,
@@ -121,17 +163,10 @@ public class UserController {
           @RequestBody
           UserDTO newUser) {
     if (newUser.getUsername().contains("<") || newUser.getUsername().contains(">")) {
-      return new ResponseEntity<>("Solicitud con caracteres invalidos", HttpStatus.BAD_REQUEST);
-    }
-    int status = userServ.create(newUser);
-
-    if (status == 0) {
-      return new ResponseEntity<>("Usuario creado exitosamente", HttpStatus.CREATED);
-    } else {
-      return new ResponseEntity<>(
-          "Error al crear el usuario, posiblemente el nombre de usuario ya está en uso",
-          HttpStatus.NOT_ACCEPTABLE);
+      return CompletableFuture.completedFuture(
+          new ResponseEntity<>("Solicitud con caracteres invalidos", HttpStatus.BAD_REQUEST));
     }
+    return hashingExecutor.submit(() -> createResponse(userServ.create(newUser)));
   }
 
   /**
@@ -140,7 +175,7 @@ public class UserController {
    * @param username Nombre de usuario
    * @param password Contraseña
    * @param role Rol del usuario
-   * @return ResponseEntity con mensaje de éxito o error
+   * @return Futuro con el ResponseEntity que contiene el mensaje de éxito o error
    */
   @Operation(
       summary = "Crear usuario (parámetros)",
@@ -179,7 +214,7 @@ public class UserController {
                                     + " está en uso")))
       })
   @PostMapping(path = "/create")
-  ResponseEntity<String> createNew(
+  CompletableFuture<ResponseEntity<String>> createNew(
       @Parameter(description = "Nombre de usuario", required = true, example = "nuevoUsuario")
           @RequestParam
           String username,
@@ -193,8 +228,17 @@ public class UserController {
     if (role != null) {
       newUser.setRole(role);
     }
-    int status = userServ.create(newUser);
+    return hashingExecutor.submit(() -> createResponse(userServ.create(newUser)));
+  }
 
+  /**
+   * Construye la respuesta de las operaciones de creación a partir del código de estado del
+   * servicio.
+   *
+   * @param status Código devuelto por {@link UserService#create(UserDTO)}
+   * @return ResponseEntity con mensaje de éxito o error
+   */
+  private ResponseEntity<String> createResponse(int status) {
     if (status == 0) {
       return new ResponseEntity<>("Usuario creado exitosamente", HttpStatus.CREATED);
     } else {
@@ -204,6 +248,61 @@ public class UserController {
     }
   }
 
+  /**
+   * Crea muchos usuarios en una sola solicitud, con un resultado por elemento. Requiere rol ADMIN.
+   *
+   * @param users Usuarios a crear
+   * @return Futuro con el ResponseEntity que contiene el resultado de cada elemento
+   */
+  @Operation(
+      summary = "Crear usuarios en bloque",
+      description =
+          """
+			Este endpoint permite crear muchos usuarios (por ejemplo, una migración) en una sola solicitud.
+
+			**¿Qué hace?** Verifica todos los nombres de usuario con una consulta, cifra las contraseñas en paralelo e inserta los usuarios por lotes. Devuelve un resultado por elemento, en el mismo orden: CREATED (con su id), DUPLICATE o INVALID.
+
+			**Nota:** Este endpoint requiere autenticación y rol ADMIN.
+		""")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "207",
+            description = "Resultado de cada elemento",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    examples =
+                        @ExampleObject(
+                            value =
+                                """
+						[
+						  { "index": 0, "username": "nuevo1", "status": "CREATED", "id": 10 },
+						  { "index": 1, "username": "admin", "status": "DUPLICATE", "id": null }
+						]
+					"""))),
+        @ApiResponse(
+            responseCode = "413",
+            description = "La solicitud supera el número máximo de usuarios",
+            content = @Content(mediaType = "application/json", examples = @ExampleObject("[]"))),
+        @ApiResponse(
+            responseCode = "429",
+            description = "El servidor está saturado calculando contraseñas",
+            content = @Content(mediaType = "text/plain"))
+      })
+  @PostMapping(path = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+  CompletableFuture<ResponseEntity<List<BulkUserResultDTO>>> createBulk(
+      @Parameter(description = "Usuarios a crear", required = true) @RequestBody
+          List<UserDTO> users) {
+    if (users.size() > bulkMaxItems) {
+      return CompletableFuture.completedFuture(
+          new ResponseEntity<>(List.of(), HttpStatus.PAYLOAD_TOO_LARGE));
+    }
+    return bulkServ
+        .createAll(users)
+        .thenApply(results -> new ResponseEntity<>(results, HttpStatus.MULTI_STATUS));
+  }
+
   /**
    * Obtiene todos los usuarios. Accesible para usuarios con rol USER o ADMIN.
    *
@@ -261,6 +360,231 @@ public class UserController {
     }
   }
 
+  /**
+   * Obtiene una página de usuarios por cursor, sin cargar la tabla completa. Accesible para usuarios
+   * con rol USER o ADMIN.
+   *
+   * @param role Rol de los usuarios, o null para todos
+   * @param sort Propiedad de orden: id o username
+   * @param direction Dirección del orden
+   * @param cursor Cursor de la página anterior, o null para la primera
+   * @param size Tamaño de página
+   * @return ResponseEntity con los usuarios de la página y el cursor de la siguiente
+   */
+  @Operation(
+      summary = "Listar usuarios por páginas",
+      description =
+          """
+			Este endpoint permite recorrer los usuarios registrados por páginas de tamaño acotado.
+
+			**¿Qué hace?** Devuelve una página de usuarios y un cursor opaco (`nextCursor`). Para obtener la página siguiente se envía solo ese cursor; el filtro y el orden de la primera página se conservan. Cuando `nextCursor` es null no hay más usuarios.
+
+			**Nota:** Este endpoint requiere autenticación y es accesible para usuarios con rol USER o ADMIN.
+		""")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "202",
+            description = "Página de usuarios recuperada correctamente",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = UserPageDTO.class),
+                    examples =
+                        @ExampleObject(
+                            value =
+                                """
+						{
+						  "items": [
+						    { "id": 1, "username": "admin", "role": "ADMIN" },
+						    { "id": 2, "username": "usuario1", "role": "USER" }
+						  ],
+						  "nextCursor": "AQAAAAJpZAEAAAAAAAAAAgA"
+						}
+					"""))),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Cursor mal formado u orden no soportado",
+            content =
+                @Content(
+                    mediaType = "text/plain",
+                    examples = @ExampleObject(value = "Cursor inválido")))
+      })
+  @GetMapping("/page")
+  ResponseEntity<UserPageDTO> getPage(
+      @Parameter(description = "Rol de los usuarios (USER o ADMIN)", example = "USER")
+          @RequestParam(required = false)
+          Role role,
+      @Parameter(description = "Propiedad de orden: id o username", example = "id")
+          @RequestParam(defaultValue = "id")
+          String sort,
+      @Parameter(description = "Dirección del orden: ASC o DESC", example = "ASC")
+          @RequestParam(defaultValue = "ASC")
+          Direction direction,
+      @Parameter(description = "Cursor devuelto por la página anterior")
+          @RequestParam(required = false)
+          String cursor,
+      @Parameter(description = "Tamaño de página (máximo configurable)", example = "50")
+          @RequestParam(defaultValue = "50")
+          int size) {
+    return new ResponseEntity<>(
+        userServ.getPage(role, sort, direction, cursor, size), HttpStatus.ACCEPTED);
+  }
+
+  /**
+   * Exporta todos los usuarios en NDJSON o CSV. La respuesta se escribe a medida que se leen las
+   * filas, con memoria constante sin importar el número de usuarios. Requiere rol ADMIN.
+   *
+   * @param format Formato de salida
+   * @return ResponseEntity con el cuerpo que escribe la exportación
+   */
+  @Operation(
+      summary = "Exportar usuarios",
+      description =
+          """
+			Este endpoint permite exportar todos los usuarios para reportes.
+
+			**¿Qué hace?** Escribe los usuarios (id, nombre de usuario y rol) directamente desde la base de datos a la respuesta, en NDJSON (un objeto JSON por línea) o CSV. Nunca incluye contraseñas.
+
+			**Nota:** Este endpoint requiere autenticación y rol ADMIN.
+		""")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Exportación en curso",
+            content = {
+              @Content(
+                  mediaType = "application/x-ndjson",
+                  examples =
+                      @ExampleObject(
+                          value =
+                              """
+					{"id":1,"username":"admin","role":"ADMIN"}
+					{"id":2,"username":"usuario1","role":"USER"}
+					""")),
+              @Content(
+                  mediaType = "text/csv",
+                  examples =
+                      @ExampleObject(
+                          value =
+                              """
+					id,username,role
+					1,admin,ADMIN
+					2,usuario1,USER
+					"""))
+            })
+      })
+  @GetMapping("/export")
+  ResponseEntity<StreamingResponseBody> export(
+      @Parameter(description = "Formato de salida: NDJSON o CSV", example = "NDJSON")
+          @RequestParam(defaultValue = "NDJSON")
+          Format format) {
+    StreamingResponseBody body = out -> exportServ.export(format, out);
+    MediaType type =
+        format == Format.CSV
+            ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+            : new MediaType("application", "x-ndjson");
+    String file = format == Format.CSV ? "usuarios.csv" : "usuarios.ndjson";
+    return ResponseEntity.ok()
+        .contentType(type)
+        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file + "\"")
+        .body(body);
+  }
+
+  /**
+   * Inicia la importación de usuarios desde un archivo CSV o NDJSON de cualquier tamaño. El archivo
+   * se procesa en segundo plano; el progreso se consulta en {@code /user/import/{id}}. Requiere rol
+   * ADMIN.
+   *
+   * @param file Archivo a importar
+   * @param format Formato del archivo
+   * @return ResponseEntity con el estado inicial de la importación y su ubicación
+   * @throws IOException Si no se puede guardar el archivo recibido
+   */
+  @Operation(
+      summary = "Importar usuarios",
+      description =
+          """
+			Este endpoint permite cargar cientos de miles de usuarios desde un archivo.
+
+			**¿Qué hace?** Recibe un archivo CSV (encabezado con username, password y opcionalmente role) o NDJSON (un objeto de usuario por línea) y lo procesa en segundo plano, por bloques que se confirman por separado. Las filas se validan igual que en /createjson; las inválidas, duplicadas o demasiado largas se omiten y se cuentan.
+
+			**Posibles resultados:**
+			- Importación aceptada (202 Accepted), con el estado inicial y el encabezado Location para consultar el progreso
+			- Demasiadas importaciones en espera (429 Too Many Requests), con el encabezado Retry-After
+
+			**Nota:** Este endpoint requiere autenticación y rol ADMIN.
+		""")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "202",
+            description = "Importación aceptada",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = UserImportJobDTO.class))),
+        @ApiResponse(
+            responseCode = "429",
+            description = "Hay demasiadas importaciones en espera",
+            content = @Content(mediaType = "text/plain"))
+      })
+  @PostMapping(path = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+  ResponseEntity<UserImportJobDTO> importUsers(
+      @Parameter(description = "Archivo CSV o NDJSON", required = true) @RequestParam("file")
+          MultipartFile file,
+      @Parameter(description = "Formato del archivo: NDJSON o CSV", example = "CSV")
+          @RequestParam(defaultValue = "NDJSON")
+          Format format)
+      throws IOException {
+    // El archivo se mueve del almacenamiento temporal de la solicitud sin cargarlo en memoria
+    Path upload = Files.createTempFile("user-import-", ".upload");
+    file.transferTo(upload);
+    UserImportJobDTO job = importServ.submit(format, upload);
+    return ResponseEntity.accepted()
+        .location(URI.create("/user/import/" + job.getId()))
+        .body(job);
+  }
+
+  /**
+   * Obtiene el estado de una importación. Requiere rol ADMIN.
+   *
+   * @param id Identificador de la importación
+   * @return ResponseEntity con el estado de la importación o estado 404 si no existe
+   */
+  @Operation(
+      summary = "Consultar importación",
+      description =
+          """
+			Este endpoint permite seguir el progreso de una importación de usuarios.
+
+			**¿Qué hace?** Devuelve el estado (QUEUED, RUNNING, COMPLETED o FAILED), las filas leídas, los usuarios creados, las filas omitidas por duplicadas o inválidas y el número de fila de las primeras omitidas.
+
+			**Nota:** Este endpoint requiere autenticación y rol ADMIN. El estado se conserva por un tiempo limitado después de terminar.
+		""")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Estado de la importación",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = UserImportJobDTO.class))),
+        @ApiResponse(responseCode = "404", description = "Importación no encontrada o expirada")
+      })
+  @GetMapping("/import/{id}")
+  ResponseEntity<UserImportJobDTO> getImport(
+      @Parameter(description = "Identificador de la importación", required = true) @PathVariable
+          String id) {
+    UserImportJobDTO job = importServ.getJob(id);
+    if (job == null) {
+      return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+    return new ResponseEntity<>(job, HttpStatus.OK);
+  }
+
   /**
    * Cuenta el número total de usuarios. Accesible para usuarios con rol USER o ADMIN.
    *
@@ -350,7 +674,8 @@ public class UserController {
    * Obtiene un usuario por su ID. Accesible para usuarios con rol USER o ADMIN.
    *
    * @param id ID del usuario a buscar
-   * @return ResponseEntity con el usuario encontrado o un objeto vacío si no existe
+   * @return ResponseEntity con el usuario encontrado y su versión como ETag, o un objeto vacío si
+   *     no existe
    */
   @Operation(
       summary = "Obtener usuario por ID",
@@ -358,7 +683,7 @@ public class UserController {
           """
 			Este endpoint permite obtener la información de un usuario específico mediante su ID.
 
-			**¿Qué hace?** Busca un usuario en la base de datos por su ID y devuelve sus datos.
+			**¿Qué hace?** Busca un usuario en la base de datos por su ID y devuelve sus datos. La versión del usuario se devuelve también en el encabezado ETag, para enviarla como If-Match al modificarlo o eliminarlo.
 
 			**Nota:** Este endpoint requiere autenticación y es accesible para usuarios con rol USER o ADMIN.
 		""")
@@ -378,7 +703,8 @@ public class UserController {
 						{
 						  "id": 1,
 						  "username": "admin",
-						  "role": "ADMIN"
+						  "role": "ADMIN",
+						  "version": 0
 						}
 					"""))),
         @ApiResponse(
@@ -397,7 +723,9 @@ public class UserController {
           Long id) {
     UserDTO found = userServ.getById(id);
     if (found != null) {
-      return new ResponseEntity<>(found, HttpStatus.ACCEPTED);
+      return ResponseEntity.status(HttpStatus.ACCEPTED)
+          .eTag(String.valueOf(found.getVersion()))
+          .body(found);
     } else {
       return new ResponseEntity<>(new UserDTO(), HttpStatus.NOT_FOUND);
     }
@@ -408,7 +736,8 @@ public class UserController {
    *
    * @param id ID del usuario a actualizar
    * @param newUser DTO con los nuevos datos del usuario
-   * @return ResponseEntity con mensaje de éxito o error
+   * @param ifMatch ETag con la versión esperada del usuario, o null para no comprobarla
+   * @return Futuro con el ResponseEntity que contiene el mensaje de éxito o error
    */
   @Operation(
       summary = "Actualizar usuario (JSON)",
@@ -423,8 +752,11 @@ public class UserController {
 			* Usuario actualizado correctamente
 			* El nuevo nombre de usuario ya está en uso
 			* Usuario no encontrado
+			* El usuario cambió desde la versión enviada en If-Match
 			* Error en la actualización
 
+			**Concurrencia:** Si se envía el encabezado If-Match con la ETag obtenida al consultar el usuario, la actualización solo se aplica si nadie lo modificó entretanto.
+
 			**Nota:** Este endpoint requiere autenticación y rol ADMIN.
 		""")
   @ApiResponses(
@@ -451,6 +783,14 @@ public class UserController {
                 @Content(
                     mediaType = "application/json",
                     examples = @ExampleObject(value = "Usuario no encontrado"))),
+        @ApiResponse(
+            responseCode = "412",
+            description = "El usuario cambió desde la versión enviada en If-Match",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    examples =
+                        @ExampleObject(value = "El usuario fue modificado por otra solicitud"))),
         @ApiResponse(
             responseCode = "400",
             description = "Error en la actualización",
@@ -461,7 +801,7 @@ public class UserController {
       })
   
   @PutMapping(path = "/updatejson", consumes = MediaType.APPLICATION_JSON_VALUE)
-  ResponseEntity<String> updateNewWithJSON(
+  CompletableFuture<ResponseEntity<String>> updateNewWithJSON(
       @Parameter(description = "ID del usuario a actualizar", required = true, example = "1")
           @RequestParam
           Long id,
@@ -480,19 +820,13 @@ public class UserController {
 					}
 				"""))
           @RequestBody
-          UserDTO newUser) {
-
-    int status = userServ.updateById(id, newUser);
-
-    if (status == 0) {
-      return new ResponseEntity<>("Usuario actualizado exitosamente", HttpStatus.ACCEPTED);
-    } else if (status == 1) {
-      return new ResponseEntity<>("El nuevo nombre de usuario ya está en uso", HttpStatus.IM_USED);
-    } else if (status == 2) {
-      return new ResponseEntity<>("Usuario no encontrado", HttpStatus.NOT_FOUND);
-    } else {
-      return new ResponseEntity<>("Error al actualizar", HttpStatus.BAD_REQUEST);
-    }
+          UserDTO newUser,
+      @Parameter(description = "Versión esperada del usuario (ETag)", example = "\"0\"")
+          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+          String ifMatch) {
+    Long version = expectedVersion(ifMatch);
+    return hashingExecutor.submit(
+        () -> updateResponse(userServ.updateById(id, newUser, version)));
   }
   
   /**
@@ -502,7 +836,8 @@ public class UserController {
    * @param newUsername nuevo username del usuario a actualizar
    * @param newPassword nuevo password del usuario a actualizar
    * @param role nuevo rol del usuario a actualizar
-   * @return ResponseEntity con mensaje de éxito o error
+   * @param ifMatch ETag con la versión esperada del usuario, o null para no comprobarla
+   * @return Futuro con el ResponseEntity que contiene el mensaje de éxito o error
    */
   @Operation(
       summary = "Actualizar usuario (parámetros)",
@@ -517,8 +852,11 @@ public class UserController {
 			* Usuario actualizado correctamente
 			* El nuevo nombre de usuario ya está en uso
 			* Usuario no encontrado
+			* El usuario cambió desde la versión enviada en If-Match
 			* Error en la actualización
 
+			**Concurrencia:** Si se envía el encabezado If-Match con la ETag obtenida al consultar el usuario, la actualización solo se aplica si nadie lo modificó entretanto.
+
 			**Nota:** Este endpoint requiere autenticación y rol ADMIN.
 		""")
   @ApiResponses(
@@ -545,6 +883,14 @@ public class UserController {
                 @Content(
                     mediaType = "application/json",
                     examples = @ExampleObject(value = "Usuario no encontrado"))),
+        @ApiResponse(
+            responseCode = "412",
+            description = "El usuario cambió desde la versión enviada en If-Match",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    examples =
+                        @ExampleObject(value = "El usuario fue modificado por otra solicitud"))),
         @ApiResponse(
             responseCode = "400",
             description = "Error en la actualización",
@@ -554,7 +900,7 @@ public class UserController {
                     examples = @ExampleObject(value = "Error al actualizar")))
       })
   @PutMapping(path = "/update")
-  ResponseEntity<String> updateNew(
+  CompletableFuture<ResponseEntity<String>> updateNew(
       @Parameter(description = "ID del usuario a actualizar", required = true, example = "1")
           @RequestParam
           long id,
@@ -566,29 +912,72 @@ public class UserController {
           String newPassword,
       @Parameter(description = "Nuevo rol del usuario", required = false, example = "ADMIN")
           @RequestParam(required = false)
-          Role role) {
+          Role role,
+      @Parameter(description = "Versión esperada del usuario (ETag)", example = "\"0\"")
+          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+          String ifMatch) {
     UserDTO newUser = new UserDTO(newUsername, newPassword);
     if (role != null) {
       newUser.setRole(role);
     }
+    Long version = expectedVersion(ifMatch);
+    return hashingExecutor.submit(
+        () -> updateResponse(userServ.updateById(id, newUser, version)));
+  }
 
-    int status = userServ.updateById(id, newUser);
-
+  /**
+   * Construye la respuesta de las operaciones de actualización a partir del código de estado del
+   * servicio.
+   *
+   * @param status Código devuelto por {@link UserService#updateById(Long, UserDTO, Long)}
+   * @return ResponseEntity con mensaje de éxito o error
+   */
+  private ResponseEntity<String> updateResponse(int status) {
     if (status == 0) {
       return new ResponseEntity<>("Usuario actualizado exitosamente", HttpStatus.ACCEPTED);
     } else if (status == 1) {
       return new ResponseEntity<>("El nuevo nombre de usuario ya está en uso", HttpStatus.IM_USED);
     } else if (status == 2) {
       return new ResponseEntity<>("Usuario no encontrado", HttpStatus.NOT_FOUND);
+    } else if (status == 4) {
+      return new ResponseEntity<>(
+          "El usuario fue modificado por otra solicitud", HttpStatus.PRECONDITION_FAILED);
     } else {
       return new ResponseEntity<>("Error al actualizar", HttpStatus.BAD_REQUEST);
     }
   }
 
+  /**
+   * Obtiene la versión esperada de un encabezado If-Match con la ETag devuelta al consultar el
+   * usuario, como {@code "3"}. El comodín {@code *} equivale a no comprobar la versión.
+   *
+   * @param ifMatch Valor del encabezado, o null si no se envió
+   * @return Versión esperada; null si no se debe comprobar, o -1 si el valor no es una versión y,
+   *     por lo tanto, no coincide con ningún usuario
+   */
+  private static Long expectedVersion(String ifMatch) {
+    if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+      return null;
+    }
+    String tag = ifMatch.trim();
+    if (tag.startsWith("W/")) {
+      tag = tag.substring(2);
+    }
+    if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+      tag = tag.substring(1, tag.length() - 1);
+    }
+    try {
+      return Long.valueOf(tag);
+    } catch (NumberFormatException e) {
+      return -1L;
+    }
+  }
+
   /**
    * Elimina un usuario por su ID. Requiere rol ADMIN.
    *
    * @param id ID del usuario a eliminar
+   * @param ifMatch ETag con la versión esperada del usuario, o null para no comprobarla
    * @return ResponseEntity con mensaje de éxito o error
    */
   @Operation(
@@ -599,6 +988,8 @@ public class UserController {
 
 			**¿Qué hace?** Elimina permanentemente un usuario de la base de datos.
 
+			**Concurrencia:** Si se envía el encabezado If-Match con la ETag obtenida al consultar el usuario, solo se elimina si nadie lo modificó entretanto.
+
 			**Advertencia:** Esta acción no se puede deshacer. Una vez eliminado, el usuario no podrá recuperarse.
 
 			**Nota:** Este endpoint requiere autenticación y rol ADMIN.
@@ -618,17 +1009,31 @@ public class UserController {
             content =
                 @Content(
                     mediaType = "application/json",
-                    examples = @ExampleObject(value = "Error al eliminar")))
+                    examples = @ExampleObject(value = "Error al eliminar"))),
+        @ApiResponse(
+            responseCode = "412",
+            description = "El usuario cambió desde la versión enviada en If-Match",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    examples =
+                        @ExampleObject(value = "El usuario fue modificado por otra solicitud")))
       })
   @DeleteMapping("/deletebyid/{id}")
   ResponseEntity<String> deleteById(
       @Parameter(description = "ID del usuario a eliminar", required = true, example = "1")
           @PathVariable
-          Long id) {
-    int status = userServ.deleteById(id);
+          Long id,
+      @Parameter(description = "Versión esperada del usuario (ETag)", example = "\"0\"")
+          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+          String ifMatch) {
+    int status = userServ.deleteById(id, expectedVersion(ifMatch));
 
     if (status == 0) {
       return new ResponseEntity<>("Usuario eliminado exitosamente", HttpStatus.ACCEPTED);
+    } else if (status == 2) {
+      return new ResponseEntity<>(
+          "El usuario fue modificado por otra solicitud", HttpStatus.PRECONDITION_FAILED);
     } else {
       return new ResponseEntity<>("Error al eliminar", HttpStatus.NOT_FOUND);
     }
@@ -0,0 +1,88 @@
+package co.edu.unbosque.springfirstapp.dto;
+
+/**
+ * Resultado de un elemento de una creación masiva de usuarios. Cada elemento de la solicitud
+ * recibe un resultado en la misma posición.
+ */
+public class BulkUserResultDTO {
+
+  /** Resultado posible de un elemento. */
+  public enum Status {
+    /** El usuario se creó. */
+    CREATED,
+    /** El nombre de usuario ya existía o estaba repetido en la solicitud. */
+    DUPLICATE,
+    /** Faltan el nombre de usuario o la contraseña, o contienen caracteres inválidos. */
+    INVALID
+  }
+
+  /** Posición del elemento en la solicitud. */
+  private final int index;
+
+  /** Nombre de usuario solicitado. */
+  private final String username;
+
+  /** Resultado del elemento. */
+  private final Status status;
+
+  /** Identificador del usuario creado, o null si no se creó. */
+  private Long id;
+
+  /**
+   * Constructor con la posición, el nombre y el resultado.
+   *
+   * @param index Posición del elemento en la solicitud
+   * @param username Nombre de usuario solicitado
+   * @param status Resultado del elemento
+   */
+  public BulkUserResultDTO(int index, String username, Status status) {
+    this.index = index;
+    this.username = username;
+    this.status = status;
+  }
+
+  /**
+   * Obtiene la posición del elemento en la solicitud.
+   *
+   * @return Posición desde 0
+   */
+  public int getIndex() {
+    return index;
+  }
+
+  /**
+   * Obtiene el nombre de usuario solicitado.
+   *
+   * @return Nombre de usuario
+   */
+  public String getUsername() {
+    return username;
+  }
+
+  /**
+   * Obtiene el resultado del elemento.
+   *
+   * @return Resultado
+   */
+  public Status getStatus() {
+    return status;
+  }
+
+  /**
+   * Obtiene el identificador del usuario creado.
+   *
+   * @return Identificador, o null si no se creó
+   */
+  public Long getId() {
+    return id;
+  }
+
+  /**
+   * Establece el identificador del usuario creado.
+   *
+   * @param id Identificador asignado por la base de datos
+   */
+  public void setId(Long id) {
+    this.id = id;
+  }
+}
@@ -0,0 +1,41 @@
+package co.edu.unbosque.springfirstapp.dto;
+
+/**
+ * Clase de Objeto de Transferencia de Datos (DTO) con un token de actualización. Utilizada como
+ * cuerpo de las solicitudes de renovación y cierre de sesión.
+ */
+public class RefreshTokenDTO {
+
+  /** Token de actualización emitido al iniciar sesión o en la última renovación. */
+  private String refreshToken;
+
+  /** Constructor por defecto. Crea una instancia vacía de RefreshTokenDTO. */
+  public RefreshTokenDTO() {}
+
+  /**
+   * Constructor con el token de actualización.
+   *
+   * @param refreshToken Token de actualización
+   */
+  public RefreshTokenDTO(String refreshToken) {
+    this.refreshToken = refreshToken;
+  }
+
+  /**
+   * Obtiene el token de actualización.
+   *
+   * @return Token de actualización
+   */
+  public String getRefreshToken() {
+    return refreshToken;
+  }
+
+  /**
+   * Establece el token de actualización.
+   *
+   * @param refreshToken Token de actualización
+   */
+  public void setRefreshToken(String refreshToken) {
+    this.refreshToken = refreshToken;
+  }
+}
@@ -21,6 +21,12 @@ public class UserDTO {
   /** Rol del usuario en el sistema (por ejemplo, USER, ADMIN). */
   private Role role;
 
+  /**
+   * Versión de la fila del usuario. Se informa al leer y se puede enviar como {@code If-Match} para
+   * que una modificación falle si el usuario cambió desde entonces.
+   */
+  private Long version;
+
   /** Constructor por defecto. Crea una instancia vacía de UserDTO. */
   public UserDTO() {}
 
@@ -48,6 +54,22 @@ public class UserDTO {
     this.role = role;
   }
 
+  /**
+   * Constructor con identificador, nombre de usuario, rol y versión, sin contraseña. Lo usan las
+   * consultas que crean el DTO directamente desde la base de datos.
+   *
+   * @param id Identificador único del usuario
+   * @param username Nombre de usuario
+   * @param role Rol del usuario
+   * @param version Versión de la fila del usuario
+   */
+  public UserDTO(Long id, String username, Role role, Long version) {
+    this.id = id;
+    this.username = username;
+    this.role = role;
+    this.version = version;
+  }
+
   /**
    * Obtiene el identificador del usuario.
    *
@@ -120,6 +142,24 @@ public class UserDTO {
     this.role = role;
   }
 
+  /**
+   * Obtiene la versión de la fila del usuario.
+   *
+   * @return Versión de la fila, o null si no se conoce
+   */
+  public Long getVersion() {
+    return version;
+  }
+
+  /**
+   * Establece la versión de la fila del usuario.
+   *
+   * @param version Versión a establecer
+   */
+  public void setVersion(Long version) {
+    this.version = version;
+  }
+
   /**
    * Calcula el código hash para este objeto. Utilizado para almacenar objetos en colecciones
    * basadas en hash.
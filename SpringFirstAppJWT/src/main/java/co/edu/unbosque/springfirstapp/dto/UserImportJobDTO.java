@@ -0,0 +1,181 @@
+package co.edu.unbosque.springfirstapp.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Estado de una importación de usuarios en un momento dado. Los contadores avanzan a medida que se
+ * confirman los bloques, por lo que el cliente puede consultar el progreso mientras la importación
+ * sigue en curso.
+ */
+public class UserImportJobDTO {
+
+  /** Estado posible de una importación. */
+  public enum Status {
+    /** Recibida, a la espera de que termine otra importación. */
+    QUEUED,
+    /** Leyendo y guardando filas. */
+    RUNNING,
+    /** Todas las filas se procesaron. */
+    COMPLETED,
+    /** Se detuvo por un error; las filas ya confirmadas se conservan. */
+    FAILED
+  }
+
+  /** Identificador de la importación. */
+  private final String id;
+
+  /** Estado de la importación. */
+  private final Status status;
+
+  /** Filas de datos leídas del archivo. */
+  private final long rows;
+
+  /** Usuarios creados. */
+  private final long created;
+
+  /** Filas omitidas porque el nombre de usuario ya existía o estaba repetido. */
+  private final long duplicates;
+
+  /** Filas omitidas por datos faltantes, mal formados o con caracteres inválidos. */
+  private final long invalid;
+
+  /** Primeras filas omitidas; su posición es el número de fila de datos, desde 1. */
+  private final List<BulkUserResultDTO> rejected;
+
+  /** Momento en que se recibió la importación. */
+  private final Instant submittedAt;
+
+  /** Momento en que terminó, o null si sigue en curso. */
+  private final Instant finishedAt;
+
+  /** Mensaje del error que detuvo la importación, o null. */
+  private final String error;
+
+  /**
+   * Constructor con todos los datos del estado.
+   *
+   * @param id Identificador de la importación
+   * @param status Estado de la importación
+   * @param rows Filas de datos leídas
+   * @param created Usuarios creados
+   * @param duplicates Filas duplicadas
+   * @param invalid Filas inválidas
+   * @param rejected Primeras filas omitidas
+   * @param submittedAt Momento de recepción
+   * @param finishedAt Momento de finalización, o null
+   * @param error Mensaje de error, o null
+   */
+  public UserImportJobDTO(
+      String id,
+      Status status,
+      long rows,
+      long created,
+      long duplicates,
+      long invalid,
+      List<BulkUserResultDTO> rejected,
+      Instant submittedAt,
+      Instant finishedAt,
+      String error) {
+    this.id = id;
+    this.status = status;
+    this.rows = rows;
+    this.created = created;
+    this.duplicates = duplicates;
+    this.invalid = invalid;
+    this.rejected = rejected;
+    this.submittedAt = submittedAt;
+    this.finishedAt = finishedAt;
+    this.error = error;
+  }
+
+  /**
+   * Obtiene el identificador de la importación.
+   *
+   * @return Identificador
+   */
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * Obtiene el estado de la importación.
+   *
+   * @return Estado
+   */
+  public Status getStatus() {
+    return status;
+  }
+
+  /**
+   * Obtiene el número de filas de datos leídas.
+   *
+   * @return Filas leídas
+   */
+  public long getRows() {
+    return rows;
+  }
+
+  /**
+   * Obtiene el número de usuarios creados.
+   *
+   * @return Usuarios creados
+   */
+  public long getCreated() {
+    return created;
+  }
+
+  /**
+   * Obtiene el número de filas duplicadas.
+   *
+   * @return Filas duplicadas
+   */
+  public long getDuplicates() {
+    return duplicates;
+  }
+
+  /**
+   * Obtiene el número de filas inválidas.
+   *
+   * @return Filas inválidas
+   */
+  public long getInvalid() {
+    return invalid;
+  }
+
+  /**
+   * Obtiene las primeras filas omitidas.
+   *
+   * @return Filas omitidas, con su número de fila de datos como posición
+   */
+  public List<BulkUserResultDTO> getRejected() {
+    return rejected;
+  }
+
+  /**
+   * Obtiene el momento en que se recibió la importación.
+   *
+   * @return Momento de recepción
+   */
+  public Instant getSubmittedAt() {
+    return submittedAt;
+  }
+
+  /**
+   * Obtiene el momento en que terminó la importación.
+   *
+   * @return Momento de finalización, o null si sigue en curso
+   */
+  public Instant getFinishedAt() {
+    return finishedAt;
+  }
+
+  /**
+   * Obtiene el mensaje del error que detuvo la importación.
+   *
+   * @return Mensaje de error, o null
+   */
+  public String getError() {
+    return error;
+  }
+}
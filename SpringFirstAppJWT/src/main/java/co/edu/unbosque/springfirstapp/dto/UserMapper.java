@@ -0,0 +1,46 @@
+package co.edu.unbosque.springfirstapp.dto;
+
+import co.edu.unbosque.springfirstapp.model.User;
+import co.edu.unbosque.springfirstapp.model.User.Role;
+
+/**
+ * Conversión entre la entidad {@link User} y {@link UserDTO}, escrita a mano campo por campo. A
+ * diferencia de un mapeador por reflexión, no inspecciona las clases ni crea objetos intermedios en
+ * cada conversión.
+ *
+ * <p>La contraseña solo viaja del DTO a la entidad: el DTO que se obtiene de una entidad nunca la
+ * incluye, ni siquiera como hash.
+ */
+public final class UserMapper {
+
+  /** Clase de utilidades; no se instancia. */
+  private UserMapper() {}
+
+  /**
+   * Convierte una entidad en el DTO que se expone en la API.
+   *
+   * @param entity Usuario almacenado
+   * @return DTO con el identificador, el nombre de usuario, el rol y la versión, sin contraseña
+   */
+  public static UserDTO toDTO(User entity) {
+    UserDTO dto = new UserDTO();
+    dto.setId(entity.getId());
+    dto.setUsername(entity.getUsername());
+    dto.setRole(entity.getRole());
+    dto.setVersion(entity.getVersion());
+    return dto;
+  }
+
+  /**
+   * Convierte los datos recibidos en una entidad nueva. El identificador no se copia, de modo que
+   * el resultado siempre se inserta y nunca reemplaza a otro usuario; si no se indica rol, se usa
+   * {@link Role#USER}.
+   *
+   * @param dto Datos recibidos
+   * @return Entidad nueva con el nombre de usuario, la contraseña sin cifrar y el rol
+   */
+  public static User toEntity(UserDTO dto) {
+    return new User(
+        dto.getUsername(), dto.getPassword(), dto.getRole() == null ? Role.USER : dto.getRole());
+  }
+}
@@ -0,0 +1,45 @@
+package co.edu.unbosque.springfirstapp.dto;
+
+import java.util.List;
+
+/**
+ * Página de usuarios de un listado por cursor. Para obtener la página siguiente se envía {@code
+ * nextCursor} tal como se recibió; si es null no hay más resultados.
+ */
+public class UserPageDTO {
+
+  /** Usuarios de la página. */
+  private final List<UserSummary> items;
+
+  /** Cursor opaco de la página siguiente, o null si es la última. */
+  private final String nextCursor;
+
+  /**
+   * Constructor con los usuarios y el cursor de la página siguiente.
+   *
+   * @param items Usuarios de la página
+   * @param nextCursor Cursor de la página siguiente, o null si es la última
+   */
+  public UserPageDTO(List<UserSummary> items, String nextCursor) {
+    this.items = items;
+    this.nextCursor = nextCursor;
+  }
+
+  /**
+   * Obtiene los usuarios de la página.
+   *
+   * @return Usuarios de la página
+   */
+  public List<UserSummary> getItems() {
+    return items;
+  }
+
+  /**
+   * Obtiene el cursor de la página siguiente.
+   *
+   * @return Cursor opaco, o null si es la última página
+   */
+  public String getNextCursor() {
+    return nextCursor;
+  }
+}
@@ -0,0 +1,31 @@
+package co.edu.unbosque.springfirstapp.dto;
+
+import co.edu.unbosque.springfirstapp.model.User.Role;
+
+/**
+ * Proyección de solo lectura con los datos públicos de un usuario. Las consultas que la usan
+ * seleccionan únicamente estas columnas, por lo que nunca leen ni descifran la contraseña.
+ */
+public interface UserSummary {
+
+  /**
+   * Obtiene el identificador del usuario.
+   *
+   * @return Identificador único del usuario
+   */
+  Long getId();
+
+  /**
+   * Obtiene el nombre de usuario.
+   *
+   * @return Nombre de usuario
+   */
+  String getUsername();
+
+  /**
+   * Obtiene el rol del usuario.
+   *
+   * @return Rol del usuario
+   */
+  Role getRole();
+}
@@ -0,0 +1,22 @@
+package co.edu.unbosque.springfirstapp.exception;
+
+/**
+ * Excepción que se lanza cuando el ejecutor de hashing de contraseñas está saturado.
+ *
+ * <p>En lugar de encolar trabajo sin límite (y agotar los hilos del servidor), las solicitudes que
+ * requieren calcular o verificar una contraseña se rechazan de inmediato y se responden con el
+ * estado HTTP 429.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+public class HashingCapacityExceededException extends RuntimeException {
+
+  /** Número de serie para la serialización. */
+  private static final long serialVersionUID = 4915367026338409012L;
+
+  /** Constructor por defecto que inicializa la excepción con un mensaje de error estándar. */
+  public HashingCapacityExceededException() {
+    super("El servidor está procesando demasiadas contraseñas, intente de nuevo en unos segundos.");
+  }
+}
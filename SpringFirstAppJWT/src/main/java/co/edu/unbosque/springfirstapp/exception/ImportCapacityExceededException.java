@@ -0,0 +1,22 @@
+package co.edu.unbosque.springfirstapp.exception;
+
+/**
+ * Excepción que se lanza cuando ya hay demasiadas importaciones de usuarios en espera.
+ *
+ * <p>Las importaciones se procesan en un número fijo de hilos con una cola acotada; cuando la cola
+ * está llena, la nueva importación se rechaza de inmediato en lugar de acumular archivos en disco
+ * y se responde con el estado HTTP 429.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+public class ImportCapacityExceededException extends RuntimeException {
+
+  /** Número de serie para la serialización. */
+  private static final long serialVersionUID = 7342581064179235870L;
+
+  /** Constructor por defecto que inicializa la excepción con un mensaje de error estándar. */
+  public ImportCapacityExceededException() {
+    super("Hay demasiadas importaciones en espera, intente de nuevo más tarde.");
+  }
+}
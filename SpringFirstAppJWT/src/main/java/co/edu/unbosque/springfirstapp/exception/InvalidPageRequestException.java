@@ -0,0 +1,23 @@
+package co.edu.unbosque.springfirstapp.exception;
+
+/**
+ * Excepción que se lanza cuando el cursor de un listado paginado está mal formado o el orden pedido
+ * no está soportado. Se responde con el estado HTTP 400.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+public class InvalidPageRequestException extends RuntimeException {
+
+  /** Número de serie para la serialización. */
+  private static final long serialVersionUID = -4390125826347417015L;
+
+  /**
+   * Constructor que inicializa la excepción con el motivo del rechazo.
+   *
+   * @param message Motivo del rechazo
+   */
+  public InvalidPageRequestException(String message) {
+    super(message);
+  }
+}
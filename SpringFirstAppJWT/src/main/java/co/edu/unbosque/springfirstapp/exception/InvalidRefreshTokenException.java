@@ -0,0 +1,23 @@
+package co.edu.unbosque.springfirstapp.exception;
+
+/**
+ * Excepción que se lanza cuando un token de actualización no existe, expiró, fue revocado o ya se
+ * había usado. Se responde con el estado HTTP 401 y el cliente debe iniciar sesión de nuevo.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+
+  /** Número de serie para la serialización. */
+  private static final long serialVersionUID = 2873410094511352218L;
+
+  /**
+   * Constructor que inicializa la excepción con el motivo del rechazo.
+   *
+   * @param message Motivo del rechazo
+   */
+  public InvalidRefreshTokenException(String message) {
+    super(message);
+  }
+}
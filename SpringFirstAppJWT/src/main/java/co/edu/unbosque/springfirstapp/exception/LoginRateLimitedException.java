@@ -0,0 +1,39 @@
+package co.edu.unbosque.springfirstapp.exception;
+
+/**
+ * Excepción que se lanza cuando un nombre de usuario o una dirección IP superan el límite de
+ * intentos de inicio de sesión.
+ *
+ * <p>Se lanza antes de verificar la contraseña, de modo que los intentos rechazados no consumen
+ * tiempo de BCrypt. Se responde con el estado HTTP 429 y el encabezado Retry-After.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+public class LoginRateLimitedException extends RuntimeException {
+
+  /** Número de serie para la serialización. */
+  private static final long serialVersionUID = -6280433311749302816L;
+
+  /** Segundos que el cliente debe esperar antes de reintentar. */
+  private final long retryAfterSeconds;
+
+  /**
+   * Constructor que inicializa la excepción con el tiempo de espera.
+   *
+   * @param retryAfterSeconds Segundos que el cliente debe esperar antes de reintentar
+   */
+  public LoginRateLimitedException(long retryAfterSeconds) {
+    super("Demasiados intentos de inicio de sesión, intente de nuevo más tarde.");
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  /**
+   * Obtiene los segundos que el cliente debe esperar antes de reintentar.
+   *
+   * @return Segundos de espera
+   */
+  public long getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+}
@@ -0,0 +1,240 @@
+package co.edu.unbosque.springfirstapp.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Clase que representa un token de actualización (refresh token) emitido a un usuario.
+ * 
+ * Solo se guarda el resumen SHA-256 del token, nunca el token en sí. Cada uso lo rota por uno
+ * nuevo de la misma familia; si un token ya usado se presenta de nuevo, se asume que fue robado y
+ * se revoca toda la familia.
+ * 
+ * Esta entidad se almacena en la tabla "refresh_token" en la base de datos.
+ */
+@Entity
+@Table(name = "refresh_token", indexes = {
+		@Index(name = "idx_refresh_token_family", columnList = "familyId"),
+		@Index(name = "idx_refresh_token_expires_at", columnList = "expiresAt") })
+public class RefreshToken {
+
+	/**
+	 * Identificador único del registro.
+	 */
+	private @Id @GeneratedValue(strategy = GenerationType.IDENTITY) Long id;
+
+	/**
+	 * Resumen SHA-256 del token, codificado en Base64 URL.
+	 */
+	@Column(nullable = false, unique = true, length = 43)
+	private String tokenHash;
+
+	/**
+	 * Identificador de la familia: todos los tokens obtenidos por rotación a partir del mismo inicio
+	 * de sesión.
+	 */
+	@Column(nullable = false, length = 36)
+	private String familyId;
+
+	/**
+	 * Identificador del usuario al que pertenece el token.
+	 */
+	@Column(nullable = false)
+	private Long userId;
+
+	/**
+	 * Versión de los tokens del usuario al emitirse; si cambia (contraseña o rol), el token deja de
+	 * ser válido.
+	 */
+	private int tokenVersion;
+
+	/**
+	 * Fecha de expiración del token.
+	 */
+	@Column(nullable = false)
+	private Instant expiresAt;
+
+	/**
+	 * Fecha en que el token se usó (y rotó); null si aún no se ha usado.
+	 */
+	private Instant usedAt;
+
+	/**
+	 * Indica si el token fue revocado (cierre de sesión o reutilización detectada).
+	 */
+	private boolean revoked;
+
+	/**
+	 * Constructor por defecto requerido por JPA.
+	 */
+	public RefreshToken() {
+	}
+
+	/**
+	 * Constructor con los datos de un token nuevo.
+	 * 
+	 * @param tokenHash    Resumen del token
+	 * @param familyId     Identificador de la familia
+	 * @param userId       Identificador del usuario
+	 * @param tokenVersion Versión de los tokens del usuario
+	 * @param expiresAt    Fecha de expiración
+	 */
+	public RefreshToken(String tokenHash, String familyId, Long userId, int tokenVersion, Instant expiresAt) {
+		this.tokenHash = tokenHash;
+		this.familyId = familyId;
+		this.userId = userId;
+		this.tokenVersion = tokenVersion;
+		this.expiresAt = expiresAt;
+	}
+
+	/**
+	 * Obtiene el identificador del registro.
+	 * 
+	 * @return El identificador
+	 */
+	public Long getId() {
+		return id;
+	}
+
+	/**
+	 * Establece el identificador del registro.
+	 * 
+	 * @param id El nuevo identificador
+	 */
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	/**
+	 * Obtiene el resumen del token.
+	 * 
+	 * @return El resumen SHA-256 del token
+	 */
+	public String getTokenHash() {
+		return tokenHash;
+	}
+
+	/**
+	 * Establece el resumen del token.
+	 * 
+	 * @param tokenHash El nuevo resumen
+	 */
+	public void setTokenHash(String tokenHash) {
+		this.tokenHash = tokenHash;
+	}
+
+	/**
+	 * Obtiene el identificador de la familia.
+	 * 
+	 * @return El identificador de la familia
+	 */
+	public String getFamilyId() {
+		return familyId;
+	}
+
+	/**
+	 * Establece el identificador de la familia.
+	 * 
+	 * @param familyId El nuevo identificador de la familia
+	 */
+	public void setFamilyId(String familyId) {
+		this.familyId = familyId;
+	}
+
+	/**
+	 * Obtiene el identificador del usuario.
+	 * 
+	 * @return El identificador del usuario
+	 */
+	public Long getUserId() {
+		return userId;
+	}
+
+	/**
+	 * Establece el identificador del usuario.
+	 * 
+	 * @param userId El nuevo identificador del usuario
+	 */
+	public void setUserId(Long userId) {
+		this.userId = userId;
+	}
+
+	/**
+	 * Obtiene la versión de los tokens del usuario al emitirse.
+	 * 
+	 * @return La versión de los tokens
+	 */
+	public int getTokenVersion() {
+		return tokenVersion;
+	}
+
+	/**
+	 * Establece la versión de los tokens del usuario.
+	 * 
+	 * @param tokenVersion La nueva versión
+	 */
+	public void setTokenVersion(int tokenVersion) {
+		this.tokenVersion = tokenVersion;
+	}
+
+	/**
+	 * Obtiene la fecha de expiración.
+	 * 
+	 * @return La fecha de expiración
+	 */
+	public Instant getExpiresAt() {
+		return expiresAt;
+	}
+
+	/**
+	 * Establece la fecha de expiración.
+	 * 
+	 * @param expiresAt La nueva fecha de expiración
+	 */
+	public void setExpiresAt(Instant expiresAt) {
+		this.expiresAt = expiresAt;
+	}
+
+	/**
+	 * Obtiene la fecha de uso.
+	 * 
+	 * @return La fecha en que se usó el token, o null si no se ha usado
+	 */
+	public Instant getUsedAt() {
+		return usedAt;
+	}
+
+	/**
+	 * Establece la fecha de uso.
+	 * 
+	 * @param usedAt La nueva fecha de uso
+	 */
+	public void setUsedAt(Instant usedAt) {
+		this.usedAt = usedAt;
+	}
+
+	/**
+	 * Indica si el token fue revocado.
+	 * 
+	 * @return true si el token fue revocado
+	 */
+	public boolean isRevoked() {
+		return revoked;
+	}
+
+	/**
+	 * Establece si el token fue revocado.
+	 * 
+	 * @param revoked true para revocar el token
+	 */
+	public void setRevoked(boolean revoked) {
+		this.revoked = revoked;
+	}
+}
@@ -0,0 +1,89 @@
+package co.edu.unbosque.springfirstapp.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Clase que representa un token JWT revocado antes de su expiración (por ejemplo, al cerrar
+ * sesión).
+ * 
+ * Solo se guarda el identificador del token (jti) y su fecha de expiración; una vez expirado, el
+ * token ya es rechazado por su firma y el registro se elimina.
+ * 
+ * Esta entidad se almacena en la tabla "revoked_token" en la base de datos.
+ */
+@Entity
+@Table(name = "revoked_token", indexes = @Index(name = "idx_revoked_token_expires_at", columnList = "expiresAt"))
+public class RevokedToken {
+
+	/**
+	 * Identificador único del token (reclamación jti).
+	 */
+	@Id
+	@Column(length = 36)
+	private String jti;
+
+	/**
+	 * Fecha de expiración del token revocado.
+	 */
+	@Column(nullable = false)
+	private Instant expiresAt;
+
+	/**
+	 * Constructor por defecto requerido por JPA.
+	 */
+	public RevokedToken() {
+	}
+
+	/**
+	 * Constructor con identificador y fecha de expiración.
+	 * 
+	 * @param jti       Identificador único del token
+	 * @param expiresAt Fecha de expiración del token
+	 */
+	public RevokedToken(String jti, Instant expiresAt) {
+		this.jti = jti;
+		this.expiresAt = expiresAt;
+	}
+
+	/**
+	 * Obtiene el identificador del token.
+	 * 
+	 * @return El identificador único del token
+	 */
+	public String getJti() {
+		return jti;
+	}
+
+	/**
+	 * Establece el identificador del token.
+	 * 
+	 * @param jti El nuevo identificador del token
+	 */
+	public void setJti(String jti) {
+		this.jti = jti;
+	}
+
+	/**
+	 * Obtiene la fecha de expiración del token.
+	 * 
+	 * @return La fecha de expiración
+	 */
+	public Instant getExpiresAt() {
+		return expiresAt;
+	}
+
+	/**
+	 * Establece la fecha de expiración del token.
+	 * 
+	 * @param expiresAt La nueva fecha de expiración
+	 */
+	public void setExpiresAt(Instant expiresAt) {
+		this.expiresAt = expiresAt;
+	}
+}
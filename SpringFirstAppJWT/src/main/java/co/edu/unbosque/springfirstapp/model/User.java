@@ -4,27 +4,42 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import co.edu.unbosque.springfirstapp.security.EncryptedStringConverter;
+
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 /**
  * Clase que representa un usuario en el sistema.
  * Implementa UserDetails para integrarse con Spring Security.
  * 
- * Esta entidad se almacena en la tabla "useraccount" en la base de datos.
+ * Esta entidad se almacena en la tabla "useraccount" en la base de datos. Los usuarios y la
+ * resolución de su nombre de usuario (identificador natural) se conservan en la cache de segundo
+ * nivel de Hibernate.
  */
 @Entity
-@Table(name = "useraccount")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@NaturalIdCache(region = User.NATURAL_ID_CACHE_REGION)
+@Table(name = "useraccount", indexes = {
+		@Index(name = "idx_useraccount_role_id", columnList = "role, id"),
+		@Index(name = "idx_useraccount_role_username", columnList = "role, username") })
 public class User implements UserDetails {
 
 	/**
@@ -32,6 +47,23 @@ public class User implements UserDetails {
 	 */
 	private static final long serialVersionUID = 1L;
 
+	/**
+	 * Región de la cache de segundo nivel con los usuarios por identificador.
+	 */
+	public static final String CACHE_REGION = "user";
+
+	/**
+	 * Región de la cache de segundo nivel que resuelve el nombre de usuario al identificador.
+	 */
+	public static final String NATURAL_ID_CACHE_REGION = "user-natural-id";
+
+	/**
+	 * Espacio de consulta de las sentencias nativas sobre usuarios. No coincide con ninguna tabla,
+	 * de modo que Hibernate no vacía las regiones completas al ejecutarlas: cada escritura invalida
+	 * solo el usuario y el nombre de usuario afectados.
+	 */
+	public static final String NATIVE_QUERY_SPACE = "useraccount-native";
+
 	/**
 	 * Identificador único del usuario.
 	 * Se genera automáticamente con estrategia de identidad.
@@ -39,14 +71,18 @@ public class User implements UserDetails {
 	private @Id @GeneratedValue(strategy = GenerationType.IDENTITY) Long id;
 
 	/**
-	 * Nombre de usuario único en el sistema.
+	 * Nombre de usuario único en el sistema. Es el identificador natural del usuario; es mutable
+	 * porque los administradores pueden cambiarlo.
 	 */
+	@NaturalId(mutable = true)
 	@Column(unique=true)
 	private String username;
 
 	/**
 	 * Contraseña del usuario (almacenada con encriptación).
+	 * El hash además se cifra en reposo con la clave activa de cifrado de columnas.
 	 */
+	@Convert(converter = EncryptedStringConverter.class)
 	private String password;
 
 	/**
@@ -75,6 +111,21 @@ public class User implements UserDetails {
 	 */
 	private boolean enabled;
 
+	/**
+	 * Versión de los tokens emitidos para el usuario. Se incrementa cada vez que cambian sus
+	 * credenciales, su rol o se elimina, de modo que los tokens con una versión anterior dejan de
+	 * ser válidos.
+	 */
+	private int tokenVersion;
+
+	/**
+	 * Versión de la fila para el control de concurrencia optimista. Se incrementa con cada
+	 * modificación, de modo que una edición basada en una versión anterior se rechaza en lugar de
+	 * sobrescribir la más reciente.
+	 */
+	@Version
+	private long version;
+
 	/**
 	 * Constructor por defecto.
 	 * Inicializa un usuario con valores predeterminados:
@@ -240,6 +291,42 @@ public class User implements UserDetails {
 		this.enabled = enabled;
 	}
 
+	/**
+	 * Obtiene la versión actual de los tokens del usuario.
+	 * 
+	 * @return La versión de los tokens
+	 */
+	public int getTokenVersion() {
+		return tokenVersion;
+	}
+
+	/**
+	 * Establece la versión de los tokens del usuario.
+	 * 
+	 * @param tokenVersion La nueva versión de los tokens
+	 */
+	public void setTokenVersion(int tokenVersion) {
+		this.tokenVersion = tokenVersion;
+	}
+
+	/**
+	 * Obtiene la versión de la fila para el control de concurrencia optimista.
+	 * 
+	 * @return La versión de la fila
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Establece la versión de la fila para el control de concurrencia optimista.
+	 * 
+	 * @param version La nueva versión de la fila
+	 */
+	public void setVersion(long version) {
+		this.version = version;
+	}
+
 	/**
 	 * Obtiene el identificador único del usuario.
 	 * 
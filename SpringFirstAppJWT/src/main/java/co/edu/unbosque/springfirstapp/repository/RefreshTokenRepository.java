@@ -0,0 +1,61 @@
+package co.edu.unbosque.springfirstapp.repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import co.edu.unbosque.springfirstapp.model.RefreshToken;
+
+/**
+ * Repositorio para la entidad RefreshToken.
+ * Proporciona operaciones CRUD básicas heredadas de JpaRepository
+ * y métodos para rotar, revocar y purgar tokens de actualización.
+ */
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+	/**
+	 * Busca un token por su resumen.
+	 * 
+	 * @param tokenHash Resumen SHA-256 del token
+	 * @return Un Optional que contiene el token si existe, o vacío si no existe
+	 */
+	public Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+	/**
+	 * Marca un token como usado solo si aún no lo estaba. La condición se evalúa en la base de datos,
+	 * de modo que de dos usos concurrentes del mismo token solo uno tiene éxito.
+	 * 
+	 * @param id  Identificador del token
+	 * @param now Instante del uso
+	 * @return 1 si se marcó el token, 0 si ya estaba usado o revocado
+	 */
+	@Modifying
+	@Query("update RefreshToken r set r.usedAt = :now where r.id = :id and r.usedAt is null and r.revoked = false")
+	public int markUsed(@Param("id") Long id, @Param("now") Instant now);
+
+	/**
+	 * Revoca todos los tokens de una familia.
+	 * 
+	 * @param familyId Identificador de la familia
+	 * @return Número de tokens revocados
+	 */
+	@Modifying
+	@Query("update RefreshToken r set r.revoked = true where r.familyId = :familyId")
+	public int revokeFamily(@Param("familyId") String familyId);
+
+	/**
+	 * Elimina los tokens que ya expiraron.
+	 * 
+	 * @param now Instante actual
+	 * @return Número de registros eliminados
+	 */
+	@Modifying
+	@Transactional
+	@Query("delete from RefreshToken r where r.expiresAt <= :now")
+	public int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,40 @@
+package co.edu.unbosque.springfirstapp.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import co.edu.unbosque.springfirstapp.model.RevokedToken;
+
+/**
+ * Repositorio para la entidad RevokedToken.
+ * Proporciona operaciones CRUD básicas heredadas de JpaRepository
+ * y métodos para reconstruir el filtro de revocación y purgar los registros expirados.
+ */
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+	/**
+	 * Obtiene los identificadores de los tokens revocados que aún no han expirado.
+	 * 
+	 * @param now Instante actual
+	 * @return Lista de identificadores (jti) vigentes
+	 */
+	@Query("select r.jti from RevokedToken r where r.expiresAt > :now")
+	public List<String> findActiveJtis(@Param("now") Instant now);
+
+	/**
+	 * Elimina los tokens revocados que ya expiraron.
+	 * 
+	 * @param now Instante actual
+	 * @return Número de registros eliminados
+	 */
+	@Modifying
+	@Transactional
+	@Query("delete from RevokedToken r where r.expiresAt <= :now")
+	public int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,33 @@
+package co.edu.unbosque.springfirstapp.repository;
+
+import java.util.Optional;
+
+import co.edu.unbosque.springfirstapp.model.User;
+
+/**
+ * Búsquedas de usuarios por su identificador natural (el nombre de usuario). Se implementan con la
+ * API de identificadores naturales de Hibernate en lugar de una consulta, de modo que se resuelven
+ * desde la cache de segundo nivel sin acceder a la base de datos.
+ */
+public interface UserNaturalIdRepository {
+
+	/**
+	 * Busca un usuario por su nombre de usuario.
+	 * 
+	 * @param username El nombre de usuario a buscar
+	 * @return Un Optional que contiene el usuario si existe, o vacío si no existe
+	 */
+	public Optional<User> findByUsername(String username);
+
+	/**
+	 * Invalida en la cache de segundo nivel solo las entradas de un usuario: la entidad por su
+	 * identificador y la resolución de los nombres de usuario indicados. Las sentencias nativas de
+	 * {@link UserRepository} no invalidan la cache, por lo que se invoca después de ellas. Si hay una
+	 * transacción activa, la invalidación se repite tras el commit para no conservar datos leídos
+	 * antes de él.
+	 * 
+	 * @param id        Identificador del usuario, puede ser null
+	 * @param usernames Nombres de usuario afectados
+	 */
+	public void evictFromCache(Long id, String... usernames);
+}
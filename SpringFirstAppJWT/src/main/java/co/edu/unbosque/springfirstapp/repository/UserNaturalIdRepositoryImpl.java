@@ -0,0 +1,140 @@
+package co.edu.unbosque.springfirstapp.repository;
+
+import java.util.Optional;
+
+import org.hibernate.cache.spi.access.NaturalIdDataAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import co.edu.unbosque.springfirstapp.configuration.ReadWriteRoutingDataSource;
+import co.edu.unbosque.springfirstapp.model.User;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Implementación de {@link UserNaturalIdRepository}. Spring Data la combina con
+ * {@link UserRepository} por el sufijo {@code Impl} del nombre.
+ */
+public class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+	/**
+	 * Contexto de persistencia de la transacción actual.
+	 */
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	/**
+	 * Constructor por defecto.
+	 */
+	public UserNaturalIdRepositoryImpl() {
+	}
+
+	/**
+	 * Busca un usuario por su nombre de usuario. El nombre se resuelve al identificador con la región
+	 * de identificadores naturales y el usuario se obtiene de la región de la entidad; solo ante un
+	 * fallo de la cache se consulta la base de datos. Esa consulta va a la base principal y no a una
+	 * réplica, para no guardar en la cache datos atrasados.
+	 * 
+	 * <p>Al renombrar un usuario no se conoce su nombre anterior, por lo que su resolución puede
+	 * seguir en la cache apuntando al usuario renombrado. Si el usuario obtenido tiene otro nombre, o
+	 * no existe pese a estar resuelto en la cache, se descarta esa resolución y se consulta la base
+	 * de datos.
+	 * 
+	 * @param username El nombre de usuario a buscar
+	 * @return Un Optional que contiene el usuario si existe, o vacío si no existe
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<User> findByUsername(String username) {
+		if (username == null) {
+			return Optional.empty();
+		}
+		return ReadWriteRoutingDataSource.readFromPrimary(() -> load(username));
+	}
+
+	/**
+	 * Carga un usuario por su nombre de usuario desde la cache o la base de datos, descartando las
+	 * resoluciones desactualizadas.
+	 * 
+	 * @param username El nombre de usuario a buscar
+	 * @return Un Optional que contiene el usuario si existe, o vacío si no existe
+	 */
+	private Optional<User> load(String username) {
+		SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+		NaturalIdDataAccess naturalIds = persister().getNaturalIdCacheAccessStrategy();
+		Object key = naturalIds.generateCacheKey(username, persister(), session);
+		boolean resolvedFromCache = naturalIds.contains(key);
+		Optional<User> user = session.bySimpleNaturalId(User.class).loadOptional(username);
+		boolean current = user.map(found -> username.equals(found.getUsername())).orElse(false);
+		if (!resolvedFromCache || current) {
+			return user;
+		}
+		naturalIds.evict(key);
+		return session.createSelectionQuery("from User u where u.username = :username", User.class)
+				.setParameter("username", username).uniqueResultOptional();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void evictFromCache(Long id, String... usernames) {
+		evict(id, usernames);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					evict(id, usernames);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Descarta inmediatamente las entradas indicadas.
+	 * 
+	 * @param id        Identificador del usuario, puede ser null
+	 * @param usernames Nombres de usuario afectados
+	 */
+	private void evict(Long id, String... usernames) {
+		SessionFactoryImplementor factory = sessionFactory();
+		if (id != null) {
+			factory.getCache().evictEntityData(User.class, id);
+		}
+		if (usernames.length == 0) {
+			return;
+		}
+		NaturalIdDataAccess naturalIds = persister().getNaturalIdCacheAccessStrategy();
+		// La clave solo usa la sesión para el inquilino; una sesión sin conexión basta
+		try (SessionImplementor session = (SessionImplementor) factory.openSession()) {
+			for (String username : usernames) {
+				if (username != null) {
+					naturalIds.evict(naturalIds.generateCacheKey(username, persister(), session));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Obtiene la fábrica de sesiones de Hibernate.
+	 * 
+	 * @return Fábrica de sesiones
+	 */
+	private SessionFactoryImplementor sessionFactory() {
+		return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+	}
+
+	/**
+	 * Obtiene el persistidor de {@link User}, que da acceso a sus regiones de cache.
+	 * 
+	 * @return Persistidor de la entidad
+	 */
+	private EntityPersister persister() {
+		return sessionFactory().getMappingMetamodel().getEntityDescriptor(User.class);
+	}
+}
@@ -1,29 +1,216 @@
 package co.edu.unbosque.springfirstapp.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import org.hibernate.jpa.HibernateHints;
+
+import co.edu.unbosque.springfirstapp.dto.UserDTO;
+import co.edu.unbosque.springfirstapp.dto.UserSummary;
 import co.edu.unbosque.springfirstapp.model.User;
+import co.edu.unbosque.springfirstapp.model.User.Role;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import jakarta.persistence.QueryHint;
 
 /**
  * Repositorio para la entidad User.
  * Proporciona operaciones CRUD básicas heredadas de JpaRepository
- * y métodos personalizados para buscar y eliminar usuarios por nombre de usuario.
+ * y métodos personalizados para buscar y eliminar usuarios por nombre de usuario. La búsqueda por
+ * nombre de usuario se hereda de {@link UserNaturalIdRepository}.
  */
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
 
 	/**
-	 * Busca un usuario por su nombre de usuario.
+	 * Obtiene únicamente el identificador de un usuario por su nombre de usuario, sin cargar la
+	 * entidad.
 	 * 
 	 * @param username El nombre de usuario a buscar
-	 * @return Un Optional que contiene el usuario si existe, o vacío si no existe
+	 * @return Un Optional con el identificador, o vacío si el usuario no existe
+	 */
+	@Query("select u.id from User u where u.username = :username")
+	public Optional<Long> findIdByUsername(@Param("username") String username);
+
+	/**
+	 * Obtiene únicamente la versión de los tokens de un usuario, sin cargar la entidad completa. Debe
+	 * leerse con {@code ReadWriteRoutingDataSource.readFromPrimary}: una réplica atrasada aceptaría
+	 * tokens ya revocados.
+	 * 
+	 * @param id El identificador del usuario
+	 * @return Un Optional con la versión de los tokens, o vacío si el usuario no existe
+	 */
+	@Transactional(readOnly = true)
+	@Query("select u.tokenVersion from User u where u.id = :id")
+	public Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
+	/**
+	 * Lista todos los usuarios directamente como DTOs. Solo se seleccionan el identificador, el nombre
+	 * de usuario, el rol y la versión (nunca la contraseña), y los resultados no son entidades, por lo que no se
+	 * agregan al contexto de persistencia ni se revisan al confirmar.
+	 * 
+	 * @return DTOs de todos los usuarios, sin contraseña
+	 */
+	@Transactional(readOnly = true)
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+	@Query("select new co.edu.unbosque.springfirstapp.dto.UserDTO(u.id, u.username, u.role, u.version) from User u")
+	public List<UserDTO> findAllDTOs();
+
+	/**
+	 * Obtiene, en una sola consulta, cuáles de los nombres de usuario indicados ya existen.
+	 * 
+	 * @param usernames Nombres de usuario a verificar
+	 * @return Nombres de usuario existentes
+	 */
+	@Query("select u.username from User u where u.username in :usernames")
+	public List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+	/**
+	 * Obtiene los datos públicos de los usuarios con los nombres indicados, en una sola consulta.
+	 * 
+	 * @param usernames Nombres de usuario
+	 * @return Usuarios encontrados
+	 */
+	public List<UserSummary> findByUsernameIn(Collection<String> usernames);
+
+	/**
+	 * Lista usuarios por desplazamiento con cursor (keyset): la posición se traduce en una condición
+	 * sobre las columnas de orden, sin OFFSET, por lo que cada página cuesta lo mismo.
+	 * 
+	 * @param position Posición a partir de la cual se lee
+	 * @param sort     Orden del listado
+	 * @param limit    Número máximo de usuarios
+	 * @return Ventana de usuarios
+	 */
+	public Window<UserSummary> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+	/**
+	 * Lista los usuarios de un rol por desplazamiento con cursor (keyset), usando los índices que
+	 * empiezan por el rol.
+	 * 
+	 * @param role     Rol de los usuarios
+	 * @param position Posición a partir de la cual se lee
+	 * @param sort     Orden del listado
+	 * @param limit    Número máximo de usuarios
+	 * @return Ventana de usuarios
 	 */
-	public Optional<User> findByUsername(String username);
+	public Window<UserSummary> findByRole(Role role, ScrollPosition position, Sort sort, Limit limit);
 
 	/**
-	 * Elimina un usuario por su nombre de usuario.
+	 * Recorre todos los usuarios ordenados por identificador como un flujo, para exportaciones. Solo
+	 * se seleccionan las columnas públicas (nunca la contraseña) y los resultados son proyecciones, no
+	 * entidades, por lo que el contexto de persistencia no crece. El tamaño de lote de JDBC hace que
+	 * las filas se lean por bloques en lugar de cargarse todas en memoria.
+	 * 
+	 * <p>Debe consumirse dentro de una transacción y cerrarse al terminar.
+	 * 
+	 * @return Flujo de usuarios
+	 */
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false") })
+	@Query("select u.id as id, u.username as username, u.role as role from User u order by u.id")
+	public Stream<UserSummary> streamAllBy();
+
+	/**
+	 * Actualiza el nombre de usuario, la contraseña y, si se indica, el rol de un usuario con una sola
+	 * sentencia, e incrementa su versión de fila y su versión de tokens para revocar los emitidos. La
+	 * unicidad del nombre la garantiza la restricción de la columna: si otro usuario ya lo tiene, la
+	 * sentencia falla con {@link org.springframework.dao.DataIntegrityViolationException}.
+	 * 
+	 * <p>Si se indica la versión esperada, la fila solo se actualiza si conserva esa versión; así una
+	 * edición basada en datos desactualizados no sobrescribe una posterior.
+	 * 
+	 * <p>Es una sentencia nativa sobre {@link User#NATIVE_QUERY_SPACE}, por lo que no pasa por el
+	 * convertidor de cifrado ni invalida la cache de segundo nivel: la contraseña se recibe ya
+	 * cifrada y quien la invoca invalida el usuario con
+	 * {@link UserNaturalIdRepository#evictFromCache(Long, String...)}.
+	 * 
+	 * @param id       Identificador del usuario
+	 * @param version  Versión esperada de la fila, o null para no comprobarla
+	 * @param username Nuevo nombre de usuario
+	 * @param password Nueva contraseña, ya codificada y cifrada
+	 * @param role     Nombre del nuevo rol, o null para conservar el actual
+	 * @return 1 si se actualizó, 0 si el usuario no existe o su versión no coincide
+	 */
+	@Transactional
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = User.NATIVE_QUERY_SPACE))
+	@Query(value = "update useraccount set username = :username, password = :password, role = coalesce(:role, role), token_version = token_version + 1, version = version + 1 where id = :id and version = coalesce(:version, version)", nativeQuery = true)
+	public int updateCredentials(@Param("id") Long id, @Param("version") Long version,
+			@Param("username") String username, @Param("password") String password, @Param("role") String role);
+
+	/**
+	 * Elimina un usuario con una sola sentencia, sin cargar la entidad. Si se indica la versión
+	 * esperada, solo se elimina si la fila conserva esa versión.
+	 * 
+	 * <p>Como {@link #updateCredentials}, no invalida la cache de segundo nivel; quien la invoca
+	 * invalida el usuario eliminado.
+	 * 
+	 * @param id      Identificador del usuario
+	 * @param version Versión esperada de la fila, o null para no comprobarla
+	 * @return 1 si se eliminó, 0 si el usuario no existe o su versión no coincide
+	 */
+	@Transactional
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = User.NATIVE_QUERY_SPACE))
+	@Query(value = "delete from useraccount where id = :id and version = coalesce(:version, version)", nativeQuery = true)
+	public int deleteByIdAndVersion(@Param("id") Long id, @Param("version") Long version);
+
+	/**
+	 * Obtiene un bloque del valor almacenado de la contraseña (sin pasar por el convertidor de
+	 * cifrado), ordenado por identificador. Se usa para volver a cifrar las filas por bloques.
+	 * 
+	 * @param afterId Identificador a partir del cual se lee (exclusivo)
+	 * @param limit   Número máximo de filas
+	 * @return Pares [id, valor almacenado]
+	 */
+	@Query(value = "select u.id, u.password from useraccount u where u.id > :afterId order by u.id limit :limit", nativeQuery = true)
+	public List<Object[]> findStoredPasswordChunk(@Param("afterId") long afterId, @Param("limit") int limit);
+
+	/**
+	 * Reemplaza el valor almacenado de la contraseña solo si no cambió desde que se leyó, para no
+	 * sobrescribir una contraseña actualizada de forma concurrente. El valor descifrado no cambia,
+	 * por lo que la cache de segundo nivel se conserva.
+	 * 
+	 * @param id       Identificador del usuario
+	 * @param previous Valor almacenado leído
+	 * @param value    Valor almacenado nuevo
+	 * @return 1 si se reemplazó, 0 si el valor había cambiado
+	 */
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = User.NATIVE_QUERY_SPACE))
+	@Query(value = "update useraccount set password = :value where id = :id and password = :previous", nativeQuery = true)
+	public int replaceStoredPassword(@Param("id") long id, @Param("previous") String previous, @Param("value") String value);
+
+	/**
+	 * Guarda el nuevo hash de una contraseña que no cambió, con una sola sentencia y sin comprobar ni
+	 * incrementar la versión de la fila, de modo que no falla por una actualización concurrente de
+	 * otros datos. Solo se aplica si la versión de los tokens es la leída: si aumentó, la contraseña
+	 * se cambió entretanto y no se sobrescribe.
+	 * 
+	 * <p>Como {@link #updateCredentials}, recibe la contraseña ya cifrada y no invalida la cache de
+	 * segundo nivel; quien la invoca invalida el usuario.
 	 * 
-	 * @param username El nombre de usuario del usuario a eliminar
+	 * @param id           Identificador del usuario
+	 * @param tokenVersion Versión de los tokens leída junto con el hash anterior
+	 * @param password     Nuevo hash, ya cifrado
+	 * @return 1 si se actualizó, 0 si el usuario no existe o su contraseña cambió
 	 */
-	public void deleteByUsername(String username); 
+	@Transactional
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = User.NATIVE_QUERY_SPACE))
+	@Query(value = "update useraccount set password = :password where id = :id and token_version = :tokenVersion", nativeQuery = true)
+	public int upgradePassword(@Param("id") Long id, @Param("tokenVersion") int tokenVersion,
+			@Param("password") String password);
 }
@@ -0,0 +1,59 @@
+package co.edu.unbosque.springfirstapp.security;
+
+import java.time.Duration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Calcula el factor de trabajo (costo) de BCrypt adecuado para la máquina en la que se ejecuta la
+ * aplicación. Cada incremento del costo duplica el tiempo de cálculo, por lo que basta con medir un
+ * costo base y extrapolar hasta el presupuesto de latencia deseado.
+ */
+public final class BCryptCostCalibrator {
+
+  /** Contraseña de muestra usada en las mediciones. */
+  private static final String SAMPLE = "calibracion-Bcrypt-123!";
+
+  /** Número de mediciones por costo; se conserva la más rápida para descartar ruido. */
+  private static final int SAMPLES = 3;
+
+  /** Constructor privado: clase de utilidad. */
+  private BCryptCostCalibrator() {}
+
+  /**
+   * Determina el mayor costo cuyo tiempo de cálculo no supera el presupuesto indicado, dentro del
+   * rango permitido.
+   *
+   * @param target Latencia objetivo de un cálculo de hash
+   * @param minCost Costo mínimo aceptado por la política de seguridad
+   * @param maxCost Costo máximo aceptado
+   * @return Costo calibrado entre minCost y maxCost
+   */
+  public static int calibrate(Duration target, int minCost, int maxCost) {
+    long targetNanos = target.toNanos();
+    int cost = minCost;
+    long nanos = measure(cost);
+    // Cada incremento de costo duplica el trabajo
+    while (cost < maxCost && nanos * 2 <= targetNanos) {
+      cost++;
+      nanos *= 2;
+    }
+    return cost;
+  }
+
+  /**
+   * Mide el tiempo de cálculo de un hash BCrypt con el costo indicado.
+   *
+   * @param cost Costo de BCrypt
+   * @return Menor tiempo observado en nanosegundos
+   */
+  public static long measure(int cost) {
+    BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+    long best = Long.MAX_VALUE;
+    for (int i = 0; i < SAMPLES; i++) {
+      long start = System.nanoTime();
+      encoder.encode(SAMPLE);
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    return best;
+  }
+}
@@ -0,0 +1,39 @@
+package co.edu.unbosque.springfirstapp.security;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Convertidor JPA que cifra una columna de texto al guardarla y la descifra al leerla usando el
+ * {@link FieldEncryptionKeyRing}. Hibernate obtiene la instancia del contenedor de Spring, por lo
+ * que el anillo de claves se inyecta por constructor.
+ *
+ * <p>Se aplica con {@code @Convert(converter = EncryptedStringConverter.class)}. Las columnas
+ * cifradas no pueden usarse en condiciones de búsqueda, ya que cada cifrado produce un valor
+ * distinto.
+ */
+@Converter
+public class EncryptedStringConverter implements AttributeConverter<String, String> {
+
+  /** Anillo de claves de cifrado. */
+  private final FieldEncryptionKeyRing keyRing;
+
+  /**
+   * Constructor que recibe el anillo de claves.
+   *
+   * @param keyRing Anillo de claves de cifrado
+   */
+  public EncryptedStringConverter(FieldEncryptionKeyRing keyRing) {
+    this.keyRing = keyRing;
+  }
+
+  @Override
+  public String convertToDatabaseColumn(String attribute) {
+    return keyRing.encrypt(attribute);
+  }
+
+  @Override
+  public String convertToEntityAttribute(String dbData) {
+    return keyRing.decrypt(dbData);
+  }
+}
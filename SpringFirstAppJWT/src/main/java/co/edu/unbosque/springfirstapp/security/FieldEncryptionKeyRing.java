@@ -0,0 +1,134 @@
+package co.edu.unbosque.springfirstapp.security;
+
+import co.edu.unbosque.springfirstapp.util.AesGcmEngine;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import javax.crypto.AEADBadTagException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Anillo de claves para el cifrado de columnas en reposo. Conserva un {@link AesGcmEngine} por
+ * clave (con su {@code Cipher} por hilo), de modo que cifrar o descifrar un valor no construye
+ * claves ni cifradores.
+ *
+ * <p>Los valores cifrados tienen el formato {@code enc:<id de clave>:<Base64 de nonce || texto
+ * cifrado || etiqueta>}. Los nuevos se cifran siempre con la clave activa y los existentes se
+ * descifran con la clave indicada en su prefijo, por lo que rotar la clave no obliga a reescribir
+ * todas las filas a la vez. Los valores sin prefijo se consideran texto plano anterior al cifrado y
+ * se devuelven sin cambios.
+ *
+ * <p>Las claves se configuran en {@code security.field-encryption.keys} como {@code
+ * id:claveBase64} separados por comas. Si no hay claves configuradas, el cifrado queda desactivado.
+ */
+@Component
+public class FieldEncryptionKeyRing {
+
+  /** Prefijo de los valores cifrados. */
+  public static final String PREFIX = "enc:";
+
+  /** Motores de cifrado por identificador de clave. */
+  private final Map<String, AesGcmEngine> engines = new HashMap<>();
+
+  /** Identificador de la clave activa, o null si el cifrado está desactivado. */
+  private final String activeKeyId;
+
+  /** Prefijo completo de los valores cifrados con la clave activa. */
+  private final String activePrefix;
+
+  /**
+   * Constructor que carga las claves configuradas.
+   *
+   * @param keys Claves como {@code id:claveBase64} separadas por comas; vacío para desactivar
+   * @param activeKeyId Identificador de la clave para los valores nuevos; vacío para usar la última
+   * @throws IllegalArgumentException Si alguna clave está mal formada o la activa no existe
+   */
+  public FieldEncryptionKeyRing(
+      @Value("${security.field-encryption.keys:}") String keys,
+      @Value("${security.field-encryption.active-key-id:}") String activeKeyId) {
+    String last = null;
+    for (String entry : keys.split(",")) {
+      entry = entry.trim();
+      if (entry.isEmpty()) {
+        continue;
+      }
+      int separator = entry.indexOf(':');
+      if (separator <= 0) {
+        throw new IllegalArgumentException("Clave de cifrado sin identificador");
+      }
+      last = entry.substring(0, separator);
+      byte[] key = Base64.getDecoder().decode(entry.substring(separator + 1));
+      engines.put(last, new AesGcmEngine(key));
+    }
+    this.activeKeyId = activeKeyId.isEmpty() ? last : activeKeyId;
+    if (this.activeKeyId != null && !engines.containsKey(this.activeKeyId)) {
+      throw new IllegalArgumentException("La clave activa no está configurada: " + activeKeyId);
+    }
+    this.activePrefix = PREFIX + this.activeKeyId + ":";
+  }
+
+  /**
+   * Indica si el cifrado está activado.
+   *
+   * @return true si hay una clave activa
+   */
+  public boolean isEnabled() {
+    return activeKeyId != null;
+  }
+
+  /**
+   * Cifra un valor con la clave activa.
+   *
+   * @param plaintext Valor en claro, o null
+   * @return Valor cifrado con prefijo, o el mismo valor si el cifrado está desactivado
+   */
+  public String encrypt(String plaintext) {
+    if (plaintext == null || activeKeyId == null) {
+      return plaintext;
+    }
+    AesGcmEngine engine = engines.get(activeKeyId);
+    byte[] encrypted = engine.encrypt(plaintext.getBytes(StandardCharsets.UTF_8));
+    return activePrefix + Base64.getEncoder().withoutPadding().encodeToString(encrypted);
+  }
+
+  /**
+   * Descifra un valor con la clave indicada en su prefijo.
+   *
+   * @param stored Valor almacenado, o null
+   * @return Valor en claro; los valores sin prefijo se devuelven sin cambios
+   * @throws IllegalStateException Si la clave no está configurada o el valor fue alterado
+   */
+  public String decrypt(String stored) {
+    if (stored == null || !stored.startsWith(PREFIX)) {
+      return stored;
+    }
+    int separator = stored.indexOf(':', PREFIX.length());
+    if (separator < 0) {
+      throw new IllegalStateException("Valor cifrado mal formado");
+    }
+    String keyId = stored.substring(PREFIX.length(), separator);
+    AesGcmEngine engine = engines.get(keyId);
+    if (engine == null) {
+      throw new IllegalStateException("Clave de cifrado desconocida: " + keyId);
+    }
+    try {
+      byte[] message = Base64.getDecoder().decode(stored.substring(separator + 1));
+      return new String(engine.decrypt(message), StandardCharsets.UTF_8);
+    } catch (AEADBadTagException | IllegalArgumentException e) {
+      throw new IllegalStateException("Valor cifrado alterado o mal formado", e);
+    }
+  }
+
+  /**
+   * Indica si un valor almacenado ya está en el formato de la clave activa, es decir, si no
+   * necesita volver a cifrarse.
+   *
+   * @param stored Valor almacenado
+   * @return true si está cifrado con la clave activa, o si es null o el cifrado está desactivado
+   */
+  public boolean isCurrent(String stored) {
+    return stored == null || activeKeyId == null || stored.startsWith(activePrefix);
+  }
+}
@@ -1,10 +1,13 @@
 package co.edu.unbosque.springfirstapp.security;
 
+import co.edu.unbosque.springfirstapp.model.User;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -17,6 +20,15 @@ import org.springframework.web.filter.OncePerRequestFilter;
  * Filtro de autenticación JWT que intercepta las solicitudes HTTP. Valida los tokens JWT en las
  * solicitudes y establece la autenticación en el contexto de seguridad. Se ejecuta una vez por cada
  * solicitud.
+ *
+ * <p>En modo sin estado ({@code jwt.stateless-principal=true}) la autenticación se construye solo a
+ * partir de las reclamaciones verificadas del token, sin consultar la base de datos; la revocación
+ * se controla comparando la versión del token con {@link TokenVersionRegistry}. Como esa versión se
+ * conserva en memoria por un tiempo acotado, un cambio hecho en otro nodo tarda hasta ese tiempo en
+ * rechazar los tokens anteriores; por eso el modo está desactivado por defecto.
+ *
+ * <p>En ambos modos se rechazan los tokens revocados individualmente (cierre de sesión), consultados
+ * en {@link TokenRevocationService}.
  */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -27,15 +39,35 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
   /** Servicio para cargar los detalles del usuario. */
   private final UserDetailsService userDetailsService;
 
+  /** Registro de versiones de tokens usado en el modo sin estado. */
+  private final TokenVersionRegistry tokenVersionRegistry;
+
+  /** Lista de tokens revocados. */
+  private final TokenRevocationService tokenRevocationService;
+
+  /** Indica si el principal se construye solo a partir del token. */
+  private final boolean statelessPrincipal;
+
   /**
    * Constructor que inicializa las dependencias necesarias para el filtro.
    *
    * @param jwtUtil Utilidad para operaciones con tokens JWT
    * @param userDetailsService Servicio para cargar los detalles del usuario
+   * @param tokenVersionRegistry Registro de versiones de tokens
+   * @param tokenRevocationService Lista de tokens revocados
+   * @param statelessPrincipal true para no consultar la base de datos en cada solicitud
    */
-  public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+  public JwtAuthenticationFilter(
+      JwtUtil jwtUtil,
+      UserDetailsService userDetailsService,
+      TokenVersionRegistry tokenVersionRegistry,
+      TokenRevocationService tokenRevocationService,
+      @Value("${jwt.stateless-principal:false}") boolean statelessPrincipal) {
     this.jwtUtil = jwtUtil;
     this.userDetailsService = userDetailsService;
+    this.tokenVersionRegistry = tokenVersionRegistry;
+    this.tokenRevocationService = tokenRevocationService;
+    this.statelessPrincipal = statelessPrincipal;
   }
 
   /**
@@ -58,20 +90,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     String username = null;
     String jwt = null;
+    Claims claims = null;
 
     if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
       jwt = authorizationHeader.substring(7);
       try {
-        username = jwtUtil.extractUsername(jwt);
+        claims = jwtUtil.parseAndVerify(jwt);
+        if (!tokenRevocationService.isRevoked(claims.getId())) {
+          username = claims.getSubject();
+        }
       } catch (Exception e) {
         logger.error("Error extracting username from token", e);
       }
     }
 
     if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-      UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+      UserDetails userDetails = resolveUser(claims);
 
-      if (jwtUtil.validateToken(jwt, userDetails)) {
+      if (userDetails != null && jwtUtil.validateToken(jwt, userDetails)) {
         UsernamePasswordAuthenticationToken authenticationToken =
             new UsernamePasswordAuthenticationToken(
                 userDetails, null, userDetails.getAuthorities());
@@ -82,4 +118,51 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     filterChain.doFilter(request, response);
   }
+
+  /**
+   * Obtiene los detalles del usuario del token. En modo sin estado los construye a partir de las
+   * reclamaciones y comprueba su versión en memoria; en caso contrario los carga de la base de
+   * datos y compara la versión del token con la almacenada.
+   *
+   * @param claims Reclamaciones verificadas del token
+   * @return Detalles del usuario, o null si el token fue revocado
+   */
+  private UserDetails resolveUser(Claims claims) {
+    Integer version = claims.get(JwtUtil.TOKEN_VERSION_CLAIM, Integer.class);
+    if (statelessPrincipal) {
+      User principal = principalFromClaims(claims);
+      if (principal != null) {
+        return tokenVersionRegistry.isCurrent(principal.getId(), version) ? principal : null;
+      }
+    }
+    UserDetails userDetails = this.userDetailsService.loadUserByUsername(claims.getSubject());
+    if (version != null && userDetails instanceof User) {
+      User user = (User) userDetails;
+      if (user.getTokenVersion() != version) {
+        return null;
+      }
+    }
+    return userDetails;
+  }
+
+  /**
+   * Construye el principal a partir de las reclamaciones verificadas del token. Los tokens
+   * emitidos antes de incluir el identificador y la versión del usuario no se pueden resolver sin
+   * estado, por lo que devuelve null y el filtro recurre a la base de datos.
+   *
+   * @param claims Reclamaciones verificadas del token
+   * @return Usuario sin contraseña con el rol del token, o null si faltan reclamaciones
+   */
+  private User principalFromClaims(Claims claims) {
+    Long userId = claims.get(JwtUtil.USER_ID_CLAIM, Long.class);
+    Integer version = claims.get(JwtUtil.TOKEN_VERSION_CLAIM, Integer.class);
+    String role = claims.get("role", String.class);
+    if (userId == null || version == null || role == null) {
+      return null;
+    }
+    User principal = new User(claims.getSubject(), null, User.Role.valueOf(role));
+    principal.setId(userId);
+    principal.setTokenVersion(version);
+    return principal;
+  }
 }
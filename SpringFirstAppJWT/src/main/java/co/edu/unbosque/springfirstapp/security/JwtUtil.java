@@ -1,14 +1,30 @@
 package co.edu.unbosque.springfirstapp.security;
 
 import co.edu.unbosque.springfirstapp.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -17,12 +33,20 @@ import org.springframework.stereotype.Component;
 /**
  * Clase utilitaria para operaciones con JSON Web Tokens (JWT). Proporciona métodos para generar,
  * validar y extraer información de tokens JWT.
+ *
+ * <p>Las reclamaciones de cada token se verifican una sola vez y se guardan en una cache acotada
+ * cuya clave es el resumen SHA-256 del token. Cada entrada expira junto con el token, de modo que
+ * las consultas repetidas durante una misma solicitud (o solicitudes posteriores con el mismo
+ * token) no vuelven a analizar ni a comprobar la firma HMAC.
  */
 @Component
-public class JwtUtil {
+public class JwtUtil implements MeterBinder {
 
-  /** Tiempo de validez del token JWT en milisegundos (24 horas). */
-  private static final long JWT_TOKEN_VALIDITY = 24 * 60 * 60 * 1000; // 24 horas
+  /** Reclamación con el identificador del usuario. */
+  public static final String USER_ID_CLAIM = "uid";
+
+  /** Reclamación con la versión de los tokens del usuario al momento de emitirse. */
+  public static final String TOKEN_VERSION_CLAIM = "ver";
 
   /**
    * Clave secreta utilizada para firmar los tokens JWT. Se puede configurar en las propiedades de
@@ -31,14 +55,57 @@ public class JwtUtil {
   @Value("${jwt.secret:defaultSecretKeyWhichShouldBeAtLeast32CharactersLong}")
   private String secret;
 
+  /**
+   * Tiempo de validez del token de acceso en segundos. Es corto porque el cliente obtiene uno nuevo
+   * con su token de actualización, sin volver a enviar la contraseña.
+   */
+  @Value("${jwt.access-token-validity-seconds:900}")
+  private long accessTokenValiditySeconds;
+
+  /** Número máximo de tokens verificados que se conservan en la cache. */
+  @Value("${jwt.cache.max-size:10000}")
+  private long cacheMaxSize;
+
+  /** Clave de firma construida una sola vez a partir del secreto configurado. */
+  private Key signingKey;
+
+  /** Analizador de tokens reutilizable (es seguro entre hilos). */
+  private JwtParser parser;
+
+  /** Cache de reclamaciones ya verificadas, indexada por el resumen del token. */
+  private Cache<String, Claims> claimsCache;
+
+  /** Reloj de la cache de reclamaciones; las pruebas lo reemplazan antes de {@link #init()}. */
+  private Ticker ticker = Ticker.systemTicker();
+
+  /**
+   * Inicializa la clave de firma, el analizador y la cache de reclamaciones verificadas. Se
+   * ejecuta una vez después de inyectar las propiedades.
+   */
+  @PostConstruct
+  void init() {
+    signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+    parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    long wallClockOffset =
+        TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()) - ticker.read();
+    claimsCache =
+        Caffeine.newBuilder()
+            .maximumSize(cacheMaxSize)
+            .ticker(ticker)
+            .expireAfter(
+                new ClaimsExpiry(
+                    TimeUnit.SECONDS.toNanos(accessTokenValiditySeconds), wallClockOffset))
+            .recordStats()
+            .build();
+  }
+
   /**
    * Obtiene la clave de firma para los tokens JWT.
    *
    * @return Clave de firma generada a partir del secreto configurado
    */
   private Key getSigningKey() {
-    byte[] keyBytes = secret.getBytes();
-    return Keys.hmacShaKeyFor(keyBytes);
+    return signingKey;
   }
 
   /**
@@ -91,21 +158,64 @@ public class JwtUtil {
    * @return Objeto Claims que contiene todas las reclamaciones del token
    */
   private Claims extractAllClaims(String token) {
-    return Jwts.parserBuilder()
-        .setSigningKey(getSigningKey())
-        .build()
-        .parseClaimsJws(token)
-        .getBody();
+    return parseAndVerify(token);
   }
 
   /**
-   * Verifica si un token JWT ha expirado.
+   * Único punto de entrada para analizar y verificar un token. Si el token ya fue verificado y no
+   * ha expirado, devuelve las reclamaciones almacenadas en cache sin volver a comprobar la firma.
    *
    * @param token Token JWT a verificar
+   * @return Reclamaciones verificadas del token
+   * @throws io.jsonwebtoken.JwtException Si el token es inválido, está mal firmado o expiró
+   */
+  public Claims parseAndVerify(String token) {
+    return claimsCache.get(digest(token), key -> parser.parseClaimsJws(token).getBody());
+  }
+
+  /**
+   * Obtiene las estadísticas de la cache de reclamaciones (aciertos, fallos y desalojos).
+   *
+   * @return Instantánea de las estadísticas de la cache
+   */
+  public CacheStats getClaimsCacheStats() {
+    return claimsCache.stats();
+  }
+
+  /**
+   * Registra las métricas de la cache de reclamaciones en el registro de Micrometer.
+   *
+   * @param registry Registro de métricas
+   */
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, claimsCache, "jwt.claims");
+  }
+
+  /**
+   * Calcula el resumen SHA-256 de un token para usarlo como clave de la cache.
+   *
+   * @param token Token JWT
+   * @return Resumen del token codificado en Base64
+   */
+  private static String digest(String token) {
+    try {
+      MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+      return Base64.getEncoder()
+          .encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 no disponible", e);
+    }
+  }
+
+  /**
+   * Verifica si las reclamaciones de un token indican que ha expirado.
+   *
+   * @param claims Reclamaciones del token a verificar
    * @return true si el token ha expirado, false en caso contrario
    */
-  private Boolean isTokenExpired(String token) {
-    return extractExpiration(token).before(new Date());
+  private Boolean isTokenExpired(Claims claims) {
+    return claims.getExpiration().before(new Date());
   }
 
   /**
@@ -122,13 +232,27 @@ public class JwtUtil {
     if (userDetails instanceof User) {
       User user = (User) userDetails;
       claims.put("role", user.getRole().name());
+      if (user.getId() != null) {
+        claims.put(USER_ID_CLAIM, user.getId());
+        claims.put(TOKEN_VERSION_CLAIM, user.getTokenVersion());
+      }
     }
 
     return createToken(claims, userDetails.getUsername());
   }
 
   /**
-   * Crea un token JWT con las reclamaciones especificadas.
+   * Obtiene el tiempo de validez de los tokens de acceso.
+   *
+   * @return Segundos de validez desde la emisión
+   */
+  public long getAccessTokenValiditySeconds() {
+    return accessTokenValiditySeconds;
+  }
+
+  /**
+   * Crea un token JWT con las reclamaciones especificadas. Cada token recibe un identificador
+   * único (jti) que permite revocarlo individualmente.
    *
    * @param claims Reclamaciones a incluir en el token
    * @param subject Asunto del token (normalmente el nombre de usuario)
@@ -138,8 +262,11 @@ public class JwtUtil {
     return Jwts.builder()
         .setClaims(claims)
         .setSubject(subject)
+        .setId(UUID.randomUUID().toString())
         .setIssuedAt(new Date(System.currentTimeMillis()))
-        .setExpiration(new Date(System.currentTimeMillis() + JWT_TOKEN_VALIDITY))
+        .setExpiration(
+            new Date(
+                System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(accessTokenValiditySeconds)))
         .signWith(getSigningKey(), SignatureAlgorithm.HS256)
         .compact();
   }
@@ -152,7 +279,56 @@ public class JwtUtil {
    * @return true si el token es válido para el usuario, false en caso contrario
    */
   public Boolean validateToken(String token, UserDetails userDetails) {
-    final String username = extractUsername(token);
-    return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    final Claims claims = parseAndVerify(token);
+    return (claims.getSubject().equals(userDetails.getUsername()) && !isTokenExpired(claims));
+  }
+
+  /**
+   * Política de expiración de la cache: cada entrada vive exactamente hasta la fecha de
+   * expiración del token que representa. El tiempo restante se calcula con el reloj de la cache,
+   * convertido a la hora del sistema.
+   */
+  private static final class ClaimsExpiry implements Expiry<String, Claims> {
+
+    /** Duración en nanosegundos para los tokens sin fecha de expiración. */
+    private final long defaultNanos;
+
+    /** Diferencia en nanosegundos entre la hora del sistema y el reloj de la cache. */
+    private final long wallClockOffset;
+
+    /**
+     * Constructor con la duración por defecto y la diferencia de relojes.
+     *
+     * @param defaultNanos Duración en nanosegundos para los tokens sin fecha de expiración
+     * @param wallClockOffset Nanosegundos que se suman al reloj de la cache para obtener la hora
+     *     del sistema
+     */
+    ClaimsExpiry(long defaultNanos, long wallClockOffset) {
+      this.defaultNanos = defaultNanos;
+      this.wallClockOffset = wallClockOffset;
+    }
+
+    @Override
+    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+      Date expiration = claims.getExpiration();
+      if (expiration == null) {
+        return defaultNanos;
+      }
+      long remaining =
+          TimeUnit.MILLISECONDS.toNanos(expiration.getTime()) - (currentTime + wallClockOffset);
+      return Math.max(remaining, 0);
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        String key, Claims claims, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+
+    @Override
+    public long expireAfterRead(
+        String key, Claims claims, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
   }
 }
@@ -0,0 +1,228 @@
+package co.edu.unbosque.springfirstapp.security;
+
+import co.edu.unbosque.springfirstapp.exception.LoginRateLimitedException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limita los intentos de inicio de sesión por nombre de usuario y por dirección IP con un balde de
+ * fichas (token bucket), antes de verificar la contraseña. Así, un ataque de relleno de
+ * credenciales se rechaza sin gastar tiempo de BCrypt.
+ *
+ * <p>Cada balde es un único {@link AtomicLong} con el instante teórico en que quedaría lleno de
+ * nuevo (algoritmo GCRA, equivalente a un balde de fichas) y se actualiza con compare-and-set, sin
+ * bloqueos. Los baldes se guardan en caches acotadas; una entrada sin uso durante el tiempo de
+ * recarga completa se descarta, ya que en ese momento el balde estaría lleno de todas formas.
+ */
+@Component
+public class LoginRateLimiter implements MeterBinder {
+
+  /** Límite por nombre de usuario. */
+  private final Limit usernameLimit;
+
+  /** Límite por dirección IP. */
+  private final Limit ipLimit;
+
+  /** Fuente de tiempo en nanosegundos. */
+  private final LongSupplier clock;
+
+  /** Intentos rechazados por el límite de nombre de usuario. */
+  private final LongAdder usernameRejected = new LongAdder();
+
+  /** Intentos rechazados por el límite de dirección IP. */
+  private final LongAdder ipRejected = new LongAdder();
+
+  /**
+   * Constructor que configura ambos límites.
+   *
+   * @param usernameCapacity Intentos seguidos permitidos por nombre de usuario
+   * @param usernamePerMinute Intentos por minuto recuperados por nombre de usuario
+   * @param ipCapacity Intentos seguidos permitidos por dirección IP
+   * @param ipPerMinute Intentos por minuto recuperados por dirección IP
+   * @param maxKeys Número máximo de nombres de usuario y de direcciones IP en memoria
+   */
+  @Autowired
+  public LoginRateLimiter(
+      @Value("${security.login-limit.username.capacity:5}") int usernameCapacity,
+      @Value("${security.login-limit.username.per-minute:5}") int usernamePerMinute,
+      @Value("${security.login-limit.ip.capacity:20}") int ipCapacity,
+      @Value("${security.login-limit.ip.per-minute:60}") int ipPerMinute,
+      @Value("${security.login-limit.max-keys:100000}") long maxKeys) {
+    this(
+        usernameCapacity,
+        usernamePerMinute,
+        ipCapacity,
+        ipPerMinute,
+        maxKeys,
+        System::nanoTime);
+  }
+
+  /**
+   * Constructor con una fuente de tiempo explícita, usado en las pruebas.
+   *
+   * @param usernameCapacity Intentos seguidos permitidos por nombre de usuario
+   * @param usernamePerMinute Intentos por minuto recuperados por nombre de usuario
+   * @param ipCapacity Intentos seguidos permitidos por dirección IP
+   * @param ipPerMinute Intentos por minuto recuperados por dirección IP
+   * @param maxKeys Número máximo de nombres de usuario y de direcciones IP en memoria
+   * @param clock Fuente de tiempo en nanosegundos
+   */
+  LoginRateLimiter(
+      int usernameCapacity,
+      int usernamePerMinute,
+      int ipCapacity,
+      int ipPerMinute,
+      long maxKeys,
+      LongSupplier clock) {
+    this.usernameLimit = new Limit(usernameCapacity, usernamePerMinute, maxKeys);
+    this.ipLimit = new Limit(ipCapacity, ipPerMinute, maxKeys);
+    this.clock = clock;
+  }
+
+  /**
+   * Consume un intento de inicio de sesión para la dirección IP y el nombre de usuario indicados.
+   * Si la dirección IP ya superó su límite, no se consume el intento del nombre de usuario; si el
+   * nombre de usuario superó el suyo, se devuelve el intento de la dirección IP, para que los
+   * rechazos de un usuario bloqueado no agoten el límite de quienes comparten la IP.
+   *
+   * @param username Nombre de usuario enviado, puede ser null
+   * @param remoteAddress Dirección IP del cliente, puede ser null
+   * @throws LoginRateLimitedException Si alguno de los dos límites se superó
+   */
+  public void acquire(String username, String remoteAddress) {
+    long now = clock.getAsLong();
+    String ip = remoteAddress == null ? "" : remoteAddress;
+    long wait = ipLimit.tryAcquire(ip, now);
+    if (wait > 0) {
+      ipRejected.increment();
+      throw new LoginRateLimitedException(toSeconds(wait));
+    }
+    // Los nombres de usuario de MySQL no distinguen mayúsculas por defecto
+    String key = username == null ? "" : username.toLowerCase(Locale.ROOT);
+    wait = usernameLimit.tryAcquire(key, now);
+    if (wait > 0) {
+      ipLimit.release(ip);
+      usernameRejected.increment();
+      throw new LoginRateLimitedException(toSeconds(wait));
+    }
+  }
+
+  /**
+   * Obtiene el número de intentos rechazados desde el arranque.
+   *
+   * @return Rechazos por nombre de usuario más rechazos por dirección IP
+   */
+  public long getRejectedCount() {
+    return usernameRejected.sum() + ipRejected.sum();
+  }
+
+  /**
+   * Registra los rechazos por tipo de límite y el número de baldes en memoria.
+   *
+   * @param registry Registro de métricas
+   */
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder("auth.login.throttled", usernameRejected, LongAdder::sum)
+        .description("Intentos de inicio de sesión rechazados por límite")
+        .tag("limit", "username")
+        .register(registry);
+    FunctionCounter.builder("auth.login.throttled", ipRejected, LongAdder::sum)
+        .description("Intentos de inicio de sesión rechazados por límite")
+        .tag("limit", "ip")
+        .register(registry);
+    Gauge.builder("auth.login.buckets", usernameLimit.buckets, Cache::estimatedSize)
+        .tag("limit", "username")
+        .register(registry);
+    Gauge.builder("auth.login.buckets", ipLimit.buckets, Cache::estimatedSize)
+        .tag("limit", "ip")
+        .register(registry);
+  }
+
+  /**
+   * Convierte una espera en nanosegundos a segundos, redondeando hacia arriba.
+   *
+   * @param nanos Espera en nanosegundos
+   * @return Espera en segundos, al menos 1
+   */
+  private static long toSeconds(long nanos) {
+    return Math.max(1, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+  }
+
+  /** Parámetros y baldes de un tipo de límite. */
+  private static final class Limit {
+
+    /** Nanosegundos que tarda en recuperarse un intento. */
+    private final long interval;
+
+    /** Adelanto máximo permitido: (capacidad - 1) intervalos. */
+    private final long tolerance;
+
+    /** Baldes por clave: instante teórico de llegada del siguiente intento. */
+    private final Cache<String, AtomicLong> buckets;
+
+    /**
+     * Constructor que calcula los parámetros del balde.
+     *
+     * @param capacity Intentos seguidos permitidos
+     * @param perMinute Intentos recuperados por minuto
+     * @param maxKeys Número máximo de baldes en memoria
+     */
+    Limit(int capacity, int perMinute, long maxKeys) {
+      this.interval = TimeUnit.MINUTES.toNanos(1) / Math.max(1, perMinute);
+      this.tolerance = interval * (Math.max(1, capacity) - 1);
+      this.buckets =
+          Caffeine.newBuilder()
+              .maximumSize(maxKeys)
+              .expireAfterAccess(Duration.ofNanos(tolerance + interval))
+              .build();
+    }
+
+    /**
+     * Intenta consumir un intento del balde de la clave.
+     *
+     * @param key Clave del balde
+     * @param now Instante actual en nanosegundos
+     * @return 0 si se permitió el intento, o los nanosegundos hasta que se permita el siguiente
+     */
+    long tryAcquire(String key, long now) {
+      AtomicLong tat = buckets.get(key, k -> new AtomicLong(now));
+      while (true) {
+        long current = tat.get();
+        long start = current - now > 0 ? current : now;
+        long wait = start - now - tolerance;
+        if (wait > 0) {
+          return wait;
+        }
+        if (tat.compareAndSet(current, start + interval)) {
+          return 0;
+        }
+      }
+    }
+
+    /**
+     * Devuelve al balde de la clave un intento consumido con {@link #tryAcquire}.
+     *
+     * @param key Clave del balde
+     */
+    void release(String key) {
+      AtomicLong tat = buckets.getIfPresent(key);
+      if (tat != null) {
+        tat.addAndGet(-interval);
+      }
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package co.edu.unbosque.springfirstapp.security;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm;
+import org.springframework.security.crypto.scrypt.SCryptPasswordEncoder;
+
+/**
+ * Fábrica de los codificadores de contraseñas soportados (BCrypt, Argon2id, scrypt y PBKDF2). La
+ * usan tanto {@link SecurityConfig} como los benchmarks, de modo que ambos miden exactamente los
+ * mismos parámetros.
+ *
+ * <p>Cada hash almacenado lleva el prefijo del algoritmo con el que se creó ({@code {bcrypt}},
+ * {@code {argon2}}, ...), por lo que cambiar el algoritmo configurado no invalida los hashes
+ * existentes: se siguen verificando con su algoritmo original y se actualizan en el siguiente
+ * inicio de sesión.
+ */
+public final class PasswordEncoders {
+
+  /** Identificador de BCrypt. */
+  public static final String BCRYPT = "bcrypt";
+
+  /** Identificador de Argon2id. */
+  public static final String ARGON2 = "argon2";
+
+  /** Identificador de scrypt. */
+  public static final String SCRYPT = "scrypt";
+
+  /**
+   * Identificador de PBKDF2-HMAC-SHA256. El número de iteraciones no se guarda en el hash, por lo
+   * que forma parte del identificador y es fijo.
+   */
+  public static final String PBKDF2 = "pbkdf2-sha256-600000";
+
+  /** Iteraciones de PBKDF2 (recomendación de OWASP para HMAC-SHA256). */
+  private static final int PBKDF2_ITERATIONS = 600_000;
+
+  /** Longitud de la sal en bytes. */
+  private static final int SALT_LENGTH = 16;
+
+  /** Longitud del hash en bytes. */
+  private static final int HASH_LENGTH = 32;
+
+  /** Constructor privado: clase de utilidad. */
+  private PasswordEncoders() {}
+
+  /**
+   * Crea los codificadores de todos los algoritmos soportados con los parámetros indicados.
+   *
+   * @param bcryptCost Costo de BCrypt
+   * @param argon2MemoryKb Memoria de Argon2id en KiB
+   * @param argon2Iterations Iteraciones de Argon2id
+   * @param scryptCpuCost Costo de CPU (N) de scrypt, potencia de 2
+   * @return Codificadores indexados por identificador de algoritmo
+   */
+  public static Map<String, PasswordEncoder> encoders(
+      int bcryptCost, int argon2MemoryKb, int argon2Iterations, int scryptCpuCost) {
+    Map<String, PasswordEncoder> encoders = new HashMap<>();
+    encoders.put(BCRYPT, new BCryptPasswordEncoder(bcryptCost));
+    encoders.put(
+        ARGON2,
+        new Argon2PasswordEncoder(SALT_LENGTH, HASH_LENGTH, 1, argon2MemoryKb, argon2Iterations));
+    encoders.put(
+        SCRYPT, new SCryptPasswordEncoder(scryptCpuCost, 8, 1, HASH_LENGTH, SALT_LENGTH));
+    encoders.put(
+        PBKDF2,
+        new Pbkdf2PasswordEncoder(
+            "", SALT_LENGTH, PBKDF2_ITERATIONS, SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+    return encoders;
+  }
+
+  /**
+   * Crea un codificador delegado que cifra con el algoritmo indicado y verifica con cualquiera de
+   * los soportados. Los hashes sin prefijo se consideran BCrypt (formato anterior).
+   *
+   * @param algorithm Identificador del algoritmo para los hashes nuevos
+   * @param encoders Codificadores disponibles, ver {@link #encoders(int, int, int, int)}
+   * @return Codificador delegado
+   * @throws IllegalArgumentException Si el algoritmo no está soportado
+   */
+  public static DelegatingPasswordEncoder delegating(
+      String algorithm, Map<String, PasswordEncoder> encoders) {
+    if (!encoders.containsKey(algorithm)) {
+      throw new IllegalArgumentException(
+          "Algoritmo de contraseña no soportado: " + algorithm + " " + encoders.keySet());
+    }
+    DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(algorithm, encoders);
+    delegating.setDefaultPasswordEncoderForMatches(encoders.get(BCRYPT));
+    return delegating;
+  }
+}
@@ -0,0 +1,136 @@
+package co.edu.unbosque.springfirstapp.security;
+
+import co.edu.unbosque.springfirstapp.configuration.ConnectionHoldTimeMetrics;
+import co.edu.unbosque.springfirstapp.exception.HashingCapacityExceededException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ejecutor dedicado y acotado para el trabajo costoso con contraseñas (BCrypt). Separa el cálculo
+ * y la verificación de contraseñas de los hilos de Tomcat, de modo que una ráfaga de inicios de
+ * sesión no deje sin hilos al resto de endpoints.
+ *
+ * <p>Tiene un número fijo de hilos y una cola de tamaño limitado. Cuando ambos están llenos, la
+ * tarea se rechaza de inmediato con {@link HashingCapacityExceededException}.
+ */
+@Component
+public class PasswordHashingExecutor implements MeterBinder {
+
+  /** Grupo de hilos que ejecuta las tareas de hashing. */
+  private final ThreadPoolExecutor executor;
+
+  /** Número de tareas rechazadas por saturación. */
+  private final LongAdder rejected = new LongAdder();
+
+  /**
+   * Constructor que crea el grupo de hilos.
+   *
+   * @param threads Número de hilos; 0 o negativo usa el número de procesadores disponibles
+   * @param queueCapacity Número máximo de tareas en espera
+   */
+  public PasswordHashingExecutor(
+      @Value("${security.hashing.threads:0}") int threads,
+      @Value("${security.hashing.queue-capacity:64}") int queueCapacity) {
+    int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    this.executor =
+        new ThreadPoolExecutor(
+            poolSize,
+            poolSize,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new HashingThreadFactory(),
+            new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  /**
+   * Ejecuta una tarea en el grupo de hashing, con el contexto de seguridad del hilo que la envía
+   * (por ejemplo, para atribuir las escrituras al usuario autenticado) y su endpoint, con el que se
+   * etiquetan las conexiones a la base de datos que obtenga la tarea.
+   *
+   * @param task Tarea a ejecutar
+   * @param <T> Tipo del resultado
+   * @return Futuro que se completa con el resultado de la tarea
+   * @throws HashingCapacityExceededException Si el grupo y su cola están llenos
+   */
+  public <T> CompletableFuture<T> submit(Supplier<T> task) {
+    try {
+      SecurityContext context = SecurityContextHolder.getContext();
+      String endpoint = ConnectionHoldTimeMetrics.currentEndpoint();
+      return CompletableFuture.supplyAsync(
+          () -> {
+            SecurityContextHolder.setContext(context);
+            ConnectionHoldTimeMetrics.setCurrentEndpoint(endpoint);
+            try {
+              return task.get();
+            } finally {
+              SecurityContextHolder.clearContext();
+              ConnectionHoldTimeMetrics.setCurrentEndpoint(null);
+            }
+          },
+          executor);
+    } catch (RejectedExecutionException e) {
+      rejected.increment();
+      throw new HashingCapacityExceededException();
+    }
+  }
+
+  /**
+   * Obtiene el número de tareas rechazadas desde el arranque.
+   *
+   * @return Número de rechazos
+   */
+  public long getRejectedCount() {
+    return rejected.sum();
+  }
+
+  /**
+   * Registra las métricas del grupo (hilos activos, cola, tareas completadas y rechazos).
+   *
+   * @param registry Registro de métricas
+   */
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    new ExecutorServiceMetrics(executor, "password.hashing", Tags.empty()).bindTo(registry);
+    FunctionCounter.builder("password.hashing.rejected", rejected, LongAdder::sum)
+        .description("Tareas de hashing rechazadas por saturación")
+        .register(registry);
+  }
+
+  /** Detiene el grupo de hilos al cerrar el contexto. */
+  @PreDestroy
+  void shutdown() {
+    executor.shutdown();
+  }
+
+  /** Fábrica de hilos con nombre reconocible para los volcados de hilos. */
+  private static final class HashingThreadFactory implements ThreadFactory {
+
+    /** Contador para numerar los hilos. */
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "password-hashing-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
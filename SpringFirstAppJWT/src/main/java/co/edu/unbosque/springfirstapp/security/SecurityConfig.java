@@ -1,5 +1,10 @@
 package co.edu.unbosque.springfirstapp.security;
 
+import jakarta.servlet.DispatcherType;
+import java.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -9,8 +14,8 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -23,22 +28,64 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @EnableWebSecurity
 public class SecurityConfig {
 
+  /** Logger para registrar el costo de hashing elegido. */
+  private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
   /** Filtro de autenticación JWT que procesa los tokens en las solicitudes. */
   private final JwtAuthenticationFilter jwtAuthFilter;
 
   /** Servicio que carga los detalles del usuario para la autenticación. */
   private final UserDetailsService userDetailsService;
 
+  /** Servicio que actualiza los hashes de contraseña que usan un costo desactualizado. */
+  private final UserDetailsPasswordService userDetailsPasswordService;
+
+  /** Algoritmo usado para los hashes nuevos, ver {@link PasswordEncoders}. */
+  @Value("${security.password.algorithm:bcrypt}")
+  private String algorithm;
+
+  /** Costo fijo de BCrypt; si es 0 se calibra al iniciar. */
+  @Value("${security.password.bcrypt-cost:0}")
+  private int bcryptCost;
+
+  /** Latencia objetivo de un hash de contraseña usada para calibrar el costo. */
+  @Value("${security.password.target-latency-ms:50}")
+  private long targetLatencyMs;
+
+  /** Costo mínimo de BCrypt aceptado por la política de seguridad. */
+  @Value("${security.password.min-cost:10}")
+  private int minCost;
+
+  /** Costo máximo de BCrypt aceptado. */
+  @Value("${security.password.max-cost:16}")
+  private int maxCost;
+
+  /** Memoria de Argon2id en KiB. */
+  @Value("${security.password.argon2.memory-kb:19456}")
+  private int argon2MemoryKb;
+
+  /** Iteraciones de Argon2id. */
+  @Value("${security.password.argon2.iterations:2}")
+  private int argon2Iterations;
+
+  /** Costo de CPU (N) de scrypt. */
+  @Value("${security.password.scrypt.cpu-cost:65536}")
+  private int scryptCpuCost;
+
   /**
    * Constructor que inicializa los componentes necesarios para la seguridad.
    *
    * @param jwtAuthFilter Filtro para procesar tokens JWT
    * @param userDetailsService Servicio para cargar detalles de usuarios
+   * @param userDetailsPasswordService Servicio para actualizar hashes de contraseña
    */
   public SecurityConfig(
-      JwtAuthenticationFilter jwtAuthFilter, UserDetailsService userDetailsService) {
+      JwtAuthenticationFilter jwtAuthFilter,
+      UserDetailsService userDetailsService,
+      UserDetailsPasswordService userDetailsPasswordService) {
     this.jwtAuthFilter = jwtAuthFilter;
     this.userDetailsService = userDetailsService;
+    this.userDetailsPasswordService = userDetailsPasswordService;
   }
 
   /**
@@ -54,12 +101,21 @@ public class SecurityConfig {
     http.csrf(csrf -> csrf.disable())
         .authorizeHttpRequests(
             auth ->
-                auth.requestMatchers("/auth/**")
+                // Las respuestas asíncronas ya fueron autorizadas en el despacho original
+                auth.dispatcherTypeMatchers(DispatcherType.ASYNC)
+                    .permitAll()
+                    .requestMatchers("/auth/**")
                     .permitAll()
                     .requestMatchers("/swagger-ui/**", "/v3/api-docs/**")
                     .permitAll()
+                    .requestMatchers("/actuator/**")
+                    .hasRole("ADMIN")
                     .requestMatchers(
-                        "/user/getall", "/user/count", "/user/exists/**", "/user/getbyid/**")
+                        "/user/getall",
+                        "/user/page",
+                        "/user/count",
+                        "/user/exists/**",
+                        "/user/getbyid/**")
                     .hasAnyRole("USER", "ADMIN")
                     .requestMatchers("/user/**")
                     .hasRole("ADMIN")
@@ -75,7 +131,8 @@ public class SecurityConfig {
 
   /**
    * Configura el proveedor de autenticación. Establece el servicio de detalles de usuario y el
-   * codificador de contraseñas.
+   * codificador de contraseñas. Tras un inicio de sesión exitoso, si el hash almacenado usa un
+   * algoritmo o costo desactualizado, se vuelve a calcular y se guarda.
    *
    * @return Proveedor de autenticación configurado
    */
@@ -84,6 +141,7 @@ public class SecurityConfig {
     DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
     authProvider.setUserDetailsService(userDetailsService);
     authProvider.setPasswordEncoder(passwordEncoder());
+    authProvider.setUserDetailsPasswordService(userDetailsPasswordService);
     return authProvider;
   }
 
@@ -101,12 +159,27 @@ public class SecurityConfig {
   }
 
   /**
-   * Configura el codificador de contraseñas. Utiliza BCrypt para el hash de contraseñas.
+   * Configura el codificador de contraseñas. Los hashes nuevos se calculan con el algoritmo de
+   * {@code security.password.algorithm} (BCrypt por defecto, o Argon2id, scrypt o PBKDF2) y los
+   * existentes se verifican con el algoritmo indicado en su prefijo; al iniciar sesión con un hash de
+   * otro algoritmo o costo, se vuelve a calcular con el configurado.
+   *
+   * <p>El costo de BCrypt se calibra al iniciar para que un hash tarde aproximadamente la latencia
+   * objetivo en esta máquina, salvo que se fije {@code security.password.bcrypt-cost}. Los hashes
+   * antiguos sin prefijo se siguen verificando con BCrypt.
    *
-   * @return Codificador de contraseñas BCrypt
+   * @return Codificador de contraseñas delegado
    */
   @Bean
   public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+    int cost =
+        bcryptCost > 0
+            ? bcryptCost
+            : BCryptCostCalibrator.calibrate(Duration.ofMillis(targetLatencyMs), minCost, maxCost);
+    log.info("Algoritmo de contraseñas: {}, costo de BCrypt: {}", algorithm, cost);
+
+    return PasswordEncoders.delegating(
+        algorithm,
+        PasswordEncoders.encoders(cost, argon2MemoryKb, argon2Iterations, scryptCpuCost));
   }
 }
@@ -0,0 +1,209 @@
+package co.edu.unbosque.springfirstapp.security;
+
+import co.edu.unbosque.springfirstapp.configuration.ReadWriteRoutingDataSource;
+import co.edu.unbosque.springfirstapp.model.RevokedToken;
+import co.edu.unbosque.springfirstapp.repository.RevokedTokenRepository;
+import co.edu.unbosque.springfirstapp.util.BloomFilter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lista de tokens revocados antes de su expiración (cierre de sesión), guardada en la tabla {@code
+ * revoked_token} y consultada a través de un filtro de Bloom en memoria.
+ *
+ * <p>El caso habitual, un token no revocado, se resuelve con una sola consulta al filtro, sin
+ * acceder a la base de datos. Solo los positivos (tokens revocados o falsos positivos) se confirman
+ * con la tabla. Cada registro guarda la expiración del token; la reconstrucción periódica elimina
+ * los expirados y vuelve a dimensionar el filtro, de modo que su tamaño depende solo de las
+ * revocaciones vigentes. Las revocaciones hechas en otros nodos se observan tras la siguiente
+ * reconstrucción.
+ *
+ * <p>La tabla se lee siempre de la base principal: una réplica atrasada no vería las revocaciones
+ * recientes.
+ */
+@Component
+public class TokenRevocationService implements MeterBinder {
+
+  /** Logger para registrar las reconstrucciones del filtro. */
+  private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+  /** Repositorio de tokens revocados. */
+  private final RevokedTokenRepository revokedTokenRepository;
+
+  /** Número mínimo de revocaciones para el que se dimensiona el filtro. */
+  private final long expectedEntries;
+
+  /** Tasa de falsos positivos objetivo del filtro. */
+  private final double falsePositiveRate;
+
+  /** Filtro vigente. */
+  private volatile BloomFilter filter;
+
+  /** Filtro en construcción; las revocaciones se agregan también a él para no perderlas. */
+  private volatile BloomFilter next;
+
+  /** Consultas resueltas por el filtro sin acceder a la base de datos. */
+  private final LongAdder negatives = new LongAdder();
+
+  /** Consultas en las que el filtro dio positivo y el token no estaba revocado. */
+  private final LongAdder falsePositives = new LongAdder();
+
+  /** Consultas de tokens efectivamente revocados. */
+  private final LongAdder revokedHits = new LongAdder();
+
+  /**
+   * Constructor que recibe el repositorio y el dimensionamiento del filtro.
+   *
+   * @param revokedTokenRepository Repositorio de tokens revocados
+   * @param expectedEntries Número mínimo de revocaciones para el que se dimensiona el filtro
+   * @param falsePositiveRate Tasa de falsos positivos objetivo
+   */
+  public TokenRevocationService(
+      RevokedTokenRepository revokedTokenRepository,
+      @Value("${jwt.revocation.expected-entries:10000}") long expectedEntries,
+      @Value("${jwt.revocation.false-positive-rate:0.001}") double falsePositiveRate) {
+    this.revokedTokenRepository = revokedTokenRepository;
+    this.expectedEntries = expectedEntries;
+    this.falsePositiveRate = falsePositiveRate;
+    this.filter = new BloomFilter(expectedEntries, falsePositiveRate);
+  }
+
+  /** Carga las revocaciones vigentes al iniciar. */
+  @PostConstruct
+  void init() {
+    rebuild();
+  }
+
+  /**
+   * Revoca un token hasta su expiración. No debe llamarse dentro de una transacción: el registro
+   * se confirma antes de agregarlo al filtro para que una reconstrucción concurrente no lo pierda.
+   *
+   * @param jti Identificador único del token
+   * @param expiresAt Fecha de expiración del token
+   */
+  public void revoke(String jti, Instant expiresAt) {
+    revokedTokenRepository.save(new RevokedToken(jti, expiresAt));
+    // Primero el filtro en construcción: si aún no existe, la reconstrucción todavía no ha leído
+    // la tabla y verá el registro
+    BloomFilter pending = next;
+    if (pending != null) {
+      pending.put(jti);
+    }
+    filter.put(jti);
+  }
+
+  /**
+   * Indica si un token fue revocado. Los tokens sin identificador (emitidos antes de incluirlo)
+   * no se pueden revocar.
+   *
+   * @param jti Identificador único del token, puede ser null
+   * @return true si el token fue revocado
+   */
+  public boolean isRevoked(String jti) {
+    if (jti == null) {
+      return false;
+    }
+    if (!filter.mightContain(jti)) {
+      negatives.increment();
+      return false;
+    }
+    if (ReadWriteRoutingDataSource.readFromPrimary(() -> revokedTokenRepository.existsById(jti))) {
+      revokedHits.increment();
+      return true;
+    }
+    falsePositives.increment();
+    return false;
+  }
+
+  /**
+   * Elimina las revocaciones expiradas y reconstruye el filtro con las vigentes, dimensionado para
+   * al menos el doble de ellas.
+   */
+  @Scheduled(
+      fixedDelayString = "${jwt.revocation.rebuild-interval-ms:60000}",
+      initialDelayString = "${jwt.revocation.rebuild-interval-ms:60000}")
+  public void rebuild() {
+    Instant now = Instant.now();
+    int purged = revokedTokenRepository.deleteExpired(now);
+    long count = ReadWriteRoutingDataSource.readFromPrimary(revokedTokenRepository::count);
+    BloomFilter rebuilt =
+        new BloomFilter(Math.max(expectedEntries, 2 * count), falsePositiveRate);
+    // Se publica antes de leer la tabla para que las revocaciones concurrentes no se pierdan
+    next = rebuilt;
+    List<String> active =
+        ReadWriteRoutingDataSource.readFromPrimary(
+            () -> revokedTokenRepository.findActiveJtis(now));
+    for (String jti : active) {
+      rebuilt.put(jti);
+    }
+    filter = rebuilt;
+    next = null;
+    log.debug("Filtro de revocación reconstruido: {} vigentes, {} purgadas", active.size(), purged);
+  }
+
+  /**
+   * Obtiene la tasa de falsos positivos observada: positivos del filtro que no estaban revocados
+   * sobre el total de tokens no revocados consultados.
+   *
+   * @return Tasa observada, o 0 si no hubo consultas
+   */
+  public double getObservedFalsePositiveRate() {
+    long fp = falsePositives.sum();
+    long total = fp + negatives.sum();
+    return total == 0 ? 0 : (double) fp / total;
+  }
+
+  /**
+   * Obtiene el número estimado de revocaciones en el filtro vigente.
+   *
+   * @return Número estimado de tokens revocados
+   */
+  public long getApproximateSize() {
+    return filter.approximateElementCount();
+  }
+
+  /**
+   * Registra el tamaño del filtro, su tasa de falsos positivos estimada y observada, y el
+   * resultado de las consultas.
+   *
+   * @param registry Registro de métricas
+   */
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("jwt.revocation.entries", this, TokenRevocationService::getApproximateSize)
+        .description("Revocaciones vigentes (estimadas a partir del filtro)")
+        .register(registry);
+    Gauge.builder("jwt.revocation.bloom.bits", this, s -> s.filter.bitSize())
+        .description("Tamaño del filtro de Bloom en bits")
+        .register(registry);
+    Gauge.builder("jwt.revocation.bloom.fpp", this, s -> s.filter.expectedFalsePositiveRate())
+        .description("Tasa de falsos positivos estimada por ocupación del filtro")
+        .register(registry);
+    Gauge.builder(
+            "jwt.revocation.bloom.fpp.observed",
+            this,
+            TokenRevocationService::getObservedFalsePositiveRate)
+        .description("Tasa de falsos positivos observada")
+        .register(registry);
+    FunctionCounter.builder("jwt.revocation.checks", negatives, LongAdder::sum)
+        .tag("result", "negative")
+        .register(registry);
+    FunctionCounter.builder("jwt.revocation.checks", falsePositives, LongAdder::sum)
+        .tag("result", "false_positive")
+        .register(registry);
+    FunctionCounter.builder("jwt.revocation.checks", revokedHits, LongAdder::sum)
+        .tag("result", "revoked")
+        .register(registry);
+  }
+}
@@ -0,0 +1,102 @@
+package co.edu.unbosque.springfirstapp.security;
+
+import co.edu.unbosque.springfirstapp.configuration.ReadWriteRoutingDataSource;
+import co.edu.unbosque.springfirstapp.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Registro en memoria de la versión vigente de los tokens de cada usuario. Permite que el filtro
+ * JWT rechace tokens de usuarios eliminados o cuyas credenciales o rol cambiaron sin consultar la
+ * base de datos en cada solicitud.
+ *
+ * <p>Las versiones se cargan de forma perezosa (una consulta por usuario) y se conservan durante un
+ * tiempo acotado. Los cambios hechos en este nodo se aplican de inmediato mediante {@link
+ * #invalidate(Long)}; los hechos en otros nodos se observan como máximo tras el tiempo de vida de
+ * la entrada. Se leen de la base principal, ya que una réplica atrasada aceptaría tokens revocados.
+ */
+@Component
+public class TokenVersionRegistry implements MeterBinder {
+
+  /** Valor usado para los usuarios que ya no existen: ningún token es válido. */
+  private static final int REVOKED = -1;
+
+  /** Cache de versiones por identificador de usuario. */
+  private final LoadingCache<Long, Integer> versions;
+
+  /**
+   * Constructor que configura la cache de versiones.
+   *
+   * @param userRepository Repositorio usado para cargar la versión cuando no está en cache
+   * @param ttlSeconds Segundos que se conserva cada versión antes de volver a consultarla
+   * @param maxSize Número máximo de usuarios conservados en memoria
+   */
+  public TokenVersionRegistry(
+      UserRepository userRepository,
+      @Value("${jwt.stateless.version-ttl-seconds:30}") long ttlSeconds,
+      @Value("${jwt.stateless.version-cache-size:100000}") long maxSize) {
+    this.versions =
+        Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build(
+                id ->
+                    ReadWriteRoutingDataSource.readFromPrimary(
+                            () -> userRepository.findTokenVersionById(id))
+                        .orElse(REVOKED));
+  }
+
+  /**
+   * Verifica si la versión de un token coincide con la versión vigente del usuario.
+   *
+   * @param userId Identificador del usuario
+   * @param tokenVersion Versión registrada en el token
+   * @return true si el token sigue vigente, false si fue revocado
+   */
+  public boolean isCurrent(Long userId, int tokenVersion) {
+    int current = versions.get(userId);
+    return current != REVOKED && current == tokenVersion;
+  }
+
+  /**
+   * Descarta la versión conocida de un usuario para que la siguiente verificación la recargue.
+   * Debe llamarse después de modificar o eliminar al usuario. Si hay una transacción activa, la
+   * entrada se descarta de nuevo tras el commit para no conservar una versión leída antes de él.
+   *
+   * @param userId Identificador del usuario
+   */
+  public void invalidate(Long userId) {
+    if (userId == null) {
+      return;
+    }
+    versions.invalidate(userId);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              versions.invalidate(userId);
+            }
+          });
+    }
+  }
+
+  /**
+   * Registra las métricas de la cache de versiones en el registro de Micrometer.
+   *
+   * @param registry Registro de métricas
+   */
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, versions, "jwt.token.versions");
+  }
+}
@@ -1,7 +1,9 @@
 package co.edu.unbosque.springfirstapp.security;
 
+import co.edu.unbosque.springfirstapp.model.User;
 import co.edu.unbosque.springfirstapp.repository.UserRepository;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -10,9 +12,14 @@ import org.springframework.stereotype.Service;
  * Implementación del servicio de detalles de usuario para la autenticación.
  * Esta clase proporciona la funcionalidad necesaria para cargar los datos del usuario
  * desde el repositorio durante el proceso de autenticación.
+ * Los usuarios se buscan por su identificador natural, que se resuelve desde la cache de segundo
+ * nivel, por lo que las autenticaciones repetidas no vuelven a la base de datos mientras la entrada
+ * siga vigente.
+ * También actualiza los hashes de contraseña desactualizados tras un inicio de sesión exitoso; es
+ * el único punto de la aplicación que lo hace.
  */
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
   /**
    * Repositorio de usuarios utilizado para buscar información de usuarios.
@@ -20,12 +27,19 @@ public class UserDetailsServiceImpl implements UserDetailsService {
   private final UserRepository userRepository;
 
   /**
-   * Constructor que inicializa el repositorio de usuarios.
+   * Anillo de claves para cifrar los hashes que se guardan con una sentencia nativa.
+   */
+  private final FieldEncryptionKeyRing keyRing;
+
+  /**
+   * Constructor que inicializa el repositorio de usuarios y el anillo de claves.
    * 
    * @param userRepository El repositorio de usuarios a utilizar para las consultas
+   * @param keyRing El anillo de claves para cifrar los hashes actualizados
    */
-  public UserDetailsServiceImpl(UserRepository userRepository) {
+  public UserDetailsServiceImpl(UserRepository userRepository, FieldEncryptionKeyRing keyRing) {
     this.userRepository = userRepository;
+    this.keyRing = keyRing;
   }
 
   /**
@@ -37,10 +51,36 @@ public class UserDetailsServiceImpl implements UserDetailsService {
    */
   @Override
   public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-    // Busca el usuario en el repositorio y lanza una excepción si no se encuentra
+    // Busca el usuario (en cache o en el repositorio) y lanza una excepción si no se encuentra
     return userRepository
         .findByUsername(username)
         .orElseThrow(
             () -> new UsernameNotFoundException("User not found with username: " + username));
   }
+
+  /**
+   * Guarda un nuevo hash de la contraseña de un usuario. Spring Security lo invoca tras un inicio
+   * de sesión exitoso cuando el hash almacenado usa un algoritmo o costo desactualizado.
+   * La contraseña no cambia, por lo que los tokens emitidos siguen siendo válidos.
+   *
+   * <p>El hash se escribe con una sola sentencia que no depende de la versión de la fila, por lo
+   * que una actualización concurrente de otros datos no hace fallar el inicio de sesión. Si la
+   * contraseña cambió desde que se cargó el usuario, no se escribe y se conserva el hash anterior.
+   * 
+   * @param user El usuario autenticado
+   * @param newPassword El nuevo hash de la contraseña
+   * @return El usuario con el hash actualizado, o sin cambios si no se actualizó
+   */
+  @Override
+  public UserDetails updatePassword(UserDetails user, String newPassword) {
+    if (!(user instanceof User entity)
+        || userRepository.upgradePassword(
+                entity.getId(), entity.getTokenVersion(), keyRing.encrypt(newPassword))
+            == 0) {
+      return user;
+    }
+    userRepository.evictFromCache(entity.getId());
+    entity.setPassword(newPassword);
+    return entity;
+  }
 }
@@ -0,0 +1,122 @@
+package co.edu.unbosque.springfirstapp.service;
+
+import co.edu.unbosque.springfirstapp.repository.UserRepository;
+import co.edu.unbosque.springfirstapp.security.FieldEncryptionKeyRing;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Tarea en segundo plano que vuelve a cifrar las columnas cifradas con la clave activa. Migra los
+ * valores en texto plano anteriores al cifrado y los cifrados con claves retiradas, de modo que
+ * estas puedan eliminarse de la configuración cuando la migración termina.
+ *
+ * <p>Las filas se recorren por bloques ordenados por identificador y cada bloque se confirma en su
+ * propia transacción, para no bloquear la tabla ni mantener una transacción larga. Cada fila se
+ * reemplaza solo si su valor no cambió desde que se leyó.
+ */
+@Service
+public class FieldReEncryptionService implements MeterBinder {
+
+  /** Logger para registrar el avance de la migración. */
+  private static final Logger log = LoggerFactory.getLogger(FieldReEncryptionService.class);
+
+  /** Repositorio de usuarios. */
+  private final UserRepository userRepository;
+
+  /** Anillo de claves de cifrado. */
+  private final FieldEncryptionKeyRing keyRing;
+
+  /** Plantilla para confirmar cada bloque en su propia transacción. */
+  private final TransactionTemplate transactionTemplate;
+
+  /** Número de filas por bloque. */
+  private final int chunkSize;
+
+  /** Filas cifradas de nuevo. */
+  private final LongAdder reEncrypted = new LongAdder();
+
+  /**
+   * Constructor que inicializa las dependencias de la tarea.
+   *
+   * @param userRepository Repositorio de usuarios
+   * @param keyRing Anillo de claves de cifrado
+   * @param transactionManager Gestor de transacciones
+   * @param chunkSize Número de filas por bloque
+   */
+  public FieldReEncryptionService(
+      UserRepository userRepository,
+      FieldEncryptionKeyRing keyRing,
+      PlatformTransactionManager transactionManager,
+      @Value("${security.field-encryption.reencrypt-chunk-size:500}") int chunkSize) {
+    this.userRepository = userRepository;
+    this.keyRing = keyRing;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Recorre todas las filas y vuelve a cifrar las que no usan la clave activa.
+   *
+   * @return Número de filas cifradas de nuevo
+   */
+  @Scheduled(
+      initialDelayString = "${security.field-encryption.reencrypt-interval-ms:3600000}",
+      fixedDelayString = "${security.field-encryption.reencrypt-interval-ms:3600000}")
+  public long reEncryptAll() {
+    if (!keyRing.isEnabled()) {
+      return 0;
+    }
+    long total = 0;
+    long afterId = 0;
+    while (true) {
+      List<Object[]> chunk = userRepository.findStoredPasswordChunk(afterId, chunkSize);
+      if (chunk.isEmpty()) {
+        break;
+      }
+      total += transactionTemplate.execute(status -> reEncrypt(chunk));
+      afterId = ((Number) chunk.get(chunk.size() - 1)[0]).longValue();
+    }
+    if (total > 0) {
+      log.info("Columnas cifradas de nuevo con la clave activa: {}", total);
+    }
+    return total;
+  }
+
+  /**
+   * Vuelve a cifrar las filas de un bloque que no usan la clave activa.
+   *
+   * @param chunk Pares [id, valor almacenado]
+   * @return Número de filas reemplazadas
+   */
+  private long reEncrypt(List<Object[]> chunk) {
+    long replaced = 0;
+    for (Object[] row : chunk) {
+      String stored = (String) row[1];
+      if (keyRing.isCurrent(stored)) {
+        continue;
+      }
+      long id = ((Number) row[0]).longValue();
+      String value = keyRing.encrypt(keyRing.decrypt(stored));
+      replaced += userRepository.replaceStoredPassword(id, stored, value);
+    }
+    reEncrypted.add(replaced);
+    return replaced;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder("field.encryption.reencrypted", reEncrypted, LongAdder::sum)
+        .description("Filas cifradas de nuevo con la clave activa")
+        .register(registry);
+  }
+}
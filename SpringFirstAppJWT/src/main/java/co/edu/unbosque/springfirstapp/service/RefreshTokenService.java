@@ -0,0 +1,240 @@
+package co.edu.unbosque.springfirstapp.service;
+
+import co.edu.unbosque.springfirstapp.exception.InvalidRefreshTokenException;
+import co.edu.unbosque.springfirstapp.model.RefreshToken;
+import co.edu.unbosque.springfirstapp.model.User;
+import co.edu.unbosque.springfirstapp.repository.RefreshTokenRepository;
+import co.edu.unbosque.springfirstapp.repository.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Servicio que emite y rota los tokens de actualización (refresh tokens). Permite obtener un token
+ * de acceso nuevo sin volver a enviar ni verificar la contraseña.
+ *
+ * <p>Los tokens son 256 bits aleatorios; en la base de datos solo se guarda su resumen SHA-256, que
+ * basta por tratarse de valores de alta entropía. Cada uso marca el token como usado y emite otro de
+ * la misma familia. Presentar un token ya usado indica que fue copiado, por lo que se revoca toda la
+ * familia y tanto el cliente legítimo como el atacante deben iniciar sesión de nuevo.
+ */
+@Service
+public class RefreshTokenService implements MeterBinder {
+
+  /** Número de bytes aleatorios de cada token. */
+  private static final int TOKEN_BYTES = 32;
+
+  /** Generador de números aleatorios criptográficamente seguro. */
+  private final SecureRandom random = new SecureRandom();
+
+  /** Repositorio de tokens de actualización. */
+  private final RefreshTokenRepository refreshTokenRepository;
+
+  /** Repositorio de usuarios, para comprobar que el usuario sigue vigente al renovar. */
+  private final UserRepository userRepository;
+
+  /** Tiempo de validez de cada token desde su emisión. */
+  private final Duration validity;
+
+  /** Tokens rotados correctamente. */
+  private final LongAdder rotated = new LongAdder();
+
+  /** Tokens rechazados por inexistentes, expirados o revocados. */
+  private final LongAdder rejected = new LongAdder();
+
+  /** Reutilizaciones detectadas (familias revocadas). */
+  private final LongAdder reused = new LongAdder();
+
+  /**
+   * Constructor que inicializa los repositorios y la validez de los tokens.
+   *
+   * @param refreshTokenRepository Repositorio de tokens de actualización
+   * @param userRepository Repositorio de usuarios
+   * @param validityDays Días de validez de cada token desde su emisión
+   */
+  public RefreshTokenService(
+      RefreshTokenRepository refreshTokenRepository,
+      UserRepository userRepository,
+      @Value("${jwt.refresh-token-validity-days:30}") long validityDays) {
+    this.refreshTokenRepository = refreshTokenRepository;
+    this.userRepository = userRepository;
+    this.validity = Duration.ofDays(validityDays);
+  }
+
+  /**
+   * Emite un token de actualización para un usuario que acaba de iniciar sesión, como inicio de una
+   * familia nueva.
+   *
+   * @param user Usuario autenticado
+   * @return Token de actualización, o null si el usuario no tiene identificador
+   */
+  public String issue(User user) {
+    if (user.getId() == null) {
+      return null;
+    }
+    return create(UUID.randomUUID().toString(), user, Instant.now());
+  }
+
+  /**
+   * Usa un token de actualización y lo reemplaza por uno nuevo de la misma familia.
+   *
+   * @param rawToken Token de actualización presentado por el cliente
+   * @return Usuario dueño del token y token de actualización nuevo
+   * @throws InvalidRefreshTokenException Si el token no existe, expiró, fue revocado, ya se había
+   *     usado, o el usuario se eliminó o cambió sus credenciales
+   */
+  @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+  public Rotation rotate(String rawToken) {
+    RefreshToken current =
+        rawToken == null
+            ? null
+            : refreshTokenRepository.findByTokenHash(digest(rawToken)).orElse(null);
+    Instant now = Instant.now();
+    if (current == null || current.isRevoked() || !current.getExpiresAt().isAfter(now)) {
+      rejected.increment();
+      throw new InvalidRefreshTokenException("Token de actualización inválido o expirado");
+    }
+    if (refreshTokenRepository.markUsed(current.getId(), now) == 0) {
+      // Ya se había usado: alguien más tiene una copia del token
+      reused.increment();
+      refreshTokenRepository.revokeFamily(current.getFamilyId());
+      throw new InvalidRefreshTokenException("Token de actualización reutilizado");
+    }
+    User user = userRepository.findById(current.getUserId()).orElse(null);
+    if (user == null || user.getTokenVersion() != current.getTokenVersion()) {
+      rejected.increment();
+      refreshTokenRepository.revokeFamily(current.getFamilyId());
+      throw new InvalidRefreshTokenException("Las credenciales del usuario cambiaron");
+    }
+    rotated.increment();
+    return new Rotation(user, create(current.getFamilyId(), user, now));
+  }
+
+  /**
+   * Revoca la familia de un token de actualización (cierre de sesión). Los tokens desconocidos se
+   * ignoran.
+   *
+   * @param rawToken Token de actualización presentado por el cliente
+   */
+  @Transactional
+  public void revokeFamily(String rawToken) {
+    refreshTokenRepository
+        .findByTokenHash(digest(rawToken))
+        .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+  }
+
+  /** Elimina periódicamente los tokens expirados. */
+  @Scheduled(fixedDelayString = "${jwt.refresh.purge-interval-ms:3600000}")
+  public void purgeExpired() {
+    refreshTokenRepository.deleteExpired(Instant.now());
+  }
+
+  /**
+   * Registra el resultado de las renovaciones.
+   *
+   * @param registry Registro de métricas
+   */
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder("auth.refresh", rotated, LongAdder::sum)
+        .tag("result", "rotated")
+        .register(registry);
+    FunctionCounter.builder("auth.refresh", rejected, LongAdder::sum)
+        .tag("result", "rejected")
+        .register(registry);
+    FunctionCounter.builder("auth.refresh", reused, LongAdder::sum)
+        .tag("result", "reuse_detected")
+        .register(registry);
+  }
+
+  /**
+   * Genera y guarda un token nuevo.
+   *
+   * @param familyId Familia a la que pertenece
+   * @param user Usuario dueño del token
+   * @param now Instante de emisión
+   * @return Token de actualización
+   */
+  private String create(String familyId, User user, Instant now) {
+    byte[] bytes = new byte[TOKEN_BYTES];
+    random.nextBytes(bytes);
+    String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    refreshTokenRepository.save(
+        new RefreshToken(
+            digest(rawToken),
+            familyId,
+            user.getId(),
+            user.getTokenVersion(),
+            now.plus(validity)));
+    return rawToken;
+  }
+
+  /**
+   * Calcula el resumen SHA-256 de un token.
+   *
+   * @param rawToken Token de actualización
+   * @return Resumen codificado en Base64 URL sin relleno
+   */
+  private static String digest(String rawToken) {
+    try {
+      MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+      return Base64.getUrlEncoder()
+          .withoutPadding()
+          .encodeToString(sha256.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 no disponible", e);
+    }
+  }
+
+  /** Resultado de una renovación: el usuario y el token de actualización que reemplaza al usado. */
+  public static final class Rotation {
+
+    /** Usuario dueño del token. */
+    private final User user;
+
+    /** Token de actualización nuevo. */
+    private final String refreshToken;
+
+    /**
+     * Constructor con el usuario y el token nuevo.
+     *
+     * @param user Usuario dueño del token
+     * @param refreshToken Token de actualización nuevo
+     */
+    Rotation(User user, String refreshToken) {
+      this.user = user;
+      this.refreshToken = refreshToken;
+    }
+
+    /**
+     * Obtiene el usuario dueño del token.
+     *
+     * @return Usuario
+     */
+    public User getUser() {
+      return user;
+    }
+
+    /**
+     * Obtiene el token de actualización nuevo.
+     *
+     * @return Token de actualización
+     */
+    public String getRefreshToken() {
+      return refreshToken;
+    }
+  }
+}
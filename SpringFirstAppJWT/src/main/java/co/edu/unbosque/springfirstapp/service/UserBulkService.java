@@ -0,0 +1,359 @@
+package co.edu.unbosque.springfirstapp.service;
+
+import co.edu.unbosque.springfirstapp.dto.BulkUserResultDTO;
+import co.edu.unbosque.springfirstapp.dto.BulkUserResultDTO.Status;
+import co.edu.unbosque.springfirstapp.dto.UserDTO;
+import co.edu.unbosque.springfirstapp.dto.UserSummary;
+import co.edu.unbosque.springfirstapp.model.User.Role;
+import co.edu.unbosque.springfirstapp.repository.UserRepository;
+import co.edu.unbosque.springfirstapp.security.FieldEncryptionKeyRing;
+import co.edu.unbosque.springfirstapp.security.PasswordHashingExecutor;
+import jakarta.annotation.PreDestroy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Servicio de creación masiva de usuarios. A diferencia de {@link UserService#create(UserDTO)},
+ * que consulta y guarda un usuario a la vez, verifica los nombres de usuario con una consulta por
+ * bloque, calcula los hashes en paralelo y guarda los usuarios con lotes JDBC.
+ *
+ * <p>El identificador de {@code User} es {@code IDENTITY} (MySQL no tiene secuencias), lo que
+ * impide a Hibernate agrupar las inserciones; por eso se insertan con {@link JdbcTemplate}, y el
+ * controlador de MySQL convierte cada lote en una sola inserción de varias filas
+ * ({@code rewriteBatchedStatements}). La contraseña se cifra con {@link FieldEncryptionKeyRing}
+ * igual que lo haría el convertidor JPA.
+ */
+@Service
+public class UserBulkService {
+
+  /** Número máximo de nombres por consulta {@code in}. */
+  private static final int QUERY_CHUNK = 1000;
+
+  /** Inserción de un usuario con los valores por defecto de la entidad. */
+  private static final String INSERT =
+      "insert into useraccount (username, password, role, account_non_expired,"
+          + " account_non_locked, credentials_non_expired, enabled, token_version, version)"
+          + " values (?, ?, ?, true, true, true, true, 0, 0)";
+
+  /** Repositorio de usuarios. */
+  private final UserRepository userRepository;
+
+  /** Plantilla JDBC para las inserciones por lotes. */
+  private final JdbcTemplate jdbcTemplate;
+
+  /** Plantilla para confirmar cada lote en su propia transacción. */
+  private final TransactionTemplate transactionTemplate;
+
+  /** Codificador de contraseñas. */
+  private final PasswordEncoder passwordEncoder;
+
+  /** Ejecutor acotado para el cálculo de hashes. */
+  private final PasswordHashingExecutor hashingExecutor;
+
+  /** Anillo de claves para cifrar la contraseña en reposo. */
+  private final FieldEncryptionKeyRing keyRing;
+
+  /** Número de filas por lote de inserciones. */
+  private final int batchSize;
+
+  /** Número de tareas de hashing simultáneas por solicitud. */
+  private final int hashConcurrency;
+
+  /** Hilos de escritura de las solicitudes de {@link #createAll(List)}. */
+  private final ExecutorService writers;
+
+  /**
+   * Constructor que inicializa las dependencias del servicio.
+   *
+   * @param userRepository Repositorio de usuarios
+   * @param jdbcTemplate Plantilla JDBC
+   * @param transactionManager Gestor de transacciones
+   * @param passwordEncoder Codificador de contraseñas
+   * @param hashingExecutor Ejecutor acotado para el cálculo de hashes
+   * @param keyRing Anillo de claves de cifrado de columnas
+   * @param batchSize Número de filas por lote de inserciones
+   * @param hashConcurrency Tareas de hashing simultáneas; 0 usa la mitad de los procesadores, para
+   *     dejar capacidad a los inicios de sesión
+   * @param writerThreads Número de solicitudes que insertan sus lotes a la vez; las demás esperan
+   */
+  public UserBulkService(
+      UserRepository userRepository,
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      PasswordEncoder passwordEncoder,
+      PasswordHashingExecutor hashingExecutor,
+      FieldEncryptionKeyRing keyRing,
+      @Value("${users.bulk.batch-size:500}") int batchSize,
+      @Value("${users.bulk.hash-concurrency:0}") int hashConcurrency,
+      @Value("${users.bulk.writer-threads:2}") int writerThreads) {
+    this.userRepository = userRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.passwordEncoder = passwordEncoder;
+    this.hashingExecutor = hashingExecutor;
+    this.keyRing = keyRing;
+    this.batchSize = batchSize;
+    this.hashConcurrency =
+        hashConcurrency > 0
+            ? hashConcurrency
+            : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    AtomicInteger count = new AtomicInteger();
+    this.writers =
+        Executors.newFixedThreadPool(
+            Math.max(1, writerThreads),
+            runnable -> {
+              Thread thread = new Thread(runnable, "user-bulk-writer-" + count.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * Crea los usuarios indicados. Los elementos inválidos o con nombres ya existentes (o repetidos
+   * en la misma solicitud) no se crean y se informan en su resultado.
+   *
+   * <p>La validación y la consulta de nombres existentes se hacen en el hilo que llama; los hashes,
+   * en el ejecutor de hashing, y las inserciones, en los hilos de escritura del servicio, de modo
+   * que la espera de la base de datos no ocupe hilos de hashing. El futuro devuelto se completa sin
+   * bloquear el hilo que llama.
+   *
+   * @param users Usuarios a crear
+   * @return Futuro con un resultado por elemento, en el orden de la solicitud
+   * @throws co.edu.unbosque.springfirstapp.exception.HashingCapacityExceededException Si el
+   *     ejecutor de hashing está saturado
+   */
+  public CompletableFuture<List<BulkUserResultDTO>> createAll(List<UserDTO> users) {
+    return createAll(users, writers);
+  }
+
+  /**
+   * Crea los usuarios indicados, como {@link #createAll(List)}, pero hace las inserciones en el
+   * ejecutor indicado en lugar de los hilos de escritura del servicio. Permite que una importación
+   * escriba sus bloques en orden en su propio hilo mientras calcula los hashes del siguiente.
+   *
+   * @param users Usuarios a crear
+   * @param writeExecutor Ejecutor de las inserciones
+   * @return Futuro con un resultado por elemento, en el orden de la solicitud
+   * @throws co.edu.unbosque.springfirstapp.exception.HashingCapacityExceededException Si el
+   *     ejecutor de hashing está saturado
+   */
+  public CompletableFuture<List<BulkUserResultDTO>> createAll(
+      List<UserDTO> users, Executor writeExecutor) {
+    BulkUserResultDTO[] results = new BulkUserResultDTO[users.size()];
+    List<Integer> pending = new ArrayList<>();
+    Set<String> requested = new HashSet<>();
+    for (int i = 0; i < users.size(); i++) {
+      UserDTO user = users.get(i);
+      String username = user == null ? null : user.getUsername();
+      if (!isValid(user)) {
+        results[i] = new BulkUserResultDTO(i, username, Status.INVALID);
+      } else if (!requested.add(username)) {
+        results[i] = new BulkUserResultDTO(i, username, Status.DUPLICATE);
+      } else {
+        pending.add(i);
+      }
+    }
+
+    List<String> usernames = pending.stream().map(i -> users.get(i).getUsername()).toList();
+    Set<String> existing = findExisting(usernames);
+    List<Integer> toCreate = new ArrayList<>();
+    for (int i : pending) {
+      String username = users.get(i).getUsername();
+      if (existing.contains(username)) {
+        results[i] = new BulkUserResultDTO(i, username, Status.DUPLICATE);
+      } else {
+        toCreate.add(i);
+      }
+    }
+
+    return hashAll(users, toCreate)
+        .thenApplyAsync(
+            hashes -> {
+              insertAll(users, toCreate, hashes, results);
+              return List.of(results);
+            },
+            writeExecutor);
+  }
+
+  /** Detiene los hilos de escritura al cerrar el contexto. */
+  @PreDestroy
+  void shutdown() {
+    writers.shutdown();
+  }
+
+  /**
+   * Verifica los datos obligatorios de un elemento.
+   *
+   * @param user Elemento de la solicitud
+   * @return true si tiene nombre y contraseña válidos
+   */
+  private static boolean isValid(UserDTO user) {
+    return user != null
+        && user.getUsername() != null
+        && !user.getUsername().isBlank()
+        && !user.getUsername().contains("<")
+        && !user.getUsername().contains(">")
+        && user.getPassword() != null
+        && !user.getPassword().isEmpty();
+  }
+
+  /**
+   * Obtiene los nombres que ya existen, con una consulta por bloque de nombres.
+   *
+   * @param usernames Nombres a verificar
+   * @return Nombres existentes
+   */
+  private Set<String> findExisting(List<String> usernames) {
+    Set<String> existing = new HashSet<>();
+    for (int from = 0; from < usernames.size(); from += QUERY_CHUNK) {
+      List<String> chunk = usernames.subList(from, Math.min(from + QUERY_CHUNK, usernames.size()));
+      existing.addAll(userRepository.findExistingUsernames(chunk));
+    }
+    return existing;
+  }
+
+  /**
+   * Calcula los hashes de las contraseñas con un número fijo de tareas en el ejecutor de hashing.
+   * Cada tarea toma el siguiente elemento pendiente, de modo que la solicitud nunca ocupa más
+   * hilos ni puestos de la cola que {@code hashConcurrency}, sin importar su tamaño.
+   *
+   * @param users Usuarios de la solicitud
+   * @param indexes Posiciones de los usuarios a crear
+   * @return Futuro con los hashes, en el mismo orden que {@code indexes}
+   */
+  private CompletableFuture<String[]> hashAll(List<UserDTO> users, List<Integer> indexes) {
+    String[] hashes = new String[indexes.size()];
+    AtomicInteger next = new AtomicInteger();
+    int tasks = Math.max(1, Math.min(hashConcurrency, indexes.size()));
+    CompletableFuture<?>[] workers = new CompletableFuture<?>[tasks];
+    for (int t = 0; t < tasks; t++) {
+      workers[t] =
+          hashingExecutor.submit(
+              () -> {
+                int i;
+                while ((i = next.getAndIncrement()) < hashes.length) {
+                  hashes[i] = passwordEncoder.encode(users.get(indexes.get(i)).getPassword());
+                }
+                return null;
+              });
+    }
+    return CompletableFuture.allOf(workers).thenApply(done -> hashes);
+  }
+
+  /**
+   * Inserta los usuarios por lotes, cada lote en su propia transacción, y registra su resultado.
+   * Si un lote falla por un nombre creado de forma concurrente, ese lote se inserta fila por fila
+   * para identificar los duplicados.
+   *
+   * @param users Usuarios de la solicitud
+   * @param indexes Posiciones de los usuarios a crear
+   * @param hashes Hashes de sus contraseñas
+   * @param results Resultados por posición
+   */
+  private void insertAll(
+      List<UserDTO> users, List<Integer> indexes, String[] hashes, BulkUserResultDTO[] results) {
+    List<Object[]> rows = new ArrayList<>(indexes.size());
+    for (int k = 0; k < indexes.size(); k++) {
+      UserDTO user = users.get(indexes.get(k));
+      Role role = user.getRole() == null ? Role.USER : user.getRole();
+      rows.add(new Object[] {user.getUsername(), keyRing.encrypt(hashes[k]), role.name()});
+    }
+    List<String> created = new ArrayList<>();
+    for (int from = 0; from < rows.size(); from += batchSize) {
+      int to = Math.min(from + batchSize, rows.size());
+      List<Object[]> batch = rows.subList(from, to);
+      boolean[] inserted = insertBatch(batch);
+      for (int k = from; k < to; k++) {
+        int index = indexes.get(k);
+        String username = users.get(index).getUsername();
+        if (inserted[k - from]) {
+          created.add(username);
+          results[index] = new BulkUserResultDTO(index, username, Status.CREATED);
+        } else {
+          results[index] = new BulkUserResultDTO(index, username, Status.DUPLICATE);
+        }
+      }
+    }
+    assignIds(created, results);
+  }
+
+  /**
+   * Inserta un lote con una sola operación JDBC; si viola la unicidad, lo inserta fila por fila.
+   *
+   * @param batch Filas [username, password, role]
+   * @return Indica por fila si se insertó
+   */
+  private boolean[] insertBatch(List<Object[]> batch) {
+    boolean[] inserted = new boolean[batch.size()];
+    try {
+      transactionTemplate.executeWithoutResult(
+          status -> jdbcTemplate.batchUpdate(INSERT, batch, batch.size(), UserBulkService::bind));
+      Arrays.fill(inserted, true);
+    } catch (DataIntegrityViolationException e) {
+      for (int k = 0; k < batch.size(); k++) {
+        Object[] row = batch.get(k);
+        try {
+          transactionTemplate.executeWithoutResult(
+              status -> jdbcTemplate.update(INSERT, ps -> bind(ps, row)));
+          inserted[k] = true;
+        } catch (DataIntegrityViolationException duplicate) {
+          inserted[k] = false;
+        }
+      }
+    }
+    return inserted;
+  }
+
+  /**
+   * Asigna los parámetros de una fila a la inserción.
+   *
+   * @param ps Sentencia preparada
+   * @param row Fila [username, password, role]
+   * @throws SQLException Si falla la asignación
+   */
+  private static void bind(PreparedStatement ps, Object[] row) throws SQLException {
+    ps.setString(1, (String) row[0]);
+    ps.setString(2, (String) row[1]);
+    ps.setString(3, (String) row[2]);
+  }
+
+  /**
+   * Completa los identificadores de los usuarios creados, con una consulta por bloque de nombres.
+   *
+   * @param created Nombres de los usuarios creados
+   * @param results Resultados por posición
+   */
+  private void assignIds(List<String> created, BulkUserResultDTO[] results) {
+    Map<String, Long> ids = new HashMap<>();
+    for (int from = 0; from < created.size(); from += QUERY_CHUNK) {
+      List<String> chunk = created.subList(from, Math.min(from + QUERY_CHUNK, created.size()));
+      for (UserSummary user : userRepository.findByUsernameIn(chunk)) {
+        ids.put(user.getUsername(), user.getId());
+      }
+    }
+    for (BulkUserResultDTO result : results) {
+      if (result.getStatus() == Status.CREATED) {
+        result.setId(ids.get(result.getUsername()));
+      }
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package co.edu.unbosque.springfirstapp.service;
+
+import co.edu.unbosque.springfirstapp.dto.UserSummary;
+import co.edu.unbosque.springfirstapp.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Servicio que exporta todos los usuarios directamente de la base de datos a un flujo de salida, en
+ * NDJSON (un objeto JSON por línea) o CSV. Las filas se leen por lotes y se escriben a medida que
+ * llegan, por lo que la memoria usada no depende del número de usuarios. La contraseña no se lee.
+ */
+@Service
+public class UserExportService {
+
+  /** Formatos de exportación soportados. */
+  public enum Format {
+    /** Un objeto JSON por línea. */
+    NDJSON,
+    /** Valores separados por comas con encabezado (RFC 4180). */
+    CSV
+  }
+
+  /** Tamaño del búfer de escritura. */
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  /** Fábrica de generadores JSON en modo de flujo. */
+  private static final JsonFactory JSON = new JsonFactory();
+
+  /** Repositorio de usuarios. */
+  private final UserRepository userRepository;
+
+  /**
+   * Constructor que inicializa el repositorio.
+   *
+   * @param userRepository Repositorio de usuarios
+   */
+  public UserExportService(UserRepository userRepository) {
+    this.userRepository = userRepository;
+  }
+
+  /**
+   * Escribe todos los usuarios en el flujo indicado. La transacción de solo lectura se mantiene
+   * mientras se escribe, ya que las filas se leen a medida que se consumen.
+   *
+   * @param format Formato de salida
+   * @param out Flujo de salida; no se cierra
+   * @return Número de usuarios escritos
+   * @throws IOException Si falla la escritura (por ejemplo, el cliente cerró la conexión)
+   */
+  @Transactional(readOnly = true)
+  public long export(Format format, OutputStream out) throws IOException {
+    Writer writer =
+        new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    try (Stream<UserSummary> users = userRepository.streamAllBy()) {
+      Iterator<UserSummary> rows = users.iterator();
+      long count = format == Format.CSV ? writeCsv(rows, writer) : writeNdjson(rows, writer);
+      writer.flush();
+      return count;
+    }
+  }
+
+  /**
+   * Escribe los usuarios en NDJSON.
+   *
+   * @param users Usuarios a escribir
+   * @param writer Destino
+   * @return Número de usuarios escritos
+   * @throws IOException Si falla la escritura
+   */
+  private long writeNdjson(Iterator<UserSummary> users, Writer writer) throws IOException {
+    long count = 0;
+    JsonGenerator json = JSON.createGenerator(writer);
+    json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    // Cada objeto va en su propia línea, sin el espacio que Jackson pone entre valores raíz
+    json.setRootValueSeparator(null);
+    while (users.hasNext()) {
+      UserSummary user = users.next();
+      json.writeStartObject();
+      json.writeNumberField("id", user.getId());
+      json.writeStringField("username", user.getUsername());
+      json.writeStringField("role", user.getRole() == null ? null : user.getRole().name());
+      json.writeEndObject();
+      json.writeRaw('\n');
+      count++;
+    }
+    json.flush();
+    return count;
+  }
+
+  /**
+   * Escribe los usuarios en CSV.
+   *
+   * @param users Usuarios a escribir
+   * @param writer Destino
+   * @return Número de usuarios escritos
+   * @throws IOException Si falla la escritura
+   */
+  private long writeCsv(Iterator<UserSummary> users, Writer writer) throws IOException {
+    long count = 0;
+    writer.write("id,username,role\r\n");
+    while (users.hasNext()) {
+      UserSummary user = users.next();
+      writer.write(Long.toString(user.getId()));
+      writer.write(',');
+      writeCsvField(writer, user.getUsername());
+      writer.write(',');
+      writer.write(user.getRole() == null ? "" : user.getRole().name());
+      writer.write("\r\n");
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Escribe un campo de texto en CSV, entre comillas si contiene separadores, comillas o saltos de
+   * línea. Los valores que empiezan por {@code = + - @} se prefijan con un apóstrofo para que las
+   * hojas de cálculo no los interpreten como fórmulas.
+   *
+   * @param writer Destino
+   * @param value Valor del campo
+   * @throws IOException Si falla la escritura
+   */
+  static void writeCsvField(Writer writer, String value) throws IOException {
+    if (value == null) {
+      return;
+    }
+    if (!value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0) {
+      value = "'" + value;
+    }
+    boolean quote = false;
+    for (int i = 0; i < value.length() && !quote; i++) {
+      char c = value.charAt(i);
+      quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+    }
+    if (!quote) {
+      writer.write(value);
+      return;
+    }
+    writer.write('"');
+    writer.write(value.replace("\"", "\"\""));
+    writer.write('"');
+  }
+}
@@ -0,0 +1,644 @@
+package co.edu.unbosque.springfirstapp.service;
+
+import co.edu.unbosque.springfirstapp.dto.BulkUserResultDTO;
+import co.edu.unbosque.springfirstapp.dto.BulkUserResultDTO.Status;
+import co.edu.unbosque.springfirstapp.dto.UserDTO;
+import co.edu.unbosque.springfirstapp.dto.UserImportJobDTO;
+import co.edu.unbosque.springfirstapp.exception.HashingCapacityExceededException;
+import co.edu.unbosque.springfirstapp.exception.ImportCapacityExceededException;
+import co.edu.unbosque.springfirstapp.model.User.Role;
+import co.edu.unbosque.springfirstapp.service.UserExportService.Format;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Servicio de importación de usuarios desde archivos CSV o NDJSON de cualquier tamaño.
+ *
+ * <p>Cada importación es un trabajo en segundo plano que procesa el archivo en tres etapas
+ * encadenadas: la lectura (un hilo por trabajo) arma bloques de filas, el hashing los reparte en el
+ * ejecutor de hashing y la escritura (un solo hilo) los inserta por lotes, cada bloque en su propia
+ * transacción. Solo puede haber {@code users.import.max-in-flight-chunks} bloques entre la lectura
+ * y la escritura; cuando se alcanza ese límite la lectura espera, de modo que la memoria usada no
+ * depende del tamaño del archivo.
+ *
+ * <p>Ningún recurso crece sin límite con la entrada: cada registro se lee hasta {@code
+ * users.import.max-record-length} caracteres y los más largos se descartan sin guardarlos en
+ * memoria y se informan como inválidos, y solo esperan {@code users.import.queued-jobs} trabajos
+ * detrás de los que están en curso; los demás se rechazan con {@link
+ * ImportCapacityExceededException}.
+ *
+ * <p>Las filas se validan y se crean con {@link UserBulkService}, con las mismas reglas que la
+ * creación individual. El estado de cada trabajo se conserva en memoria hasta {@code
+ * users.import.retention-minutes} después de terminar.
+ */
+@Service
+public class UserImportService {
+
+  /** Registro de eventos del servicio. */
+  private static final Logger LOGGER = LoggerFactory.getLogger(UserImportService.class);
+
+  /** Número máximo de filas omitidas que se informan por trabajo. */
+  private static final int MAX_REJECTED = 100;
+
+  /** Tamaño del búfer de lectura. */
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  /** Espera antes de reintentar un bloque cuando el ejecutor de hashing está saturado. */
+  private static final long RETRY_DELAY_MS = 50;
+
+  /** Fila que no se pudo interpretar; la creación masiva la informa como inválida. */
+  private static final UserDTO MALFORMED = new UserDTO();
+
+  /** Registro CSV que superó el tamaño máximo; se compara por identidad. */
+  static final List<String> OVERSIZED = List.of();
+
+  /** Servicio de creación masiva que valida, calcula los hashes e inserta cada bloque. */
+  private final UserBulkService bulkService;
+
+  /** Lector JSON de cada fila NDJSON. */
+  private final ObjectReader userReader;
+
+  /** Número de filas por bloque. */
+  private final int chunkSize;
+
+  /** Número máximo de bloques leídos y aún no escritos por trabajo. */
+  private final int maxInFlightChunks;
+
+  /** Número máximo de caracteres de un registro. */
+  private final int maxRecordLength;
+
+  /** Tiempo que se conserva el estado de un trabajo terminado. */
+  private final Duration retention;
+
+  /** Hilos de lectura, uno por trabajo en curso, con una cola acotada de trabajos en espera. */
+  private final ExecutorService readers;
+
+  /** Hilo de escritura, compartido por todos los trabajos. */
+  private final ExecutorService writer;
+
+  /** Trabajos por identificador. */
+  private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+  /**
+   * Constructor que inicializa las dependencias y los hilos del servicio.
+   *
+   * @param bulkService Servicio de creación masiva
+   * @param objectMapper Mapeador JSON de la aplicación
+   * @param chunkSize Número de filas por bloque
+   * @param maxInFlightChunks Número máximo de bloques leídos y aún no escritos por trabajo
+   * @param maxRecordLength Número máximo de caracteres de un registro (línea NDJSON o registro CSV)
+   * @param concurrentJobs Número de trabajos que se procesan a la vez; los demás esperan
+   * @param queuedJobs Número máximo de trabajos en espera; los que excedan se rechazan
+   * @param retentionMinutes Minutos que se conserva el estado de un trabajo terminado
+   */
+  public UserImportService(
+      UserBulkService bulkService,
+      ObjectMapper objectMapper,
+      @Value("${users.import.chunk-size:1000}") int chunkSize,
+      @Value("${users.import.max-in-flight-chunks:3}") int maxInFlightChunks,
+      @Value("${users.import.max-record-length:8192}") int maxRecordLength,
+      @Value("${users.import.concurrent-jobs:1}") int concurrentJobs,
+      @Value("${users.import.queued-jobs:10}") int queuedJobs,
+      @Value("${users.import.retention-minutes:60}") long retentionMinutes) {
+    this.bulkService = bulkService;
+    this.userReader = objectMapper.readerFor(UserDTO.class);
+    this.chunkSize = Math.max(1, chunkSize);
+    this.maxInFlightChunks = Math.max(1, maxInFlightChunks);
+    this.maxRecordLength = Math.max(1, maxRecordLength);
+    this.retention = Duration.ofMinutes(retentionMinutes);
+    AtomicInteger count = new AtomicInteger();
+    int readerThreads = Math.max(1, concurrentJobs);
+    this.readers =
+        new ThreadPoolExecutor(
+            readerThreads,
+            readerThreads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queuedJobs)),
+            runnable -> daemon(runnable, "user-import-" + count.incrementAndGet()),
+            new ThreadPoolExecutor.AbortPolicy());
+    this.writer =
+        Executors.newSingleThreadExecutor(runnable -> daemon(runnable, "user-import-writer"));
+  }
+
+  /**
+   * Inicia la importación de un archivo. El servicio se hace cargo del archivo y lo elimina al
+   * terminar.
+   *
+   * @param format Formato del archivo
+   * @param upload Archivo recibido
+   * @return Estado inicial del trabajo
+   * @throws ImportCapacityExceededException Si ya hay {@code users.import.queued-jobs} trabajos en
+   *     espera; en ese caso el archivo se elimina
+   */
+  public UserImportJobDTO submit(Format format, Path upload) {
+    prune();
+    Job job = new Job(UUID.randomUUID().toString());
+    jobs.put(job.id, job);
+    try {
+      readers.execute(() -> run(job, format, upload));
+    } catch (RejectedExecutionException e) {
+      jobs.remove(job.id);
+      deleteUpload(upload);
+      throw new ImportCapacityExceededException();
+    }
+    return job.snapshot();
+  }
+
+  /**
+   * Obtiene el estado de un trabajo.
+   *
+   * @param id Identificador del trabajo
+   * @return Estado actual, o null si no existe o ya expiró
+   */
+  public UserImportJobDTO getJob(String id) {
+    prune();
+    Job job = jobs.get(id);
+    return job == null ? null : job.snapshot();
+  }
+
+  /**
+   * Procesa el archivo de un trabajo. Se ejecuta en un hilo de lectura.
+   *
+   * @param job Trabajo
+   * @param format Formato del archivo
+   * @param upload Archivo recibido
+   */
+  private void run(Job job, Format format, Path upload) {
+    job.status = UserImportJobDTO.Status.RUNNING;
+    Semaphore inFlight = new Semaphore(maxInFlightChunks);
+    try (BufferedReader reader =
+        new BufferedReader(
+            new InputStreamReader(Files.newInputStream(upload), StandardCharsets.UTF_8),
+            BUFFER_SIZE)) {
+      RowReader rows =
+          format == Format.CSV
+              ? new CsvRowReader(reader, maxRecordLength)
+              : new NdjsonRowReader(reader);
+      List<UserDTO> chunk = new ArrayList<>(chunkSize);
+      long firstRow = 1;
+      UserDTO row;
+      while (job.error == null && (row = rows.next()) != null) {
+        chunk.add(row);
+        job.rows.increment();
+        if (chunk.size() == chunkSize) {
+          submitChunk(job, chunk, firstRow, inFlight);
+          firstRow += chunk.size();
+          chunk = new ArrayList<>(chunkSize);
+        }
+      }
+      if (!chunk.isEmpty() && job.error == null) {
+        submitChunk(job, chunk, firstRow, inFlight);
+      }
+    } catch (IOException | RuntimeException e) {
+      job.fail(e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      job.fail(e);
+    } finally {
+      // Esperar a que se escriban los bloques pendientes antes de dar el trabajo por terminado
+      inFlight.acquireUninterruptibly(maxInFlightChunks);
+      job.finish();
+      deleteUpload(upload);
+    }
+  }
+
+  /**
+   * Elimina el archivo de un trabajo.
+   *
+   * @param upload Archivo recibido
+   */
+  private static void deleteUpload(Path upload) {
+    try {
+      Files.deleteIfExists(upload);
+    } catch (IOException e) {
+      LOGGER.warn("No se pudo eliminar el archivo de importación {}", upload, e);
+    }
+  }
+
+  /**
+   * Envía un bloque a las etapas de hashing y escritura. Si ya hay {@code maxInFlightChunks}
+   * bloques pendientes, espera a que se escriba alguno; si el ejecutor de hashing está saturado,
+   * reintenta tras una pausa en lugar de fallar, ya que la importación no tiene un cliente
+   * esperando.
+   *
+   * @param job Trabajo
+   * @param chunk Filas del bloque
+   * @param firstRow Número de la primera fila del bloque, desde 1
+   * @param inFlight Permisos de bloques pendientes
+   * @throws InterruptedException Si se interrumpe la espera
+   */
+  private void submitChunk(Job job, List<UserDTO> chunk, long firstRow, Semaphore inFlight)
+      throws InterruptedException {
+    inFlight.acquire();
+    CompletableFuture<List<BulkUserResultDTO>> future = null;
+    try {
+      while (future == null) {
+        try {
+          future = bulkService.createAll(chunk, writer);
+        } catch (HashingCapacityExceededException e) {
+          Thread.sleep(RETRY_DELAY_MS);
+        }
+      }
+    } catch (InterruptedException | RuntimeException e) {
+      inFlight.release();
+      throw e;
+    }
+    future.whenComplete(
+        (results, error) -> {
+          try {
+            if (error != null) {
+              job.fail(error);
+            } else {
+              job.record(results, firstRow);
+            }
+          } finally {
+            inFlight.release();
+          }
+        });
+  }
+
+  /** Elimina los trabajos terminados hace más de {@code retention}. */
+  private void prune() {
+    Instant limit = Instant.now().minus(retention);
+    jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(limit));
+  }
+
+  /** Detiene los hilos del servicio al cerrar el contexto. */
+  @PreDestroy
+  void shutdown() {
+    readers.shutdownNow();
+    writer.shutdown();
+  }
+
+  /**
+   * Crea un hilo demonio con nombre reconocible para los volcados de hilos.
+   *
+   * @param runnable Tarea del hilo
+   * @param name Nombre del hilo
+   * @return Hilo creado
+   */
+  private static Thread daemon(Runnable runnable, String name) {
+    Thread thread = new Thread(runnable, name);
+    thread.setDaemon(true);
+    return thread;
+  }
+
+  /**
+   * Lee los campos del siguiente registro CSV (RFC 4180): separados por comas, opcionalmente entre
+   * comillas dobles, con comillas escapadas como {@code ""} y saltos de línea dentro de los campos
+   * entre comillas. Un registro de más de {@code maxLength} caracteres se lee hasta el final sin
+   * guardarlo.
+   *
+   * @param reader Origen
+   * @param maxLength Número máximo de caracteres del registro
+   * @return Campos del registro, {@link #OVERSIZED} si superó el tamaño máximo, o null al final del
+   *     archivo
+   * @throws IOException Si falla la lectura
+   */
+  static List<String> readCsvRecord(Reader reader, int maxLength) throws IOException {
+    int c = reader.read();
+    if (c < 0) {
+      return null;
+    }
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    int fieldLength = 0;
+    long length = 0;
+    boolean quoted = false;
+    while (c >= 0) {
+      if (quoted) {
+        if (c == '"') {
+          c = reader.read();
+          if (c != '"') {
+            quoted = false;
+            continue;
+          }
+        }
+        fieldLength++;
+        if (++length <= maxLength) {
+          field.append((char) c);
+        }
+      } else if (c == '"' && fieldLength == 0) {
+        quoted = true;
+      } else if (c == ',') {
+        if (++length <= maxLength) {
+          fields.add(field.toString());
+        }
+        field.setLength(0);
+        fieldLength = 0;
+      } else if (c == '\n') {
+        break;
+      } else if (c != '\r') {
+        fieldLength++;
+        if (++length <= maxLength) {
+          field.append((char) c);
+        }
+      }
+      c = reader.read();
+    }
+    if (length > maxLength) {
+      return OVERSIZED;
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+
+  /** Lector de filas de un formato de importación. */
+  private interface RowReader {
+
+    /**
+     * Lee la siguiente fila de datos, omitiendo las líneas vacías.
+     *
+     * @return Usuario de la fila, {@link #MALFORMED} si no se pudo interpretar, o null al final
+     * @throws IOException Si falla la lectura o el archivo no tiene el formato esperado
+     */
+    UserDTO next() throws IOException;
+  }
+
+  /**
+   * Lector de filas NDJSON: un objeto {@code UserDTO} por línea. Las líneas de más de {@code
+   * maxRecordLength} caracteres se descartan sin guardarlas y se informan como inválidas.
+   */
+  private final class NdjsonRowReader implements RowReader {
+
+    /** Origen. */
+    private final Reader reader;
+
+    /** Línea en lectura, reutilizada entre filas. */
+    private final StringBuilder line = new StringBuilder();
+
+    /**
+     * Constructor con el origen.
+     *
+     * @param reader Origen
+     */
+    NdjsonRowReader(Reader reader) {
+      this.reader = reader;
+    }
+
+    @Override
+    public UserDTO next() throws IOException {
+      while (true) {
+        line.setLength(0);
+        boolean oversized = false;
+        int c = reader.read();
+        if (c < 0) {
+          return null;
+        }
+        while (c >= 0 && c != '\n') {
+          if (line.length() < maxRecordLength) {
+            line.append((char) c);
+          } else {
+            oversized = true;
+          }
+          c = reader.read();
+        }
+        if (oversized) {
+          return MALFORMED;
+        }
+        if (!line.toString().isBlank()) {
+          try {
+            return userReader.readValue(line.toString());
+          } catch (JsonProcessingException e) {
+            return MALFORMED;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Lector de filas CSV. La primera fila es el encabezado, con las columnas {@code username} y
+   * {@code password} y opcionalmente {@code role}, en cualquier orden.
+   */
+  private static final class CsvRowReader implements RowReader {
+
+    /** Origen. */
+    private final Reader reader;
+
+    /** Número máximo de caracteres de un registro. */
+    private final int maxRecordLength;
+
+    /** Posición de la columna del nombre de usuario. */
+    private int usernameColumn = -1;
+
+    /** Posición de la columna de la contraseña. */
+    private int passwordColumn = -1;
+
+    /** Posición de la columna del rol, o -1 si no existe. */
+    private int roleColumn = -1;
+
+    /**
+     * Constructor con el origen.
+     *
+     * @param reader Origen
+     * @param maxRecordLength Número máximo de caracteres de un registro
+     */
+    CsvRowReader(Reader reader, int maxRecordLength) {
+      this.reader = reader;
+      this.maxRecordLength = maxRecordLength;
+    }
+
+    @Override
+    public UserDTO next() throws IOException {
+      if (usernameColumn < 0) {
+        readHeader();
+      }
+      List<String> fields;
+      while ((fields = readCsvRecord(reader, maxRecordLength)) != null) {
+        if (fields == OVERSIZED) {
+          return MALFORMED;
+        }
+        if (fields.size() == 1 && fields.get(0).isEmpty()) {
+          continue;
+        }
+        if (fields.size() <= Math.max(usernameColumn, Math.max(passwordColumn, roleColumn))) {
+          return MALFORMED;
+        }
+        Role role = null;
+        if (roleColumn >= 0 && !fields.get(roleColumn).isBlank()) {
+          try {
+            role = Role.valueOf(fields.get(roleColumn).trim().toUpperCase(Locale.ROOT));
+          } catch (IllegalArgumentException e) {
+            return MALFORMED;
+          }
+        }
+        return new UserDTO(fields.get(usernameColumn), fields.get(passwordColumn), role);
+      }
+      return null;
+    }
+
+    /**
+     * Lee el encabezado y ubica las columnas.
+     *
+     * @throws IOException Si el archivo está vacío o faltan columnas obligatorias
+     */
+    private void readHeader() throws IOException {
+      List<String> header = readCsvRecord(reader, maxRecordLength);
+      if (header == null) {
+        throw new IOException("El archivo CSV está vacío");
+      }
+      if (header == OVERSIZED) {
+        throw new IOException("El encabezado CSV supera el tamaño máximo de un registro");
+      }
+      for (int i = 0; i < header.size(); i++) {
+        // Ignorar la marca de orden de bytes que agregan algunas hojas de cálculo
+        String name = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+        if ("username".equals(name)) {
+          usernameColumn = i;
+        } else if ("password".equals(name)) {
+          passwordColumn = i;
+        } else if ("role".equals(name)) {
+          roleColumn = i;
+        }
+      }
+      if (usernameColumn < 0 || passwordColumn < 0) {
+        throw new IOException("El encabezado CSV debe incluir las columnas username y password");
+      }
+    }
+  }
+
+  /** Estado mutable de un trabajo, actualizado por las etapas de lectura y escritura. */
+  private static final class Job {
+
+    /** Identificador del trabajo. */
+    private final String id;
+
+    /** Momento de recepción. */
+    private final Instant submittedAt = Instant.now();
+
+    /** Estado del trabajo. */
+    private volatile UserImportJobDTO.Status status = UserImportJobDTO.Status.QUEUED;
+
+    /** Filas de datos leídas. */
+    private final LongAdder rows = new LongAdder();
+
+    /** Usuarios creados. */
+    private final LongAdder created = new LongAdder();
+
+    /** Filas duplicadas. */
+    private final LongAdder duplicates = new LongAdder();
+
+    /** Filas inválidas. */
+    private final LongAdder invalid = new LongAdder();
+
+    /** Primeras filas omitidas. */
+    private final List<BulkUserResultDTO> rejected = new ArrayList<>();
+
+    /** Mensaje del primer error, o null. */
+    private volatile String error;
+
+    /** Momento de finalización, o null. */
+    private volatile Instant finishedAt;
+
+    /**
+     * Constructor con el identificador.
+     *
+     * @param id Identificador del trabajo
+     */
+    Job(String id) {
+      this.id = id;
+    }
+
+    /**
+     * Registra los resultados de un bloque escrito.
+     *
+     * @param results Resultados por fila del bloque
+     * @param firstRow Número de la primera fila del bloque
+     */
+    void record(List<BulkUserResultDTO> results, long firstRow) {
+      for (BulkUserResultDTO result : results) {
+        if (result.getStatus() == Status.CREATED) {
+          created.increment();
+          continue;
+        }
+        (result.getStatus() == Status.DUPLICATE ? duplicates : invalid).increment();
+        synchronized (rejected) {
+          if (rejected.size() < MAX_REJECTED) {
+            int row = (int) (firstRow + result.getIndex());
+            rejected.add(new BulkUserResultDTO(row, result.getUsername(), result.getStatus()));
+          }
+        }
+      }
+    }
+
+    /**
+     * Registra el error que detiene el trabajo; solo se conserva el primero.
+     *
+     * @param cause Error
+     */
+    void fail(Throwable cause) {
+      if (error == null) {
+        Throwable root =
+            cause instanceof CompletionException && cause.getCause() != null
+                ? cause.getCause()
+                : cause;
+        error = root.getMessage() == null ? root.getClass().getSimpleName() : root.getMessage();
+        LOGGER.warn("Importación {} detenida", id, cause);
+      }
+    }
+
+    /** Marca el trabajo como terminado. */
+    void finish() {
+      status =
+          error == null ? UserImportJobDTO.Status.COMPLETED : UserImportJobDTO.Status.FAILED;
+      finishedAt = Instant.now();
+    }
+
+    /**
+     * Obtiene una copia del estado actual.
+     *
+     * @return Estado del trabajo
+     */
+    UserImportJobDTO snapshot() {
+      List<BulkUserResultDTO> rejectedCopy;
+      synchronized (rejected) {
+        rejectedCopy = List.copyOf(rejected);
+      }
+      return new UserImportJobDTO(
+          id,
+          status,
+          rows.sum(),
+          created.sum(),
+          duplicates.sum(),
+          invalid.sum(),
+          rejectedCopy,
+          submittedAt,
+          finishedAt,
+          error);
+    }
+  }
+}
@@ -0,0 +1,189 @@
+package co.edu.unbosque.springfirstapp.service;
+
+import co.edu.unbosque.springfirstapp.exception.InvalidPageRequestException;
+import co.edu.unbosque.springfirstapp.model.User.Role;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort.Direction;
+
+/**
+ * Cursor opaco de los listados paginados de usuarios. Guarda el filtro y el orden del listado junto
+ * con las claves del último usuario entregado, de modo que la página siguiente se obtiene solo con
+ * el cursor y continúa exactamente donde terminó la anterior.
+ *
+ * <p>Se serializa en binario y se codifica en Base64 URL. No está firmado: al decodificarlo se
+ * vuelve a validar el orden, de modo que alterarlo solo cambia el punto de partida del listado, que
+ * el cliente ya podía elegir con los filtros.
+ */
+final class UserPageCursor {
+
+  /** Versión del formato del cursor. */
+  private static final byte VERSION = 1;
+
+  /** Rol filtrado, o null para todos. */
+  private final Role role;
+
+  /** Propiedad de orden: {@code id} o {@code username}. */
+  private final String sort;
+
+  /** Dirección del orden. */
+  private final Direction direction;
+
+  /** Identificador del último usuario entregado. */
+  private final long lastId;
+
+  /** Nombre del último usuario entregado, si se ordena por nombre. */
+  private final String lastUsername;
+
+  /**
+   * Crea un cursor.
+   *
+   * @param role Rol filtrado, o null para todos
+   * @param sort Propiedad de orden
+   * @param direction Dirección del orden
+   * @param lastId Identificador del último usuario entregado
+   * @param lastUsername Nombre del último usuario entregado, o null si se ordena por id
+   */
+  UserPageCursor(Role role, String sort, Direction direction, long lastId, String lastUsername) {
+    this.role = role;
+    this.sort = sort;
+    this.direction = direction;
+    this.lastId = lastId;
+    this.lastUsername = lastUsername;
+  }
+
+  /**
+   * Crea el cursor que continúa después de una posición de desplazamiento.
+   *
+   * @param role Rol filtrado, o null para todos
+   * @param sort Propiedad de orden
+   * @param direction Dirección del orden
+   * @param position Posición del último usuario entregado
+   * @return Cursor
+   */
+  static UserPageCursor after(
+      Role role, String sort, Direction direction, ScrollPosition position) {
+    Map<String, ?> keys = ((KeysetScrollPosition) position).getKeys();
+    Object username = keys.get("username");
+    return new UserPageCursor(
+        role,
+        sort,
+        direction,
+        ((Number) keys.get("id")).longValue(),
+        username == null ? null : username.toString());
+  }
+
+  /**
+   * Obtiene la posición desde la que continúa el listado.
+   *
+   * @return Posición de desplazamiento por claves
+   */
+  ScrollPosition position() {
+    Map<String, Object> keys = new LinkedHashMap<>();
+    if (lastUsername != null) {
+      keys.put("username", lastUsername);
+    }
+    keys.put("id", lastId);
+    return ScrollPosition.forward(keys);
+  }
+
+  /**
+   * Codifica el cursor.
+   *
+   * @return Cursor en Base64 URL
+   */
+  String encode() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeByte(VERSION);
+      out.writeUTF(role == null ? "" : role.name());
+      out.writeUTF(sort);
+      out.writeBoolean(direction.isAscending());
+      out.writeLong(lastId);
+      out.writeBoolean(lastUsername != null);
+      if (lastUsername != null) {
+        out.writeUTF(lastUsername);
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+  }
+
+  /**
+   * Decodifica un cursor recibido del cliente.
+   *
+   * @param cursor Cursor en Base64 URL
+   * @return Cursor decodificado
+   * @throws InvalidPageRequestException Si el cursor está mal formado o su orden no está soportado
+   */
+  static UserPageCursor decode(String cursor) {
+    try (DataInputStream in =
+        new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+      if (in.readByte() != VERSION) {
+        throw new InvalidPageRequestException("Versión de cursor no soportada");
+      }
+      String role = in.readUTF();
+      String sort = in.readUTF();
+      Direction direction = in.readBoolean() ? Direction.ASC : Direction.DESC;
+      long lastId = in.readLong();
+      String lastUsername = in.readBoolean() ? in.readUTF() : null;
+      requireSupportedSort(sort);
+      if ("username".equals(sort) != (lastUsername != null)) {
+        throw new InvalidPageRequestException("Cursor inválido");
+      }
+      return new UserPageCursor(
+          role.isEmpty() ? null : Role.valueOf(role), sort, direction, lastId, lastUsername);
+    } catch (IOException | IllegalArgumentException e) {
+      throw new InvalidPageRequestException("Cursor inválido");
+    }
+  }
+
+  /**
+   * Verifica que el listado se pueda ordenar por una propiedad. Solo se admiten las claves del
+   * cursor, de modo que un cursor alterado no puede ordenar por otras columnas.
+   *
+   * @param sort Propiedad de orden
+   * @throws InvalidPageRequestException Si no es {@code id} ni {@code username}
+   */
+  static void requireSupportedSort(String sort) {
+    if (!"id".equals(sort) && !"username".equals(sort)) {
+      throw new InvalidPageRequestException("Orden no soportado: " + sort);
+    }
+  }
+
+  /**
+   * Obtiene el rol filtrado.
+   *
+   * @return Rol, o null para todos
+   */
+  Role getRole() {
+    return role;
+  }
+
+  /**
+   * Obtiene la propiedad de orden.
+   *
+   * @return {@code id} o {@code username}
+   */
+  String getSort() {
+    return sort;
+  }
+
+  /**
+   * Obtiene la dirección del orden.
+   *
+   * @return Dirección del orden
+   */
+  Direction getDirection() {
+    return direction;
+  }
+}
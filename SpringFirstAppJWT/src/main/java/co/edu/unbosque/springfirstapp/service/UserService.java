@@ -1,33 +1,83 @@
 package co.edu.unbosque.springfirstapp.service;
 
+import co.edu.unbosque.springfirstapp.configuration.ReadWriteRoutingDataSource;
 import co.edu.unbosque.springfirstapp.dto.UserDTO;
+import co.edu.unbosque.springfirstapp.dto.UserMapper;
+import co.edu.unbosque.springfirstapp.dto.UserPageDTO;
+import co.edu.unbosque.springfirstapp.dto.UserSummary;
+import co.edu.unbosque.springfirstapp.exception.InvalidPageRequestException;
 import co.edu.unbosque.springfirstapp.model.User;
+import co.edu.unbosque.springfirstapp.model.User.Role;
 import co.edu.unbosque.springfirstapp.repository.UserRepository;
-import java.util.ArrayList;
+import co.edu.unbosque.springfirstapp.security.FieldEncryptionKeyRing;
+import co.edu.unbosque.springfirstapp.security.TokenVersionRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
 import java.util.List;
 import java.util.Optional;
-import org.modelmapper.ModelMapper;
+import java.util.function.Supplier;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.ConstraintViolationException.ConstraintKind;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.domain.Window;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Servicio que proporciona operaciones CRUD y funcionalidades adicionales para usuarios. Implementa
  * la interfaz CRUDOperation para operaciones básicas de creación, lectura, actualización y
  * eliminación.
+ *
+ * <p>Los listados y conteos son transacciones de solo lectura, que se pueden atender desde una
+ * réplica. Las consultas por identificador y por nombre de usuario usan la cache de segundo nivel
+ * de Hibernate y, cuando no la encuentran, leen de la base principal; las actualizaciones y
+ * eliminaciones de una sola sentencia invalidan en ella solo el usuario afectado.
+ *
+ * <p>Las contraseñas se codifican y verifican fuera de toda transacción: la conexión a la base de
+ * datos se obtiene después, solo para las sentencias, y se devuelve al pool antes de invalidar la
+ * cache.
  */
 @Service
-public class UserService implements CRUDOperation<UserDTO> {
+public class UserService implements CRUDOperation<UserDTO>, MeterBinder {
+
+  /** Métrica con la duración de las consultas por identificador que no atiende la cache. */
+  public static final String LOAD_METRIC = "users.byId.load";
 
   /** Repositorio para acceder a los datos de usuarios en la base de datos. */
   @Autowired private UserRepository userRepo;
 
-  /** Mapeador para convertir entre entidades User y DTOs UserDTO. */
-  @Autowired private ModelMapper modelMapper;
-
   /** Codificador para encriptar contraseñas de usuarios. */
   @Autowired private PasswordEncoder passwordEncoder;
 
+  /** Registro de versiones de tokens, para revocar los tokens de usuarios modificados. */
+  @Autowired private TokenVersionRegistry tokenVersionRegistry;
+
+  /** Anillo de claves para cifrar la contraseña de las sentencias nativas. */
+  @Autowired private FieldEncryptionKeyRing keyRing;
+
+  /** Transacciones de las escrituras que requieren más de una sentencia. */
+  @Autowired private TransactionTemplate transactionTemplate;
+
+  /** Fábrica de sesiones, para consultar la cache de segundo nivel. */
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  /** Duración de las cargas por identificador; null hasta que Spring Boot configure el registro. */
+  private volatile Timer loadTimer;
+
+  /** Tamaño máximo de una página del listado por cursor. */
+  @Value("${users.page.max-size:100}")
+  private int maxPageSize;
+
   /** Constructor por defecto. */
   public UserService() {}
 
@@ -37,6 +87,7 @@ public class UserService implements CRUDOperation<UserDTO> {
    * @return Número total de usuarios
    */
   @Override
+  @Transactional(readOnly = true)
   public long count() {
     return userRepo.count();
   }
@@ -48,6 +99,7 @@ public class UserService implements CRUDOperation<UserDTO> {
    * @return true si el usuario existe, false en caso contrario
    */
   @Override
+  @Transactional(readOnly = true)
   public boolean exist(Long id) {
     return userRepo.existsById(id);
   }
@@ -55,42 +107,85 @@ public class UserService implements CRUDOperation<UserDTO> {
   /**
    * Crea un nuevo usuario en la base de datos. Codifica la contraseña antes de guardarla.
    *
+   * <p>No se consulta antes si el nombre existe: se inserta directamente (una sola sentencia, en su
+   * propia transacción, que empieza después de codificar la contraseña) y la restricción de
+   * unicidad de la columna rechaza los duplicados, incluso entre registros simultáneos.
+   *
    * @param data DTO con los datos del usuario a crear
    * @return 0 si la creación fue exitosa, 1 si el nombre de usuario ya existe
    */
   @Override
   public int create(UserDTO data) {
-    User entity = modelMapper.map(data, User.class);
-    if (findUsernameAlreadyTaken(entity)) {
-      return 1;
-    } else {
-      // Encriptar la contraseña antes de guardar
-      entity.setPassword(passwordEncoder.encode(entity.getPassword()));
-      // Establecer rol si se proporciona, de lo contrario se usará el rol predeterminado (USER)
-      if (data.getRole() != null) {
-        entity.setRole(data.getRole());
-      }
+    // El rol no indicado queda como el predeterminado (USER)
+    User entity = UserMapper.toEntity(data);
+    // Encriptar la contraseña antes de guardar
+    entity.setPassword(passwordEncoder.encode(entity.getPassword()));
+    try {
       userRepo.save(entity);
-      return 0;
+    } catch (DataIntegrityViolationException e) {
+      if (isUniqueViolation(e)) {
+        return 1;
+      }
+      throw e;
     }
+    return 0;
   }
 
   /**
-   * Obtiene todos los usuarios de la base de datos.
+   * Obtiene todos los usuarios de la base de datos. Se consultan directamente como DTOs, sin la
+   * contraseña y sin cargar entidades.
    *
    * @return Lista de DTOs de usuarios
    */
   @Override
+  @Transactional(readOnly = true)
   public List<UserDTO> getAll() {
-    List<User> entityList = userRepo.findAll();
-    List<UserDTO> dtoList = new ArrayList<>();
-    entityList.forEach(
-        (entity) -> {
-          UserDTO dto = modelMapper.map(entity, UserDTO.class);
-          dtoList.add(dto);
-        });
+    return userRepo.findAllDTOs();
+  }
 
-    return dtoList;
+  /**
+   * Obtiene una página de usuarios por cursor (keyset), sin cargar la tabla completa ni usar OFFSET.
+   * Cada página cuesta lo mismo sin importar cuán avanzado esté el listado.
+   *
+   * <p>La primera página se pide sin cursor, con el filtro y el orden deseados; las siguientes solo
+   * con el cursor devuelto, que conserva el filtro y el orden originales.
+   *
+   * @param role Rol de los usuarios, o null para todos (solo sin cursor)
+   * @param sort Propiedad de orden, {@code id} o {@code username} (solo sin cursor)
+   * @param direction Dirección del orden (solo sin cursor)
+   * @param cursor Cursor de la página anterior, o null para la primera
+   * @param size Tamaño de página; se limita a {@code users.page.max-size}
+   * @return Página de usuarios y cursor de la siguiente
+   * @throws InvalidPageRequestException Si el cursor está mal formado o el orden no está soportado
+   */
+  @Transactional(readOnly = true)
+  public UserPageDTO getPage(
+      Role role, String sort, Direction direction, String cursor, int size) {
+    ScrollPosition position = ScrollPosition.keyset();
+    if (cursor != null && !cursor.isEmpty()) {
+      UserPageCursor previous = UserPageCursor.decode(cursor);
+      role = previous.getRole();
+      sort = previous.getSort();
+      direction = previous.getDirection();
+      position = previous.position();
+    } else {
+      UserPageCursor.requireSupportedSort(sort);
+    }
+    Sort order = Sort.by(direction, sort);
+    if (!"id".equals(sort)) {
+      order = order.and(Sort.by(direction, "id"));
+    }
+    Limit limit = Limit.of(Math.max(1, Math.min(size, maxPageSize)));
+    Window<UserSummary> window =
+        role == null
+            ? userRepo.findBy(position, order, limit)
+            : userRepo.findByRole(role, position, order, limit);
+    String next =
+        window.hasNext() && !window.isEmpty()
+            ? UserPageCursor.after(role, sort, direction, window.positionAt(window.size() - 1))
+                .encode()
+            : null;
+    return new UserPageDTO(window.getContent(), next);
   }
 
   /**
@@ -101,25 +196,58 @@ public class UserService implements CRUDOperation<UserDTO> {
    */
   @Override
   public int deleteById(Long id) {
-    Optional<User> found = userRepo.findById(id);
-    if (found.isPresent()) {
-      userRepo.delete(found.get());
-      return 0;
-    } else {
-      return 1;
+    return deleteById(id, null);
+  }
+
+  /**
+   * Elimina un usuario por su ID con una sola sentencia, sin cargarlo antes. Si se indica la
+   * versión esperada, solo se elimina si el usuario no cambió desde que el cliente la leyó.
+   *
+   * <p>Solo cuando no se elimina ninguna fila con versión indicada se consulta si el usuario
+   * existe, en la misma transacción, para distinguir un usuario inexistente de uno modificado
+   * entretanto.
+   *
+   * @param id ID del usuario a eliminar
+   * @param expectedVersion Versión esperada del usuario, o null para eliminarlo sin comprobarla
+   * @return 0 si la eliminación fue exitosa, 1 si el usuario no existe, 2 si su versión no coincide
+   */
+  public int deleteById(Long id, Long expectedVersion) {
+    int status =
+        transactionTemplate.execute(
+            tx -> {
+              if (userRepo.deleteByIdAndVersion(id, expectedVersion) == 0) {
+                return expectedVersion != null && userRepo.existsById(id) ? 2 : 1;
+              }
+              return 0;
+            });
+    if (status == 0) {
+      tokenVersionRegistry.invalidate(id);
+      userRepo.evictFromCache(id);
     }
+    return status;
   }
 
   /**
-   * Elimina un usuario por su nombre de usuario.
+   * Elimina un usuario por su nombre de usuario. Solo se consulta su identificador, necesario para
+   * revocar sus tokens, y se elimina con una sola sentencia sin cargar la entidad, ambas en la
+   * misma transacción.
    *
    * @param username Nombre de usuario del usuario a eliminar
    * @return 0 si la eliminación fue exitosa, 1 si el usuario no existe
    */
   public int deleteByUsername(String username) {
-    Optional<User> found = userRepo.findByUsername(username);
-    if (found.isPresent()) {
-      userRepo.delete(found.get());
+    Optional<Long> id =
+        transactionTemplate.execute(
+            tx -> {
+              Optional<Long> found = userRepo.findIdByUsername(username);
+              if (found.isPresent() && userRepo.deleteByIdAndVersion(found.get(), null) > 0) {
+                return found;
+              }
+              return Optional.<Long>empty();
+            });
+    if (id.isPresent()) {
+      tokenVersionRegistry.invalidate(id.get());
+      userRepo.evictFromCache(id.get(), username);
       return 0;
     } else {
       return 1;
@@ -127,53 +255,76 @@ public class UserService implements CRUDOperation<UserDTO> {
   }
 
   /**
-   * Actualiza un usuario existente por su ID. Codifica la contraseña antes de guardarla.
+   * Actualiza un usuario existente por su ID, sin comprobar su versión.
    *
    * @param id ID del usuario a actualizar
    * @param newData DTO con los nuevos datos del usuario
-   * @return 0 si la actualización fue exitosa, 1 si el nuevo nombre de usuario ya está en uso, 2 si
-   *     el usuario a actualizar no existe, 3 en otros casos de error
+   * @return Código de estado de {@link #updateById(Long, UserDTO, Long)}
    */
   @Override
   public int updateById(Long id, UserDTO newData) {
-    Optional<User> found = userRepo.findById(id);
-    Optional<User> newFound = userRepo.findByUsername(newData.getUsername());
-
-    if (found.isPresent() && !newFound.isPresent()) {
-      User temp = found.get();
-      temp.setUsername(newData.getUsername());
-      // Encriptar la contraseña antes de guardar
-      temp.setPassword(passwordEncoder.encode(newData.getPassword()));
-      // Actualizar rol si se proporciona
-      if (newData.getRole() != null) {
-        temp.setRole(newData.getRole());
-      }
-      userRepo.save(temp);
-      return 0;
+    return updateById(id, newData, null);
+  }
+
+  /**
+   * Actualiza un usuario existente por su ID. Codifica la contraseña antes de guardarla.
+   *
+   * <p>Se actualiza directamente con una sola sentencia: si no afecta filas el usuario no existe o
+   * cambió desde la versión esperada, y si el nuevo nombre pertenece a otro usuario la restricción
+   * de unicidad la rechaza. Conservar el nombre actual es válido. Solo cuando no se actualiza
+   * ninguna fila con versión indicada se consulta si el usuario existe, para distinguir ambos
+   * casos, en la misma transacción, que empieza después de codificar la contraseña.
+   *
+   * @param id ID del usuario a actualizar
+   * @param newData DTO con los nuevos datos del usuario
+   * @param expectedVersion Versión esperada del usuario, o null para actualizarlo sin comprobarla
+   * @return 0 si la actualización fue exitosa, 1 si el nuevo nombre de usuario ya está en uso, 2 si
+   *     el usuario a actualizar no existe, 3 en otros casos de error, 4 si la versión no coincide
+   */
+  public int updateById(Long id, UserDTO newData, Long expectedVersion) {
+    // Encriptar la contraseña antes de abrir la transacción; la sentencia nativa la guarda tal cual
+    String password = keyRing.encrypt(passwordEncoder.encode(newData.getPassword()));
+    String role = newData.getRole() == null ? null : newData.getRole().name();
+    int status;
+    try {
+      status =
+          transactionTemplate.execute(
+              tx -> {
+                // Una sola sentencia; también revoca los tokens anteriores
+                int updated =
+                    userRepo.updateCredentials(
+                        id, expectedVersion, newData.getUsername(), password, role);
+                if (updated == 0) {
+                  return expectedVersion != null && userRepo.existsById(id) ? 4 : 2;
+                }
+                return 0;
+              });
+    } catch (DataIntegrityViolationException e) {
+      return isUniqueViolation(e) ? 1 : 3;
     }
-    if (found.isPresent() && newFound.isPresent()) {
-      return 1;
-    }
-    if (!found.isPresent()) {
-      return 2;
-    } else {
-      return 3;
+    if (status == 0) {
+      tokenVersionRegistry.invalidate(id);
+      // La resolución del nombre anterior se descarta al consultarla
+      userRepo.evictFromCache(id, newData.getUsername());
     }
+    return status;
   }
 
   /**
-   * Obtiene un usuario por su ID.
+   * Obtiene un usuario por su ID, sin la contraseña. La entidad se toma de la cache de segundo
+   * nivel; si no está, se carga de la base principal, se guarda en la cache y se mide la duración
+   * de la carga en {@link #LOAD_METRIC}.
    *
    * @param id ID del usuario a obtener
    * @return DTO del usuario si existe, null en caso contrario
    */
   public UserDTO getById(Long id) {
-    Optional<User> found = userRepo.findById(id);
-    if (found.isPresent()) {
-      return modelMapper.map(found.get(), UserDTO.class);
-    } else {
-      return null;
+    Supplier<UserDTO> load = () -> userRepo.findById(id).map(UserMapper::toDTO).orElse(null);
+    Timer timer = loadTimer;
+    if (timer == null || entityManagerFactory.getCache().contains(User.class, id)) {
+      return ReadWriteRoutingDataSource.readFromPrimary(load);
     }
+    return timer.record(() -> ReadWriteRoutingDataSource.readFromPrimary(load));
   }
 
   /**
@@ -203,7 +354,9 @@ public class UserService implements CRUDOperation<UserDTO> {
   }
 
   /**
-   * Valida las credenciales de un usuario.
+   * Valida las credenciales de un usuario. La consulta usa su propia transacción, fuera de la
+   * verificación. Los hashes desactualizados no se reemplazan aquí sino al autenticarse, en
+   * {@link co.edu.unbosque.springfirstapp.security.UserDetailsServiceImpl#updatePassword}.
    *
    * @param username Nombre de usuario
    * @param password Contraseña sin encriptar
@@ -223,4 +376,33 @@ public class UserService implements CRUDOperation<UserDTO> {
 
     return 1; // Credenciales inválidas
   }
+
+  /**
+   * Registra la duración de las consultas por identificador que no atiende la cache.
+   *
+   * @param registry Registro de métricas
+   */
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    loadTimer =
+        Timer.builder(LOAD_METRIC)
+            .description("Duración de las consultas de usuarios por id que no atiende la cache")
+            .register(registry);
+  }
+
+  /**
+   * Indica si una violación de integridad se debe a una restricción de unicidad, como la del nombre
+   * de usuario.
+   *
+   * @param e Excepción traducida por Spring
+   * @return true si la causa es una clave duplicada
+   */
+  private static boolean isUniqueViolation(DataIntegrityViolationException e) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof ConstraintViolationException) {
+        return ((ConstraintViolationException) cause).getKind() == ConstraintKind.UNIQUE;
+      }
+    }
+    return false;
+  }
 }
@@ -3,21 +3,27 @@ package co.edu.unbosque.springfirstapp.util;
 import static org.apache.commons.codec.binary.Base64.decodeBase64;
 import static org.apache.commons.codec.binary.Base64.encodeBase64;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.codec.digest.DigestUtils;
 
 /**
  * Clase de utilidad para operaciones de cifrado AES y funciones de hash. Proporciona métodos para
  * cifrar y descifrar texto usando AES en modo GCM, así como métodos para generar hashes usando
- * varios algoritmos (MD5, SHA1, SHA256, etc.).
+ * varios algoritmos (MD5, SHA1, SHA256, etc.). Para calcular varios hashes de un contenido grande
+ * en una sola lectura, ver {@link MultiDigest}.
  */
 public class AESUtil {
 
@@ -172,6 +178,22 @@ public class AESUtil {
     return DigestUtils.sha512Hex(content);
   }
 
+  /**
+   * Genera varios hashes de un archivo leyéndolo una sola vez.
+   *
+   * @param file Archivo a convertir en hash
+   * @param algorithms Algoritmos a calcular (por ejemplo {@code "MD5"}, {@code "SHA-256"})
+   * @return Representación hexadecimal de cada hash, indexada por algoritmo
+   * @throws IOException Si falla la lectura del archivo
+   */
+  public static Map<String, String> hashingToHex(Path file, String... algorithms)
+      throws IOException {
+    Map<String, String> hex = new LinkedHashMap<>();
+    MultiDigest.digest(file, algorithms)
+        .forEach((algorithm, digest) -> hex.put(algorithm, Hex.encodeHexString(digest)));
+    return hex;
+  }
+
   //	public static void main(String[] args) {
   //		String texto = "zambrano lo robaron hace meses";
   //		System.out.println(texto);
@@ -0,0 +1,241 @@
+package co.edu.unbosque.springfirstapp.util;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Motor de cifrado AES-GCM reutilizable. A diferencia de {@link AESUtil}, construye la clave una
+ * sola vez, conserva un {@link Cipher} por hilo y trabaja directamente con {@code byte[]} y {@link
+ * ByteBuffer}, sin pasar por cadenas ni Base64.
+ *
+ * <p>Cada cifrado usa un nonce aleatorio de 96 bits y produce el formato {@code nonce || texto
+ * cifrado || etiqueta}, de modo que el resultado es autocontenido. Con nonces aleatorios no deben
+ * cifrarse más de 2<sup>32</sup> mensajes con la misma clave.
+ */
+public class AesGcmEngine {
+
+  /** Longitud del nonce en bytes. */
+  public static final int NONCE_LENGTH = 12;
+
+  /** Longitud de la etiqueta de autenticación en bytes. */
+  public static final int TAG_LENGTH = 16;
+
+  /** Modo de cifrado y padding utilizados (AES en modo GCM sin padding). */
+  private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+  /** Clave de cifrado. */
+  private final SecretKey key;
+
+  /** Estado por hilo: el cifrador, su generador de nonces y un búfer para el nonce. */
+  private final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+
+  /**
+   * Crea un motor con la clave indicada.
+   *
+   * @param key Clave AES de 16, 24 o 32 bytes
+   * @throws IllegalArgumentException Si la longitud de la clave no es válida
+   */
+  public AesGcmEngine(byte[] key) {
+    if (key.length != 16 && key.length != 24 && key.length != 32) {
+      throw new IllegalArgumentException("La clave AES debe tener 16, 24 o 32 bytes");
+    }
+    this.key = new SecretKeySpec(key, "AES");
+  }
+
+  /**
+   * Calcula la longitud del resultado de cifrar un texto.
+   *
+   * @param plaintextLength Longitud del texto plano
+   * @return Longitud de nonce, texto cifrado y etiqueta
+   */
+  public static int encryptedLength(int plaintextLength) {
+    return NONCE_LENGTH + plaintextLength + TAG_LENGTH;
+  }
+
+  /**
+   * Cifra un texto plano.
+   *
+   * @param plaintext Texto plano
+   * @return nonce || texto cifrado || etiqueta
+   */
+  public byte[] encrypt(byte[] plaintext) {
+    return encrypt(plaintext, null);
+  }
+
+  /**
+   * Cifra un texto plano autenticando además datos asociados que no se cifran.
+   *
+   * @param plaintext Texto plano
+   * @param aad Datos asociados, o null
+   * @return nonce || texto cifrado || etiqueta
+   */
+  public byte[] encrypt(byte[] plaintext, byte[] aad) {
+    byte[] out = new byte[encryptedLength(plaintext.length)];
+    State current = initEncrypt(aad);
+    try {
+      System.arraycopy(current.nonce, 0, out, 0, NONCE_LENGTH);
+      current.cipher.doFinal(plaintext, 0, plaintext.length, out, NONCE_LENGTH);
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Error al cifrar con AES-GCM", e);
+    }
+    return out;
+  }
+
+  /**
+   * Descifra y verifica un mensaje.
+   *
+   * @param message nonce || texto cifrado || etiqueta
+   * @return Texto plano
+   * @throws AEADBadTagException Si el mensaje fue alterado o la clave no corresponde
+   */
+  public byte[] decrypt(byte[] message) throws AEADBadTagException {
+    return decrypt(message, null);
+  }
+
+  /**
+   * Descifra y verifica un mensaje y sus datos asociados.
+   *
+   * @param message nonce || texto cifrado || etiqueta
+   * @param aad Datos asociados usados al cifrar, o null
+   * @return Texto plano
+   * @throws AEADBadTagException Si el mensaje o los datos asociados fueron alterados
+   */
+  public byte[] decrypt(byte[] message, byte[] aad) throws AEADBadTagException {
+    if (message.length < NONCE_LENGTH + TAG_LENGTH) {
+      throw new AEADBadTagException("Mensaje demasiado corto");
+    }
+    Cipher cipher = initDecrypt(message, 0, aad);
+    try {
+      return cipher.doFinal(message, NONCE_LENGTH, message.length - NONCE_LENGTH);
+    } catch (AEADBadTagException e) {
+      throw e;
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Error al descifrar con AES-GCM", e);
+    }
+  }
+
+  /**
+   * Cifra el contenido restante de un búfer y escribe nonce || texto cifrado || etiqueta en el
+   * búfer de salida. Ambos búferes pueden ser directos, lo que evita copias al montón.
+   *
+   * @param plaintext Texto plano; se consume hasta su límite
+   * @param out Búfer de salida con al menos {@link #encryptedLength(int)} bytes libres
+   * @return Número de bytes escritos
+   * @throws ShortBufferException Si el búfer de salida no tiene espacio suficiente
+   */
+  public int encrypt(ByteBuffer plaintext, ByteBuffer out) throws ShortBufferException {
+    if (out.remaining() < encryptedLength(plaintext.remaining())) {
+      throw new ShortBufferException("Espacio insuficiente en el búfer de salida");
+    }
+    State current = initEncrypt(null);
+    out.put(current.nonce);
+    try {
+      return NONCE_LENGTH + current.cipher.doFinal(plaintext, out);
+    } catch (ShortBufferException e) {
+      throw e;
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Error al cifrar con AES-GCM", e);
+    }
+  }
+
+  /**
+   * Descifra y verifica el contenido restante de un búfer con el formato nonce || texto cifrado ||
+   * etiqueta.
+   *
+   * @param message Mensaje cifrado; se consume hasta su límite
+   * @param out Búfer de salida con al menos el tamaño del texto plano libre
+   * @return Número de bytes escritos
+   * @throws AEADBadTagException Si el mensaje fue alterado o la clave no corresponde
+   * @throws ShortBufferException Si el búfer de salida no tiene espacio suficiente
+   */
+  public int decrypt(ByteBuffer message, ByteBuffer out)
+      throws AEADBadTagException, ShortBufferException {
+    if (message.remaining() < NONCE_LENGTH + TAG_LENGTH) {
+      throw new AEADBadTagException("Mensaje demasiado corto");
+    }
+    State current = state.get();
+    message.get(current.nonce);
+    Cipher cipher = initDecrypt(current.nonce, 0, null);
+    try {
+      return cipher.doFinal(message, out);
+    } catch (AEADBadTagException | ShortBufferException e) {
+      throw e;
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Error al descifrar con AES-GCM", e);
+    }
+  }
+
+  /**
+   * Prepara el cifrador del hilo para cifrar con un nonce aleatorio nuevo.
+   *
+   * @param aad Datos asociados, o null
+   * @return Estado del hilo, con el cifrador inicializado y el nonce usado
+   */
+  private State initEncrypt(byte[] aad) {
+    State current = state.get();
+    current.random.nextBytes(current.nonce);
+    try {
+      current.cipher.init(
+          Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH * 8, current.nonce));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("No se pudo inicializar AES-GCM", e);
+    }
+    if (aad != null) {
+      current.cipher.updateAAD(aad);
+    }
+    return current;
+  }
+
+  /**
+   * Prepara el cifrador del hilo para descifrar con el nonce indicado.
+   *
+   * @param nonce Arreglo que contiene el nonce
+   * @param offset Posición del nonce en el arreglo
+   * @param aad Datos asociados, o null
+   * @return Cifrador inicializado
+   */
+  private Cipher initDecrypt(byte[] nonce, int offset, byte[] aad) {
+    Cipher cipher = state.get().cipher;
+    try {
+      cipher.init(
+          Cipher.DECRYPT_MODE,
+          key,
+          new GCMParameterSpec(TAG_LENGTH * 8, nonce, offset, NONCE_LENGTH));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("No se pudo inicializar AES-GCM", e);
+    }
+    if (aad != null) {
+      cipher.updateAAD(aad);
+    }
+    return cipher;
+  }
+
+  /** Estado de cifrado de un hilo. */
+  private static final class State {
+
+    /** Cifrador reutilizado por el hilo. */
+    private final Cipher cipher;
+
+    /** Generador de nonces del hilo, para no compartir un generador sincronizado. */
+    private final SecureRandom random = new SecureRandom();
+
+    /** Búfer del nonce actual. */
+    private final byte[] nonce = new byte[NONCE_LENGTH];
+
+    /** Crea el cifrador del hilo. */
+    State() {
+      try {
+        this.cipher = Cipher.getInstance(TRANSFORMATION);
+      } catch (GeneralSecurityException e) {
+        throw new IllegalStateException("AES-GCM no disponible", e);
+      }
+    }
+  }
+}
@@ -0,0 +1,156 @@
+package co.edu.unbosque.springfirstapp.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom para cadenas, seguro entre hilos y sin bloqueos. Responde si un elemento
+ * <em>podría</em> estar en el conjunto: nunca da falsos negativos y da falsos positivos con la
+ * probabilidad calculada al crearlo.
+ *
+ * <p>Los bits se guardan en un {@link AtomicLongArray}, por lo que las inserciones concurrentes no
+ * se pierden. Las k posiciones se obtienen por doble hashing a partir de un único hash de 64 bits
+ * del elemento.
+ */
+public class BloomFilter {
+
+  /** Bits del filtro. */
+  private final AtomicLongArray bits;
+
+  /** Número de bits (m). */
+  private final long bitCount;
+
+  /** Número de funciones de hash (k). */
+  private final int hashCount;
+
+  /**
+   * Crea un filtro dimensionado para el número de elementos y la tasa de falsos positivos
+   * indicados.
+   *
+   * @param expectedInsertions Número de elementos esperado (n)
+   * @param falsePositiveRate Tasa de falsos positivos deseada con n elementos (p)
+   */
+  public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+    long n = Math.max(1, expectedInsertions);
+    double p = Math.min(Math.max(falsePositiveRate, Double.MIN_VALUE), 0.5);
+    // m = -n ln p / (ln 2)^2, redondeado a palabras de 64 bits
+    long m = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+    int words = (int) Math.max(1, (m + 63) / 64);
+    this.bits = new AtomicLongArray(words);
+    this.bitCount = (long) words * 64;
+    // k = m/n ln 2
+    this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+  }
+
+  /**
+   * Agrega un elemento al filtro.
+   *
+   * @param value Elemento a agregar
+   */
+  public void put(String value) {
+    long hash = hash(value);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 1; i <= hashCount; i++) {
+      long index = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+      int word = (int) (index >>> 6);
+      long mask = 1L << index;
+      long current = bits.get(word);
+      while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+        current = bits.get(word);
+      }
+    }
+  }
+
+  /**
+   * Indica si un elemento podría estar en el filtro.
+   *
+   * @param value Elemento a consultar
+   * @return false si el elemento no está con seguridad; true si podría estar
+   */
+  public boolean mightContain(String value) {
+    long hash = hash(value);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 1; i <= hashCount; i++) {
+      long index = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+      if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Obtiene el número de bits del filtro.
+   *
+   * @return Número de bits (m)
+   */
+  public long bitSize() {
+    return bitCount;
+  }
+
+  /**
+   * Obtiene el número de funciones de hash.
+   *
+   * @return Número de funciones de hash (k)
+   */
+  public int hashCount() {
+    return hashCount;
+  }
+
+  /**
+   * Estima la tasa actual de falsos positivos a partir de la proporción de bits encendidos.
+   *
+   * @return Probabilidad estimada de que un elemento ausente dé positivo
+   */
+  public double expectedFalsePositiveRate() {
+    return Math.pow((double) setBits() / bitCount, hashCount);
+  }
+
+  /**
+   * Estima el número de elementos distintos insertados a partir de los bits encendidos.
+   *
+   * @return Número estimado de elementos
+   */
+  public long approximateElementCount() {
+    double fill = (double) setBits() / bitCount;
+    if (fill >= 1.0) {
+      return Long.MAX_VALUE;
+    }
+    return Math.round(-((double) bitCount / hashCount) * Math.log1p(-fill));
+  }
+
+  /**
+   * Cuenta los bits encendidos.
+   *
+   * @return Número de bits en 1
+   */
+  private long setBits() {
+    long count = 0;
+    for (int i = 0; i < bits.length(); i++) {
+      count += Long.bitCount(bits.get(i));
+    }
+    return count;
+  }
+
+  /**
+   * Calcula un hash de 64 bits del elemento (FNV-1a seguido de la mezcla final de MurmurHash3).
+   *
+   * @param value Elemento
+   * @return Hash de 64 bits
+   */
+  private static long hash(String value) {
+    long h = 0xcbf29ce484222325L;
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      h ^= b;
+      h *= 0x100000001b3L;
+    }
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
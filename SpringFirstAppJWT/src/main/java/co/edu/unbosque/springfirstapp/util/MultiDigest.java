@@ -0,0 +1,204 @@
+package co.edu.unbosque.springfirstapp.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Calcula varios resúmenes criptográficos (MD5, SHA-1, SHA-256, ...) de un contenido en una sola
+ * lectura. Cada bloque leído se entrega a todos los algoritmos mientras sigue en caché, en lugar de
+ * recorrer el contenido una vez por algoritmo.
+ *
+ * <p>Los algoritmos se indican con sus nombres estándar de JCA, por ejemplo {@code "SHA-256"} (ver
+ * {@link org.apache.commons.codec.digest.MessageDigestAlgorithms}). Los resultados se devuelven en
+ * el mismo orden en que se pidieron.
+ */
+public final class MultiDigest {
+
+  /** Tamaño de los bloques entregados a los algoritmos. */
+  private static final int BLOCK_SIZE = 64 * 1024;
+
+  /** Tamaño a partir del cual los archivos se leen mediante memoria mapeada. */
+  static final long MAP_THRESHOLD = 1024 * 1024;
+
+  /** Tamaño máximo de cada ventana mapeada en memoria. */
+  private static final long MAP_WINDOW = 256L * 1024 * 1024;
+
+  /** Búfer directo de cada hilo para leer archivos pequeños, creado en su primer uso. */
+  private static final ThreadLocal<ByteBuffer> DIRECT_BLOCK =
+      ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BLOCK_SIZE));
+
+  /** Constructor privado: clase de utilidad. */
+  private MultiDigest() {}
+
+  /**
+   * Calcula los resúmenes de todo el contenido de un flujo. El flujo no se cierra.
+   *
+   * @param in Flujo de entrada
+   * @param algorithms Algoritmos a calcular
+   * @return Resúmenes indexados por algoritmo
+   * @throws IOException Si falla la lectura
+   * @throws IllegalArgumentException Si algún algoritmo no está disponible
+   */
+  public static Map<String, byte[]> digest(InputStream in, String... algorithms)
+      throws IOException {
+    MessageDigest[] digests = create(algorithms);
+    byte[] block = new byte[BLOCK_SIZE];
+    int read;
+    while ((read = in.readNBytes(block, 0, BLOCK_SIZE)) > 0) {
+      for (MessageDigest digest : digests) {
+        digest.update(block, 0, read);
+      }
+    }
+    return finish(algorithms, digests);
+  }
+
+  /**
+   * Calcula los resúmenes del contenido restante de un búfer. La posición del búfer no cambia.
+   *
+   * @param buffer Búfer de entrada
+   * @param algorithms Algoritmos a calcular
+   * @return Resúmenes indexados por algoritmo
+   * @throws IllegalArgumentException Si algún algoritmo no está disponible
+   */
+  public static Map<String, byte[]> digest(ByteBuffer buffer, String... algorithms) {
+    MessageDigest[] digests = create(algorithms);
+    update(digests, buffer);
+    return finish(algorithms, digests);
+  }
+
+  /**
+   * Calcula los resúmenes de un archivo. Los archivos pequeños se leen en un búfer directo que cada
+   * hilo reutiliza entre llamadas y los grandes mediante memoria mapeada, sin copiarlos al montón
+   * de Java.
+   *
+   * @param file Archivo de entrada
+   * @param algorithms Algoritmos a calcular
+   * @return Resúmenes indexados por algoritmo
+   * @throws IOException Si falla la lectura
+   * @throws IllegalArgumentException Si algún algoritmo no está disponible
+   */
+  public static Map<String, byte[]> digest(Path file, String... algorithms) throws IOException {
+    MessageDigest[] digests = create(algorithms);
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size >= MAP_THRESHOLD) {
+        for (long offset = 0; offset < size; offset += MAP_WINDOW) {
+          long length = Math.min(MAP_WINDOW, size - offset);
+          update(digests, channel.map(FileChannel.MapMode.READ_ONLY, offset, length));
+        }
+      } else {
+        ByteBuffer block = DIRECT_BLOCK.get();
+        while (channel.read(block.clear()) >= 0) {
+          update(digests, block.flip());
+        }
+      }
+    }
+    return finish(algorithms, digests);
+  }
+
+  /**
+   * Calcula los resúmenes de varios archivos en paralelo, con a lo sumo {@code parallelism}
+   * archivos leyéndose a la vez.
+   *
+   * @param files Archivos de entrada
+   * @param parallelism Número máximo de hilos
+   * @param algorithms Algoritmos a calcular
+   * @return Resúmenes de cada archivo, en el orden de entrada
+   * @throws IOException Si falla la lectura de algún archivo
+   * @throws IllegalArgumentException Si algún algoritmo no está disponible
+   */
+  public static Map<Path, Map<String, byte[]>> digestAll(
+      Collection<Path> files, int parallelism, String... algorithms) throws IOException {
+    // Valida los algoritmos antes de lanzar las tareas
+    create(algorithms);
+    Map<Path, Map<String, byte[]>> results = new LinkedHashMap<>();
+    try (ExecutorService pool =
+        Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, files.size())))) {
+      List<Future<Map<String, byte[]>>> futures = new ArrayList<>(files.size());
+      for (Path file : files) {
+        futures.add(pool.submit(() -> digest(file, algorithms)));
+      }
+      int i = 0;
+      for (Path file : files) {
+        results.put(file, futures.get(i++).get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrumpido mientras se calculaban los resúmenes", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+    return results;
+  }
+
+  /**
+   * Entrega el contenido restante de un búfer a todos los algoritmos, bloque por bloque.
+   *
+   * @param digests Algoritmos
+   * @param buffer Búfer de entrada; su posición no cambia
+   */
+  private static void update(MessageDigest[] digests, ByteBuffer buffer) {
+    for (int position = buffer.position(); position < buffer.limit(); position += BLOCK_SIZE) {
+      int length = Math.min(BLOCK_SIZE, buffer.limit() - position);
+      for (MessageDigest digest : digests) {
+        digest.update(buffer.slice(position, length));
+      }
+    }
+  }
+
+  /**
+   * Crea las instancias de los algoritmos.
+   *
+   * @param algorithms Nombres de los algoritmos
+   * @return Instancias en el mismo orden
+   * @throws IllegalArgumentException Si algún algoritmo no está disponible
+   */
+  private static MessageDigest[] create(String... algorithms) {
+    if (algorithms.length == 0) {
+      throw new IllegalArgumentException("Se debe indicar al menos un algoritmo");
+    }
+    MessageDigest[] digests = new MessageDigest[algorithms.length];
+    for (int i = 0; i < algorithms.length; i++) {
+      try {
+        digests[i] = MessageDigest.getInstance(algorithms[i]);
+      } catch (NoSuchAlgorithmException e) {
+        throw new IllegalArgumentException(
+            "Algoritmo de resumen no soportado: " + algorithms[i], e);
+      }
+    }
+    return digests;
+  }
+
+  /**
+   * Obtiene los resúmenes finales.
+   *
+   * @param algorithms Nombres de los algoritmos
+   * @param digests Instancias de los algoritmos
+   * @return Resúmenes indexados por algoritmo
+   */
+  private static Map<String, byte[]> finish(String[] algorithms, MessageDigest[] digests) {
+    Map<String, byte[]> result = new LinkedHashMap<>();
+    for (int i = 0; i < algorithms.length; i++) {
+      result.put(algorithms[i], digests[i].digest());
+    }
+    return result;
+  }
+}
@@ -0,0 +1,547 @@
+package co.edu.unbosque.springfirstapp.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Cifrado AES-GCM por flujos para contenidos grandes (exportaciones, adjuntos), con memoria
+ * constante sin importar el tamaño.
+ *
+ * <p>El contenido se divide en segmentos que se cifran y autentican de forma independiente. El
+ * formato es:
+ *
+ * <pre>
+ * encabezado = versión (1) || tamaño de segmento (4) || sal (16) || prefijo de nonce (7)
+ * segmento i = AES-GCM(clave del flujo, nonce_i, encabezado como AAD) = cifrado || etiqueta (16)
+ * nonce_i    = prefijo (7) || i (4, big-endian) || 1 si es el último segmento, 0 si no (1)
+ * </pre>
+ *
+ * <p>La clave de cada flujo se deriva de la clave maestra y la sal con HKDF-SHA256, por lo que los
+ * nonces no se repiten entre flujos. El contador impide reordenar segmentos y la marca del último
+ * segmento impide truncar el contenido sin que se detecte.
+ */
+public class StreamingAesGcm {
+
+  /** Tamaño de segmento por defecto (64 KiB de texto plano). */
+  public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024;
+
+  /** Tamaño de segmento máximo aceptado, para no reservar búferes arbitrarios al descifrar. */
+  public static final int MAX_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+  /** Versión del formato. */
+  private static final byte VERSION = 1;
+
+  /** Longitud de la sal en bytes. */
+  private static final int SALT_LENGTH = 16;
+
+  /** Longitud del prefijo del nonce en bytes. */
+  private static final int PREFIX_LENGTH = 7;
+
+  /** Longitud del encabezado en bytes. */
+  public static final int HEADER_LENGTH = 1 + 4 + SALT_LENGTH + PREFIX_LENGTH;
+
+  /** Longitud de la etiqueta de autenticación en bytes. */
+  private static final int TAG_LENGTH = 16;
+
+  /** Tamaño máximo de cada ventana mapeada en memoria al cifrar archivos. */
+  private static final long MAP_WINDOW = 256L * 1024 * 1024;
+
+  /** Contexto de la derivación de claves. */
+  private static final byte[] HKDF_INFO =
+      "springfirstapp-streaming-aes-gcm-v1".getBytes(StandardCharsets.US_ASCII);
+
+  /** Clave maestra. */
+  private final byte[] masterKey;
+
+  /** Tamaño de segmento de texto plano. */
+  private final int segmentSize;
+
+  /** Generador de sales y prefijos. */
+  private final SecureRandom random = new SecureRandom();
+
+  /**
+   * Crea un cifrador por flujos con el tamaño de segmento por defecto.
+   *
+   * @param masterKey Clave AES de 16 o 32 bytes
+   */
+  public StreamingAesGcm(byte[] masterKey) {
+    this(masterKey, DEFAULT_SEGMENT_SIZE);
+  }
+
+  /**
+   * Crea un cifrador por flujos.
+   *
+   * @param masterKey Clave AES de 16 o 32 bytes
+   * @param segmentSize Bytes de texto plano por segmento
+   * @throws IllegalArgumentException Si la clave o el tamaño de segmento no son válidos
+   */
+  public StreamingAesGcm(byte[] masterKey, int segmentSize) {
+    if (masterKey.length != 16 && masterKey.length != 32) {
+      throw new IllegalArgumentException("La clave AES debe tener 16 o 32 bytes");
+    }
+    if (segmentSize < 1 || segmentSize > MAX_SEGMENT_SIZE) {
+      throw new IllegalArgumentException(
+          "El tamaño de segmento debe estar entre 1 y " + MAX_SEGMENT_SIZE);
+    }
+    this.masterKey = masterKey.clone();
+    this.segmentSize = segmentSize;
+  }
+
+  /**
+   * Calcula el tamaño cifrado de un contenido.
+   *
+   * @param plaintextLength Tamaño del texto plano
+   * @return Tamaño del encabezado más los segmentos cifrados
+   */
+  public long encryptedLength(long plaintextLength) {
+    long segments = Math.max(1, (plaintextLength + segmentSize - 1) / segmentSize);
+    return HEADER_LENGTH + plaintextLength + segments * TAG_LENGTH;
+  }
+
+  /**
+   * Cifra todo el contenido de un canal y lo escribe en otro.
+   *
+   * @param in Canal de texto plano
+   * @param out Canal de salida
+   * @return Bytes escritos
+   * @throws IOException Si falla la lectura o la escritura
+   */
+  public long encrypt(ReadableByteChannel in, WritableByteChannel out) throws IOException {
+    Encryptor encryptor = new Encryptor(out);
+    // Un byte adicional permite saber si el segmento leído es el último
+    ByteBuffer plain = ByteBuffer.allocateDirect(segmentSize + 1);
+    boolean eof = false;
+    while (true) {
+      while (!eof && plain.hasRemaining()) {
+        eof = in.read(plain) < 0;
+      }
+      plain.flip();
+      if (plain.remaining() > segmentSize) {
+        ByteBuffer segment = plain.duplicate();
+        segment.limit(segmentSize);
+        encryptor.segment(segment, false);
+        plain.position(segmentSize);
+        plain.compact();
+      } else {
+        encryptor.segment(plain, true);
+        return encryptor.written;
+      }
+    }
+  }
+
+  /**
+   * Descifra y verifica todo el contenido de un canal y lo escribe en otro. Cada segmento se
+   * escribe solo después de verificarse; si el contenido fue truncado o alterado se lanza una
+   * excepción, aunque la salida ya pueda contener los segmentos anteriores.
+   *
+   * @param in Canal cifrado
+   * @param out Canal de texto plano
+   * @return Bytes de texto plano escritos
+   * @throws IOException Si falla la lectura o la escritura, o si el contenido no es auténtico
+   *     ({@link AEADBadTagException} como causa)
+   */
+  public long decrypt(ReadableByteChannel in, WritableByteChannel out) throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+    readFully(in, header);
+    byte[] headerBytes = header.array();
+    if (headerBytes[0] != VERSION) {
+      throw new IOException("Formato de cifrado no soportado: " + headerBytes[0]);
+    }
+    int storedSegmentSize = ByteBuffer.wrap(headerBytes, 1, 4).getInt();
+    if (storedSegmentSize < 1 || storedSegmentSize > MAX_SEGMENT_SIZE) {
+      throw new IOException("Encabezado de cifrado inválido");
+    }
+    Segments segments = new Segments(headerBytes);
+    int cipherSegment = storedSegmentSize + TAG_LENGTH;
+    ByteBuffer encrypted = ByteBuffer.allocateDirect(cipherSegment + 1);
+    ByteBuffer plain = ByteBuffer.allocateDirect(storedSegmentSize);
+    long written = 0;
+    boolean eof = false;
+    while (true) {
+      while (!eof && encrypted.hasRemaining()) {
+        eof = in.read(encrypted) < 0;
+      }
+      encrypted.flip();
+      boolean last = encrypted.remaining() <= cipherSegment;
+      ByteBuffer segment = encrypted.duplicate();
+      if (!last) {
+        segment.limit(cipherSegment);
+      }
+      if (segment.remaining() < TAG_LENGTH) {
+        throw new IOException("Contenido cifrado truncado", new AEADBadTagException());
+      }
+      plain.clear();
+      segments.decrypt(segment, plain, last);
+      plain.flip();
+      written += plain.remaining();
+      writeFully(out, plain);
+      if (last) {
+        return written;
+      }
+      encrypted.position(cipherSegment);
+      encrypted.compact();
+    }
+  }
+
+  /**
+   * Cifra todo el contenido de un flujo de entrada y lo escribe en un flujo de salida.
+   *
+   * @param in Flujo de texto plano
+   * @param out Flujo de salida
+   * @return Bytes escritos
+   * @throws IOException Si falla la lectura o la escritura
+   */
+  public long encrypt(InputStream in, OutputStream out) throws IOException {
+    return encrypt(Channels.newChannel(in), Channels.newChannel(out));
+  }
+
+  /**
+   * Descifra y verifica todo el contenido de un flujo de entrada.
+   *
+   * @param in Flujo cifrado
+   * @param out Flujo de texto plano
+   * @return Bytes de texto plano escritos
+   * @throws IOException Si falla la lectura o la escritura, o si el contenido no es auténtico
+   */
+  public long decrypt(InputStream in, OutputStream out) throws IOException {
+    return decrypt(Channels.newChannel(in), Channels.newChannel(out));
+  }
+
+  /**
+   * Crea un flujo que cifra lo que se escribe en él. Es útil cuando el contenido se produce de
+   * forma incremental (por ejemplo, una exportación); el último segmento se escribe al cerrarlo.
+   *
+   * @param out Flujo de salida para el contenido cifrado; se cierra junto con el devuelto
+   * @return Flujo de texto plano
+   */
+  public OutputStream encryptingStream(OutputStream out) {
+    return new EncryptingOutputStream(out);
+  }
+
+  /**
+   * Cifra un archivo leyéndolo mediante memoria mapeada, sin copiarlo al montón de Java.
+   *
+   * @param source Archivo de texto plano
+   * @param out Canal de salida
+   * @return Bytes escritos
+   * @throws IOException Si falla la lectura o la escritura
+   */
+  public long encryptFile(Path source, WritableByteChannel out) throws IOException {
+    try (FileChannel file = FileChannel.open(source, StandardOpenOption.READ)) {
+      long size = file.size();
+      Encryptor encryptor = new Encryptor(out);
+      if (size == 0) {
+        encryptor.segment(ByteBuffer.allocate(0), true);
+        return encryptor.written;
+      }
+      // Ventanas alineadas al tamaño de segmento para no partir segmentos entre ventanas
+      long window = Math.max(segmentSize, MAP_WINDOW / segmentSize * segmentSize);
+      for (long offset = 0; offset < size; offset += window) {
+        long length = Math.min(window, size - offset);
+        MappedByteBuffer mapped = file.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        while (mapped.hasRemaining()) {
+          int chunk = Math.min(segmentSize, mapped.remaining());
+          ByteBuffer segment = mapped.slice(mapped.position(), chunk);
+          mapped.position(mapped.position() + chunk);
+          encryptor.segment(segment, offset + mapped.position() == size);
+        }
+      }
+      return encryptor.written;
+    }
+  }
+
+  /**
+   * Deriva la clave de un flujo con HKDF-SHA256 (RFC 5869).
+   *
+   * @param salt Sal del flujo
+   * @return Clave del flujo, de la misma longitud que la clave maestra
+   */
+  private SecretKey deriveKey(byte[] salt) {
+    try {
+      Mac hmac = Mac.getInstance("HmacSHA256");
+      hmac.init(new SecretKeySpec(salt, "HmacSHA256"));
+      byte[] prk = hmac.doFinal(masterKey);
+      hmac.init(new SecretKeySpec(prk, "HmacSHA256"));
+      hmac.update(HKDF_INFO);
+      hmac.update((byte) 1);
+      byte[] okm = hmac.doFinal();
+      return new SecretKeySpec(Arrays.copyOf(okm, masterKey.length), "AES");
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("HmacSHA256 no disponible", e);
+    }
+  }
+
+  /**
+   * Lee exactamente los bytes que caben en el búfer.
+   *
+   * @param in Canal de entrada
+   * @param buffer Búfer a llenar
+   * @throws IOException Si el canal termina antes
+   */
+  private static void readFully(ReadableByteChannel in, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      if (in.read(buffer) < 0) {
+        throw new IOException("Contenido cifrado truncado", new AEADBadTagException());
+      }
+    }
+  }
+
+  /**
+   * Escribe todo el contenido del búfer.
+   *
+   * @param out Canal de salida
+   * @param buffer Búfer a escribir
+   * @throws IOException Si falla la escritura
+   */
+  private static void writeFully(WritableByteChannel out, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      out.write(buffer);
+    }
+  }
+
+  /** Estado de cifrado o descifrado de los segmentos de un flujo. */
+  private final class Segments {
+
+    /** Encabezado del flujo, autenticado en cada segmento. */
+    private final byte[] header;
+
+    /** Clave derivada del flujo. */
+    private final SecretKey key;
+
+    /** Cifrador reutilizado para todos los segmentos del flujo. */
+    private final Cipher cipher;
+
+    /** Nonce del segmento actual. */
+    private final byte[] nonce = new byte[12];
+
+    /** Número del siguiente segmento. */
+    private int counter;
+
+    /**
+     * Prepara la clave y el cifrador a partir del encabezado.
+     *
+     * @param header Encabezado del flujo
+     */
+    Segments(byte[] header) {
+      this.header = header;
+      this.key = deriveKey(Arrays.copyOfRange(header, 5, 5 + SALT_LENGTH));
+      System.arraycopy(header, 5 + SALT_LENGTH, nonce, 0, PREFIX_LENGTH);
+      try {
+        this.cipher = Cipher.getInstance("AES/GCM/NoPadding");
+      } catch (GeneralSecurityException e) {
+        throw new IllegalStateException("AES-GCM no disponible", e);
+      }
+    }
+
+    /**
+     * Cifra un segmento.
+     *
+     * @param plain Texto plano del segmento
+     * @param out Búfer de salida
+     * @param last true si es el último segmento
+     */
+    void encrypt(ByteBuffer plain, ByteBuffer out, boolean last) {
+      try {
+        init(Cipher.ENCRYPT_MODE, last).doFinal(plain, out);
+      } catch (GeneralSecurityException e) {
+        throw new IllegalStateException("Error al cifrar el segmento", e);
+      }
+    }
+
+    /**
+     * Descifra y verifica un segmento.
+     *
+     * @param encrypted Segmento cifrado
+     * @param out Búfer de salida
+     * @param last true si es el último segmento
+     * @throws IOException Si el segmento no es auténtico
+     */
+    void decrypt(ByteBuffer encrypted, ByteBuffer out, boolean last) throws IOException {
+      try {
+        init(Cipher.DECRYPT_MODE, last).doFinal(encrypted, out);
+      } catch (AEADBadTagException e) {
+        throw new IOException("Segmento " + (counter - 1) + " alterado o truncado", e);
+      } catch (GeneralSecurityException e) {
+        throw new IllegalStateException("Error al descifrar el segmento", e);
+      }
+    }
+
+    /**
+     * Inicializa el cifrador con el nonce del siguiente segmento.
+     *
+     * @param mode Modo del cifrador
+     * @param last true si es el último segmento
+     * @return Cifrador inicializado
+     * @throws GeneralSecurityException Si falla la inicialización
+     */
+    private Cipher init(int mode, boolean last) throws GeneralSecurityException {
+      if (counter == -1) {
+        throw new IllegalStateException("Se superó el número máximo de segmentos");
+      }
+      nonce[7] = (byte) (counter >>> 24);
+      nonce[8] = (byte) (counter >>> 16);
+      nonce[9] = (byte) (counter >>> 8);
+      nonce[10] = (byte) counter;
+      nonce[11] = (byte) (last ? 1 : 0);
+      counter++;
+      cipher.init(mode, key, new GCMParameterSpec(TAG_LENGTH * 8, nonce));
+      cipher.updateAAD(header);
+      return cipher;
+    }
+  }
+
+  /** Escribe el encabezado y los segmentos cifrados de un flujo en un canal. */
+  private final class Encryptor {
+
+    /** Canal de salida. */
+    private final WritableByteChannel out;
+
+    /** Estado de los segmentos. */
+    private final Segments segments;
+
+    /** Búfer de salida de un segmento. */
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(segmentSize + TAG_LENGTH);
+
+    /** Bytes escritos hasta ahora. */
+    private long written;
+
+    /**
+     * Genera el encabezado del flujo y lo escribe.
+     *
+     * @param out Canal de salida
+     * @throws IOException Si falla la escritura
+     */
+    Encryptor(WritableByteChannel out) throws IOException {
+      this.out = out;
+      byte[] header = new byte[HEADER_LENGTH];
+      header[0] = VERSION;
+      ByteBuffer.wrap(header, 1, 4).putInt(segmentSize);
+      byte[] randomPart = new byte[SALT_LENGTH + PREFIX_LENGTH];
+      random.nextBytes(randomPart);
+      System.arraycopy(randomPart, 0, header, 5, randomPart.length);
+      this.segments = new Segments(header);
+      ByteBuffer headerBuffer = ByteBuffer.wrap(header);
+      writeFully(out, headerBuffer);
+      written = HEADER_LENGTH;
+    }
+
+    /**
+     * Cifra y escribe un segmento.
+     *
+     * @param plain Texto plano del segmento (como máximo el tamaño de segmento)
+     * @param last true si es el último segmento
+     * @throws IOException Si falla la escritura
+     */
+    void segment(ByteBuffer plain, boolean last) throws IOException {
+      buffer.clear();
+      segments.encrypt(plain, buffer, last);
+      buffer.flip();
+      written += buffer.remaining();
+      writeFully(out, buffer);
+    }
+  }
+
+  /** Flujo de salida que acumula un segmento y lo cifra cuando se llena. */
+  private final class EncryptingOutputStream extends OutputStream {
+
+    /** Flujo de salida subyacente. */
+    private final OutputStream target;
+
+    /** Canal sobre el flujo subyacente. */
+    private final WritableByteChannel channel;
+
+    /** Texto plano pendiente; un byte adicional permite saber si el segmento es el último. */
+    private final ByteBuffer plain = ByteBuffer.allocate(segmentSize + 1);
+
+    /** Cifrador de segmentos, creado con la primera escritura o al cerrar. */
+    private Encryptor encryptor;
+
+    /** Indica si el flujo ya se cerró. */
+    private boolean closed;
+
+    /**
+     * Crea el flujo.
+     *
+     * @param target Flujo de salida subyacente
+     */
+    EncryptingOutputStream(OutputStream target) {
+      this.target = target;
+      this.channel = Channels.newChannel(target);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      if (closed) {
+        throw new IOException("Flujo cerrado");
+      }
+      while (len > 0) {
+        int chunk = Math.min(len, plain.remaining());
+        plain.put(b, off, chunk);
+        off += chunk;
+        len -= chunk;
+        if (!plain.hasRemaining()) {
+          // Hay más datos después del segmento completo: no es el último
+          plain.flip();
+          ByteBuffer segment = plain.duplicate();
+          segment.limit(segmentSize);
+          encryptor().segment(segment, false);
+          plain.position(segmentSize);
+          plain.compact();
+        }
+      }
+    }
+
+    @Override
+    public void flush() throws IOException {
+      target.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      plain.flip();
+      encryptor().segment(plain, true);
+      target.close();
+    }
+
+    /**
+     * Obtiene el cifrador de segmentos, escribiendo el encabezado la primera vez.
+     *
+     * @return Cifrador de segmentos
+     * @throws IOException Si falla la escritura del encabezado
+     */
+    private Encryptor encryptor() throws IOException {
+      if (encryptor == null) {
+        encryptor = new Encryptor(channel);
+      }
+      return encryptor;
+    }
+  }
+}
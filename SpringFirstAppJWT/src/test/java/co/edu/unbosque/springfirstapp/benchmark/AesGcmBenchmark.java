@@ -0,0 +1,155 @@
+package co.edu.unbosque.springfirstapp.benchmark;
+
+import co.edu.unbosque.springfirstapp.util.AESUtil;
+import co.edu.unbosque.springfirstapp.util.AesGcmEngine;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.AEADBadTagException;
+import javax.crypto.ShortBufferException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compara {@link AESUtil} (un {@code Cipher} y una clave nuevos por llamada, con conversión a
+ * cadenas y Base64) con {@link AesGcmEngine} usando arreglos y búferes directos, para varios
+ * tamaños de mensaje.
+ *
+ * <p>Ejecución: {@code mvn -Pbenchmark test-compile exec:exec -Djmh.include=AesGcmBenchmark}.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AesGcmBenchmark {
+
+  /** Clave de 16 caracteres, la misma que usa AESUtil por defecto. */
+  private static final String KEY = "llavede16carater";
+
+  /** Vector de inicialización fijo de AESUtil. */
+  private static final String IV = "programacioncomp";
+
+  /** Tamaño del mensaje en bytes. */
+  @Param({"64", "1024", "16384"})
+  public int size;
+
+  /** Motor con la misma clave que AESUtil. */
+  private AesGcmEngine engine;
+
+  /** Mensaje en texto. */
+  private String text;
+
+  /** Mensaje en bytes. */
+  private byte[] plaintext;
+
+  /** Mensaje cifrado por AESUtil. */
+  private String utilEncrypted;
+
+  /** Mensaje cifrado por el motor. */
+  private byte[] engineEncrypted;
+
+  /** Mensaje en un búfer directo. */
+  private ByteBuffer directPlaintext;
+
+  /** Mensaje cifrado en un búfer directo. */
+  private ByteBuffer directEncrypted;
+
+  /** Búfer directo de salida. */
+  private ByteBuffer directOut;
+
+  /** Prepara los mensajes y los búferes. */
+  @Setup
+  public void setup() throws ShortBufferException {
+    engine = new AesGcmEngine(KEY.getBytes(StandardCharsets.UTF_8));
+    text = "a".repeat(size);
+    plaintext = text.getBytes(StandardCharsets.UTF_8);
+    utilEncrypted = AESUtil.encrypt(KEY, IV, text);
+    engineEncrypted = engine.encrypt(plaintext);
+    directPlaintext = ByteBuffer.allocateDirect(size);
+    directPlaintext.put(plaintext).flip();
+    directEncrypted = ByteBuffer.allocateDirect(AesGcmEngine.encryptedLength(size));
+    engine.encrypt(directPlaintext.duplicate(), directEncrypted);
+    directEncrypted.flip();
+    directOut = ByteBuffer.allocateDirect(AesGcmEngine.encryptedLength(size));
+  }
+
+  /**
+   * Cifra con AESUtil.
+   *
+   * @return Texto cifrado en Base64
+   */
+  @Benchmark
+  public String aesUtilEncrypt() {
+    return AESUtil.encrypt(KEY, IV, text);
+  }
+
+  /**
+   * Descifra con AESUtil.
+   *
+   * @return Texto descifrado
+   */
+  @Benchmark
+  public String aesUtilDecrypt() {
+    return AESUtil.decrypt(KEY, IV, utilEncrypted);
+  }
+
+  /**
+   * Cifra con el motor usando arreglos.
+   *
+   * @return nonce || texto cifrado || etiqueta
+   */
+  @Benchmark
+  public byte[] engineEncrypt() {
+    return engine.encrypt(plaintext);
+  }
+
+  /**
+   * Descifra con el motor usando arreglos.
+   *
+   * @return Texto plano
+   * @throws AEADBadTagException No ocurre con el mensaje de prueba
+   */
+  @Benchmark
+  public byte[] engineDecrypt() throws AEADBadTagException {
+    return engine.decrypt(engineEncrypted);
+  }
+
+  /**
+   * Cifra con el motor usando búferes directos.
+   *
+   * @return Bytes escritos
+   * @throws ShortBufferException No ocurre con el búfer de prueba
+   */
+  @Benchmark
+  public int engineEncryptDirect() throws ShortBufferException {
+    directOut.clear();
+    return engine.encrypt(directPlaintext.duplicate(), directOut);
+  }
+
+  /**
+   * Descifra con el motor usando búferes directos.
+   *
+   * @return Bytes escritos
+   * @throws AEADBadTagException No ocurre con el mensaje de prueba
+   * @throws ShortBufferException No ocurre con el búfer de prueba
+   */
+  @Benchmark
+  public int engineDecryptDirect() throws AEADBadTagException, ShortBufferException {
+    directOut.clear();
+    return engine.decrypt(directEncrypted.duplicate(), directOut);
+  }
+}
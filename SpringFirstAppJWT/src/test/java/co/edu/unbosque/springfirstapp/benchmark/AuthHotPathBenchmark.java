@@ -0,0 +1,165 @@
+package co.edu.unbosque.springfirstapp.benchmark;
+
+import co.edu.unbosque.springfirstapp.model.User;
+import co.edu.unbosque.springfirstapp.model.User.Role;
+import co.edu.unbosque.springfirstapp.repository.UserRepository;
+import co.edu.unbosque.springfirstapp.security.FieldEncryptionKeyRing;
+import co.edu.unbosque.springfirstapp.security.JwtUtil;
+import co.edu.unbosque.springfirstapp.security.UserDetailsServiceImpl;
+import com.github.benmanes.caffeine.cache.Cache;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Mide las operaciones de autenticación que se ejecutan en cada solicitud: emisión y validación de
+ * tokens, extracción del rol y carga del usuario. El repositorio es un stub en memoria, de modo que
+ * se mide solo el costo de la aplicación.
+ *
+ * <p>La validación se mide con la cache caliente (mismo token en cada operación) y en frío ({@code
+ * coldValidateToken}), vaciando la cache antes de cada operación para medir la verificación de la
+ * firma; la variante en frío incluye el costo de vaciar la cache, que es despreciable frente al de
+ * la verificación. La carga del usuario pasa directamente al stub, por lo que no incluye la cache
+ * de segundo nivel de Hibernate, que se prueba en {@code UserNaturalIdRepositoryTest}.
+ *
+ * <p>Ejecución: {@code mvn -Pbenchmark test-compile exec:exec -Djmh.include=AuthHotPathBenchmark}.
+ * El perfil reporta operaciones por segundo, la distribución de latencia (p99 en el modo de
+ * muestreo) y, con {@code -prof gc}, la asignación de memoria por operación.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class AuthHotPathBenchmark {
+
+  /** Secreto de firma de los tokens. */
+  static final String SECRET = "benchmarkJwtSecretKeyWhichIsAtLeast32CharactersLong";
+
+  /** Usuario autenticado en las mediciones. */
+  private User user;
+
+  /** Utilidad JWT configurada como en la aplicación. */
+  private JwtUtil jwtUtil;
+
+  /** Servicio de detalles de usuario con repositorio en memoria. */
+  private UserDetailsServiceImpl userDetailsService;
+
+  /** Cache de reclamaciones verificadas de la utilidad JWT, vaciada en las mediciones en frío. */
+  private Cache<String, ?> claimsCache;
+
+  /** Token emitido para el usuario. */
+  private String token;
+
+  /** Prepara el usuario, la utilidad JWT y el servicio de usuarios. */
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setup() {
+    user = benchmarkUser();
+    jwtUtil = jwtUtil();
+    token = jwtUtil.generateToken(user);
+    claimsCache = (Cache<String, ?>) ReflectionTestUtils.getField(jwtUtil, "claimsCache");
+    UserRepository repository =
+        RepositoryStubs.stub(
+            UserRepository.class,
+            Map.of(
+                "findByUsername",
+                args -> user.getUsername().equals(args[0]) ? Optional.of(user) : Optional.empty()));
+    userDetailsService = new UserDetailsServiceImpl(repository, new FieldEncryptionKeyRing("", ""));
+  }
+
+  /**
+   * Mide la emisión de un token (inicio de sesión y renovación).
+   *
+   * @return Token emitido
+   */
+  @Benchmark
+  public String generateToken() {
+    return jwtUtil.generateToken(user);
+  }
+
+  /**
+   * Mide la validación de un token ya verificado (caso habitual por solicitud).
+   *
+   * @return Resultado de la validación
+   */
+  @Benchmark
+  public Boolean validateToken() {
+    return jwtUtil.validateToken(token, user);
+  }
+
+  /**
+   * Mide la validación de un token que no está en la cache (primera solicitud con el token, o
+   * después de un desalojo): incluye la verificación de la firma.
+   *
+   * @return Resultado de la validación
+   */
+  @Benchmark
+  public Boolean coldValidateToken() {
+    claimsCache.invalidateAll();
+    return jwtUtil.validateToken(token, user);
+  }
+
+  /**
+   * Mide la extracción del rol de un token.
+   *
+   * @return Rol del token
+   */
+  @Benchmark
+  public String extractRole() {
+    return jwtUtil.extractRole(token);
+  }
+
+  /**
+   * Mide la carga del usuario por nombre (modo con consulta por solicitud).
+   *
+   * @return Detalles del usuario
+   */
+  @Benchmark
+  public UserDetails loadUserByUsername() {
+    return userDetailsService.loadUserByUsername(user.getUsername());
+  }
+
+  /**
+   * Crea el usuario de las mediciones, con identificador y versión de tokens.
+   *
+   * @return Usuario ADMIN
+   */
+  static User benchmarkUser() {
+    User user = new User("benchmark", "{bcrypt}$2a$10$hash", Role.ADMIN);
+    user.setId(1L);
+    user.setTokenVersion(1);
+    return user;
+  }
+
+  /**
+   * Crea una utilidad JWT con la misma configuración que la aplicación, sin levantar el contexto
+   * de Spring.
+   *
+   * @return Utilidad JWT inicializada
+   */
+  static JwtUtil jwtUtil() {
+    JwtUtil jwtUtil = new JwtUtil();
+    ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+    ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", 10_000L);
+    ReflectionTestUtils.setField(jwtUtil, "accessTokenValiditySeconds", 900L);
+    ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+    return jwtUtil;
+  }
+}
@@ -0,0 +1,108 @@
+package co.edu.unbosque.springfirstapp.benchmark;
+
+import co.edu.unbosque.springfirstapp.security.EncryptedStringConverter;
+import co.edu.unbosque.springfirstapp.security.FieldEncryptionKeyRing;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Mide el costo que añade {@link EncryptedStringConverter} al cargar usuarios: una fila (como
+ * {@code findByUsername}) o muchas (como {@code findAll}), frente a leer los mismos valores en
+ * texto plano. También mide el cifrado al guardar.
+ *
+ * <p>Se ejecuta con varios hilos para incluir el efecto de los cifradores por hilo.
+ *
+ * <p>Ejecución: {@code mvn -Pbenchmark test-compile exec:exec
+ * -Djmh.include=FieldEncryptionBenchmark}.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class FieldEncryptionBenchmark {
+
+  /** Hash BCrypt representativo del valor almacenado. */
+  private static final String HASH =
+      "{bcrypt}$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy";
+
+  /** Filas leídas por operación. */
+  @Param({"1", "1000"})
+  public int rows;
+
+  /** Convertidor con cifrado activado. */
+  private EncryptedStringConverter converter;
+
+  /** Valores cifrados almacenados. */
+  private String[] encrypted;
+
+  /** Valores en texto plano almacenados. */
+  private String[] plain;
+
+  /** Prepara los valores almacenados. */
+  @Setup
+  public void setup() {
+    String key = Base64.getEncoder().encodeToString(new byte[32]);
+    converter = new EncryptedStringConverter(new FieldEncryptionKeyRing("v1:" + key, "v1"));
+    encrypted = new String[rows];
+    plain = new String[rows];
+    for (int i = 0; i < rows; i++) {
+      plain[i] = HASH;
+      encrypted[i] = converter.convertToDatabaseColumn(HASH);
+    }
+  }
+
+  /**
+   * Convierte filas cifradas a entidad.
+   *
+   * @param blackhole Consumidor de resultados
+   */
+  @Benchmark
+  public void loadEncrypted(Blackhole blackhole) {
+    for (String value : encrypted) {
+      blackhole.consume(converter.convertToEntityAttribute(value));
+    }
+  }
+
+  /**
+   * Convierte filas en texto plano a entidad (solo la comprobación del prefijo).
+   *
+   * @param blackhole Consumidor de resultados
+   */
+  @Benchmark
+  public void loadPlain(Blackhole blackhole) {
+    for (String value : plain) {
+      blackhole.consume(converter.convertToEntityAttribute(value));
+    }
+  }
+
+  /**
+   * Cifra los valores de las filas para guardarlos.
+   *
+   * @param blackhole Consumidor de resultados
+   */
+  @Benchmark
+  public void store(Blackhole blackhole) {
+    for (String value : plain) {
+      blackhole.consume(converter.convertToDatabaseColumn(value));
+    }
+  }
+}
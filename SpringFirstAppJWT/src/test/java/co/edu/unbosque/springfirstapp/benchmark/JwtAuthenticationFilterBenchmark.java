@@ -0,0 +1,113 @@
+package co.edu.unbosque.springfirstapp.benchmark;
+
+import co.edu.unbosque.springfirstapp.model.User;
+import co.edu.unbosque.springfirstapp.repository.RevokedTokenRepository;
+import co.edu.unbosque.springfirstapp.repository.UserRepository;
+import co.edu.unbosque.springfirstapp.security.FieldEncryptionKeyRing;
+import co.edu.unbosque.springfirstapp.security.JwtAuthenticationFilter;
+import co.edu.unbosque.springfirstapp.security.JwtUtil;
+import co.edu.unbosque.springfirstapp.security.TokenRevocationService;
+import co.edu.unbosque.springfirstapp.security.TokenVersionRegistry;
+import co.edu.unbosque.springfirstapp.security.UserDetailsServiceImpl;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Mide el filtro JWT completo por solicitud (análisis del encabezado, verificación del token,
+ * consulta de revocación, resolución del principal y armado de la autenticación), en modo sin
+ * estado y con carga del usuario. Los repositorios son stubs en memoria.
+ *
+ * <p>Ejecución: {@code mvn -Pbenchmark test-compile exec:exec
+ * -Djmh.include=JwtAuthenticationFilterBenchmark}.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class JwtAuthenticationFilterBenchmark {
+
+  /** Atributo con el que OncePerRequestFilter marca la solicitud como ya filtrada. */
+  private static final String ALREADY_FILTERED =
+      JwtAuthenticationFilter.class.getName() + OncePerRequestFilter.ALREADY_FILTERED_SUFFIX;
+
+  /** true para construir el principal solo con el token; false para cargar el usuario. */
+  @Param({"true", "false"})
+  public boolean statelessPrincipal;
+
+  /** Filtro medido. */
+  private JwtAuthenticationFilter filter;
+
+  /** Solicitud reutilizada entre invocaciones, con el token en el encabezado. */
+  private MockHttpServletRequest request;
+
+  /** Respuesta reutilizada entre invocaciones. */
+  private MockHttpServletResponse response;
+
+  /** Cadena de filtros vacía. */
+  private final FilterChain chain = (req, res) -> {};
+
+  /** Prepara el filtro con sus dependencias en memoria y una solicitud autenticada. */
+  @Setup
+  public void setup() {
+    User user = AuthHotPathBenchmark.benchmarkUser();
+    JwtUtil jwtUtil = AuthHotPathBenchmark.jwtUtil();
+    UserRepository users =
+        RepositoryStubs.stub(
+            UserRepository.class,
+            Map.of(
+                "findByUsername", args -> Optional.of(user),
+                "findTokenVersionById", args -> Optional.of(user.getTokenVersion())));
+    RevokedTokenRepository revoked =
+        RepositoryStubs.stub(RevokedTokenRepository.class, Map.of("existsById", args -> false));
+    filter =
+        new JwtAuthenticationFilter(
+            jwtUtil,
+            new UserDetailsServiceImpl(users, new FieldEncryptionKeyRing("", "")),
+            new TokenVersionRegistry(users, 30, 10_000),
+            new TokenRevocationService(revoked, 10_000, 0.001),
+            statelessPrincipal);
+    request = new MockHttpServletRequest("GET", "/user/getall");
+    request.addHeader("Authorization", "Bearer " + jwtUtil.generateToken(user));
+    response = new MockHttpServletResponse();
+  }
+
+  /**
+   * Mide una pasada del filtro sobre una solicitud con un token válido.
+   *
+   * @return Autenticación establecida por el filtro
+   * @throws ServletException Si el filtro falla
+   * @throws IOException Si el filtro falla
+   */
+  @Benchmark
+  public Authentication doFilter() throws ServletException, IOException {
+    request.removeAttribute(ALREADY_FILTERED);
+    SecurityContextHolder.clearContext();
+    filter.doFilter(request, response, chain);
+    return SecurityContextHolder.getContext().getAuthentication();
+  }
+}
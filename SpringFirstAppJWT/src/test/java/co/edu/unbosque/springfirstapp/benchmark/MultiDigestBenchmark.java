@@ -0,0 +1,162 @@
+package co.edu.unbosque.springfirstapp.benchmark;
+
+import co.edu.unbosque.springfirstapp.util.MultiDigest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compara el cálculo de MD5, SHA-1 y SHA-256 de archivos leyéndolos una vez por algoritmo con
+ * {@link DigestUtils} frente a una sola lectura con {@link MultiDigest} (por flujo y por memoria
+ * mapeada), y mide el modo paralelo sobre varios archivos.
+ *
+ * <p>El contador auxiliar {@code megabytes} se reporta por segundo, es decir, directamente en MB/s
+ * de contenido leído.
+ *
+ * <p>Ejecución: {@code mvn -Pbenchmark test-compile exec:exec -Djmh.include=MultiDigestBenchmark}.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MultiDigestBenchmark {
+
+  /** Algoritmos calculados en cada pasada. */
+  private static final String[] ALGORITHMS = {"MD5", "SHA-1", "SHA-256"};
+
+  /** Número de archivos. */
+  private static final int FILES = 8;
+
+  /** Tamaño de cada archivo en MiB. */
+  @Param({"16"})
+  public int fileMb;
+
+  /** Hilos del modo paralelo. */
+  @Param({"1", "4"})
+  public int parallelism;
+
+  /** Archivos de prueba. */
+  private List<Path> files;
+
+  /** Contador de megabytes leídos, reportado por segundo. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class Throughput {
+
+    /** Megabytes de contenido procesados. */
+    public double megabytes;
+  }
+
+  /** Crea los archivos de prueba. */
+  @Setup
+  public void setup() throws IOException {
+    byte[] block = new byte[1024 * 1024];
+    new Random(1).nextBytes(block);
+    files = new ArrayList<>();
+    for (int f = 0; f < FILES; f++) {
+      Path file = Files.createTempFile("multi-digest", ".bin");
+      try (FileChannel out = FileChannel.open(file, StandardOpenOption.WRITE)) {
+        for (int i = 0; i < fileMb; i++) {
+          out.write(ByteBuffer.wrap(block));
+        }
+      }
+      files.add(file);
+    }
+  }
+
+  /** Elimina los archivos de prueba. */
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    for (Path file : files) {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  /**
+   * Lee el primer archivo una vez por algoritmo con DigestUtils.
+   *
+   * @param throughput Contador de megabytes
+   * @return Último resumen calculado
+   */
+  @Benchmark
+  public byte[] separatePasses(Throughput throughput) throws IOException {
+    byte[] last = null;
+    for (String algorithm : ALGORITHMS) {
+      try (InputStream in = Files.newInputStream(files.get(0))) {
+        last = new DigestUtils(algorithm).digest(in);
+      }
+    }
+    throughput.megabytes += fileMb * 1.048576;
+    return last;
+  }
+
+  /**
+   * Lee el primer archivo una sola vez como flujo.
+   *
+   * @param throughput Contador de megabytes
+   * @return Resúmenes
+   */
+  @Benchmark
+  public Map<String, byte[]> singlePassStream(Throughput throughput) throws IOException {
+    try (InputStream in = Files.newInputStream(files.get(0))) {
+      Map<String, byte[]> digests = MultiDigest.digest(in, ALGORITHMS);
+      throughput.megabytes += fileMb * 1.048576;
+      return digests;
+    }
+  }
+
+  /**
+   * Lee el primer archivo una sola vez mediante memoria mapeada.
+   *
+   * @param throughput Contador de megabytes
+   * @return Resúmenes
+   */
+  @Benchmark
+  public Map<String, byte[]> singlePassMapped(Throughput throughput) throws IOException {
+    Map<String, byte[]> digests = MultiDigest.digest(files.get(0), ALGORITHMS);
+    throughput.megabytes += fileMb * 1.048576;
+    return digests;
+  }
+
+  /**
+   * Calcula los resúmenes de todos los archivos con el número de hilos indicado.
+   *
+   * @param throughput Contador de megabytes
+   * @return Resúmenes por archivo
+   */
+  @Benchmark
+  public Map<Path, Map<String, byte[]>> parallelFiles(Throughput throughput) throws IOException {
+    Map<Path, Map<String, byte[]>> digests = MultiDigest.digestAll(files, parallelism, ALGORITHMS);
+    throughput.megabytes += FILES * fileMb * 1.048576;
+    return digests;
+  }
+}
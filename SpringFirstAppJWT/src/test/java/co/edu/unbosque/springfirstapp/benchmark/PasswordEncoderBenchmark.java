@@ -0,0 +1,97 @@
+package co.edu.unbosque.springfirstapp.benchmark;
+
+import co.edu.unbosque.springfirstapp.security.PasswordEncoders;
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Compara el costo de los algoritmos de contraseña soportados con los parámetros de {@code
+ * application.properties}: latencia (modo muestreo, incluye p99), operaciones por segundo y, con
+ * {@code -prof gc}, memoria asignada por operación.
+ *
+ * <p>Ejecución: {@code mvn -Pbenchmark test-compile exec:exec
+ * -Djmh.include=PasswordEncoderBenchmark}. Si {@code security.password.bcrypt-cost} es 0 se usa el
+ * costo mínimo, ya que la calibración depende de la máquina.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+  /** Contraseña de muestra. */
+  private static final String PASSWORD = "Password123!";
+
+  /** Algoritmo evaluado. */
+  @Param({"bcrypt", "argon2", "scrypt", "pbkdf2-sha256-600000"})
+  public String algorithm;
+
+  /** Codificador del algoritmo evaluado. */
+  private PasswordEncoder encoder;
+
+  /** Hash precalculado para medir la verificación. */
+  private String hash;
+
+  /**
+   * Construye el codificador con los parámetros configurados en la aplicación.
+   *
+   * @throws IOException Si no se puede leer application.properties
+   */
+  @Setup
+  public void setup() throws IOException {
+    Properties props =
+        PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"));
+    int cost = Integer.parseInt(props.getProperty("security.password.bcrypt-cost", "0"));
+    if (cost <= 0) {
+      cost = Integer.parseInt(props.getProperty("security.password.min-cost", "10"));
+    }
+    encoder =
+        PasswordEncoders.encoders(
+                cost,
+                Integer.parseInt(props.getProperty("security.password.argon2.memory-kb", "19456")),
+                Integer.parseInt(props.getProperty("security.password.argon2.iterations", "2")),
+                Integer.parseInt(props.getProperty("security.password.scrypt.cpu-cost", "65536")))
+            .get(algorithm);
+    hash = encoder.encode(PASSWORD);
+  }
+
+  /**
+   * Mide el cálculo de un hash nuevo (registro y cambio de contraseña).
+   *
+   * @return Hash calculado
+   */
+  @Benchmark
+  public String encode() {
+    return encoder.encode(PASSWORD);
+  }
+
+  /**
+   * Mide la verificación de una contraseña (inicio de sesión).
+   *
+   * @return Resultado de la verificación
+   */
+  @Benchmark
+  public boolean matches() {
+    return encoder.matches(PASSWORD, hash);
+  }
+}
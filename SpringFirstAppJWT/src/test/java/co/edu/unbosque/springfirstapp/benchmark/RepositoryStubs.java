@@ -0,0 +1,45 @@
+package co.edu.unbosque.springfirstapp.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Repositorios en memoria para los benchmarks, construidos como proxies dinámicos. Solo responden
+ * a los métodos indicados; cualquier otro lanza {@link UnsupportedOperationException}, de modo que
+ * un acceso inesperado a la base de datos en el camino medido se detecta de inmediato.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+final class RepositoryStubs {
+
+  /** Constructor privado: clase de utilidad. */
+  private RepositoryStubs() {}
+
+  /**
+   * Crea un repositorio que responde a los métodos indicados por nombre.
+   *
+   * @param type Interfaz del repositorio
+   * @param methods Implementación de cada método, que recibe sus argumentos
+   * @param <T> Tipo del repositorio
+   * @return Repositorio en memoria
+   */
+  static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> methods) {
+    Object proxy =
+        Proxy.newProxyInstance(
+            type.getClassLoader(),
+            new Class<?>[] {type},
+            (instance, method, args) -> {
+              Function<Object[], Object> implementation = methods.get(method.getName());
+              if (implementation != null) {
+                return implementation.apply(args);
+              }
+              if (method.getName().equals("toString")) {
+                return type.getSimpleName() + " en memoria";
+              }
+              throw new UnsupportedOperationException(method.getName());
+            });
+    return type.cast(proxy);
+  }
+}
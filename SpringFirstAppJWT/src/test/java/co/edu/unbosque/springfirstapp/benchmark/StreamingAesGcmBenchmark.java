@@ -0,0 +1,165 @@
+package co.edu.unbosque.springfirstapp.benchmark;
+
+import co.edu.unbosque.springfirstapp.util.StreamingAesGcm;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mide el rendimiento en MB/s de {@link StreamingAesGcm} al cifrar un archivo leyéndolo por canal y
+ * por memoria mapeada, y al descifrarlo, descartando la salida para medir solo la lectura y el
+ * cifrado.
+ *
+ * <p>El contador auxiliar {@code megabytes} se reporta por segundo, es decir, directamente en MB/s.
+ *
+ * <p>Ejecución: {@code mvn -Pbenchmark test-compile exec:exec
+ * -Djmh.include=StreamingAesGcmBenchmark}.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StreamingAesGcmBenchmark {
+
+  /** Tamaño del archivo en MiB. */
+  @Param({"64"})
+  public int fileMb;
+
+  /** Tamaño de segmento en KiB. */
+  @Param({"64", "1024"})
+  public int segmentKb;
+
+  /** Cifrador por flujos. */
+  private StreamingAesGcm aes;
+
+  /** Archivo de texto plano. */
+  private Path plainFile;
+
+  /** Archivo cifrado. */
+  private Path encryptedFile;
+
+  /** Canal que descarta todo lo que se escribe. */
+  private final WritableByteChannel sink = new DiscardChannel();
+
+  /** Contador de megabytes procesados, reportado por segundo. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class Throughput {
+
+    /** Megabytes de texto plano procesados. */
+    public double megabytes;
+  }
+
+  /** Crea los archivos de prueba. */
+  @Setup
+  public void setup() throws IOException {
+    aes = new StreamingAesGcm(new byte[32], segmentKb * 1024);
+    byte[] block = new byte[1024 * 1024];
+    new Random(1).nextBytes(block);
+    plainFile = Files.createTempFile("stream-aes", ".plain");
+    try (FileChannel out = FileChannel.open(plainFile, StandardOpenOption.WRITE)) {
+      for (int i = 0; i < fileMb; i++) {
+        out.write(ByteBuffer.wrap(block));
+      }
+    }
+    encryptedFile = Files.createTempFile("stream-aes", ".enc");
+    try (FileChannel in = FileChannel.open(plainFile, StandardOpenOption.READ);
+        FileChannel out = FileChannel.open(encryptedFile, StandardOpenOption.WRITE)) {
+      aes.encrypt(in, out);
+    }
+  }
+
+  /** Elimina los archivos de prueba. */
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(plainFile);
+    Files.deleteIfExists(encryptedFile);
+  }
+
+  /**
+   * Cifra el archivo leyéndolo por canal.
+   *
+   * @param throughput Contador de megabytes
+   * @return Bytes escritos
+   */
+  @Benchmark
+  public long encryptChannel(Throughput throughput) throws IOException {
+    try (FileChannel in = FileChannel.open(plainFile, StandardOpenOption.READ)) {
+      long written = aes.encrypt(in, sink);
+      throughput.megabytes += fileMb * 1.048576;
+      return written;
+    }
+  }
+
+  /**
+   * Cifra el archivo leyéndolo por memoria mapeada.
+   *
+   * @param throughput Contador de megabytes
+   * @return Bytes escritos
+   */
+  @Benchmark
+  public long encryptMapped(Throughput throughput) throws IOException {
+    long written = aes.encryptFile(plainFile, sink);
+    throughput.megabytes += fileMb * 1.048576;
+    return written;
+  }
+
+  /**
+   * Descifra y verifica el archivo leyéndolo por canal.
+   *
+   * @param throughput Contador de megabytes
+   * @return Bytes de texto plano escritos
+   */
+  @Benchmark
+  public long decryptChannel(Throughput throughput) throws IOException {
+    try (FileChannel in = FileChannel.open(encryptedFile, StandardOpenOption.READ)) {
+      long written = aes.decrypt(in, sink);
+      throughput.megabytes += fileMb * 1.048576;
+      return written;
+    }
+  }
+
+  /** Canal de escritura que descarta los datos. */
+  private static final class DiscardChannel implements WritableByteChannel {
+
+    @Override
+    public int write(ByteBuffer src) {
+      int remaining = src.remaining();
+      src.position(src.limit());
+      return remaining;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return true;
+    }
+
+    @Override
+    public void close() {}
+  }
+}
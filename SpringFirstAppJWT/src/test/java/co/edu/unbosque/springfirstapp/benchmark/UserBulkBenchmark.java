@@ -0,0 +1,141 @@
+package co.edu.unbosque.springfirstapp.benchmark;
+
+import co.edu.unbosque.springfirstapp.SpringFirstAppApplication;
+import co.edu.unbosque.springfirstapp.dto.UserDTO;
+import co.edu.unbosque.springfirstapp.service.UserBulkService;
+import co.edu.unbosque.springfirstapp.service.UserService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Compara la creación de usuarios uno a uno con {@link UserService#create} frente a la creación
+ * masiva de {@link UserBulkService#createAll}, sobre el contexto completo de la aplicación con una
+ * base de datos H2 en memoria.
+ *
+ * <p>BCrypt se configura con costo 4 para que la diferencia medida sea la de acceso a datos (una
+ * consulta y un {@code INSERT} por usuario frente a una consulta por bloque e inserciones por
+ * lotes), no la del hash. El contador auxiliar {@code rows} se reporta por segundo, es decir,
+ * directamente en filas/s.
+ *
+ * <p>Ejecución: {@code mvn -Pbenchmark test-compile exec:exec -Djmh.include=UserBulkBenchmark}.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserBulkBenchmark {
+
+  /** Usuarios creados por operación. */
+  @Param({"1000"})
+  public int users;
+
+  /** Contexto de la aplicación. */
+  private ConfigurableApplicationContext context;
+
+  /** Servicio con la creación uno a uno. */
+  private UserService userService;
+
+  /** Servicio con la creación masiva. */
+  private UserBulkService bulkService;
+
+  /** Contador para generar nombres de usuario únicos entre operaciones. */
+  private long sequence;
+
+  /** Filas insertadas, reportadas por segundo. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class Throughput {
+
+    /** Filas insertadas. */
+    public long rows;
+  }
+
+  /** Inicia la aplicación sobre H2 sin servidor web. */
+  @Setup
+  public void setup() {
+    context =
+        new SpringApplicationBuilder(SpringFirstAppApplication.class)
+            .web(WebApplicationType.NONE)
+            .run(
+                "--spring.datasource.url=jdbc:h2:mem:bench;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--security.password.bcrypt-cost=4",
+                "--logging.level.root=WARN");
+    userService = context.getBean(UserService.class);
+    bulkService = context.getBean(UserBulkService.class);
+  }
+
+  /** Detiene la aplicación. */
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  /**
+   * Crea los usuarios uno a uno.
+   *
+   * @param throughput Contador de filas
+   * @return Códigos de resultado acumulados
+   */
+  @Benchmark
+  public int oneAtATime(Throughput throughput) {
+    int codes = 0;
+    for (UserDTO user : nextUsers()) {
+      codes += userService.create(user);
+    }
+    throughput.rows += users;
+    return codes;
+  }
+
+  /**
+   * Crea los usuarios en una sola solicitud masiva.
+   *
+   * @param throughput Contador de filas
+   * @return Número de resultados
+   */
+  @Benchmark
+  public int bulk(Throughput throughput) {
+    int results = bulkService.createAll(nextUsers()).join().size();
+    throughput.rows += users;
+    return results;
+  }
+
+  /**
+   * Genera usuarios con nombres que no existen todavía.
+   *
+   * @return Usuarios a crear
+   */
+  private List<UserDTO> nextUsers() {
+    List<UserDTO> batch = new ArrayList<>(users);
+    for (int i = 0; i < users; i++) {
+      batch.add(new UserDTO("bench-" + sequence++, "password"));
+    }
+    return batch;
+  }
+}
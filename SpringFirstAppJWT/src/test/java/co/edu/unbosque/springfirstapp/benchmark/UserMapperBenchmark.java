@@ -0,0 +1,128 @@
+package co.edu.unbosque.springfirstapp.benchmark;
+
+import co.edu.unbosque.springfirstapp.dto.UserDTO;
+import co.edu.unbosque.springfirstapp.dto.UserMapper;
+import co.edu.unbosque.springfirstapp.model.User;
+import co.edu.unbosque.springfirstapp.model.User.Role;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compara la conversión de usuarios con {@link ModelMapper} (por reflexión, como la usaba {@code
+ * UserService}) frente a {@link UserMapper}, en ambos sentidos: entidad a DTO (como {@code getAll})
+ * y DTO a entidad (como {@code create}).
+ *
+ * <p>Con el perfil {@code benchmark} se ejecuta con {@code -prof gc}; la métrica {@code
+ * gc.alloc.rate.norm} indica los bytes asignados por operación, es decir, por cada conversión de
+ * la lista completa.
+ *
+ * <p>Ejecución: {@code mvn -Pbenchmark test-compile exec:exec -Djmh.include=UserMapperBenchmark}.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserMapperBenchmark {
+
+  /** Usuarios convertidos por operación. */
+  @Param({"100000"})
+  public int users;
+
+  /** Mapeador por reflexión, configurado como el bean de la aplicación. */
+  private ModelMapper modelMapper;
+
+  /** Entidades a convertir. */
+  private List<User> entities;
+
+  /** DTOs a convertir. */
+  private List<UserDTO> dtos;
+
+  /** Prepara las entidades y los DTOs. */
+  @Setup
+  public void setup() {
+    modelMapper = new ModelMapper();
+    entities = new ArrayList<>(users);
+    dtos = new ArrayList<>(users);
+    for (int i = 0; i < users; i++) {
+      Role role = i % 10 == 0 ? Role.ADMIN : Role.USER;
+      User entity = new User("usuario" + i, "{bcrypt}$2a$10$hash" + i, role);
+      entity.setId((long) i);
+      entities.add(entity);
+      dtos.add(new UserDTO("usuario" + i, "clave" + i, role));
+    }
+  }
+
+  /**
+   * Convierte las entidades a DTO con ModelMapper.
+   *
+   * @return DTOs
+   */
+  @Benchmark
+  public List<UserDTO> toDtoModelMapper() {
+    List<UserDTO> result = new ArrayList<>(entities.size());
+    for (User entity : entities) {
+      result.add(modelMapper.map(entity, UserDTO.class));
+    }
+    return result;
+  }
+
+  /**
+   * Convierte las entidades a DTO con UserMapper.
+   *
+   * @return DTOs
+   */
+  @Benchmark
+  public List<UserDTO> toDtoUserMapper() {
+    List<UserDTO> result = new ArrayList<>(entities.size());
+    for (User entity : entities) {
+      result.add(UserMapper.toDTO(entity));
+    }
+    return result;
+  }
+
+  /**
+   * Convierte los DTOs a entidad con ModelMapper.
+   *
+   * @return Entidades
+   */
+  @Benchmark
+  public List<User> toEntityModelMapper() {
+    List<User> result = new ArrayList<>(dtos.size());
+    for (UserDTO dto : dtos) {
+      result.add(modelMapper.map(dto, User.class));
+    }
+    return result;
+  }
+
+  /**
+   * Convierte los DTOs a entidad con UserMapper.
+   *
+   * @return Entidades
+   */
+  @Benchmark
+  public List<User> toEntityUserMapper() {
+    List<User> result = new ArrayList<>(dtos.size());
+    for (UserDTO dto : dtos) {
+      result.add(UserMapper.toEntity(dto));
+    }
+    return result;
+  }
+}
@@ -0,0 +1,133 @@
+package co.edu.unbosque.springfirstapp.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+import co.edu.unbosque.springfirstapp.configuration.ConnectionHoldTimeConfig.EndpointInterceptor;
+import co.edu.unbosque.springfirstapp.dto.UserDTO;
+import co.edu.unbosque.springfirstapp.repository.UserRepository;
+import co.edu.unbosque.springfirstapp.security.PasswordHashingExecutor;
+import co.edu.unbosque.springfirstapp.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.Connection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Clase de prueba para la métrica del tiempo de retención de conexiones.
+ *
+ * <p>Esta clase verifica, con un codificador espía que revisa el estado del hilo en cada
+ * codificación, que la creación y la actualización de usuarios no retengan una conexión mientras se
+ * codifica la contraseña, y que cada conexión se registre con el endpoint que la obtuvo, incluso
+ * desde el ejecutor de hashing.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+@SpringBootTest
+class ConnectionHoldTimeMetricsTest {
+
+  @Autowired private UserService userService;
+
+  @Autowired private PasswordHashingExecutor hashingExecutor;
+
+  @MockitoSpyBean private PasswordEncoder passwordEncoder;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private DataSource dataSource;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  /** Identificador del usuario creado por la prueba. */
+  private Long createdId;
+
+  /** Quita el endpoint que haya quedado en el hilo de la prueba y borra el usuario creado. */
+  @AfterEach
+  void cleanUp() {
+    ConnectionHoldTimeMetrics.setCurrentEndpoint(null);
+    if (createdId != null) {
+      userRepository.deleteById(createdId);
+    }
+  }
+
+  /**
+   * Prueba que crear y actualizar un usuario desde el ejecutor de hashing no tenga una transacción
+   * ni recursos (conexión o contexto de persistencia) ligados al hilo mientras se codifica la
+   * contraseña, y que sus conexiones se registren con el endpoint.
+   */
+  @Test
+  void testWritesDoNotHoldConnectionWhileHashing() {
+    List<Boolean> holdingWhileEncoding = new CopyOnWriteArrayList<>();
+    doAnswer(
+            invocation -> {
+              holdingWhileEncoding.add(
+                  TransactionSynchronizationManager.isActualTransactionActive()
+                      || !TransactionSynchronizationManager.getResourceMap().isEmpty());
+              return invocation.callRealMethod();
+            })
+        .when(passwordEncoder)
+        .encode(any());
+    String endpoint = "POST /prueba-" + UUID.randomUUID();
+    String username = "retencion-" + UUID.randomUUID();
+    ConnectionHoldTimeMetrics.setCurrentEndpoint(endpoint);
+
+    assertEquals(
+        0, hashingExecutor.submit(() -> userService.create(new UserDTO(username, "clave"))).join());
+    createdId = userRepository.findIdByUsername(username).orElseThrow();
+    assertEquals(
+        0,
+        hashingExecutor
+            .submit(() -> userService.updateById(createdId, new UserDTO(username, "otra")))
+            .join());
+
+    assertEquals(List.of(false, false), holdingWhileEncoding);
+    assertTrue(holdTimer(endpoint).count() >= 2);
+  }
+
+  /** Prueba que el interceptor etiquete las conexiones con el método y el patrón de la ruta. */
+  @Test
+  void testConnectionsTaggedWithRoutePattern() throws Exception {
+    String pattern = "/prueba/" + UUID.randomUUID() + "/{id}";
+    MockHttpServletRequest request = new MockHttpServletRequest("DELETE", "/prueba/1");
+    request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    EndpointInterceptor interceptor = new EndpointInterceptor();
+
+    interceptor.preHandle(request, response, null);
+    try (Connection connection = dataSource.getConnection()) {
+      assertTrue(connection.isValid(1));
+    } finally {
+      interceptor.afterCompletion(request, response, null, null);
+    }
+
+    assertNull(ConnectionHoldTimeMetrics.currentEndpoint());
+    assertEquals(1, holdTimer("DELETE " + pattern).count());
+  }
+
+  /**
+   * Obtiene la métrica de retención de conexiones de un endpoint.
+   *
+   * @param endpoint Endpoint de la etiqueta
+   * @return Métrica registrada
+   */
+  private Timer holdTimer(String endpoint) {
+    return meterRegistry.get(ConnectionHoldTimeMetrics.METRIC).tag("endpoint", endpoint).timer();
+  }
+}
@@ -0,0 +1,246 @@
+package co.edu.unbosque.springfirstapp.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import co.edu.unbosque.springfirstapp.configuration.ReadWriteRoutingDataSource.Selection;
+import co.edu.unbosque.springfirstapp.dto.UserDTO;
+import co.edu.unbosque.springfirstapp.service.UserService;
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Clase de prueba para la separación de lecturas y escrituras.
+ *
+ * <p>Esta clase usa dos bases H2 en memoria como réplicas de la principal. Cada réplica recibe el
+ * esquema de la principal y un usuario propio, de modo que el resultado de una lectura indica qué
+ * base la atendió. Verifica que las transacciones de solo lectura vayan a las réplicas por turnos,
+ * que las escrituras vayan a la principal, que el usuario que escribe lea sus cambios durante la
+ * ventana configurada, que solo las sentencias de modificación abran esa ventana, que las lecturas
+ * fijadas vayan a la principal y que la elección por carga evite la réplica ocupada.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+@SpringBootTest(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=MySQL;DB_CLOSE_DELAY=-1",
+      "spring.datasource.driver-class-name=org.h2.Driver",
+      "spring.datasource.username=sa",
+      "spring.datasource.password=",
+      "spring.jpa.hibernate.ddl-auto=create-drop",
+      "datasource.replicas.urls="
+          + ReadWriteRoutingDataSourceTest.REPLICA_A
+          + ","
+          + ReadWriteRoutingDataSourceTest.REPLICA_B,
+      "datasource.read-your-writes.window-ms=1000"
+    })
+class ReadWriteRoutingDataSourceTest {
+
+  /** URL de la primera réplica. */
+  static final String REPLICA_A = "jdbc:h2:mem:routing-replica-a;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+  /** URL de la segunda réplica. */
+  static final String REPLICA_B = "jdbc:h2:mem:routing-replica-b;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+  @Autowired private UserService userService;
+
+  @Autowired private HikariDataSource primaryDataSource;
+
+  @Autowired private TransactionTemplate transactionTemplate;
+
+  /** Copia el esquema de la principal en las réplicas y agrega un usuario propio a cada una. */
+  @BeforeEach
+  void setup() {
+    List<String> schema =
+        new JdbcTemplate(primaryDataSource).queryForList("script nodata", String.class);
+    for (String url : List.of(REPLICA_A, REPLICA_B)) {
+      JdbcTemplate replica = replica(url);
+      replica.execute("drop all objects");
+      schema.forEach(replica::execute);
+      replica.update(
+          "insert into useraccount (username, password, role, account_non_expired,"
+              + " account_non_locked, credentials_non_expired, enabled, token_version, version)"
+              + " values (?, 'x', 'USER', true, true, true, true, 0, 0)",
+          marker(url));
+    }
+  }
+
+  /** Limpia el usuario autenticado de las pruebas. */
+  @AfterEach
+  void clearAuthentication() {
+    SecurityContextHolder.clearContext();
+  }
+
+  /** Prueba que las lecturas vayan a las réplicas por turnos y las escrituras a la principal. */
+  @Test
+  void testReadsGoToReplicasAndWritesToPrimary() {
+    Set<String> seen = new HashSet<>();
+    seen.addAll(usernames(userService.getAll()));
+    seen.addAll(usernames(userService.getAll()));
+    assertEquals(Set.of(marker(REPLICA_A), marker(REPLICA_B)), seen);
+    assertEquals(1, userService.count());
+
+    String username = "enrutado-" + UUID.randomUUID();
+    assertEquals(0, userService.create(new UserDTO(username, "clave")));
+    assertEquals(1, countUsername(new JdbcTemplate(primaryDataSource), username));
+    assertEquals(0, countUsername(replica(REPLICA_A), username));
+    assertEquals(0, countUsername(replica(REPLICA_B), username));
+  }
+
+  /**
+   * Prueba que tras escribir, las lecturas del mismo usuario vayan a la principal durante la
+   * ventana, mientras las de otro usuario siguen en las réplicas.
+   */
+  @Test
+  void testReadYourWritesWindow() throws InterruptedException {
+    String username = "propio-" + UUID.randomUUID();
+    authenticate("escritor");
+    assertEquals(0, userService.create(new UserDTO(username, "clave")));
+    assertTrue(usernames(userService.getAll()).contains(username));
+
+    authenticate("lector");
+    assertEquals(1, userService.getAll().size());
+
+    Thread.sleep(1200);
+    authenticate("escritor");
+    assertEquals(1, userService.getAll().size());
+  }
+
+  /**
+   * Prueba que las lecturas fijadas vayan a la principal y que ni ellas ni una transacción de
+   * escritura sin sentencias de modificación abran la ventana del usuario.
+   */
+  @Test
+  void testPrimaryReadsDoNotOpenWindow() {
+    authenticate("lector-principal");
+    Set<String> primary =
+        usernames(ReadWriteRoutingDataSource.readFromPrimary(userService::getAll));
+    assertFalse(primary.contains(marker(REPLICA_A)) || primary.contains(marker(REPLICA_B)));
+
+    userService.findUsernameAlreadyTaken("lector-principal");
+    transactionTemplate.executeWithoutResult(tx -> userService.count());
+
+    Set<String> read = usernames(userService.getAll());
+    assertTrue(read.contains(marker(REPLICA_A)) || read.contains(marker(REPLICA_B)));
+  }
+
+  /** Prueba la clasificación de las sentencias que abren la ventana. */
+  @Test
+  void testIsWrite() {
+    assertFalse(ReadWriteRoutingDataSource.isWrite("select 1"));
+    assertFalse(ReadWriteRoutingDataSource.isWrite("  /* consulta */ SELECT id from useraccount"));
+    assertFalse(ReadWriteRoutingDataSource.isWrite("with t as (select 1) select * from t"));
+    assertTrue(ReadWriteRoutingDataSource.isWrite("insert into useraccount (username) values (?)"));
+    assertTrue(ReadWriteRoutingDataSource.isWrite("/* update */ update useraccount set id = 1"));
+    assertTrue(ReadWriteRoutingDataSource.isWrite("delete from revoked_token"));
+  }
+
+  /** Prueba que la elección por carga evite la réplica con una conexión en uso. */
+  @Test
+  void testLeastLoadedSkipsBusyReplica() throws Exception {
+    try (HikariDataSource a = pool(REPLICA_A);
+        HikariDataSource b = pool(REPLICA_B);
+        Connection busy = a.getConnection()) {
+      ReadWriteRoutingDataSource routing =
+          new ReadWriteRoutingDataSource(
+              primaryDataSource, List.of(a, b), Selection.LEAST_LOADED, Duration.ZERO, 1);
+      routing.afterPropertiesSet();
+      TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+      try {
+        for (int i = 0; i < 3; i++) {
+          try (Connection connection = routing.getConnection()) {
+            assertTrue(connection.getMetaData().getURL().startsWith(REPLICA_B.split(";")[0]));
+          }
+        }
+      } finally {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+      }
+    }
+  }
+
+  /**
+   * Crea un acceso JDBC directo a una réplica.
+   *
+   * @param url URL de la réplica
+   * @return Plantilla JDBC sobre la réplica
+   */
+  private static JdbcTemplate replica(String url) {
+    return new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+  }
+
+  /**
+   * Crea un pool de conexiones a una réplica.
+   *
+   * @param url URL de la réplica
+   * @return Pool de la réplica
+   */
+  private static HikariDataSource pool(String url) {
+    HikariDataSource pool = new HikariDataSource();
+    pool.setJdbcUrl(url);
+    pool.setUsername("sa");
+    pool.setPassword("");
+    pool.setMaximumPoolSize(2);
+    return pool;
+  }
+
+  /**
+   * Nombre del usuario que solo existe en una réplica.
+   *
+   * @param url URL de la réplica
+   * @return Nombre de usuario
+   */
+  private static String marker(String url) {
+    return url.equals(REPLICA_A) ? "solo-replica-a" : "solo-replica-b";
+  }
+
+  /**
+   * Autentica un usuario en el hilo actual.
+   *
+   * @param name Nombre del usuario
+   */
+  private static void authenticate(String name) {
+    SecurityContextHolder.getContext()
+        .setAuthentication(new TestingAuthenticationToken(name, null, "ROLE_ADMIN"));
+  }
+
+  /**
+   * Obtiene los nombres de usuario de una lista de DTOs.
+   *
+   * @param users Usuarios
+   * @return Nombres de usuario
+   */
+  private static Set<String> usernames(List<UserDTO> users) {
+    return users.stream().map(UserDTO::getUsername).collect(Collectors.toSet());
+  }
+
+  /**
+   * Cuenta las filas con un nombre de usuario en una base.
+   *
+   * @param jdbc Acceso a la base
+   * @param username Nombre de usuario
+   * @return Número de filas
+   */
+  private static int countUsername(JdbcTemplate jdbc, String username) {
+    return jdbc.queryForObject(
+        "select count(*) from useraccount where username = ?", Integer.class, username);
+  }
+}
@@ -16,6 +16,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -67,7 +68,7 @@ import org.springframework.security.core.Authentication;
     loginRequest.setPassword("password");
 
     // Llamar al endpoint de inicio de sesión
-    ResponseEntity<?> response = authController.login(loginRequest);
+    ResponseEntity<?> response = authController.login(loginRequest, new MockHttpServletRequest()).join();
 
     // Verificar que el estado de la respuesta sea OK
     assertEquals(HttpStatus.OK, response.getStatusCode(), "El estado de la respuesta debe ser OK");
@@ -3,10 +3,12 @@ package co.edu.unbosque.springfirstapp.controller;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 import co.edu.unbosque.springfirstapp.dto.UserDTO;
 import co.edu.unbosque.springfirstapp.model.User.Role;
+import co.edu.unbosque.springfirstapp.security.PasswordHashingExecutor;
 import co.edu.unbosque.springfirstapp.service.UserService;
 import java.util.Arrays;
 import java.util.List;
@@ -14,6 +16,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -32,6 +35,8 @@ class UserControllerTest {
 
   @Mock private UserService userService;
 
+  @Spy private PasswordHashingExecutor hashingExecutor = new PasswordHashingExecutor(1, 4);
+
   @InjectMocks private UserController userController;
 
   private UserDTO testUser;
@@ -55,7 +60,7 @@ class UserControllerTest {
    void testCreateNewWithJSONSuccess() {
     when(userService.create(any(UserDTO.class))).thenReturn(0);
 
-    ResponseEntity<String> response = userController.createNewWithJSON(testUser);
+    ResponseEntity<String> response = userController.createNewWithJSON(testUser).join();
 
     assertEquals(HttpStatus.CREATED, response.getStatusCode());
     assertEquals("Usuario creado exitosamente", response.getBody());
@@ -71,7 +76,7 @@ class UserControllerTest {
    void testCreateNewWithJSONUserExists() {
     when(userService.create(any(UserDTO.class))).thenReturn(1);
 
-    ResponseEntity<String> response = userController.createNewWithJSON(testUser);
+    ResponseEntity<String> response = userController.createNewWithJSON(testUser).join();
 
     assertEquals(HttpStatus.NOT_ACCEPTABLE, response.getStatusCode());
     assertEquals(
@@ -97,4 +102,20 @@ class UserControllerTest {
     assertEquals(1, response.getBody().size());
     assertEquals("testuser", response.getBody().get(0).getUsername());
   }
+
+  /**
+   * Prueba la actualización con una versión desactualizada en el encabezado If-Match.
+   *
+   * <p>Esta prueba verifica que la ETag se traduce en la versión esperada y que el método
+   * updateNewWithJSON devuelve un estado HTTP 412 cuando el usuario cambió entretanto.
+   */
+  @Test
+  void testUpdateWithStaleVersion() {
+    when(userService.updateById(eq(1L), any(UserDTO.class), eq(3L))).thenReturn(4);
+
+    ResponseEntity<String> response =
+        userController.updateNewWithJSON(1L, testUser, "\"3\"").join();
+
+    assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
+  }
 }
@@ -0,0 +1,51 @@
+package co.edu.unbosque.springfirstapp.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import co.edu.unbosque.springfirstapp.model.User;
+import co.edu.unbosque.springfirstapp.model.User.Role;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Clase de prueba para la conversión entre usuarios y sus DTOs.
+ *
+ * <p>Esta clase verifica que se copien el identificador, el nombre de usuario y el rol, que el rol
+ * por defecto sea USER y que la contraseña nunca se copie al DTO.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+class UserMapperTest {
+
+  /** Prueba la conversión de entidad a DTO sin contraseña. */
+  @Test
+  void testToDTO() {
+    User entity = new User("mapeo", "{bcrypt}$2a$10$hash", Role.ADMIN);
+    entity.setId(7L);
+
+    UserDTO dto = UserMapper.toDTO(entity);
+
+    assertEquals(7L, dto.getId());
+    assertEquals("mapeo", dto.getUsername());
+    assertEquals(Role.ADMIN, dto.getRole());
+    assertNull(dto.getPassword());
+  }
+
+  /** Prueba la conversión de DTO a entidad, con el rol por defecto y sin copiar el identificador. */
+  @Test
+  void testToEntity() {
+    UserDTO dto = new UserDTO("mapeo", "clave");
+    dto.setId(7L);
+
+    User entity = UserMapper.toEntity(dto);
+
+    assertNull(entity.getId());
+    assertEquals("mapeo", entity.getUsername());
+    assertEquals("clave", entity.getPassword());
+    assertEquals(Role.USER, entity.getRole());
+    assertTrue(entity.isEnabled());
+    assertEquals(Role.ADMIN, UserMapper.toEntity(new UserDTO("a", "b", Role.ADMIN)).getRole());
+  }
+}
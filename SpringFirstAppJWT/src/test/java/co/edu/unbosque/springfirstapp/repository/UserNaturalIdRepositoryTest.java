@@ -0,0 +1,132 @@
+package co.edu.unbosque.springfirstapp.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import co.edu.unbosque.springfirstapp.dto.UserDTO;
+import co.edu.unbosque.springfirstapp.model.User;
+import co.edu.unbosque.springfirstapp.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Clase de prueba para la búsqueda de usuarios por identificador natural.
+ *
+ * <p>Esta clase verifica, con las estadísticas de Hibernate, que una vez cargado un usuario las
+ * búsquedas por nombre de usuario se resuelvan desde la cache de segundo nivel sin consultar la base
+ * de datos, que las actualizaciones y eliminaciones invaliden solo al usuario afectado y que las
+ * estadísticas de las regiones se publiquen como métricas.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+@SpringBootTest
+class UserNaturalIdRepositoryTest {
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private UserService userService;
+
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  /** Prefijo de los nombres de los usuarios creados por la prueba actual. */
+  private final String prefix = "natural-" + UUID.randomUUID() + "-";
+
+  /** Borra los usuarios creados por la prueba. */
+  @AfterEach
+  void deleteCreatedUsers() {
+    userRepository.deleteAll(
+        userRepository.findAll().stream()
+            .filter(user -> user.getUsername().startsWith(prefix))
+            .toList());
+  }
+
+  /** Prueba que la segunda búsqueda por nombre de usuario no ejecute sentencias. */
+  @Test
+  void testFindByUsernameHitsSecondLevelCache() {
+    User saved = userRepository.save(new User(prefix + UUID.randomUUID(), "clave"));
+    entityManagerFactory.getCache().evictAll();
+    Statistics statistics = statistics();
+
+    statistics.clear();
+    assertTrue(userRepository.findByUsername(saved.getUsername()).isPresent());
+    assertTrue(statistics.getPrepareStatementCount() > 0);
+
+    statistics.clear();
+    User found = userRepository.findByUsername(saved.getUsername()).get();
+    assertEquals(saved.getId(), found.getId());
+    assertEquals(0, statistics.getPrepareStatementCount());
+    assertEquals(1, statistics.getNaturalIdCacheHitCount());
+    assertEquals(1, statistics.getDomainDataRegionStatistics(User.CACHE_REGION).getHitCount());
+    assertTrue(userRepository.findByUsername("natural-inexistente").isEmpty());
+    assertTrue(userRepository.findByUsername(null).isEmpty());
+
+    assertNotNull(
+        meterRegistry
+            .find("hibernate.second.level.cache.requests")
+            .tags("region", User.CACHE_REGION, "result", "hit")
+            .functionCounter());
+  }
+
+  /** Prueba que actualizar y eliminar un usuario invalide su entrada en la cache. */
+  @Test
+  void testUpdateAndDeleteInvalidateCache() {
+    User saved = userRepository.save(new User(prefix + UUID.randomUUID(), "clave"));
+    String renamed = prefix + UUID.randomUUID();
+    userRepository.findByUsername(saved.getUsername());
+
+    assertEquals(0, userService.updateById(saved.getId(), new UserDTO(renamed, "nueva")));
+    assertTrue(userRepository.findByUsername(saved.getUsername()).isEmpty());
+    User updated = userRepository.findByUsername(renamed).get();
+    assertEquals(saved.getVersion() + 1, updated.getVersion());
+
+    assertEquals(0, userService.deleteById(saved.getId()));
+    assertTrue(userRepository.findByUsername(renamed).isEmpty());
+
+    // El nombre de un usuario eliminado puede volver a registrarse
+    User reused = userRepository.save(new User(renamed, "clave"));
+    assertEquals(reused.getId(), userRepository.findByUsername(renamed).get().getId());
+  }
+
+  /** Prueba que una escritura conserve en la cache a los demás usuarios. */
+  @Test
+  void testWritesEvictOnlyAffectedUser() {
+    User updated = userRepository.save(new User(prefix + UUID.randomUUID(), "clave"));
+    User other = userRepository.save(new User(prefix + UUID.randomUUID(), "clave"));
+    userRepository.findByUsername(updated.getUsername());
+    userRepository.findByUsername(other.getUsername());
+    Statistics statistics = statistics();
+
+    assertEquals(
+        0, userService.updateById(updated.getId(), new UserDTO(updated.getUsername(), "nueva")));
+    assertFalse(entityManagerFactory.getCache().contains(User.class, updated.getId()));
+    assertTrue(entityManagerFactory.getCache().contains(User.class, other.getId()));
+
+    statistics.clear();
+    assertEquals(other.getId(), userRepository.findByUsername(other.getUsername()).get().getId());
+    assertEquals(0, statistics.getPrepareStatementCount());
+
+    assertEquals(0, userService.deleteByUsername(updated.getUsername()));
+    assertTrue(entityManagerFactory.getCache().contains(User.class, other.getId()));
+  }
+
+  /**
+   * Obtiene las estadísticas de Hibernate.
+   *
+   * @return Estadísticas de la fábrica de sesiones
+   */
+  private Statistics statistics() {
+    return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+}
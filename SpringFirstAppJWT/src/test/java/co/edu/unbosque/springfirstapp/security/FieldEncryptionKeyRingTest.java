@@ -0,0 +1,78 @@
+package co.edu.unbosque.springfirstapp.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Base64;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Clase de prueba para el anillo de claves del cifrado de columnas.
+ *
+ * <p>Esta clase verifica el formato con identificador de clave, la lectura de valores en texto
+ * plano anteriores al cifrado, la rotación de claves y el rechazo de valores alterados o cifrados
+ * con claves desconocidas.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+class FieldEncryptionKeyRingTest {
+
+  /** Clave de prueba 1 en Base64. */
+  private static final String KEY_1 = Base64.getEncoder().encodeToString(new byte[32]);
+
+  /** Clave de prueba 2 en Base64. */
+  private static final String KEY_2 = Base64.getEncoder().encodeToString(new byte[16]);
+
+  /** Prueba el cifrado con prefijo y la lectura de valores en texto plano. */
+  @Test
+  void testRoundTripAndLegacyPlaintext() {
+    FieldEncryptionKeyRing ring = new FieldEncryptionKeyRing("v1:" + KEY_1, "");
+    EncryptedStringConverter converter = new EncryptedStringConverter(ring);
+
+    String stored = converter.convertToDatabaseColumn("{bcrypt}$2a$10$hash");
+    assertTrue(stored.startsWith("enc:v1:"));
+    assertNotEquals(stored, converter.convertToDatabaseColumn("{bcrypt}$2a$10$hash"));
+    assertEquals("{bcrypt}$2a$10$hash", converter.convertToEntityAttribute(stored));
+    assertEquals("$2a$10$legado", converter.convertToEntityAttribute("$2a$10$legado"));
+    assertNull(converter.convertToDatabaseColumn(null));
+    assertNull(converter.convertToEntityAttribute(null));
+    assertTrue(ring.isCurrent(stored));
+    assertFalse(ring.isCurrent("$2a$10$legado"));
+  }
+
+  /** Prueba que tras rotar la clave se sigan leyendo los valores cifrados con la anterior. */
+  @Test
+  void testRotationKeepsOldKeysReadable() {
+    String old = new FieldEncryptionKeyRing("v1:" + KEY_1, "v1").encrypt("secreto");
+    FieldEncryptionKeyRing rotated =
+        new FieldEncryptionKeyRing("v1:" + KEY_1 + ",v2:" + KEY_2, "");
+
+    assertEquals("secreto", rotated.decrypt(old));
+    assertFalse(rotated.isCurrent(old));
+    assertTrue(rotated.encrypt("secreto").startsWith("enc:v2:"));
+  }
+
+  /** Prueba el rechazo de claves desconocidas, valores alterados y configuraciones inválidas. */
+  @Test
+  void testInvalidValuesAreRejected() {
+    FieldEncryptionKeyRing ring = new FieldEncryptionKeyRing("v1:" + KEY_1, "v1");
+    String stored = ring.encrypt("secreto");
+    int middle = stored.length() / 2;
+    char replaced = stored.charAt(middle) == 'A' ? 'B' : 'A';
+    String tampered = stored.substring(0, middle) + replaced + stored.substring(middle + 1);
+
+    assertThrows(IllegalStateException.class, () -> ring.decrypt(tampered));
+    assertThrows(IllegalStateException.class, () -> ring.decrypt("enc:v9:AAAA"));
+    assertThrows(
+        IllegalArgumentException.class, () -> new FieldEncryptionKeyRing("v1:" + KEY_1, "v2"));
+
+    FieldEncryptionKeyRing disabled = new FieldEncryptionKeyRing("", "");
+    assertFalse(disabled.isEnabled());
+    assertEquals("secreto", disabled.encrypt("secreto"));
+  }
+}
@@ -0,0 +1,121 @@
+package co.edu.unbosque.springfirstapp.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import co.edu.unbosque.springfirstapp.model.User;
+import co.edu.unbosque.springfirstapp.model.User.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+/**
+ * Clase de prueba para el filtro JwtAuthenticationFilter.
+ *
+ * <p>Esta clase verifica el modo sin estado del filtro: la autenticación se construye a partir del
+ * token sin consultar el servicio de detalles de usuario, y los tokens con una versión anterior a
+ * la vigente o revocados por cierre de sesión se rechazan.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+@SpringBootTest
+class JwtAuthenticationFilterTest {
+
+  @Autowired private JwtUtil jwtUtil;
+
+  @Mock private UserDetailsService userDetailsService;
+
+  @Mock private TokenVersionRegistry tokenVersionRegistry;
+
+  @Mock private TokenRevocationService tokenRevocationService;
+
+  /** Limpia el contexto de seguridad después de cada prueba. */
+  @AfterEach
+  void clearContext() {
+    SecurityContextHolder.clearContext();
+  }
+
+  /**
+   * Prueba que en modo sin estado la autenticación se establezca sin consultar la base de datos.
+   *
+   * <p>Esta prueba: 1. Genera un token para un usuario ADMIN con id y versión 2. Ejecuta el filtro
+   * 3. Verifica el rol del principal y que no se llamó a loadUserByUsername
+   */
+  @Test
+  void testStatelessModeSkipsUserLookup() throws Exception {
+    when(tokenVersionRegistry.isCurrent(7L, 3)).thenReturn(true);
+    JwtAuthenticationFilter filter =
+        new JwtAuthenticationFilter(
+            jwtUtil, userDetailsService, tokenVersionRegistry, tokenRevocationService, true);
+
+    filter.doFilter(requestWithToken(7L, 3), new MockHttpServletResponse(), new MockFilterChain());
+
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    assertNotNull(authentication, "El filtro debe autenticar la solicitud");
+    assertEquals("stateless", authentication.getName());
+    assertEquals("ROLE_ADMIN", authentication.getAuthorities().iterator().next().getAuthority());
+    verify(userDetailsService, never()).loadUserByUsername(any());
+  }
+
+  /**
+   * Prueba que un token cuya versión ya no es la vigente no autentique la solicitud.
+   *
+   * <p>Simula un usuario al que se le cambió la contraseña o el rol después de emitir el token.
+   */
+  @Test
+  void testStatelessModeRejectsRevokedVersion() throws Exception {
+    when(tokenVersionRegistry.isCurrent(7L, 3)).thenReturn(false);
+    JwtAuthenticationFilter filter =
+        new JwtAuthenticationFilter(
+            jwtUtil, userDetailsService, tokenVersionRegistry, tokenRevocationService, true);
+
+    filter.doFilter(requestWithToken(7L, 3), new MockHttpServletResponse(), new MockFilterChain());
+
+    assertNull(SecurityContextHolder.getContext().getAuthentication());
+    verify(userDetailsService, never()).loadUserByUsername(any());
+  }
+
+  /** Prueba que un token revocado (cierre de sesión) no autentique la solicitud. */
+  @Test
+  void testRevokedTokenIsRejected() throws Exception {
+    when(tokenVersionRegistry.isCurrent(7L, 3)).thenReturn(true);
+    when(tokenRevocationService.isRevoked(any())).thenReturn(true);
+    JwtAuthenticationFilter filter =
+        new JwtAuthenticationFilter(
+            jwtUtil, userDetailsService, tokenVersionRegistry, tokenRevocationService, true);
+
+    filter.doFilter(requestWithToken(7L, 3), new MockHttpServletResponse(), new MockFilterChain());
+
+    assertNull(SecurityContextHolder.getContext().getAuthentication());
+  }
+
+  /**
+   * Construye una solicitud con un token emitido para un usuario ADMIN.
+   *
+   * @param id Identificador del usuario
+   * @param version Versión de los tokens del usuario
+   * @return Solicitud con el encabezado de autorización
+   */
+  private MockHttpServletRequest requestWithToken(Long id, int version) {
+    User user = new User("stateless", "password", Role.ADMIN);
+    user.setId(id);
+    user.setTokenVersion(version);
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/user/getall");
+    request.addHeader("Authorization", "Bearer " + jwtUtil.generateToken(user));
+    return request;
+  }
+}
@@ -2,12 +2,19 @@ package co.edu.unbosque.springfirstapp.security;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import co.edu.unbosque.springfirstapp.model.User;
 import co.edu.unbosque.springfirstapp.model.User.Role;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.jsonwebtoken.JwtException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
 
 /**
  * Clase de prueba para el componente JwtUtil.
@@ -52,4 +59,73 @@ import org.springframework.boot.test.context.SpringBootTest;
     assertNotNull(role, "El rol no debe ser nulo");
     assertEquals("ADMIN", role, "El rol debe ser ADMIN");
   }
+
+  /**
+   * Prueba que un token se verifique una sola vez y que las consultas posteriores se resuelvan
+   * desde la cache de reclamaciones.
+   *
+   * <p>Esta prueba: 1. Genera un token 2. Extrae el usuario y valida el token (misma solicitud) 3.
+   * Verifica que solo hubo un fallo de cache y que el resto fueron aciertos
+   */
+  @Test
+  void testClaimsAreVerifiedOncePerToken() {
+    User user = new User("cacheuser", "password");
+    String token = jwtUtil.generateToken(user);
+
+    long missesBefore = jwtUtil.getClaimsCacheStats().missCount();
+    long hitsBefore = jwtUtil.getClaimsCacheStats().hitCount();
+
+    assertEquals("cacheuser", jwtUtil.extractUsername(token));
+    assertTrue(jwtUtil.validateToken(token, user));
+    assertEquals("USER", jwtUtil.extractRole(token));
+
+    assertEquals(1, jwtUtil.getClaimsCacheStats().missCount() - missesBefore);
+    assertEquals(2, jwtUtil.getClaimsCacheStats().hitCount() - hitsBefore);
+  }
+
+  /**
+   * Prueba que un token alterado no se acepte aunque un token válido similar esté en cache.
+   *
+   * <p>La clave de la cache es el resumen del token completo, por lo que cualquier cambio en la
+   * firma obliga a verificar de nuevo y falla.
+   */
+  @Test
+  void testTamperedTokenIsRejected() {
+    User user = new User("tampered", "password");
+    String token = jwtUtil.generateToken(user);
+    jwtUtil.parseAndVerify(token);
+
+    int pos = token.length() - 5;
+    char replacement = token.charAt(pos) == 'A' ? 'B' : 'A';
+    String tampered = token.substring(0, pos) + replacement + token.substring(pos + 1);
+
+    assertThrows(JwtException.class, () -> jwtUtil.parseAndVerify(tampered));
+  }
+
+  /**
+   * Prueba que las reclamaciones en cache expiren junto con el token según el reloj de la cache.
+   *
+   * <p>Con un reloj simulado, el token sigue en cache poco antes de su expiración y se vuelve a
+   * verificar poco después.
+   */
+  @Test
+  void testCachedClaimsExpireWithTheCacheTicker() {
+    AtomicLong nanos = new AtomicLong();
+    JwtUtil util = new JwtUtil();
+    ReflectionTestUtils.setField(util, "secret", "pruebaDeRelojConUnSecretoDeAlMenos32Caracteres");
+    ReflectionTestUtils.setField(util, "accessTokenValiditySeconds", 900L);
+    ReflectionTestUtils.setField(util, "cacheMaxSize", 10L);
+    ReflectionTestUtils.setField(util, "ticker", (Ticker) nanos::get);
+    util.init();
+    String token = util.generateToken(new User("reloj", "password"));
+
+    util.parseAndVerify(token);
+    nanos.addAndGet(TimeUnit.SECONDS.toNanos(898));
+    util.parseAndVerify(token);
+    assertEquals(1, util.getClaimsCacheStats().missCount());
+
+    nanos.addAndGet(TimeUnit.SECONDS.toNanos(4));
+    util.parseAndVerify(token);
+    assertEquals(2, util.getClaimsCacheStats().missCount());
+  }
 }
@@ -0,0 +1,75 @@
+package co.edu.unbosque.springfirstapp.security;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import co.edu.unbosque.springfirstapp.exception.LoginRateLimitedException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Clase de prueba para el limitador de intentos de inicio de sesión.
+ *
+ * <p>Esta clase verifica, con un reloj controlado, que se permita la ráfaga configurada, que los
+ * intentos se recuperen con el tiempo y que el límite por IP se aplique aunque cambie el usuario.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+class LoginRateLimiterTest {
+
+  /**
+   * Prueba que un mismo usuario pueda intentar tantas veces como la capacidad y que el siguiente
+   * intento se rechace con el tiempo de espera hasta recuperar uno.
+   */
+  @Test
+  void testUsernameBurstThenRetryAfter() {
+    AtomicLong now = new AtomicLong();
+    LoginRateLimiter limiter = new LoginRateLimiter(3, 6, 100, 600, 100, now::get);
+
+    for (int i = 0; i < 3; i++) {
+      assertDoesNotThrow(() -> limiter.acquire("admin", "10.0.0.1"));
+    }
+    LoginRateLimitedException e =
+        assertThrows(LoginRateLimitedException.class, () -> limiter.acquire("ADMIN", "10.0.0.2"));
+    assertEquals(10, e.getRetryAfterSeconds(), "6 intentos por minuto: uno cada 10 segundos");
+    assertEquals(1, limiter.getRejectedCount());
+
+    now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+    assertDoesNotThrow(() -> limiter.acquire("admin", "10.0.0.1"));
+    assertDoesNotThrow(() -> limiter.acquire("otro", "10.0.0.1"));
+  }
+
+  /** Prueba que una misma IP quede limitada aunque pruebe con usuarios distintos. */
+  @Test
+  void testIpLimitAcrossUsernames() {
+    AtomicLong now = new AtomicLong();
+    LoginRateLimiter limiter = new LoginRateLimiter(100, 600, 2, 60, 100, now::get);
+
+    limiter.acquire("a", "10.0.0.1");
+    limiter.acquire("b", "10.0.0.1");
+    assertThrows(LoginRateLimitedException.class, () -> limiter.acquire("c", "10.0.0.1"));
+    assertDoesNotThrow(() -> limiter.acquire("c", "10.0.0.2"));
+  }
+
+  /**
+   * Prueba que los intentos rechazados por el límite de usuario no consuman el límite de la IP, de
+   * modo que otros usuarios de la misma IP puedan seguir iniciando sesión.
+   */
+  @Test
+  void testUsernameRejectionDoesNotConsumeIp() {
+    AtomicLong now = new AtomicLong();
+    LoginRateLimiter limiter = new LoginRateLimiter(1, 1, 3, 1, 100, now::get);
+
+    limiter.acquire("bloqueado", "10.0.0.1");
+    for (int i = 0; i < 5; i++) {
+      assertThrows(
+          LoginRateLimitedException.class, () -> limiter.acquire("bloqueado", "10.0.0.1"));
+    }
+    assertDoesNotThrow(() -> limiter.acquire("a", "10.0.0.1"));
+    assertDoesNotThrow(() -> limiter.acquire("b", "10.0.0.1"));
+    assertThrows(LoginRateLimitedException.class, () -> limiter.acquire("c", "10.0.0.1"));
+  }
+}
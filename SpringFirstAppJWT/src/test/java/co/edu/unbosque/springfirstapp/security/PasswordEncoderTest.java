@@ -0,0 +1,91 @@
+package co.edu.unbosque.springfirstapp.security;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Clase de prueba para el codificador de contraseñas configurado en SecurityConfig.
+ *
+ * <p>Esta clase verifica que los hashes registren su algoritmo, que los hashes antiguos sigan
+ * siendo válidos y que se marquen para actualización los que usan un costo menor al configurado.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+@SpringBootTest(properties = "security.password.bcrypt-cost=5")
+class PasswordEncoderTest {
+
+  @Autowired private PasswordEncoder passwordEncoder;
+
+  /**
+   * Prueba que los hashes nuevos incluyan el algoritmo y el costo configurado, y que no requieran
+   * actualización.
+   */
+  @Test
+  void testNewHashesRecordAlgorithmAndCost() {
+    String hash = passwordEncoder.encode("Password123!");
+
+    assertTrue(hash.startsWith("{bcrypt}$2a$05$"), "El hash debe registrar algoritmo y costo");
+    assertTrue(passwordEncoder.matches("Password123!", hash));
+    assertFalse(passwordEncoder.upgradeEncoding(hash));
+  }
+
+  /**
+   * Prueba que un hash antiguo sin prefijo (como los creados por LoadDatabase antes del cambio)
+   * siga verificándose y se marque para actualización.
+   */
+  @Test
+  void testLegacyHashesStillMatchAndAreUpgraded() {
+    String legacy = new BCryptPasswordEncoder(4).encode("1234567890");
+
+    assertTrue(passwordEncoder.matches("1234567890", legacy));
+    assertTrue(passwordEncoder.upgradeEncoding(legacy));
+    assertTrue(passwordEncoder.upgradeEncoding("{bcrypt}" + legacy));
+  }
+
+  /**
+   * Prueba que los hashes de cualquier algoritmo soportado se verifiquen con el codificador
+   * configurado y se marquen para actualizarse a BCrypt.
+   */
+  @Test
+  void testOtherAlgorithmsMatchAndAreUpgraded() {
+    Map<String, PasswordEncoder> encoders = PasswordEncoders.encoders(5, 1024, 1, 1024);
+    for (String algorithm : encoders.keySet()) {
+      String hash = PasswordEncoders.delegating(algorithm, encoders).encode("Password123!");
+
+      assertTrue(hash.startsWith("{" + algorithm + "}"), "El hash debe registrar " + algorithm);
+      assertTrue(passwordEncoder.matches("Password123!", hash), algorithm);
+      assertFalse(passwordEncoder.matches("Otra123!", hash), algorithm);
+      assertTrue(
+          passwordEncoder.upgradeEncoding(hash) != PasswordEncoders.BCRYPT.equals(algorithm),
+          algorithm);
+    }
+  }
+
+  /** Prueba que un algoritmo desconocido se rechace al configurar el codificador. */
+  @Test
+  void testUnknownAlgorithmIsRejected() {
+    Map<String, PasswordEncoder> encoders = PasswordEncoders.encoders(4, 1024, 1, 1024);
+    assertThrows(
+        IllegalArgumentException.class, () -> PasswordEncoders.delegating("md5", encoders));
+  }
+
+  /** Prueba que el costo calibrado respete siempre los límites configurados. */
+  @Test
+  void testCalibrationStaysWithinBounds() {
+    int cost = BCryptCostCalibrator.calibrate(Duration.ofMillis(1), 4, 6);
+    assertTrue(cost >= 4 && cost <= 6, "El costo debe estar entre 4 y 6");
+
+    int generous = BCryptCostCalibrator.calibrate(Duration.ofSeconds(10), 4, 6);
+    assertTrue(generous == 6, "Con un presupuesto amplio debe usarse el costo máximo");
+  }
+}
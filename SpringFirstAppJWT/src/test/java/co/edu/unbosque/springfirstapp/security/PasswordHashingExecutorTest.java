@@ -0,0 +1,69 @@
+package co.edu.unbosque.springfirstapp.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import co.edu.unbosque.springfirstapp.exception.HashingCapacityExceededException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Clase de prueba para el ejecutor de hashing de contraseñas.
+ *
+ * <p>Esta clase verifica que el ejecutor rechace de inmediato el trabajo que excede su capacidad
+ * (hilos más cola) en lugar de bloquear al hilo que lo envía.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+class PasswordHashingExecutorTest {
+
+  /**
+   * Prueba que una tarea enviada con el grupo y la cola llenos se rechace con
+   * HashingCapacityExceededException.
+   *
+   * <p>Esta prueba: 1. Ocupa el único hilo del grupo 2. Llena la cola de una posición 3. Verifica
+   * que la siguiente tarea se rechace y que el contador de rechazos aumente
+   */
+  @Test
+  void testRejectsWhenSaturated() throws Exception {
+    PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch started = new CountDownLatch(1);
+    try {
+      CompletableFuture<String> running =
+          executor.submit(
+              () -> {
+                started.countDown();
+                await(release);
+                return "primera";
+              });
+      started.await();
+      CompletableFuture<String> queued = executor.submit(() -> "segunda");
+
+      assertThrows(HashingCapacityExceededException.class, () -> executor.submit(() -> "tercera"));
+      assertEquals(1, executor.getRejectedCount());
+
+      release.countDown();
+      assertEquals("primera", running.join());
+      assertEquals("segunda", queued.join());
+    } finally {
+      release.countDown();
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Espera a que se libere el cerrojo sin propagar la interrupción como excepción comprobada.
+   *
+   * @param latch Cerrojo a esperar
+   */
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package co.edu.unbosque.springfirstapp.security;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import co.edu.unbosque.springfirstapp.model.RevokedToken;
+import co.edu.unbosque.springfirstapp.repository.RevokedTokenRepository;
+import co.edu.unbosque.springfirstapp.util.BloomFilter;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Clase de prueba para la lista de tokens revocados.
+ *
+ * <p>Esta clase verifica que los tokens revocados se rechacen, que la reconstrucción del filtro
+ * purgue las revocaciones expiradas y que el filtro de Bloom respete la tasa de falsos positivos
+ * con la que se dimensiona.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+@SpringBootTest
+class TokenRevocationServiceTest {
+
+  @Autowired private TokenRevocationService tokenRevocationService;
+
+  @Autowired private RevokedTokenRepository revokedTokenRepository;
+
+  /**
+   * Prueba que un token revocado se detecte, también después de reconstruir el filtro, y que uno
+   * no revocado no.
+   */
+  @Test
+  void testRevokedTokenIsDetected() {
+    String revoked = UUID.randomUUID().toString();
+    String other = UUID.randomUUID().toString();
+
+    tokenRevocationService.revoke(revoked, Instant.now().plus(1, ChronoUnit.HOURS));
+
+    assertTrue(tokenRevocationService.isRevoked(revoked));
+    assertFalse(tokenRevocationService.isRevoked(other));
+    tokenRevocationService.rebuild();
+    assertTrue(tokenRevocationService.isRevoked(revoked));
+  }
+
+  /** Prueba que la reconstrucción elimine las revocaciones de tokens ya expirados. */
+  @Test
+  void testRebuildPurgesExpired() {
+    String expired = UUID.randomUUID().toString();
+    revokedTokenRepository.save(new RevokedToken(expired, Instant.now().minusSeconds(1)));
+
+    tokenRevocationService.rebuild();
+
+    assertFalse(revokedTokenRepository.existsById(expired));
+    assertFalse(tokenRevocationService.isRevoked(expired));
+  }
+
+  /**
+   * Prueba que el filtro de Bloom no dé falsos negativos y que su tasa de falsos positivos quede
+   * cerca de la configurada.
+   */
+  @Test
+  void testBloomFilterFalsePositiveRate() {
+    BloomFilter filter = new BloomFilter(10_000, 0.01);
+    for (int i = 0; i < 10_000; i++) {
+      filter.put("revocado-" + i);
+    }
+    for (int i = 0; i < 10_000; i++) {
+      assertTrue(filter.mightContain("revocado-" + i), "Un filtro de Bloom no da falsos negativos");
+    }
+    int falsePositives = 0;
+    for (int i = 0; i < 100_000; i++) {
+      if (filter.mightContain("vigente-" + i)) {
+        falsePositives++;
+      }
+    }
+    double rate = falsePositives / 100_000.0;
+    assertTrue(rate < 0.02, "Tasa de falsos positivos observada: " + rate);
+    assertTrue(filter.expectedFalsePositiveRate() < 0.02);
+    long estimated = filter.approximateElementCount();
+    assertTrue(estimated > 9_000 && estimated < 11_000, "Elementos estimados: " + estimated);
+  }
+}
@@ -0,0 +1,90 @@
+package co.edu.unbosque.springfirstapp.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import co.edu.unbosque.springfirstapp.model.User;
+import co.edu.unbosque.springfirstapp.model.User.Role;
+import co.edu.unbosque.springfirstapp.repository.UserRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Clase de prueba para el servicio de detalles de usuario.
+ *
+ * <p>Esta clase verifica la actualización de hashes desactualizados: que no falle si otros datos
+ * del usuario cambiaron desde que se cargó y que no sobrescriba una contraseña cambiada entretanto.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+@SpringBootTest
+class UserDetailsServiceImplTest {
+
+  @Autowired private UserDetailsServiceImpl userDetailsService;
+
+  @Autowired private UserRepository userRepository;
+
+  /** Usuarios creados por la prueba actual. */
+  private final List<User> created = new ArrayList<>();
+
+  /** Borra los usuarios creados por la prueba. */
+  @AfterEach
+  void deleteCreatedUsers() {
+    created.forEach(user -> userRepository.deleteById(user.getId()));
+    created.clear();
+  }
+
+  /** Prueba que el hash se actualice sin cambiar la versión aunque la fila cambió entretanto. */
+  @Test
+  void testUpgradeIgnoresConcurrentUpdates() {
+    User saved = save("hash-anterior");
+    UserDetails loaded = userDetailsService.loadUserByUsername(saved.getUsername());
+    User concurrent = userRepository.findById(saved.getId()).get();
+    concurrent.setRole(Role.ADMIN);
+    long version = userRepository.save(concurrent).getVersion();
+
+    UserDetails upgraded = userDetailsService.updatePassword(loaded, "hash-nuevo");
+
+    User stored = userRepository.findByUsername(saved.getUsername()).get();
+    assertEquals("hash-nuevo", upgraded.getPassword());
+    assertEquals("hash-nuevo", stored.getPassword());
+    assertEquals(Role.ADMIN, stored.getRole());
+    assertEquals(version, stored.getVersion());
+  }
+
+  /** Prueba que no se sobrescriba una contraseña cambiada después de cargar el usuario. */
+  @Test
+  void testUpgradeSkipsChangedPassword() {
+    User saved = save("hash-anterior");
+    UserDetails loaded = userDetailsService.loadUserByUsername(saved.getUsername());
+    User changed = userRepository.findById(saved.getId()).get();
+    changed.setPassword("hash-cambiado");
+    changed.setTokenVersion(changed.getTokenVersion() + 1);
+    userRepository.save(changed);
+
+    UserDetails result = userDetailsService.updatePassword(loaded, "hash-nuevo");
+
+    assertSame(loaded, result);
+    assertEquals(
+        "hash-cambiado", userRepository.findByUsername(saved.getUsername()).get().getPassword());
+  }
+
+  /**
+   * Guarda un usuario de prueba.
+   *
+   * @param password Hash de la contraseña
+   * @return Usuario guardado
+   */
+  private User save(String password) {
+    User user = userRepository.save(new User("hash-" + UUID.randomUUID(), password));
+    created.add(user);
+    return user;
+  }
+}
@@ -0,0 +1,79 @@
+package co.edu.unbosque.springfirstapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import co.edu.unbosque.springfirstapp.model.User;
+import co.edu.unbosque.springfirstapp.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Clase de prueba para la migración en segundo plano del cifrado de columnas.
+ *
+ * <p>Esta clase verifica que la contraseña se guarde cifrada en la base de datos y que la tarea
+ * migre los valores en texto plano anteriores al cifrado sin cambiar el valor que ve la entidad.
+ * Usa la base H2 en memoria y la clave de prueba de la configuración de pruebas.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+@SpringBootTest
+class FieldReEncryptionServiceTest {
+
+  @Autowired private FieldReEncryptionService reEncryptionService;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  /** Identificador del usuario creado por la prueba. */
+  private Long createdId;
+
+  /** Borra el usuario creado por la prueba. */
+  @AfterEach
+  void deleteCreatedUser() {
+    if (createdId != null) {
+      userRepository.deleteById(createdId);
+    }
+  }
+
+  /** Prueba que un valor en texto plano se migre a la clave activa. */
+  @Test
+  void testLegacyPlaintextIsReEncrypted() {
+    User user =
+        userRepository.save(new User("cifrado-" + UUID.randomUUID(), "{bcrypt}$2a$10$hash"));
+    createdId = user.getId();
+    assertTrue(storedPassword(user.getId()).startsWith("enc:"), "Debe guardarse cifrada");
+
+    jdbcTemplate.update(
+        "update useraccount set password = ? where id = ?", "{bcrypt}$2a$10$legado", user.getId());
+    // La sentencia no pasa por Hibernate: se descarta el usuario de la cache de segundo nivel
+    entityManagerFactory.getCache().evict(User.class, user.getId());
+    assertEquals("{bcrypt}$2a$10$legado", userRepository.findById(user.getId()).get().getPassword());
+
+    assertTrue(reEncryptionService.reEncryptAll() >= 1);
+
+    assertTrue(storedPassword(user.getId()).startsWith("enc:"));
+    assertEquals("{bcrypt}$2a$10$legado", userRepository.findById(user.getId()).get().getPassword());
+    assertEquals(0, reEncryptionService.reEncryptAll(), "Una segunda pasada no debe cambiar nada");
+  }
+
+  /**
+   * Lee el valor almacenado de la contraseña sin pasar por el convertidor.
+   *
+   * @param id Identificador del usuario
+   * @return Valor almacenado
+   */
+  private String storedPassword(Long id) {
+    return jdbcTemplate.queryForObject(
+        "select password from useraccount where id = ?", String.class, id);
+  }
+}
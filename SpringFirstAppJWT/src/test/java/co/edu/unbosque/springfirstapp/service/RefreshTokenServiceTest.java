@@ -0,0 +1,101 @@
+package co.edu.unbosque.springfirstapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import co.edu.unbosque.springfirstapp.exception.InvalidRefreshTokenException;
+import co.edu.unbosque.springfirstapp.model.User;
+import co.edu.unbosque.springfirstapp.repository.RefreshTokenRepository;
+import co.edu.unbosque.springfirstapp.repository.UserRepository;
+import co.edu.unbosque.springfirstapp.service.RefreshTokenService.Rotation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Clase de prueba para el servicio de tokens de actualización.
+ *
+ * <p>Esta clase verifica la rotación de los tokens, la detección de reutilización (que revoca toda
+ * la familia) y el rechazo de los tokens de usuarios cuyas credenciales cambiaron.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+@SpringBootTest
+class RefreshTokenServiceTest {
+
+  @Autowired private RefreshTokenService refreshTokenService;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private RefreshTokenRepository refreshTokenRepository;
+
+  /** Identificadores de los usuarios creados por la prueba actual. */
+  private final List<Long> createdIds = new ArrayList<>();
+
+  /** Borra los tokens y los usuarios creados por la prueba. */
+  @AfterEach
+  void deleteCreatedUsers() {
+    refreshTokenRepository.deleteAll(
+        refreshTokenRepository.findAll().stream()
+            .filter(token -> createdIds.contains(token.getUserId()))
+            .toList());
+    userRepository.deleteAllById(createdIds);
+    createdIds.clear();
+  }
+
+  /** Prueba que cada renovación entregue un token nuevo y devuelva al usuario dueño. */
+  @Test
+  void testRotationIssuesNewToken() {
+    User user = saveUser();
+    String first = refreshTokenService.issue(user);
+
+    Rotation rotation = refreshTokenService.rotate(first);
+
+    assertNotNull(rotation.getRefreshToken());
+    assertNotEquals(first, rotation.getRefreshToken());
+    assertEquals(user.getUsername(), rotation.getUser().getUsername());
+  }
+
+  /**
+   * Prueba que reutilizar un token ya rotado revoque la familia completa, incluido el token
+   * legítimo emitido en la rotación.
+   */
+  @Test
+  void testReuseRevokesFamily() {
+    String first = refreshTokenService.issue(saveUser());
+    String second = refreshTokenService.rotate(first).getRefreshToken();
+
+    assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(first));
+    assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(second));
+  }
+
+  /** Prueba que un cambio de credenciales (versión de tokens) invalide los tokens emitidos. */
+  @Test
+  void testCredentialChangeRejectsToken() {
+    User user = saveUser();
+    String token = refreshTokenService.issue(user);
+    user.setTokenVersion(user.getTokenVersion() + 1);
+    userRepository.save(user);
+
+    assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(token));
+    assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate("desconocido"));
+  }
+
+  /**
+   * Guarda un usuario de prueba con un nombre único.
+   *
+   * @return Usuario guardado con su identificador
+   */
+  private User saveUser() {
+    User user = userRepository.save(new User("refresh-" + UUID.randomUUID(), "password"));
+    createdIds.add(user.getId());
+    return user;
+  }
+}
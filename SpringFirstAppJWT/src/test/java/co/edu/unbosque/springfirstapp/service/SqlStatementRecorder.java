@@ -0,0 +1,58 @@
+package co.edu.unbosque.springfirstapp.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Registra las consultas SQL que ejecuta Hibernate, para las pruebas que verifican qué columnas se
+ * leen. Se activa con la propiedad {@code hibernate.session_factory.statement_inspector}.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+public class SqlStatementRecorder implements StatementInspector {
+
+  /** Propiedad que activa las estadísticas de Hibernate. */
+  static final String STATISTICS = "spring.jpa.properties.hibernate.generate_statistics=true";
+
+  /** Propiedad que activa este registro. */
+  static final String INSPECTOR =
+      "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+          + "co.edu.unbosque.springfirstapp.service.SqlStatementRecorder";
+
+  /** Consultas registradas. */
+  private static final List<String> STATEMENTS = new ArrayList<>();
+
+  @Override
+  public String inspect(String sql) {
+    synchronized (STATEMENTS) {
+      STATEMENTS.add(sql);
+    }
+    return sql;
+  }
+
+  /** Olvida las consultas registradas. */
+  static void clear() {
+    synchronized (STATEMENTS) {
+      STATEMENTS.clear();
+    }
+  }
+
+  /**
+   * Obtiene la última consulta sobre la tabla de usuarios.
+   *
+   * @return Consulta SQL en minúsculas
+   */
+  static String lastSelect() {
+    synchronized (STATEMENTS) {
+      for (int i = STATEMENTS.size() - 1; i >= 0; i--) {
+        String sql = STATEMENTS.get(i).toLowerCase();
+        if (sql.startsWith("select") && sql.contains("useraccount")) {
+          return sql;
+        }
+      }
+    }
+    return "";
+  }
+}
@@ -0,0 +1,106 @@
+package co.edu.unbosque.springfirstapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import co.edu.unbosque.springfirstapp.dto.BulkUserResultDTO;
+import co.edu.unbosque.springfirstapp.dto.BulkUserResultDTO.Status;
+import co.edu.unbosque.springfirstapp.dto.UserDTO;
+import co.edu.unbosque.springfirstapp.model.User;
+import co.edu.unbosque.springfirstapp.model.User.Role;
+import co.edu.unbosque.springfirstapp.repository.UserRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Clase de prueba para la creación masiva de usuarios.
+ *
+ * <p>Esta clase verifica el resultado de cada elemento (creados, duplicados e inválidos) y que los
+ * usuarios insertados por lotes JDBC se lean igual que los guardados por JPA, con la contraseña
+ * cifrada y verificable.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+@SpringBootTest(properties = "users.bulk.batch-size=16")
+class UserBulkServiceTest {
+
+  @Autowired private UserBulkService bulkService;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private PasswordEncoder passwordEncoder;
+
+  /** Prefijo de los nombres de los usuarios creados por la prueba actual. */
+  private final String prefix = "bloque-" + UUID.randomUUID() + "-";
+
+  /** Borra los usuarios creados por la prueba. */
+  @AfterEach
+  void deleteCreatedUsers() {
+    userRepository.deleteAll(
+        userRepository.findAll().stream()
+            .filter(user -> user.getUsername().startsWith(prefix))
+            .toList());
+  }
+
+  /** Prueba los resultados por elemento de una solicitud mixta. */
+  @Test
+  void testPerItemResults() {
+    userRepository.save(new User(prefix + "existente", "x"));
+    List<UserDTO> users = new ArrayList<>();
+    users.add(new UserDTO(prefix + "uno", "clave-uno"));
+    users.add(new UserDTO(prefix + "existente", "clave"));
+    users.add(new UserDTO(prefix + "uno", "otra"));
+    users.add(new UserDTO("", "clave"));
+    users.add(new UserDTO(prefix + "admin", "clave-admin", Role.ADMIN));
+    users.add(new UserDTO(prefix + "sin-clave", null));
+
+    List<BulkUserResultDTO> results = bulkService.createAll(users).join();
+
+    assertEquals(users.size(), results.size());
+    assertEquals(
+        List.of(
+            Status.CREATED,
+            Status.DUPLICATE,
+            Status.DUPLICATE,
+            Status.INVALID,
+            Status.CREATED,
+            Status.INVALID),
+        results.stream().map(BulkUserResultDTO::getStatus).toList());
+    for (int i = 0; i < results.size(); i++) {
+      assertEquals(i, results.get(i).getIndex());
+    }
+    assertNotNull(results.get(0).getId());
+    assertNull(results.get(1).getId());
+
+    User created = userRepository.findById(results.get(0).getId()).get();
+    assertEquals(prefix + "uno", created.getUsername());
+    assertEquals(Role.USER, created.getRole());
+    assertTrue(passwordEncoder.matches("clave-uno", created.getPassword()));
+    assertEquals(Role.ADMIN, userRepository.findById(results.get(4).getId()).get().getRole());
+  }
+
+  /** Prueba una solicitud que ocupa varios lotes de inserciones. */
+  @Test
+  void testManyUsersAcrossBatches() {
+    List<UserDTO> users = new ArrayList<>();
+    for (int i = 0; i < 40; i++) {
+      users.add(new UserDTO(prefix + i, "clave"));
+    }
+    long before = userRepository.count();
+
+    List<BulkUserResultDTO> results = bulkService.createAll(users).join();
+
+    assertTrue(results.stream().allMatch(result -> result.getStatus() == Status.CREATED));
+    assertTrue(results.stream().allMatch(result -> result.getId() != null));
+    assertEquals(before + users.size(), userRepository.count());
+  }
+}
@@ -0,0 +1,106 @@
+package co.edu.unbosque.springfirstapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import co.edu.unbosque.springfirstapp.model.User;
+import co.edu.unbosque.springfirstapp.repository.UserRepository;
+import co.edu.unbosque.springfirstapp.service.UserExportService.Format;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Clase de prueba para la exportación de usuarios.
+ *
+ * <p>Esta clase verifica que las exportaciones NDJSON y CSV incluyan a todos los usuarios, escapen
+ * correctamente los valores especiales y nunca incluyan la contraseña.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+@SpringBootTest
+class UserExportServiceTest {
+
+  @Autowired private UserExportService exportService;
+
+  @Autowired private UserRepository userRepository;
+
+  /** Usuarios creados por la prueba actual. */
+  private final List<User> created = new ArrayList<>();
+
+  /** Borra los usuarios creados por la prueba. */
+  @AfterEach
+  void deleteCreatedUsers() {
+    userRepository.deleteAll(created);
+    created.clear();
+  }
+
+  /** Prueba que cada línea NDJSON sea un usuario válido sin contraseña. */
+  @Test
+  void testNdjsonExport() throws Exception {
+    String special = "con \"comillas\", comas\n" + UUID.randomUUID();
+    created.add(userRepository.save(new User(special, "{bcrypt}secreto")));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    long count = exportService.export(Format.NDJSON, out);
+
+    String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(userRepository.count(), count);
+    assertEquals(count, lines.length);
+    ObjectMapper mapper = new ObjectMapper();
+    boolean found = false;
+    for (String line : lines) {
+      assertTrue(line.startsWith("{\"id\":"), line);
+      JsonNode node = mapper.readTree(line);
+      assertFalse(node.has("password"));
+      found |= special.equals(node.get("username").asText());
+    }
+    assertTrue(found, "El nombre con caracteres especiales debe conservarse");
+  }
+
+  /** Prueba el encabezado CSV y que no se exporte la contraseña. */
+  @Test
+  void testCsvExport() throws Exception {
+    created.add(userRepository.save(new User("csv-" + UUID.randomUUID(), "{bcrypt}secreto")));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    long count = exportService.export(Format.CSV, out);
+
+    String csv = out.toString(StandardCharsets.UTF_8);
+    assertTrue(csv.startsWith("id,username,role\r\n"));
+    assertEquals(count + 1, csv.split("\r\n").length);
+    assertFalse(csv.contains("secreto"));
+  }
+
+  /** Prueba el escape de campos CSV y la neutralización de fórmulas. */
+  @Test
+  void testCsvFieldEscaping() throws Exception {
+    assertEquals("simple", csvField("simple"));
+    assertEquals("\"a,b\"", csvField("a,b"));
+    assertEquals("\"di \"\"hola\"\"\"", csvField("di \"hola\""));
+    assertEquals("'=1+1", csvField("=1+1"));
+  }
+
+  /**
+   * Escribe un campo CSV en una cadena.
+   *
+   * @param value Valor del campo
+   * @return Campo escrito
+   */
+  private static String csvField(String value) throws Exception {
+    StringWriter writer = new StringWriter();
+    UserExportService.writeCsvField(writer, value);
+    return writer.toString();
+  }
+}
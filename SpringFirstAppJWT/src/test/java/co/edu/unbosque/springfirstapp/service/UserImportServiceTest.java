@@ -0,0 +1,286 @@
+package co.edu.unbosque.springfirstapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import co.edu.unbosque.springfirstapp.dto.BulkUserResultDTO;
+import co.edu.unbosque.springfirstapp.dto.BulkUserResultDTO.Status;
+import co.edu.unbosque.springfirstapp.dto.UserImportJobDTO;
+import co.edu.unbosque.springfirstapp.exception.ImportCapacityExceededException;
+import co.edu.unbosque.springfirstapp.model.User;
+import co.edu.unbosque.springfirstapp.model.User.Role;
+import co.edu.unbosque.springfirstapp.repository.UserRepository;
+import co.edu.unbosque.springfirstapp.service.UserExportService.Format;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Clase de prueba para la importación de usuarios desde archivos.
+ *
+ * <p>Esta clase verifica la lectura de CSV y NDJSON, el conteo de filas creadas, duplicadas e
+ * inválidas a lo largo de varios bloques, que los registros demasiado largos se omitan, que se
+ * rechacen las importaciones que exceden la cola y que el estado de la importación refleje el
+ * resultado.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+@SpringBootTest(
+    properties = {
+      "users.bulk.batch-size=16",
+      "users.import.chunk-size=3",
+      "users.import.max-record-length=200"
+    })
+class UserImportServiceTest {
+
+  @Autowired private UserImportService importService;
+
+  @Autowired private UserRepository userRepository;
+
+  /** Prefijo de los nombres de los usuarios creados por la prueba actual. */
+  private final String p = "importado-" + UUID.randomUUID() + "-";
+
+  /** Borra los usuarios creados por la prueba. */
+  @AfterEach
+  void deleteCreatedUsers() {
+    userRepository.deleteAll(
+        userRepository.findAll().stream()
+            .filter(user -> user.getUsername().startsWith(p))
+            .toList());
+  }
+
+  /** Prueba una importación CSV con filas válidas, duplicadas e inválidas en varios bloques. */
+  @Test
+  void testCsvImport() throws Exception {
+    userRepository.save(new User(p + "existente", "x"));
+    String csv =
+        "\uFEFFrole,password,username\r\n"
+            + "ADMIN,clave,"
+            + p
+            + "admin\r\n"
+            + ",\"con,coma\",\""
+            + p
+            + "comillas\"\r\n"
+            + "\r\n"
+            + "USER,clave,"
+            + p
+            + "existente\r\n"
+            + "USER,clave,<script>\r\n"
+            + "JEFE,clave,"
+            + p
+            + "rol\r\n"
+            + "USER,clave,"
+            + p
+            + "admin\r\n"
+            + "USER,clave\r\n"
+            + "user,clave,"
+            + p
+            + "minusculas\r\n";
+
+    UserImportJobDTO job = awaitFinished(importService.submit(Format.CSV, upload(csv)));
+
+    assertEquals(UserImportJobDTO.Status.COMPLETED, job.getStatus());
+    assertNull(job.getError());
+    assertEquals(8, job.getRows());
+    assertEquals(3, job.getCreated());
+    assertEquals(2, job.getDuplicates());
+    assertEquals(3, job.getInvalid());
+    assertEquals(
+        List.of(3, 4, 5, 6, 7),
+        job.getRejected().stream().map(BulkUserResultDTO::getIndex).sorted().toList());
+    assertEquals(Role.ADMIN, userRepository.findByUsername(p + "admin").get().getRole());
+    assertTrue(userRepository.findByUsername(p + "comillas").isPresent());
+    assertEquals(Role.USER, userRepository.findByUsername(p + "minusculas").get().getRole());
+    assertNotNull(job.getFinishedAt());
+  }
+
+  /** Prueba una importación NDJSON con una línea mal formada. */
+  @Test
+  void testNdjsonImport() throws Exception {
+    String ndjson =
+        "{\"username\":\""
+            + p
+            + "uno\",\"password\":\"clave\"}\n"
+            + "{\"username\":\n"
+            + "\n"
+            + "{\"username\":\""
+            + p
+            + "dos\",\"password\":\"clave\",\"role\":\"ADMIN\"}\n"
+            + "{\"username\":\""
+            + p
+            + "tres\",\"password\":\"\"}\n";
+
+    UserImportJobDTO job = awaitFinished(importService.submit(Format.NDJSON, upload(ndjson)));
+
+    assertEquals(UserImportJobDTO.Status.COMPLETED, job.getStatus());
+    assertEquals(4, job.getRows());
+    assertEquals(2, job.getCreated());
+    assertEquals(2, job.getInvalid());
+    assertEquals(Status.INVALID, job.getRejected().get(0).getStatus());
+    assertEquals(Role.ADMIN, userRepository.findByUsername(p + "dos").get().getRole());
+    assertFalse(userRepository.findByUsername(p + "tres").isPresent());
+  }
+
+  /** Prueba que un CSV sin las columnas obligatorias detenga la importación con un error. */
+  @Test
+  void testCsvWithoutRequiredColumnsFails() throws Exception {
+    Path file = upload("nombre,clave\nuno,dos\n");
+
+    UserImportJobDTO job = awaitFinished(importService.submit(Format.CSV, file));
+
+    assertEquals(UserImportJobDTO.Status.FAILED, job.getStatus());
+    assertNotNull(job.getError());
+    assertEquals(0, job.getRows());
+    assertFalse(Files.exists(file));
+  }
+
+  /** Prueba la lectura de registros CSV con comillas, separadores y saltos de línea. */
+  @Test
+  void testReadCsvRecord() throws IOException {
+    StringReader reader = new StringReader("a,\"b,c\",\"d\"\"e\"\r\n\"f\ng\",\nh");
+
+    assertEquals(List.of("a", "b,c", "d\"e"), UserImportService.readCsvRecord(reader, 100));
+    assertEquals(List.of("f\ng", ""), UserImportService.readCsvRecord(reader, 100));
+    assertEquals(List.of("h"), UserImportService.readCsvRecord(reader, 100));
+    assertNull(UserImportService.readCsvRecord(reader, 100));
+  }
+
+  /**
+   * Prueba que un registro CSV más largo que el máximo se descarte completo, incluidos sus saltos
+   * de línea entre comillas, y que la lectura siga en el registro siguiente.
+   */
+  @Test
+  void testReadCsvRecordOversized() throws IOException {
+    StringReader reader = new StringReader("abc,\"de\nfg\",hi\nok,1\n");
+
+    assertSame(UserImportService.OVERSIZED, UserImportService.readCsvRecord(reader, 8));
+    assertEquals(List.of("ok", "1"), UserImportService.readCsvRecord(reader, 8));
+    assertNull(UserImportService.readCsvRecord(reader, 8));
+  }
+
+  /** Prueba que las filas CSV y NDJSON demasiado largas se omitan como inválidas. */
+  @Test
+  void testOversizedRecordsAreRejected() throws Exception {
+    String longPassword = "x".repeat(300);
+    String csv =
+        "username,password\n" + p + "largo," + longPassword + "\n" + p + "corto,clave\n";
+    String ndjson =
+        "{\"username\":\""
+            + p
+            + "largo2\",\"password\":\""
+            + longPassword
+            + "\"}\n"
+            + "{\"username\":\""
+            + p
+            + "corto2\",\"password\":\"clave\"}\n";
+
+    for (UserImportJobDTO job :
+        List.of(
+            awaitFinished(importService.submit(Format.CSV, upload(csv))),
+            awaitFinished(importService.submit(Format.NDJSON, upload(ndjson))))) {
+      assertEquals(UserImportJobDTO.Status.COMPLETED, job.getStatus());
+      assertEquals(2, job.getRows());
+      assertEquals(1, job.getCreated());
+      assertEquals(1, job.getInvalid());
+      assertEquals(1, job.getRejected().get(0).getIndex());
+    }
+    assertFalse(userRepository.findByUsername(p + "largo").isPresent());
+    assertTrue(userRepository.findByUsername(p + "corto2").isPresent());
+  }
+
+  /**
+   * Prueba que, con el hilo de lectura ocupado y la cola llena, una nueva importación se rechace y
+   * su archivo se elimine.
+   */
+  @Test
+  void testImportsBeyondQueueAreRejected() throws Exception {
+    UserBulkService bulkService = mock(UserBulkService.class);
+    CompletableFuture<List<BulkUserResultDTO>> pending = new CompletableFuture<>();
+    when(bulkService.createAll(anyList(), any(Executor.class))).thenReturn(pending);
+    UserImportService service =
+        new UserImportService(bulkService, new ObjectMapper(), 1, 1, 200, 1, 1, 60);
+    String rows = "{\"username\":\"a\",\"password\":\"b\"}\n".repeat(2);
+    UserImportJobDTO running = service.submit(Format.NDJSON, upload(rows));
+    UserImportJobDTO queued = service.submit(Format.NDJSON, upload(rows));
+    try {
+      Path rejected = upload(rows);
+
+      assertThrows(
+          ImportCapacityExceededException.class, () -> service.submit(Format.NDJSON, rejected));
+      assertFalse(Files.exists(rejected));
+      assertNotNull(service.getJob(running.getId()));
+      assertNotNull(service.getJob(queued.getId()));
+    } finally {
+      pending.complete(List.of());
+      for (UserImportJobDTO job : List.of(running, queued)) {
+        assertEquals(UserImportJobDTO.Status.COMPLETED, awaitFinished(service, job).getStatus());
+      }
+      service.shutdown();
+    }
+  }
+
+  /**
+   * Escribe el contenido en un archivo temporal, como lo haría el controlador con el archivo
+   * recibido.
+   *
+   * @param content Contenido del archivo
+   * @return Ruta del archivo
+   * @throws IOException Si falla la escritura
+   */
+  private static Path upload(String content) throws IOException {
+    Path file = Files.createTempFile("user-import-test", ".upload");
+    Files.writeString(file, content, StandardCharsets.UTF_8);
+    return file;
+  }
+
+  /**
+   * Espera a que la importación termine.
+   *
+   * @param job Estado inicial de la importación
+   * @return Estado final
+   * @throws InterruptedException Si se interrumpe la espera
+   */
+  private UserImportJobDTO awaitFinished(UserImportJobDTO job) throws InterruptedException {
+    return awaitFinished(importService, job);
+  }
+
+  /**
+   * Espera a que una importación de un servicio termine.
+   *
+   * @param service Servicio de importación
+   * @param job Estado inicial de la importación
+   * @return Estado final
+   * @throws InterruptedException Si se interrumpe la espera
+   */
+  private static UserImportJobDTO awaitFinished(UserImportService service, UserImportJobDTO job)
+      throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 60_000;
+    UserImportJobDTO current = job;
+    while (current.getFinishedAt() == null && System.currentTimeMillis() < deadline) {
+      Thread.sleep(50);
+      current = service.getJob(job.getId());
+    }
+    return current;
+  }
+}
@@ -0,0 +1,171 @@
+package co.edu.unbosque.springfirstapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import co.edu.unbosque.springfirstapp.dto.UserDTO;
+import co.edu.unbosque.springfirstapp.dto.UserMapper;
+import co.edu.unbosque.springfirstapp.model.User;
+import co.edu.unbosque.springfirstapp.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Clase de prueba para las consultas de lectura de usuarios por proyección.
+ *
+ * <p>Esta clase compara, con las estadísticas de Hibernate y el SQL generado, la lectura anterior
+ * (entidades completas convertidas a DTO) con las consultas que crean los DTOs directamente: estas
+ * no cargan entidades, seleccionan 4 columnas en lugar de todas (sin la contraseña) y asignan menos
+ * memoria. También verifica que la consulta por identificador se atienda desde la cache de segundo
+ * nivel.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+@SpringBootTest(properties = {SqlStatementRecorder.STATISTICS, SqlStatementRecorder.INSPECTOR})
+class UserReadProjectionTest {
+
+  /** Número mínimo de usuarios en la tabla durante las pruebas. */
+  private static final int USERS = 300;
+
+  @Autowired private UserService userService;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  /** Prefijo de los nombres de los usuarios creados por la prueba actual. */
+  private final String prefix = "proyeccion-" + UUID.randomUUID() + "-";
+
+  /** Borra los usuarios creados por la prueba. */
+  @AfterEach
+  void deleteCreatedUsers() {
+    userRepository.deleteAll(
+        userRepository.findAll().stream()
+            .filter(user -> user.getUsername().startsWith(prefix))
+            .toList());
+  }
+
+  /** Prueba que el listado no cargue entidades, no lea la contraseña y asigne menos memoria. */
+  @Test
+  void testGetAllUsesProjection() {
+    seed();
+    Statistics statistics = statistics();
+    Supplier<List<UserDTO>> entities =
+        () -> userRepository.findAll().stream().map(UserMapper::toDTO).toList();
+    Supplier<List<UserDTO>> projection = () -> userService.getAll();
+    // Calentar ambas rutas para no medir la compilación de las consultas
+    entities.get();
+    projection.get();
+
+    statistics.clear();
+    SqlStatementRecorder.clear();
+    long entityBytes = allocatedBytes(entities);
+    long loadedEntities = statistics.getEntityLoadCount();
+    String entitySql = SqlStatementRecorder.lastSelect();
+
+    statistics.clear();
+    SqlStatementRecorder.clear();
+    long projectionBytes = allocatedBytes(projection);
+    String projectionSql = SqlStatementRecorder.lastSelect();
+    List<UserDTO> users = projection.get();
+
+    assertTrue(loadedEntities >= USERS);
+    assertEquals(0, statistics.getEntityLoadCount());
+    assertEquals(new HashSet<>(entities.get()), new HashSet<>(users));
+    assertTrue(users.stream().allMatch(user -> user.getPassword() == null));
+    assertTrue(entitySql.contains("password"));
+    assertFalse(projectionSql.contains("password"));
+    assertEquals(4, selectedColumns(projectionSql));
+    assertTrue(selectedColumns(entitySql) > 4);
+    assertTrue(
+        projectionBytes < entityBytes,
+        () -> "Bytes asignados: proyección " + projectionBytes + ", entidades " + entityBytes);
+  }
+
+  /**
+   * Prueba que la consulta por identificador, ya en la cache, no ejecute SQL ni exponga la
+   * contraseña, y que solo la carga inicial se mida.
+   */
+  @Test
+  void testWarmGetByIdIssuesNoSql() {
+    User saved = userRepository.save(new User(prefix + UUID.randomUUID(), "clave"));
+    entityManagerFactory.getCache().evict(User.class, saved.getId());
+    Timer loads = meterRegistry.timer(UserService.LOAD_METRIC);
+    long coldLoads = loads.count();
+    userService.getById(saved.getId());
+    assertEquals(coldLoads + 1, loads.count());
+
+    Statistics statistics = statistics();
+    statistics.clear();
+    UserDTO found = userService.getById(saved.getId());
+
+    assertEquals(0, statistics.getPrepareStatementCount());
+    assertEquals(coldLoads + 1, loads.count());
+    assertEquals(saved.getUsername(), found.getUsername());
+    assertEquals(saved.getRole(), found.getRole());
+    assertEquals(saved.getVersion(), found.getVersion());
+    assertNull(found.getPassword());
+    assertNull(userService.getById(-1L));
+  }
+
+  /** Agrega usuarios hasta tener al menos {@link #USERS}. */
+  private void seed() {
+    List<User> users = new ArrayList<>();
+    for (long i = userRepository.count(); i < USERS; i++) {
+      users.add(new User(prefix + i, "{bcrypt}$2a$10$hash"));
+    }
+    userRepository.saveAll(users);
+  }
+
+  /**
+   * Obtiene las estadísticas de Hibernate.
+   *
+   * @return Estadísticas de la fábrica de sesiones
+   */
+  private Statistics statistics() {
+    return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  /**
+   * Mide los bytes asignados por el hilo actual al ejecutar una lectura.
+   *
+   * @param read Lectura a medir
+   * @return Bytes asignados
+   */
+  private static long allocatedBytes(Supplier<?> read) {
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long before = threads.getCurrentThreadAllocatedBytes();
+    read.get();
+    return threads.getCurrentThreadAllocatedBytes() - before;
+  }
+
+  /**
+   * Cuenta las columnas de la lista de selección de una consulta.
+   *
+   * @param sql Consulta SQL
+   * @return Número de columnas seleccionadas
+   */
+  private static int selectedColumns(String sql) {
+    String columns = sql.substring("select".length(), sql.indexOf(" from "));
+    return columns.split(",").length;
+  }
+}
@@ -0,0 +1,147 @@
+package co.edu.unbosque.springfirstapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import co.edu.unbosque.springfirstapp.dto.UserDTO;
+import co.edu.unbosque.springfirstapp.dto.UserPageDTO;
+import co.edu.unbosque.springfirstapp.dto.UserSummary;
+import co.edu.unbosque.springfirstapp.exception.InvalidPageRequestException;
+import co.edu.unbosque.springfirstapp.model.User;
+import co.edu.unbosque.springfirstapp.model.User.Role;
+import co.edu.unbosque.springfirstapp.repository.UserRepository;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort.Direction;
+
+/**
+ * Clase de prueba para el servicio de usuarios.
+ *
+ * <p>Esta clase verifica el listado por cursor: que recorrer todas las páginas entregue cada
+ * usuario exactamente una vez en el orden pedido, que el cursor conserve el filtro por rol y que se
+ * rechacen cursores y órdenes inválidos. También verifica que las consultas no expongan la
+ * contraseña.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+@SpringBootTest
+class UserServiceTest {
+
+  @Autowired private UserService userService;
+
+  @Autowired private UserRepository userRepository;
+
+  /** Usuarios creados por la prueba actual. */
+  private final List<User> created = new ArrayList<>();
+
+  /** Borra los usuarios creados por la prueba. */
+  @AfterEach
+  void deleteCreatedUsers() {
+    userRepository.deleteAll(created);
+    created.clear();
+  }
+
+  /** Prueba el recorrido completo por id ascendente y por nombre descendente. */
+  @Test
+  void testPagesCoverAllUsersInOrder() {
+    for (int i = 0; i < 7; i++) {
+      created.add(userRepository.save(new User("pagina-" + UUID.randomUUID(), "x")));
+    }
+    List<Long> ids = new ArrayList<>();
+    userRepository.findAll().forEach(user -> ids.add(user.getId()));
+    ids.sort(Comparator.naturalOrder());
+
+    List<UserSummary> byId = readAll(null, "id", Direction.ASC, 3);
+    assertEquals(ids, byId.stream().map(UserSummary::getId).toList());
+
+    List<String> names = new ArrayList<>();
+    userRepository.findAll().forEach(user -> names.add(user.getUsername()));
+    names.sort(Comparator.reverseOrder());
+    List<UserSummary> byName = readAll(null, "username", Direction.DESC, 2);
+    assertEquals(names, byName.stream().map(UserSummary::getUsername).toList());
+  }
+
+  /** Prueba que las páginas siguientes conserven el filtro por rol de la primera. */
+  @Test
+  void testCursorKeepsRoleFilter() {
+    for (int i = 0; i < 3; i++) {
+      created.add(userRepository.save(new User("admin-" + UUID.randomUUID(), "x", Role.ADMIN)));
+    }
+    long admins =
+        userRepository.findAll().stream().filter(user -> user.getRole() == Role.ADMIN).count();
+
+    List<UserSummary> pages = readAll(Role.ADMIN, "id", Direction.ASC, 1);
+
+    assertEquals(admins, pages.size());
+    assertTrue(pages.stream().allMatch(user -> user.getRole() == Role.ADMIN));
+  }
+
+  /** Prueba el rechazo de cursores mal formados y órdenes no soportados. */
+  @Test
+  void testInvalidRequestsAreRejected() {
+    for (int i = 0; i < 2; i++) {
+      created.add(userRepository.save(new User("cursor-" + UUID.randomUUID(), "x")));
+    }
+    assertThrows(
+        InvalidPageRequestException.class,
+        () -> userService.getPage(null, "id", Direction.ASC, "no-es-un-cursor", 10));
+    assertThrows(
+        InvalidPageRequestException.class,
+        () -> userService.getPage(null, "password", Direction.ASC, null, 10));
+    String tampered = new UserPageCursor(null, "password", Direction.ASC, 0, null).encode();
+    assertThrows(
+        InvalidPageRequestException.class,
+        () -> userService.getPage(null, "id", Direction.ASC, tampered, 10));
+    UserPageDTO first = userService.getPage(null, "id", Direction.ASC, null, 1);
+    assertNotNull(first.getNextCursor());
+    assertEquals(1, first.getItems().size());
+  }
+
+  /** Prueba que las consultas del servicio no expongan la contraseña. */
+  @Test
+  void testServiceDoesNotExposePassword() {
+    String username = "mapeo-" + UUID.randomUUID();
+    userService.create(new UserDTO(username, "clave", Role.ADMIN));
+    User user = userRepository.findByUsername(username).get();
+    created.add(user);
+
+    UserDTO found = userService.getById(user.getId());
+
+    assertEquals(username, found.getUsername());
+    assertEquals(Role.ADMIN, found.getRole());
+    assertNull(found.getPassword());
+    assertTrue(userService.getAll().stream().allMatch(dto -> dto.getPassword() == null));
+  }
+
+  /**
+   * Recorre todas las páginas de un listado.
+   *
+   * @param role Rol filtrado, o null
+   * @param sort Propiedad de orden
+   * @param direction Dirección del orden
+   * @param size Tamaño de página
+   * @return Usuarios de todas las páginas
+   */
+  private List<UserSummary> readAll(Role role, String sort, Direction direction, int size) {
+    List<UserSummary> all = new ArrayList<>();
+    UserPageDTO page = userService.getPage(role, sort, direction, null, size);
+    while (true) {
+      assertTrue(page.getItems().size() <= size);
+      all.addAll(page.getItems());
+      if (page.getNextCursor() == null) {
+        return all;
+      }
+      page = userService.getPage(null, "id", Direction.ASC, page.getNextCursor(), size);
+    }
+  }
+}
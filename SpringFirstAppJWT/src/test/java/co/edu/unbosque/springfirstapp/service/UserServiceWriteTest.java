@@ -0,0 +1,209 @@
+package co.edu.unbosque.springfirstapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import co.edu.unbosque.springfirstapp.dto.UserDTO;
+import co.edu.unbosque.springfirstapp.model.User;
+import co.edu.unbosque.springfirstapp.model.User.Role;
+import co.edu.unbosque.springfirstapp.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Clase de prueba para la creación y actualización de usuarios basadas en la restricción de
+ * unicidad del nombre de usuario.
+ *
+ * <p>Esta clase verifica, con las estadísticas de Hibernate, que cada escritura use una sola
+ * sentencia, que los duplicados y las versiones desactualizadas se traduzcan en los códigos de
+ * estado del servicio y que entre registros simultáneos del mismo nombre solo uno tenga éxito.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+@SpringBootTest(properties = {SqlStatementRecorder.STATISTICS, SqlStatementRecorder.INSPECTOR})
+class UserServiceWriteTest {
+
+  /** Número de registros simultáneos en la prueba de concurrencia. */
+  private static final int THREADS = 16;
+
+  @Autowired private UserService userService;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private PasswordEncoder passwordEncoder;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  /** Prefijo de los nombres de los usuarios creados por la prueba actual. */
+  private final String prefix = "escritura-" + UUID.randomUUID() + "-";
+
+  /** Borra los usuarios creados por la prueba. */
+  @AfterEach
+  void deleteCreatedUsers() {
+    userRepository.deleteAll(
+        userRepository.findAll().stream()
+            .filter(user -> user.getUsername().startsWith(prefix))
+            .toList());
+  }
+
+  /** Prueba que crear use una sola sentencia y que un nombre repetido devuelva 1. */
+  @Test
+  void testCreateUsesOneStatement() {
+    String username = prefix + UUID.randomUUID();
+    Statistics statistics = statistics();
+
+    statistics.clear();
+    assertEquals(0, userService.create(new UserDTO(username, "clave", Role.ADMIN)));
+    assertEquals(1, statistics.getPrepareStatementCount());
+
+    statistics.clear();
+    assertEquals(1, userService.create(new UserDTO(username, "otra")));
+    assertEquals(1, statistics.getPrepareStatementCount());
+
+    User saved = userRepository.findByUsername(username).get();
+    assertEquals(Role.ADMIN, saved.getRole());
+    assertTrue(passwordEncoder.matches("clave", saved.getPassword()));
+  }
+
+  /** Prueba que actualizar use una sola sentencia y devuelva los códigos 0, 1 y 2. */
+  @Test
+  void testUpdateUsesOneStatement() {
+    User user = userRepository.save(new User(prefix + UUID.randomUUID(), "x", Role.ADMIN));
+    User other = userRepository.save(new User(prefix + UUID.randomUUID(), "x"));
+    String renamed = prefix + UUID.randomUUID();
+    Statistics statistics = statistics();
+
+    statistics.clear();
+    assertEquals(0, userService.updateById(user.getId(), new UserDTO(renamed, "nueva")));
+    assertEquals(1, statistics.getPrepareStatementCount());
+
+    User updated = userRepository.findById(user.getId()).get();
+    assertEquals(renamed, updated.getUsername());
+    assertEquals(Role.ADMIN, updated.getRole());
+    assertEquals(user.getTokenVersion() + 1, updated.getTokenVersion());
+    assertTrue(passwordEncoder.matches("nueva", updated.getPassword()));
+    String stored =
+        jdbcTemplate.queryForObject(
+            "select password from useraccount where id = ?", String.class, user.getId());
+    assertTrue(stored.startsWith("enc:"));
+
+    statistics.clear();
+    assertEquals(
+        1, userService.updateById(user.getId(), new UserDTO(other.getUsername(), "nueva")));
+    assertEquals(1, statistics.getPrepareStatementCount());
+    assertEquals(2, userService.updateById(-1L, new UserDTO(renamed + "-x", "nueva")));
+    assertEquals(
+        0, userService.updateById(user.getId(), new UserDTO(renamed, "nueva", Role.USER)));
+    assertEquals(Role.USER, userRepository.findById(user.getId()).get().getRole());
+  }
+
+  /**
+   * Prueba que la actualización y la eliminación con versión esperada usen una sola sentencia y que
+   * una versión desactualizada se rechace sin modificar al usuario.
+   */
+  @Test
+  void testVersionedUpdateAndDelete() {
+    User user = userRepository.save(new User(prefix + UUID.randomUUID(), "x"));
+    long version = user.getVersion();
+    String renamed = prefix + UUID.randomUUID();
+    Statistics statistics = statistics();
+
+    statistics.clear();
+    assertEquals(0, userService.updateById(user.getId(), new UserDTO(renamed, "nueva"), version));
+    assertEquals(1, statistics.getPrepareStatementCount());
+    assertEquals(version + 1, userService.getById(user.getId()).getVersion());
+
+    // Otra edición basada en la versión anterior no sobrescribe la actual
+    assertEquals(
+        4,
+        userService.updateById(user.getId(), new UserDTO(renamed + "-x", "otra"), version));
+    assertEquals(renamed, userRepository.findById(user.getId()).get().getUsername());
+    assertEquals(2, userService.updateById(-1L, new UserDTO(renamed + "-x", "otra"), version));
+
+    assertEquals(2, userService.deleteById(user.getId(), version));
+    statistics.clear();
+    assertEquals(0, userService.deleteById(user.getId(), version + 1));
+    assertEquals(1, statistics.getPrepareStatementCount());
+    assertEquals(0, statistics.getEntityLoadCount());
+    assertEquals(1, userService.deleteById(user.getId(), version + 1));
+    assertTrue(userRepository.findById(user.getId()).isEmpty());
+  }
+
+  /** Prueba que eliminar por nombre no cargue la entidad. */
+  @Test
+  void testDeleteByUsernameDoesNotLoadEntity() {
+    User user = userRepository.save(new User(prefix + UUID.randomUUID(), "x"));
+    Statistics statistics = statistics();
+
+    statistics.clear();
+    assertEquals(0, userService.deleteByUsername(user.getUsername()));
+    assertEquals(0, statistics.getEntityLoadCount());
+    assertEquals(2, statistics.getPrepareStatementCount());
+    assertEquals(1, userService.deleteByUsername(user.getUsername()));
+    assertTrue(userRepository.findById(user.getId()).isEmpty());
+  }
+
+  /** Prueba que entre registros simultáneos del mismo nombre solo uno se cree. */
+  @Test
+  void testConcurrentRegisterCreatesOneUser() throws Exception {
+    String username = prefix + UUID.randomUUID();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+    try {
+      List<Future<Integer>> results = new ArrayList<>();
+      for (int i = 0; i < THREADS; i++) {
+        results.add(
+            pool.submit(
+                () -> {
+                  start.await();
+                  return userService.create(new UserDTO(username, "clave"));
+                }));
+      }
+      start.countDown();
+      int created = 0;
+      int duplicates = 0;
+      for (Future<Integer> result : results) {
+        if (result.get() == 0) {
+          created++;
+        } else if (result.get() == 1) {
+          duplicates++;
+        }
+      }
+
+      assertEquals(1, created);
+      assertEquals(THREADS - 1, duplicates);
+      assertEquals(
+          1,
+          jdbcTemplate.queryForObject(
+              "select count(*) from useraccount where username = ?", Integer.class, username));
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  /**
+   * Obtiene las estadísticas de Hibernate.
+   *
+   * @return Estadísticas de la fábrica de sesiones
+   */
+  private Statistics statistics() {
+    return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+}
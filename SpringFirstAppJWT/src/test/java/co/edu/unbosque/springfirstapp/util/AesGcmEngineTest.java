@@ -0,0 +1,82 @@
+package co.edu.unbosque.springfirstapp.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import javax.crypto.AEADBadTagException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Clase de prueba para el motor de cifrado AES-GCM.
+ *
+ * <p>Esta clase verifica que los mensajes cifrados con las variantes de arreglo y de búfer se
+ * puedan descifrar con cualquiera de ellas, que cada cifrado use un nonce distinto y que las
+ * alteraciones se detecten.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+class AesGcmEngineTest {
+
+  /** Clave de prueba de 256 bits. */
+  private static final byte[] KEY = "clave-de-prueba-de-32-bytes-1234".getBytes(StandardCharsets.UTF_8);
+
+  /** Prueba el cifrado y descifrado con arreglos, con y sin datos asociados. */
+  @Test
+  void testByteArrayRoundTrip() throws Exception {
+    AesGcmEngine engine = new AesGcmEngine(KEY);
+    byte[] plaintext = "contraseña secreta".getBytes(StandardCharsets.UTF_8);
+
+    byte[] first = engine.encrypt(plaintext);
+    byte[] second = engine.encrypt(plaintext);
+
+    assertEquals(AesGcmEngine.encryptedLength(plaintext.length), first.length);
+    assertFalse(Arrays.equals(first, second), "Cada cifrado debe usar un nonce distinto");
+    assertArrayEquals(plaintext, engine.decrypt(first));
+    byte[] aad = "usuario:7".getBytes(StandardCharsets.UTF_8);
+    assertArrayEquals(plaintext, engine.decrypt(engine.encrypt(plaintext, aad), aad));
+  }
+
+  /** Prueba que los búferes directos produzcan el mismo formato que los arreglos. */
+  @Test
+  void testByteBufferInteroperatesWithByteArray() throws Exception {
+    AesGcmEngine engine = new AesGcmEngine(KEY);
+    byte[] plaintext = new byte[4096];
+    Arrays.fill(plaintext, (byte) 7);
+
+    ByteBuffer encrypted = ByteBuffer.allocateDirect(AesGcmEngine.encryptedLength(4096));
+    int written = engine.encrypt(ByteBuffer.wrap(plaintext), encrypted);
+    encrypted.flip();
+    byte[] message = new byte[written];
+    encrypted.duplicate().get(message);
+    assertArrayEquals(plaintext, engine.decrypt(message));
+
+    ByteBuffer decrypted = ByteBuffer.allocateDirect(4096);
+    engine.decrypt(ByteBuffer.wrap(engine.encrypt(plaintext)), decrypted);
+    decrypted.flip();
+    byte[] result = new byte[decrypted.remaining()];
+    decrypted.get(result);
+    assertArrayEquals(plaintext, result);
+  }
+
+  /** Prueba que un mensaje alterado, datos asociados distintos u otra clave se rechacen. */
+  @Test
+  void testTamperingIsDetected() {
+    AesGcmEngine engine = new AesGcmEngine(KEY);
+    byte[] message = engine.encrypt("dato".getBytes(StandardCharsets.UTF_8), new byte[] {1});
+
+    byte[] tampered = message.clone();
+    tampered[AesGcmEngine.NONCE_LENGTH] ^= 1;
+    assertThrows(AEADBadTagException.class, () -> engine.decrypt(tampered, new byte[] {1}));
+    assertThrows(AEADBadTagException.class, () -> engine.decrypt(message, new byte[] {2}));
+    byte[] otherKey = new byte[32];
+    assertThrows(
+        AEADBadTagException.class, () -> new AesGcmEngine(otherKey).decrypt(message, new byte[] {1}));
+    assertThrows(AEADBadTagException.class, () -> engine.decrypt(new byte[5]));
+  }
+}
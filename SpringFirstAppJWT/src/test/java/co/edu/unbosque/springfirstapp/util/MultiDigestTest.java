@@ -0,0 +1,105 @@
+package co.edu.unbosque.springfirstapp.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Clase de prueba para el cálculo de varios resúmenes en una sola lectura.
+ *
+ * <p>Esta clase verifica que los resúmenes de flujos, búferes y archivos (leídos por búfer directo
+ * o por memoria mapeada) coincidan con los de {@link DigestUtils}, y que el modo paralelo conserve
+ * el orden de los archivos.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+class MultiDigestTest {
+
+  /** Algoritmos de prueba. */
+  private static final String[] ALGORITHMS = {"MD5", "SHA-1", "SHA-256", "SHA-512"};
+
+  /** Prueba flujos y búferes, incluido el contenido vacío. */
+  @Test
+  void testStreamAndBufferMatchDigestUtils() throws Exception {
+    for (int size : new int[] {0, 1, 64 * 1024, 200_000}) {
+      byte[] content = random(size);
+
+      assertExpected(content, MultiDigest.digest(new ByteArrayInputStream(content), ALGORITHMS));
+
+      ByteBuffer direct = ByteBuffer.allocateDirect(size + 10);
+      direct.position(10);
+      direct.put(content).position(10);
+      assertExpected(content, MultiDigest.digest(direct, ALGORITHMS));
+      assertEquals(10, direct.position(), "La posición del búfer no debe cambiar");
+    }
+  }
+
+  /** Prueba archivos leídos por búfer directo y por memoria mapeada, en serie y en paralelo. */
+  @Test
+  void testFilesMatchDigestUtils(@TempDir Path dir) throws Exception {
+    List<Path> files = new ArrayList<>();
+    for (int size : new int[] {0, 1000, (int) MultiDigest.MAP_THRESHOLD + 12_345, 100_000}) {
+      files.add(Files.write(dir.resolve("archivo-" + size), random(size)));
+    }
+
+    for (Path file : files) {
+      assertExpected(Files.readAllBytes(file), MultiDigest.digest(file, ALGORITHMS));
+    }
+    Map<Path, Map<String, byte[]>> all = MultiDigest.digestAll(files, 2, ALGORITHMS);
+    assertEquals(files, new ArrayList<>(all.keySet()));
+    for (Path file : files) {
+      assertExpected(Files.readAllBytes(file), all.get(file));
+    }
+
+    assertEquals(
+        DigestUtils.sha256Hex(Files.readAllBytes(files.get(2))),
+        AESUtil.hashingToHex(files.get(2), "SHA-256").get("SHA-256"));
+  }
+
+  /** Prueba que se rechacen algoritmos desconocidos o una lista vacía. */
+  @Test
+  void testUnknownAlgorithmIsRejected() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> MultiDigest.digest(ByteBuffer.allocate(1), "SHA-256", "NO-EXISTE"));
+    assertThrows(IllegalArgumentException.class, () -> MultiDigest.digest(ByteBuffer.allocate(1)));
+  }
+
+  /**
+   * Compara los resúmenes con los calculados por {@link DigestUtils}.
+   *
+   * @param content Contenido original
+   * @param digests Resúmenes calculados
+   */
+  private static void assertExpected(byte[] content, Map<String, byte[]> digests) {
+    assertEquals(List.of(ALGORITHMS), new ArrayList<>(digests.keySet()));
+    for (String algorithm : ALGORITHMS) {
+      assertArrayEquals(new DigestUtils(algorithm).digest(content), digests.get(algorithm));
+    }
+  }
+
+  /**
+   * Genera bytes pseudoaleatorios reproducibles.
+   *
+   * @param size Cantidad de bytes
+   * @return Bytes generados
+   */
+  private static byte[] random(int size) {
+    byte[] bytes = new byte[size];
+    new Random(size).nextBytes(bytes);
+    return bytes;
+  }
+}
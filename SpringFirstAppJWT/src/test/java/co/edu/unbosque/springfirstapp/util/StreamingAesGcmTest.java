@@ -0,0 +1,159 @@
+package co.edu.unbosque.springfirstapp.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import javax.crypto.AEADBadTagException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Clase de prueba para el cifrado AES-GCM por flujos.
+ *
+ * <p>Esta clase verifica el formato por segmentos con tamaños en los bordes de un segmento, la
+ * equivalencia entre los canales, el flujo de salida y la lectura mapeada de archivos, y que se
+ * detecten el truncamiento, el reordenamiento y la alteración de segmentos.
+ *
+ * @author Universidad El Bosque
+ * @version 0.1
+ */
+class StreamingAesGcmTest {
+
+  /** Clave de prueba de 256 bits. */
+  private static final byte[] KEY = "clave-de-prueba-de-32-bytes-1234".getBytes(StandardCharsets.UTF_8);
+
+  /** Tamaño de segmento pequeño para ejercitar varios segmentos. */
+  private static final int SEGMENT = 64;
+
+  /** Cifrador de prueba. */
+  private final StreamingAesGcm aes = new StreamingAesGcm(KEY, SEGMENT);
+
+  /**
+   * Prueba el cifrado y descifrado de contenidos vacíos, menores, iguales y mayores que un
+   * segmento, por canales, flujos y archivos mapeados.
+   */
+  @Test
+  void testRoundTripAcrossSegmentBoundaries(@TempDir Path dir) throws Exception {
+    for (int size : new int[] {0, 1, SEGMENT - 1, SEGMENT, SEGMENT + 1, 3 * SEGMENT, 1000}) {
+      byte[] plaintext = random(size);
+
+      byte[] encrypted = encrypt(plaintext);
+      assertEquals(aes.encryptedLength(size), encrypted.length);
+      assertArrayEquals(plaintext, decrypt(encrypted), "Tamaño " + size);
+
+      ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+      try (OutputStream out = aes.encryptingStream(streamed)) {
+        // Escrituras de tamaños irregulares
+        for (int offset = 0; offset < size; offset += 7) {
+          out.write(plaintext, offset, Math.min(7, size - offset));
+        }
+      }
+      assertArrayEquals(plaintext, decrypt(streamed.toByteArray()), "Flujo de " + size);
+
+      Path file = Files.write(dir.resolve("plano-" + size), plaintext);
+      ByteArrayOutputStream mapped = new ByteArrayOutputStream();
+      long written = aes.encryptFile(file, Channels.newChannel(mapped));
+      assertEquals(aes.encryptedLength(size), written);
+      assertArrayEquals(plaintext, decrypt(mapped.toByteArray()), "Archivo de " + size);
+    }
+  }
+
+  /** Prueba que se rechace un contenido sin su último segmento o con segmentos reordenados. */
+  @Test
+  void testTruncationAndReorderingAreDetected() throws Exception {
+    byte[] encrypted = encrypt(random(3 * SEGMENT + 10));
+    int header = StreamingAesGcm.HEADER_LENGTH;
+    int cipherSegment = SEGMENT + 16;
+
+    // Cortado justo en el borde de un segmento: el último segmento presente no lleva la marca
+    assertBadTag(Arrays.copyOf(encrypted, header + 3 * cipherSegment));
+    assertBadTag(Arrays.copyOf(encrypted, header + cipherSegment));
+    assertBadTag(Arrays.copyOf(encrypted, header - 1));
+
+    byte[] swapped = encrypted.clone();
+    System.arraycopy(encrypted, header, swapped, header + cipherSegment, cipherSegment);
+    System.arraycopy(encrypted, header + cipherSegment, swapped, header, cipherSegment);
+    assertBadTag(swapped);
+  }
+
+  /** Prueba que se rechace un segmento o un encabezado alterado y una clave distinta. */
+  @Test
+  void testTamperingIsDetected() throws Exception {
+    byte[] encrypted = encrypt(random(2 * SEGMENT));
+
+    byte[] body = encrypted.clone();
+    body[StreamingAesGcm.HEADER_LENGTH + SEGMENT + 20] ^= 1;
+    assertBadTag(body);
+
+    byte[] header = encrypted.clone();
+    header[10] ^= 1;
+    assertBadTag(header);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    IOException e =
+        assertThrows(
+            IOException.class,
+            () ->
+                new StreamingAesGcm(new byte[32], SEGMENT)
+                    .decrypt(new ByteArrayInputStream(encrypted), out));
+    assertInstanceOf(AEADBadTagException.class, e.getCause());
+  }
+
+  /**
+   * Cifra un contenido por flujos.
+   *
+   * @param plaintext Texto plano
+   * @return Contenido cifrado
+   */
+  private byte[] encrypt(byte[] plaintext) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    aes.encrypt(new ByteArrayInputStream(plaintext), out);
+    return out.toByteArray();
+  }
+
+  /**
+   * Descifra un contenido por flujos.
+   *
+   * @param encrypted Contenido cifrado
+   * @return Texto plano
+   */
+  private byte[] decrypt(byte[] encrypted) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    aes.decrypt(new ByteArrayInputStream(encrypted), out);
+    return out.toByteArray();
+  }
+
+  /**
+   * Verifica que el descifrado falle por autenticación.
+   *
+   * @param encrypted Contenido cifrado alterado
+   */
+  private void assertBadTag(byte[] encrypted) {
+    IOException e = assertThrows(IOException.class, () -> decrypt(encrypted));
+    assertInstanceOf(AEADBadTagException.class, e.getCause());
+  }
+
+  /**
+   * Genera bytes pseudoaleatorios reproducibles.
+   *
+   * @param size Cantidad de bytes
+   * @return Bytes generados
+   */
+  private static byte[] random(int size) {
+    byte[] bytes = new byte[size];
+    new Random(size).nextBytes(bytes);
+    return bytes;
+  }
+}